@@ -0,0 +1,54 @@
+package org.omegabyte.gaboom.benchmarks;
+
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BenchmarkData builds the deterministic populations shared by the
+ * benchmarks.
+ */
+public class BenchmarkData {
+
+    /**
+     * SphereFitnessFn is the sum of the squared genes.
+     */
+    public static class SphereFitnessFn extends Evaluate.FitnessFn<DoubleVectorGenome> {
+        @Override
+        public double fitness(DoubleVectorGenome genome) {
+            double sum = 0;
+            for (int i = 0; i < genome.size(); i++) {
+                sum += genome.get(i) * genome.get(i);
+            }
+            return sum;
+        }
+    }
+
+    public static List<Individual<DoubleVectorGenome>> individuals(Random random, int popSize, int genomeSize, boolean sorted) {
+        SphereFitnessFn fitnessFn = new SphereFitnessFn();
+        List<Individual<DoubleVectorGenome>> individuals = new ArrayList<>(popSize);
+        for (int i = 0; i < popSize; i++) {
+            double[] genes = new double[genomeSize];
+            for (int j = 0; j < genomeSize; j++) {
+                genes[j] = random.nextDouble() * 2 - 1;
+            }
+            Individual<DoubleVectorGenome> individual = new Individual<>(random, DoubleVectorGenome.wrap(genes));
+            individual.setFitness(fitnessFn.fitness(individual.getGenome()));
+            individuals.add(individual);
+        }
+        if (sorted) {
+            individuals.sort(SortIndividualsFn::compare);
+        }
+        return individuals;
+    }
+
+    public static Population<DoubleVectorGenome> population(Random random, String id, int popSize, int genomeSize) {
+        return new Population<>(id, 0, 0, random.nextLong(), individuals(random, popSize, genomeSize, true));
+    }
+}
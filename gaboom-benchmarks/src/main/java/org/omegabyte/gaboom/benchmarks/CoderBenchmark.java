@@ -0,0 +1,75 @@
+package org.omegabyte.gaboom.benchmarks;
+
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.DoubleVectorGenomeCoder;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+import org.omegabyte.gaboom.coders.IndividualsCoder;
+import org.omegabyte.gaboom.coders.PopulationCoder;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CoderBenchmark measures encode/decode round trips of the gaboom coders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoderBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int popSize;
+
+    @Param({"8", "128"})
+    public int genomeSize;
+
+    private final IndividualCoder<DoubleVectorGenome> individualCoder = IndividualCoder.of(DoubleVectorGenomeCoder.of());
+    private final IndividualsCoder<DoubleVectorGenome> individualsCoder = IndividualsCoder.of(DoubleVectorGenomeCoder.of());
+    private final PopulationCoder<DoubleVectorGenome> populationCoder = PopulationCoder.of(DoubleVectorGenomeCoder.of());
+
+    private Individual<DoubleVectorGenome> individual;
+    private Individuals<DoubleVectorGenome> individuals;
+    private Population<DoubleVectorGenome> population;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        population = BenchmarkData.population(random, "benchmark", popSize, genomeSize);
+        individuals = new Individuals<>(random.nextLong(), population.getIndividuals());
+        individual = population.getIndividuals().get(0);
+    }
+
+    @Benchmark
+    public Individual<DoubleVectorGenome> individualRoundTrip() throws CoderException {
+        return CoderUtils.clone(individualCoder, individual);
+    }
+
+    @Benchmark
+    public Individuals<DoubleVectorGenome> individualsRoundTrip() throws CoderException {
+        return CoderUtils.clone(individualsCoder, individuals);
+    }
+
+    @Benchmark
+    public Population<DoubleVectorGenome> populationRoundTrip() throws CoderException {
+        return CoderUtils.clone(populationCoder, population);
+    }
+}
@@ -0,0 +1,147 @@
+package org.omegabyte.gaboom.benchmarks;
+
+import org.apache.beam.sdk.transforms.Combine;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+import org.omegabyte.gaboom.transforms.halloffame.HallOfFameFn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CombineBenchmark measures the SortIndividualsFn and HallOfFameFn combiners
+ * the way a runner drives them: inputs spread over several accumulators which
+ * are then merged and extracted.  sortIndividuals is compared with
+ * insertionSortIndividuals, the insertion sort combiner SortIndividualsFn
+ * replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombineBenchmark {
+    private static final int NUM_ACCUMULATORS = 8;
+    private static final int NUM_BEST = 10;
+
+    @Param({"100", "1000", "10000"})
+    public int popSize;
+
+    @Param({"8", "128"})
+    public int genomeSize;
+
+    private List<Individual<DoubleVectorGenome>> individuals;
+    private List<List<Individual<DoubleVectorGenome>>> sortedLists;
+
+    /**
+     * InsertionSortIndividualsFn is the previous sort combiner, which inserts
+     * each individual into its sorted accumulator.
+     * @param <GenomeT>
+     */
+    static class InsertionSortIndividualsFn<GenomeT extends Serializable> extends Combine.CombineFn<Individual<GenomeT>, List<Individual<GenomeT>>, List<Individual<GenomeT>>> {
+        private final Comparator<Individual<GenomeT>> comparator = Comparator.comparingDouble(Individual<GenomeT>::getFitness).thenComparing(Individual::getId);
+
+        @Override
+        public List<Individual<GenomeT>> createAccumulator() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<Individual<GenomeT>> addInput(List<Individual<GenomeT>> accumulator, Individual<GenomeT> input) {
+            for (int i = 0; i < accumulator.size(); i++) {
+                if (comparator.compare(input, accumulator.get(i)) < 0) {
+                    accumulator.add(i, input);
+                    return accumulator;
+                }
+            }
+            accumulator.add(input);
+            return accumulator;
+        }
+
+        @Override
+        public List<Individual<GenomeT>> mergeAccumulators(Iterable<List<Individual<GenomeT>>> iterable) {
+            List<Individual<GenomeT>> result = new ArrayList<>();
+            for (List<Individual<GenomeT>> input : iterable) {
+                List<Individual<GenomeT>> merged = new ArrayList<>();
+                int resultIndex = 0;
+                int inputIndex = 0;
+                while (resultIndex < result.size() && inputIndex < input.size()) {
+                    if (comparator.compare(result.get(resultIndex), input.get(inputIndex)) < 0) {
+                        merged.add(result.get(resultIndex++));
+                    } else {
+                        merged.add(input.get(inputIndex++));
+                    }
+                }
+                merged.addAll(result.subList(resultIndex, result.size()));
+                merged.addAll(input.subList(inputIndex, input.size()));
+                result = merged;
+            }
+            return result;
+        }
+
+        @Override
+        public List<Individual<GenomeT>> extractOutput(List<Individual<GenomeT>> individuals) {
+            return individuals;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        individuals = BenchmarkData.individuals(random, popSize, genomeSize, false);
+        sortedLists = new ArrayList<>();
+        for (int i = 0; i < NUM_ACCUMULATORS; i++) {
+            sortedLists.add(BenchmarkData.individuals(random, popSize / NUM_ACCUMULATORS + 1, genomeSize, true));
+        }
+    }
+
+    private List<Individual<DoubleVectorGenome>> sort(Combine.CombineFn<Individual<DoubleVectorGenome>, List<Individual<DoubleVectorGenome>>, List<Individual<DoubleVectorGenome>>> fn) {
+        List<List<Individual<DoubleVectorGenome>>> accumulators = new ArrayList<>();
+        for (int i = 0; i < NUM_ACCUMULATORS; i++) {
+            accumulators.add(fn.createAccumulator());
+        }
+        for (int i = 0; i < individuals.size(); i++) {
+            int k = i % NUM_ACCUMULATORS;
+            accumulators.set(k, fn.addInput(accumulators.get(k), individuals.get(i)));
+        }
+        return fn.extractOutput(fn.mergeAccumulators(accumulators));
+    }
+
+    @Benchmark
+    public List<Individual<DoubleVectorGenome>> sortIndividuals() {
+        return sort(new SortIndividualsFn<>());
+    }
+
+    @Benchmark
+    public List<Individual<DoubleVectorGenome>> insertionSortIndividuals() {
+        return sort(new InsertionSortIndividualsFn<>());
+    }
+
+    @Benchmark
+    public List<Individual<DoubleVectorGenome>> hallOfFame() {
+        HallOfFameFn<DoubleVectorGenome> fn = new HallOfFameFn<>(NUM_BEST);
+        List<List<Individual<DoubleVectorGenome>>> accumulators = new ArrayList<>();
+        for (List<Individual<DoubleVectorGenome>> sorted : sortedLists) {
+            accumulators.add(fn.addInput(fn.createAccumulator(), sorted));
+        }
+        return fn.extractOutput(fn.mergeAccumulators(accumulators));
+    }
+}
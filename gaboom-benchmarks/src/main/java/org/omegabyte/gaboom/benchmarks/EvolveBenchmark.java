@@ -0,0 +1,102 @@
+package org.omegabyte.gaboom.benchmarks;
+
+import org.apache.beam.runners.direct.DirectRunner;
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.options.PipelineOptions;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.DoubleVectorGenomeCoder;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+import org.omegabyte.gaboom.coders.PopulationCoder;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.crossover.CrossoverUniformFn;
+import org.omegabyte.gaboom.transforms.ga.Evolve;
+import org.omegabyte.gaboom.transforms.model.ModelGenerational;
+import org.omegabyte.gaboom.transforms.mutate.MutateGaussianFn;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EvolveBenchmark builds and runs a pipeline evolving numPops populations for
+ * one generation on the DirectRunner, including graph construction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EvolveBenchmark {
+    private static final int NUM_POPS = 4;
+    private static final int NUM_BEST = 10;
+
+    @Param({"100", "1000"})
+    public int popSize;
+
+    @Param({"8", "128"})
+    public int genomeSize;
+
+    @Param({"fanout", "inkey"})
+    public String evaluate;
+
+    private final TupleTag<Population<DoubleVectorGenome>> populationTT = new TupleTag<>();
+    private final TupleTag<List<Individual<DoubleVectorGenome>>> hallOfFameTT = new TupleTag<>();
+
+    private List<Population<DoubleVectorGenome>> populations;
+    private PipelineOptions options;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        populations = new ArrayList<>();
+        for (int i = 0; i < NUM_POPS; i++) {
+            populations.add(BenchmarkData.population(random, "pop" + i, popSize, genomeSize));
+        }
+        options = PipelineOptionsFactory.create();
+        options.setRunner(DirectRunner.class);
+    }
+
+    @Benchmark
+    public void evolveOneGeneration() {
+        Evaluate.EvaluateTransform<DoubleVectorGenome> evaluateTransform = Evaluate.as(new BenchmarkData.SphereFitnessFn());
+        if ("fanout".equals(evaluate)) {
+            evaluateTransform = evaluateTransform.withFanOut();
+        }
+        Evolve<DoubleVectorGenome> evolve = new Evolve<>(new ModelGenerational<>(
+                new SelectTournamentFn<>(3),
+                Crossover.as(new CrossoverUniformFn<DoubleVectorGenome>()).withCrossRate(0.7),
+                Mutate.as(new MutateGaussianFn(0.1)).withMutRate(0.2)),
+                evaluateTransform, populationTT, hallOfFameTT, NUM_BEST);
+
+        Pipeline pipeline = Pipeline.create(options);
+        PCollectionTuple input = PCollectionTuple
+                .of(populationTT, pipeline.apply("Populations", Create.of(populations).withCoder(PopulationCoder.of(DoubleVectorGenomeCoder.of()))))
+                .and(hallOfFameTT, pipeline.apply("HallOfFame", Create.empty(ListCoder.of(IndividualCoder.of(DoubleVectorGenomeCoder.of())))));
+        input.apply(evolve);
+        pipeline.run().waitUntilFinish();
+    }
+}
@@ -0,0 +1,88 @@
+package org.omegabyte.gaboom.benchmarks;
+
+import org.apache.beam.sdk.values.KV;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.transforms.Select;
+import org.omegabyte.gaboom.transforms.select.SelectEliteFn;
+import org.omegabyte.gaboom.transforms.select.SelectRouletteFn;
+import org.omegabyte.gaboom.transforms.select.SelectStochasticUniversalFn;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+import org.omegabyte.gaboom.utils.LocalFn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SelectBenchmark measures one call of each SelectFn, selecting half of a
+ * sorted population.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int popSize;
+
+    @Param({"8", "128"})
+    public int genomeSize;
+
+    @Param({"tournament", "roulette", "sus", "elite"})
+    public String select;
+
+    private LocalFn<KV<String, SelectIndividuals<DoubleVectorGenome>>, KV<String, Individuals<DoubleVectorGenome>>> selectFn;
+    private List<Individual<DoubleVectorGenome>> individuals;
+    private long seed;
+
+    private static Select.SelectFn<DoubleVectorGenome> selectFn(String select) {
+        switch (select) {
+            case "tournament":
+                return new SelectTournamentFn<>(3);
+            case "roulette":
+                return new SelectRouletteFn<>();
+            case "sus":
+                return new SelectStochasticUniversalFn<>();
+            case "elite":
+                return new SelectEliteFn<>();
+            default:
+                throw new IllegalArgumentException("Unknown select fn " + select);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        individuals = BenchmarkData.individuals(new Random(0), popSize, genomeSize, true);
+        selectFn = new LocalFn<>(selectFn(select));
+        selectFn.setup();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        selectFn.teardown();
+    }
+
+    @Benchmark
+    public List<KV<String, Individuals<DoubleVectorGenome>>> selectHalf() {
+        SelectIndividuals<DoubleVectorGenome> selectIndividuals = new SelectIndividuals<>(seed++, individuals, popSize / 2);
+        return selectFn.process(KV.of("benchmark", selectIndividuals), null, null);
+    }
+}
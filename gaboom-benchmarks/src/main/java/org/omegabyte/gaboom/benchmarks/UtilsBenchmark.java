@@ -0,0 +1,76 @@
+package org.omegabyte.gaboom.benchmarks;
+
+import org.omegabyte.gaboom.BaseItem;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.utils.IdGenerator;
+import org.omegabyte.gaboom.utils.LcgRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UtilsBenchmark measures the id and random generators used for every
+ * individual and every element.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+    private static final int DRAWS = 8;
+
+    private final Random random = new Random(0);
+    private final BaseItem baseItem = new BaseItem(0);
+
+    @Benchmark
+    public String newId() {
+        return IdGenerator.newId(random, Individual.ID_LENGTH);
+    }
+
+    @Benchmark
+    public long nextId() {
+        return IdGenerator.nextId(random);
+    }
+
+    @Benchmark
+    public long idOf() {
+        return IdGenerator.idOf(random.nextLong(), 42L);
+    }
+
+    @Benchmark
+    public long getRandomGenerator() {
+        baseItem.setSeed(baseItem.getSeed() + 1);
+        return baseItem.getRandomGenerator().nextLong();
+    }
+
+    @Benchmark
+    public int newRandom() {
+        Random generator = new Random(random.nextLong());
+        int sum = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sum += generator.nextInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int newLcgRandom() {
+        Random generator = new LcgRandom(random.nextLong());
+        int sum = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sum += generator.nextInt();
+        }
+        return sum;
+    }
+}
@@ -1,5 +1,8 @@
 package org.omegabyte.gaboom;
 
+import org.omegabyte.gaboom.utils.LcgRandom;
+import org.omegabyte.gaboom.utils.SplitMixRandom;
+
 import java.io.Serializable;
 import java.util.Random;
 
@@ -18,9 +21,23 @@ public class BaseItem implements Serializable {
         this.seed = seed;
     }
 
+    /**
+     * Returns a new generator seeded with the seed of the item, drawing the
+     * same values as a java.util.Random with that seed.
+     * @return
+     */
     public Random getRandomGenerator() {
-        Random r = new Random();
-        r.setSeed(seed);
-        return r;
+        return new LcgRandom(seed);
+    }
+
+    /**
+     * Returns a new SplitMix generator for the stream identified by the keys,
+     * for example a generation, a population and an index, derived from the
+     * seed of the item without drawing from its own stream.
+     * @param keys
+     * @return
+     */
+    public Random getRandomGenerator(long... keys) {
+        return SplitMixRandom.of(seed, keys);
     }
 }
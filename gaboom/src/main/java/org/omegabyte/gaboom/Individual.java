@@ -2,31 +2,142 @@ package org.omegabyte.gaboom;
 
 import org.omegabyte.gaboom.utils.IdGenerator;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Random;
+import java.util.function.Supplier;
 
+/**
+ * Individual holds a genome, its fitness once evaluated, and a 64 bit id
+ * unique within a run.  Generated ids are compact and only rendered as a
+ * string by getId, any other string id is kept as is.  A mutant has its own
+ * compact id and refers to the id of the individual it was derived from.
+ * The genome of a decoded individual may be lazy, only computed when it is
+ * first read.
+ * @param <GenomeT>
+ */
 public class Individual<GenomeT extends Serializable> implements Serializable {
-    public static final int ID_LENGTH = 6;
+    public static final int ID_LENGTH = IdGenerator.ID_LENGTH;
 
-    private final String id;
-    private final GenomeT genome;
+    private final long id;
+    private final String name;
+    private final long parentId;
+    private GenomeT genome;
+    // computes the genome when it is first read, then dropped
+    private transient volatile Supplier<GenomeT> lazyGenome = null;
     private Double fitness = null;
 
     public Individual(String id, GenomeT genome) {
+        this.id = IdGenerator.parse(id);
+        this.name = IdGenerator.isCompact(this.id) ? null : id;
+        this.parentId = this.id;
+        this.genome = genome;
+    }
+
+    public Individual(long id, GenomeT genome) {
+        this(id, id, genome);
+    }
+
+    /**
+     * Creates an individual with a compact id, derived from the individual
+     * with the parent id, or not derived from another one if they are equal.
+     * @param id
+     * @param parentId
+     * @param genome
+     */
+    public Individual(long id, long parentId, GenomeT genome) {
+        if (!IdGenerator.isCompact(id)) {
+            throw new IllegalArgumentException("Not a compact id: " + id);
+        }
         this.id = id;
+        this.name = null;
+        this.parentId = parentId;
         this.genome = genome;
     }
 
     public Individual(Random random, GenomeT genome) {
-        this.id = IdGenerator.newId(random, ID_LENGTH);
+        this(IdGenerator.nextId(random), genome);
+    }
+
+    private Individual(long id, String name, long parentId, GenomeT genome) {
+        this.id = id;
+        this.name = name;
+        this.parentId = parentId;
         this.genome = genome;
     }
 
+    private Individual(Individual<GenomeT> individual) {
+        this.id = individual.id;
+        this.name = individual.name;
+        this.parentId = individual.parentId;
+        // the supplier is read first, the genome is set once it is dropped
+        this.lazyGenome = individual.lazyGenome;
+        this.genome = individual.genome;
+    }
+
+    /**
+     * Returns a mutant of the individual, whose compact id is hashed from a
+     * random salt and the id of the individual, and which refers to the
+     * individual.  The mutant keeps the genome until it is replaced
+     * withGenome.
+     * @param random
+     * @return
+     */
+    public Individual<GenomeT> mutant(Random random) {
+        return new Individual<>(IdGenerator.idOf(random.nextLong(), id), null, id, getGenome());
+    }
+
+    /**
+     * Compares the ids of two individuals in the order of their strings.
+     * @param i1
+     * @param i2
+     * @param <GenomeT>
+     * @return
+     */
+    public static <GenomeT extends Serializable> int compareIds(Individual<GenomeT> i1, Individual<GenomeT> i2) {
+        if (i1.name == null && i2.name == null) {
+            return Long.compare(i1.id, i2.id);
+        }
+        return i1.getId().compareTo(i2.getId());
+    }
+
     public String getId() {
+        return name != null ? name : IdGenerator.toString(id);
+    }
+
+    /**
+     * Returns the 64 bit id, used as the key of the id keyed shuffles.
+     * @return
+     */
+    public long getNumericId() {
         return id;
     }
 
+    /**
+     * Returns true if the individual was derived from another one by a
+     * mutation.
+     * @return
+     */
+    public boolean isMutant() {
+        return parentId != id;
+    }
+
+    /**
+     * Returns the id of the individual a mutant was derived from, or the id
+     * of the individual itself.
+     * @return
+     */
+    public long getLineageId() {
+        return parentId;
+    }
+
     public GenomeT getGenome() {
+        Supplier<GenomeT> supplier = lazyGenome;
+        if (supplier != null) {
+            genome = supplier.get();
+            lazyGenome = null;
+        }
         return genome;
     }
 
@@ -37,4 +148,42 @@ public class Individual<GenomeT extends Serializable> implements Serializable {
     public void setFitness(Double fitness) {
         this.fitness = fitness;
     }
+
+    /**
+     * Returns an unevaluated individual with the same id and the given genome.
+     * @param genome
+     * @return
+     */
+    public Individual<GenomeT> withGenome(GenomeT genome) {
+        return new Individual<>(id, name, parentId, genome);
+    }
+
+    /**
+     * Returns a copy of the individual with the given fitness.
+     * @param fitness
+     * @return
+     */
+    public Individual<GenomeT> withFitness(Double fitness) {
+        Individual<GenomeT> individual = new Individual<>(this);
+        individual.setFitness(fitness);
+        return individual;
+    }
+
+    /**
+     * Returns a copy of the individual whose genome is computed by the
+     * supplier when it is first read.
+     * @param genome
+     * @return
+     */
+    public Individual<GenomeT> withLazyGenome(Supplier<GenomeT> genome) {
+        Individual<GenomeT> individual = new Individual<>(id, name, parentId, null);
+        individual.lazyGenome = genome;
+        individual.setFitness(fitness);
+        return individual;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getGenome();
+        out.defaultWriteObject();
+    }
 }
@@ -1,8 +1,12 @@
 package org.omegabyte.gaboom;
 
+import org.omegabyte.gaboom.utils.PatchedList;
+
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Individuals<GenomeT extends Serializable> extends BaseItem  implements Serializable {
     protected List<Individual<GenomeT>> individuals;
@@ -20,4 +24,25 @@ public class Individuals<GenomeT extends Serializable> extends BaseItem  impleme
     public List<Individual<GenomeT>> getIndividuals() {
         return individuals;
     }
+
+    /**
+     * Returns the individuals with the individual at each index replaced, in
+     * the order of the indices, along with the given seed.  The list of
+     * individuals is shared with this one rather than copied, see
+     * PatchedList.
+     * @param seed
+     * @param indices
+     * @param replacements
+     * @return
+     */
+    public Individuals<GenomeT> withReplaced(long seed, List<Integer> indices, List<Individual<GenomeT>> replacements) {
+        if (indices.size() != replacements.size()) {
+            throw new IllegalArgumentException(String.format("Cannot replace %d indices with %d individuals", indices.size(), replacements.size()));
+        }
+        Map<Integer, Individual<GenomeT>> patches = new HashMap<>();
+        for (int i = 0; i < indices.size(); i++) {
+            patches.put(indices.get(i), replacements.get(i));
+        }
+        return new Individuals<>(seed, PatchedList.of(individuals, patches));
+    }
 }
\ No newline at end of file
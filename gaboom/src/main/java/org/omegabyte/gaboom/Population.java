@@ -1,19 +1,25 @@
 package org.omegabyte.gaboom;
 
-import org.apache.beam.sdk.util.SerializableUtils;
-
 import java.io.Serializable;
 import java.util.Date;
 import java.util.List;
 
 public class Population<GenomeT extends Serializable> extends Individuals<GenomeT> implements Serializable {
     private final String id;
-    private final long created = new Date().getTime();
+    private final long created;
     private int generations = -1;
 
     public Population(String id) {
         super(0);
         this.id = id;
+        this.created = new Date().getTime();
+    }
+
+    public Population(String id, long created, int generations, long seed, List<Individual<GenomeT>> individuals) {
+        super(seed, individuals);
+        this.id = id;
+        this.created = created;
+        this.generations = generations;
     }
 
     public String getId() {
@@ -24,6 +30,10 @@ public class Population<GenomeT extends Serializable> extends Individuals<Genome
         return individuals;
     }
 
+    public long getCreated() {
+        return created;
+    }
+
     public long getAge() {
         return new Date().getTime() - created;
     }
@@ -32,17 +42,18 @@ public class Population<GenomeT extends Serializable> extends Individuals<Genome
         return generations;
     }
 
-    public void update(Individuals<GenomeT> individuals) {
-        setSeed(individuals.getSeed());
-        this.individuals = individuals.getIndividuals();
-        this.generations++;
+    /**
+     * Returns the next generation of the population, made of the given
+     * individuals.  The population itself is left untouched and the
+     * individuals are shared rather than copied.
+     * @param individuals
+     * @return
+     */
+    public Population<GenomeT> next(Individuals<GenomeT> individuals) {
+        return new Population<>(id, created, generations + 1, individuals.getSeed(), individuals.getIndividuals());
     }
 
     public boolean isNew() {
         return generations < 0;
     }
-
-    public Population<GenomeT> clone() {
-        return SerializableUtils.clone(this);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.AtomicCoder;
+import org.apache.beam.sdk.coders.BigEndianLongCoder;
+import org.omegabyte.gaboom.BaseItem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * BaseItemCoder encodes a BaseItem as its fixed width seed.
+ */
+public class BaseItemCoder extends AtomicCoder<BaseItem> {
+    private static final BaseItemCoder INSTANCE = new BaseItemCoder();
+    private static final BigEndianLongCoder seedCoder = BigEndianLongCoder.of();
+
+    public static BaseItemCoder of() {
+        return INSTANCE;
+    }
+
+    private BaseItemCoder() {}
+
+    @Override
+    public void encode(BaseItem value, OutputStream outStream) throws IOException {
+        seedCoder.encode(value.getSeed(), outStream);
+    }
+
+    @Override
+    public BaseItem decode(InputStream inStream) throws IOException {
+        return new BaseItem(seedCoder.decode(inStream));
+    }
+}
@@ -0,0 +1,55 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.AtomicCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * BitStringGenomeCoder encodes the number of bits followed by the packed
+ * words.
+ */
+public class BitStringGenomeCoder extends AtomicCoder<BitStringGenome> {
+    private static final BitStringGenomeCoder INSTANCE = new BitStringGenomeCoder();
+    private static final VarIntCoder lengthCoder = VarIntCoder.of();
+
+    public static BitStringGenomeCoder of() {
+        return INSTANCE;
+    }
+
+    private BitStringGenomeCoder() {}
+
+    @Override
+    public void encode(BitStringGenome value, OutputStream outStream) throws IOException {
+        lengthCoder.encode(value.size(), outStream);
+        DataOutputStream dataOutStream = new DataOutputStream(outStream);
+        for (int i = 0; i < value.getWordCount(); i++) {
+            dataOutStream.writeLong(value.getWord(i));
+        }
+        dataOutStream.flush();
+    }
+
+    @Override
+    public BitStringGenome decode(InputStream inStream) throws IOException {
+        int length = lengthCoder.decode(inStream);
+        DataInputStream dataInStream = new DataInputStream(inStream);
+        long[] words = new long[BitStringGenome.wordsFor(length)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = dataInStream.readLong();
+        }
+        return BitStringGenome.wrap(words, length);
+    }
+
+    @Override
+    public void verifyDeterministic() {}
+
+    @Override
+    public boolean consistentWithEquals() {
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.BigEndianLongCoder;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.StructuredCoder;
+import org.omegabyte.gaboom.CrossoverIndividuals;
+import org.omegabyte.gaboom.Individual;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CrossoverIndividualsCoder encodes the seed and both parents of a crossover.
+ * When the genome coder is a DeltaGenomeCoder, the parents are encoded as a
+ * list by IndividualListCoder, so that the second parent may travel as a
+ * delta from the first one.
+ * @param <GenomeT>
+ */
+public class CrossoverIndividualsCoder<GenomeT extends Serializable> extends StructuredCoder<CrossoverIndividuals<GenomeT>> {
+    private static final BigEndianLongCoder seedCoder = BigEndianLongCoder.of();
+
+    private final Coder<GenomeT> genomeCoder;
+    private final IndividualCoder<GenomeT> individualCoder;
+    private final IndividualListCoder<GenomeT> parentsCoder;
+
+    public static <GenomeT extends Serializable> CrossoverIndividualsCoder<GenomeT> of(Coder<GenomeT> genomeCoder) {
+        return new CrossoverIndividualsCoder<>(genomeCoder);
+    }
+
+    private CrossoverIndividualsCoder(Coder<GenomeT> genomeCoder) {
+        this.genomeCoder = genomeCoder;
+        this.individualCoder = IndividualCoder.of(genomeCoder);
+        this.parentsCoder = IndividualListCoder.of(genomeCoder);
+    }
+
+    public Coder<GenomeT> getGenomeCoder() {
+        return genomeCoder;
+    }
+
+    @Override
+    public void encode(CrossoverIndividuals<GenomeT> value, OutputStream outStream) throws IOException {
+        seedCoder.encode(value.getSeed(), outStream);
+        if (genomeCoder instanceof DeltaGenomeCoder) {
+            parentsCoder.encode(Arrays.asList(value.getP1(), value.getP2()), outStream);
+            return;
+        }
+        individualCoder.encode(value.getP1(), outStream);
+        individualCoder.encode(value.getP2(), outStream);
+    }
+
+    @Override
+    public CrossoverIndividuals<GenomeT> decode(InputStream inStream) throws IOException {
+        long seed = seedCoder.decode(inStream);
+        if (genomeCoder instanceof DeltaGenomeCoder) {
+            List<Individual<GenomeT>> parents = parentsCoder.decode(inStream);
+            if (parents.size() != 2) {
+                throw new IOException(String.format("Crossover of %d parents", parents.size()));
+            }
+            return new CrossoverIndividuals<>(seed, parents.get(0), parents.get(1));
+        }
+        Individual<GenomeT> p1 = individualCoder.decode(inStream);
+        return new CrossoverIndividuals<>(seed, p1, individualCoder.decode(inStream));
+    }
+
+    @Override
+    public List<? extends Coder<?>> getCoderArguments() {
+        return Collections.singletonList(genomeCoder);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        verifyDeterministic(this, "Parents must be encoded deterministically", individualCoder);
+    }
+}
@@ -0,0 +1,294 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * DeltaGenomeCoder encodes a genome like its genome coder, and can also
+ * encode it as the genes that differ from a base genome.  It is opt-in: when
+ * the genome coder of the individuals is a DeltaGenomeCoder, the lists of
+ * individuals are encoded with IndividualListCoder, where a genome close to a
+ * previous genome of the list travels as a reference to it plus its delta.
+ *
+ * A delta is the number of changed genes followed by each change: the gap
+ * from the previous changed position and the new gene.
+ * @param <GenomeT>
+ */
+public abstract class DeltaGenomeCoder<GenomeT extends Serializable> extends CustomCoder<GenomeT> {
+    protected static final VarIntCoder intCoder = VarIntCoder.of();
+
+    private final Coder<GenomeT> genomeCoder;
+
+    protected DeltaGenomeCoder(Coder<GenomeT> genomeCoder) {
+        this.genomeCoder = genomeCoder;
+    }
+
+    public static DeltaGenomeCoder<BitStringGenome> bitString() {
+        return BitStringDeltaCoder.INSTANCE;
+    }
+
+    public static DeltaGenomeCoder<DoubleVectorGenome> doubleVector() {
+        return DoubleVectorDeltaCoder.INSTANCE;
+    }
+
+    public static DeltaGenomeCoder<PermutationGenome> permutation() {
+        return PermutationDeltaCoder.INSTANCE;
+    }
+
+    /**
+     * Returns the estimated size in bytes of the full genome.
+     * @param value
+     * @return
+     */
+    public abstract long fullSize(GenomeT value);
+
+    /**
+     * Returns the estimated size in bytes of the delta of the genome from the
+     * base genome, or Long.MAX_VALUE if it has no delta from it.
+     * @param base
+     * @param value
+     * @return
+     */
+    public abstract long deltaSize(GenomeT base, GenomeT value);
+
+    public abstract void encodeDelta(GenomeT base, GenomeT value, OutputStream outStream) throws IOException;
+
+    public abstract GenomeT decodeDelta(GenomeT base, InputStream inStream) throws IOException;
+
+    @Override
+    public void encode(GenomeT value, OutputStream outStream) throws IOException {
+        genomeCoder.encode(value, outStream);
+    }
+
+    @Override
+    public GenomeT decode(InputStream inStream) throws IOException {
+        return genomeCoder.decode(inStream);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        verifyDeterministic(this, "Genome coder must be deterministic", genomeCoder);
+    }
+
+    @Override
+    public boolean consistentWithEquals() {
+        return genomeCoder.consistentWithEquals();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other != null && other.getClass() == getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    static final class BitStringDeltaCoder extends DeltaGenomeCoder<BitStringGenome> {
+        private static final BitStringDeltaCoder INSTANCE = new BitStringDeltaCoder();
+
+        private BitStringDeltaCoder() {
+            super(BitStringGenomeCoder.of());
+        }
+
+        private Object readResolve() {
+            return INSTANCE;
+        }
+
+        @Override
+        public long fullSize(BitStringGenome value) {
+            return 1 + 8L * value.getWordCount();
+        }
+
+        @Override
+        public long deltaSize(BitStringGenome base, BitStringGenome value) {
+            if (base.size() != value.size()) {
+                return Long.MAX_VALUE;
+            }
+            long changed = 0;
+            for (int i = 0; i < value.getWordCount(); i++) {
+                if (base.getWord(i) != value.getWord(i)) {
+                    changed++;
+                }
+            }
+            return 1 + 9 * changed;
+        }
+
+        @Override
+        public void encodeDelta(BitStringGenome base, BitStringGenome value, OutputStream outStream) throws IOException {
+            int changed = 0;
+            for (int i = 0; i < value.getWordCount(); i++) {
+                if (base.getWord(i) != value.getWord(i)) {
+                    changed++;
+                }
+            }
+            intCoder.encode(changed, outStream);
+            DataOutputStream dataOutStream = new DataOutputStream(outStream);
+            int previous = 0;
+            for (int i = 0; i < value.getWordCount(); i++) {
+                if (base.getWord(i) != value.getWord(i)) {
+                    intCoder.encode(i - previous, outStream);
+                    dataOutStream.writeLong(base.getWord(i) ^ value.getWord(i));
+                    dataOutStream.flush();
+                    previous = i;
+                }
+            }
+        }
+
+        @Override
+        public BitStringGenome decodeDelta(BitStringGenome base, InputStream inStream) throws IOException {
+            long[] words = base.toLongArray();
+            int changed = intCoder.decode(inStream);
+            DataInputStream dataInStream = new DataInputStream(inStream);
+            int position = 0;
+            for (int i = 0; i < changed; i++) {
+                position += intCoder.decode(inStream);
+                words[position] ^= dataInStream.readLong();
+            }
+            return BitStringGenome.wrap(words, base.size());
+        }
+    }
+
+    static final class DoubleVectorDeltaCoder extends DeltaGenomeCoder<DoubleVectorGenome> {
+        private static final DoubleVectorDeltaCoder INSTANCE = new DoubleVectorDeltaCoder();
+
+        private DoubleVectorDeltaCoder() {
+            super(DoubleVectorGenomeCoder.of());
+        }
+
+        private Object readResolve() {
+            return INSTANCE;
+        }
+
+        private static boolean changed(DoubleVectorGenome base, DoubleVectorGenome value, int i) {
+            return Double.doubleToLongBits(base.get(i)) != Double.doubleToLongBits(value.get(i));
+        }
+
+        @Override
+        public long fullSize(DoubleVectorGenome value) {
+            return 1 + 8L * value.size();
+        }
+
+        @Override
+        public long deltaSize(DoubleVectorGenome base, DoubleVectorGenome value) {
+            if (base.size() != value.size()) {
+                return Long.MAX_VALUE;
+            }
+            long changed = 0;
+            for (int i = 0; i < value.size(); i++) {
+                if (changed(base, value, i)) {
+                    changed++;
+                }
+            }
+            return 1 + 9 * changed;
+        }
+
+        @Override
+        public void encodeDelta(DoubleVectorGenome base, DoubleVectorGenome value, OutputStream outStream) throws IOException {
+            int changed = 0;
+            for (int i = 0; i < value.size(); i++) {
+                if (changed(base, value, i)) {
+                    changed++;
+                }
+            }
+            intCoder.encode(changed, outStream);
+            DataOutputStream dataOutStream = new DataOutputStream(outStream);
+            int previous = 0;
+            for (int i = 0; i < value.size(); i++) {
+                if (changed(base, value, i)) {
+                    intCoder.encode(i - previous, outStream);
+                    dataOutStream.writeLong(Double.doubleToLongBits(value.get(i)));
+                    dataOutStream.flush();
+                    previous = i;
+                }
+            }
+        }
+
+        @Override
+        public DoubleVectorGenome decodeDelta(DoubleVectorGenome base, InputStream inStream) throws IOException {
+            double[] values = base.toArray();
+            int changed = intCoder.decode(inStream);
+            DataInputStream dataInStream = new DataInputStream(inStream);
+            int position = 0;
+            for (int i = 0; i < changed; i++) {
+                position += intCoder.decode(inStream);
+                values[position] = Double.longBitsToDouble(dataInStream.readLong());
+            }
+            return DoubleVectorGenome.wrap(values);
+        }
+    }
+
+    static final class PermutationDeltaCoder extends DeltaGenomeCoder<PermutationGenome> {
+        private static final PermutationDeltaCoder INSTANCE = new PermutationDeltaCoder();
+
+        private PermutationDeltaCoder() {
+            super(PermutationGenomeCoder.of());
+        }
+
+        private Object readResolve() {
+            return INSTANCE;
+        }
+
+        @Override
+        public long fullSize(PermutationGenome value) {
+            return 1 + 2L * value.size();
+        }
+
+        @Override
+        public long deltaSize(PermutationGenome base, PermutationGenome value) {
+            if (base.size() != value.size()) {
+                return Long.MAX_VALUE;
+            }
+            long changed = 0;
+            for (int i = 0; i < value.size(); i++) {
+                if (base.get(i) != value.get(i)) {
+                    changed++;
+                }
+            }
+            return 1 + 3 * changed;
+        }
+
+        @Override
+        public void encodeDelta(PermutationGenome base, PermutationGenome value, OutputStream outStream) throws IOException {
+            int changed = 0;
+            for (int i = 0; i < value.size(); i++) {
+                if (base.get(i) != value.get(i)) {
+                    changed++;
+                }
+            }
+            intCoder.encode(changed, outStream);
+            int previous = 0;
+            for (int i = 0; i < value.size(); i++) {
+                if (base.get(i) != value.get(i)) {
+                    intCoder.encode(i - previous, outStream);
+                    intCoder.encode(value.get(i), outStream);
+                    previous = i;
+                }
+            }
+        }
+
+        @Override
+        public PermutationGenome decodeDelta(PermutationGenome base, InputStream inStream) throws IOException {
+            int[] order = base.toArray();
+            int changed = intCoder.decode(inStream);
+            int position = 0;
+            for (int i = 0; i < changed; i++) {
+                position += intCoder.decode(inStream);
+                order[position] = intCoder.decode(inStream);
+            }
+            return PermutationGenome.wrap(order);
+        }
+    }
+}
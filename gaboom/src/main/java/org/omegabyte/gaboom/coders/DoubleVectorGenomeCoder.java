@@ -0,0 +1,55 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.AtomicCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * DoubleVectorGenomeCoder encodes the length of the vector followed by the
+ * fixed width values.
+ */
+public class DoubleVectorGenomeCoder extends AtomicCoder<DoubleVectorGenome> {
+    private static final DoubleVectorGenomeCoder INSTANCE = new DoubleVectorGenomeCoder();
+    private static final VarIntCoder sizeCoder = VarIntCoder.of();
+
+    public static DoubleVectorGenomeCoder of() {
+        return INSTANCE;
+    }
+
+    private DoubleVectorGenomeCoder() {}
+
+    @Override
+    public void encode(DoubleVectorGenome value, OutputStream outStream) throws IOException {
+        sizeCoder.encode(value.size(), outStream);
+        DataOutputStream dataOutStream = new DataOutputStream(outStream);
+        for (int i = 0; i < value.size(); i++) {
+            dataOutStream.writeLong(Double.doubleToLongBits(value.get(i)));
+        }
+        dataOutStream.flush();
+    }
+
+    @Override
+    public DoubleVectorGenome decode(InputStream inStream) throws IOException {
+        int size = sizeCoder.decode(inStream);
+        DataInputStream dataInStream = new DataInputStream(inStream);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Double.longBitsToDouble(dataInStream.readLong());
+        }
+        return DoubleVectorGenome.wrap(values);
+    }
+
+    @Override
+    public void verifyDeterministic() {}
+
+    @Override
+    public boolean consistentWithEquals() {
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.CannotProvideCoderException;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderProvider;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.values.TypeDescriptor;
+import org.omegabyte.gaboom.*;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+import org.omegabyte.gaboom.genome.StoredGenome;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * GaboomCoderProvider provides the gaboom coders for the library types and
+ * the built-in genomes.  The generic types are parameterized by the genome
+ * coder.  When the genome type cannot be inferred no coder is provided, so
+ * that the whole item falls back to the SerializableCoder instead of binding
+ * an unknown genome type.
+ */
+public class GaboomCoderProvider extends CoderProvider {
+
+    @SuppressWarnings("unchecked")
+    static Coder<Serializable> genomeCoder(TypeDescriptor<?> typeDescriptor, List<? extends Coder<?>> componentCoders) throws CannotProvideCoderException {
+        if (componentCoders.size() != 1) {
+            throw new CannotProvideCoderException(String.format("Unknown genome coder for %s", typeDescriptor));
+        }
+
+        Coder<?> genomeCoder = componentCoders.get(0);
+        if (genomeCoder instanceof SerializableCoder && ((SerializableCoder) genomeCoder).getRecordType() == Serializable.class) {
+            throw new CannotProvideCoderException(String.format("Unknown genome type for %s", typeDescriptor));
+        }
+        return (Coder<Serializable>) genomeCoder;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Coder<T> coderFor(TypeDescriptor<T> typeDescriptor, List<? extends Coder<?>> componentCoders) throws CannotProvideCoderException {
+        Class<? super T> rawType = typeDescriptor.getRawType();
+        if (rawType == BaseItem.class) {
+            return (Coder<T>) BaseItemCoder.of();
+        }
+        if (rawType == NBaseItem.class) {
+            return (Coder<T>) NBaseItemCoder.of();
+        }
+        if (rawType == DoubleVectorGenome.class) {
+            return (Coder<T>) DoubleVectorGenomeCoder.of();
+        }
+        if (rawType == BitStringGenome.class) {
+            return (Coder<T>) BitStringGenomeCoder.of();
+        }
+        if (rawType == PermutationGenome.class) {
+            return (Coder<T>) PermutationGenomeCoder.of();
+        }
+        if (rawType == StoredGenome.class) {
+            return (Coder<T>) StoredGenomeCoder.of();
+        }
+        if (rawType == Individual.class) {
+            return (Coder<T>) IndividualCoder.of(genomeCoder(typeDescriptor, componentCoders));
+        }
+        if (rawType == Individuals.class) {
+            return (Coder<T>) IndividualsCoder.of(genomeCoder(typeDescriptor, componentCoders));
+        }
+        if (rawType == SelectIndividuals.class) {
+            return (Coder<T>) SelectIndividualsCoder.of(genomeCoder(typeDescriptor, componentCoders));
+        }
+        if (rawType == CrossoverIndividuals.class) {
+            return (Coder<T>) CrossoverIndividualsCoder.of(genomeCoder(typeDescriptor, componentCoders));
+        }
+        if (rawType == Population.class) {
+            return (Coder<T>) PopulationCoder.of(genomeCoder(typeDescriptor, componentCoders));
+        }
+        throw new CannotProvideCoderException(String.format("%s is not a gaboom type", typeDescriptor));
+    }
+}
@@ -0,0 +1,18 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.CoderProvider;
+import org.apache.beam.sdk.coders.CoderProviderRegistrar;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GaboomCoderProviderRegistrar registers the GaboomCoderProvider with every
+ * pipeline's coder registry, ahead of the SerializableCoder fallback.
+ */
+public class GaboomCoderProviderRegistrar implements CoderProviderRegistrar {
+    @Override
+    public List<CoderProvider> getCoderProviders() {
+        return Collections.singletonList(new GaboomCoderProvider());
+    }
+}
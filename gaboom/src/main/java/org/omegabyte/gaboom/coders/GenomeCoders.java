@@ -0,0 +1,101 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.IterableLikeCoder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.SelectIndividuals;
+
+import java.io.Serializable;
+
+/**
+ * GenomeCoders recovers the genome coder from the coder of a PCollection so
+ * that transforms whose outputs cannot be inferred (multi output ParDos and
+ * CoGroupByKey results) keep the gaboom coders.
+ */
+public class GenomeCoders {
+
+    /**
+     * Returns the genome coder nested in the coder, or null if it is unknown.
+     * @param coder
+     * @param <GenomeT>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <GenomeT extends Serializable> Coder<GenomeT> of(Coder<?> coder) {
+        if (coder instanceof IndividualCoder) {
+            return ((IndividualCoder<GenomeT>) coder).getGenomeCoder();
+        }
+        if (coder instanceof IndividualsCoder) {
+            return ((IndividualsCoder<GenomeT>) coder).getGenomeCoder();
+        }
+        if (coder instanceof SelectIndividualsCoder) {
+            return ((SelectIndividualsCoder<GenomeT>) coder).getGenomeCoder();
+        }
+        if (coder instanceof CrossoverIndividualsCoder) {
+            return ((CrossoverIndividualsCoder<GenomeT>) coder).getGenomeCoder();
+        }
+        if (coder instanceof PopulationCoder) {
+            return ((PopulationCoder<GenomeT>) coder).getGenomeCoder();
+        }
+        if (coder instanceof KvCoder) {
+            return of(((KvCoder<?, ?>) coder).getValueCoder());
+        }
+        if (coder instanceof IterableLikeCoder) {
+            return of(((IterableLikeCoder<?, ?>) coder).getElemCoder());
+        }
+        return null;
+    }
+
+    /**
+     * Sets the coder of the individuals at key when the genome coder of the
+     * given coder is known.
+     * @param pCollection
+     * @param coder
+     * @param <GenomeT>
+     * @return
+     */
+    public static <GenomeT extends Serializable> PCollection<KV<String, Individuals<GenomeT>>> setIndividualsAtKey(PCollection<KV<String, Individuals<GenomeT>>> pCollection, Coder<?> coder) {
+        Coder<GenomeT> genomeCoder = of(coder);
+        if (genomeCoder != null) {
+            pCollection.setCoder(KvCoder.of(StringUtf8Coder.of(), IndividualsCoder.of(genomeCoder)));
+        }
+        return pCollection;
+    }
+
+    /**
+     * Sets the coder of the individual at key when the genome coder of the
+     * given coder is known.
+     * @param pCollection
+     * @param coder
+     * @param <GenomeT>
+     * @return
+     */
+    public static <GenomeT extends Serializable> PCollection<KV<String, Individual<GenomeT>>> setIndividualAtKey(PCollection<KV<String, Individual<GenomeT>>> pCollection, Coder<?> coder) {
+        Coder<GenomeT> genomeCoder = of(coder);
+        if (genomeCoder != null) {
+            pCollection.setCoder(KvCoder.of(StringUtf8Coder.of(), IndividualCoder.of(genomeCoder)));
+        }
+        return pCollection;
+    }
+
+    /**
+     * Sets the coder of the select individuals at key when the genome coder
+     * of the given coder is known.
+     * @param pCollection
+     * @param coder
+     * @param <GenomeT>
+     * @return
+     */
+    public static <GenomeT extends Serializable> PCollection<KV<String, SelectIndividuals<GenomeT>>> setSelectIndividualsAtKey(PCollection<KV<String, SelectIndividuals<GenomeT>>> pCollection, Coder<?> coder) {
+        Coder<GenomeT> genomeCoder = of(coder);
+        if (genomeCoder != null) {
+            pCollection.setCoder(KvCoder.of(StringUtf8Coder.of(), SelectIndividualsCoder.of(genomeCoder)));
+        }
+        return pCollection;
+    }
+}
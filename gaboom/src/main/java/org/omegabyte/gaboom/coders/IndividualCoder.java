@@ -0,0 +1,110 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.BigEndianLongCoder;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.DoubleCoder;
+import org.apache.beam.sdk.coders.NullableCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.StructuredCoder;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.utils.IdGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * IndividualCoder encodes the id, the (optional) fitness and the genome of an
+ * individual.  The id is encoded as a long, followed by its string when it is
+ * not compact, and by the (optional) id of its parent.  The genome is encoded
+ * with the given genome coder.
+ * @param <GenomeT>
+ */
+public class IndividualCoder<GenomeT extends Serializable> extends StructuredCoder<Individual<GenomeT>> {
+    private static final BigEndianLongCoder idCoder = BigEndianLongCoder.of();
+    private static final StringUtf8Coder nameCoder = StringUtf8Coder.of();
+    private static final NullableCoder<Long> parentCoder = NullableCoder.of(BigEndianLongCoder.of());
+    private static final NullableCoder<Double> fitnessCoder = NullableCoder.of(DoubleCoder.of());
+
+    private final Coder<GenomeT> genomeCoder;
+    private final NullableCoder<GenomeT> nullableGenomeCoder;
+
+    public static <GenomeT extends Serializable> IndividualCoder<GenomeT> of(Coder<GenomeT> genomeCoder) {
+        return new IndividualCoder<>(genomeCoder);
+    }
+
+    private IndividualCoder(Coder<GenomeT> genomeCoder) {
+        this.genomeCoder = genomeCoder;
+        this.nullableGenomeCoder = NullableCoder.of(genomeCoder);
+    }
+
+    public Coder<GenomeT> getGenomeCoder() {
+        return genomeCoder;
+    }
+
+    /**
+     * Header is the id, the parent id and the fitness of an individual,
+     * encoded before its genome.
+     */
+    static final class Header {
+        private final long id;
+        private final String name;
+        private final Long parentId;
+        private final Double fitness;
+
+        private Header(long id, String name, Long parentId, Double fitness) {
+            this.id = id;
+            this.name = name;
+            this.parentId = parentId;
+            this.fitness = fitness;
+        }
+
+        <GenomeT extends Serializable> Individual<GenomeT> toIndividual(GenomeT genome) {
+            Individual<GenomeT> individual = name != null ? new Individual<>(name, genome) : new Individual<>(id, parentId == null ? id : parentId, genome);
+            individual.setFitness(fitness);
+            return individual;
+        }
+    }
+
+    static <GenomeT extends Serializable> void encodeHeader(Individual<GenomeT> value, OutputStream outStream) throws IOException {
+        idCoder.encode(value.getNumericId(), outStream);
+        if (!IdGenerator.isCompact(value.getNumericId())) {
+            nameCoder.encode(value.getId(), outStream);
+        }
+        parentCoder.encode(value.isMutant() ? value.getLineageId() : null, outStream);
+        fitnessCoder.encode(value.getFitness(), outStream);
+    }
+
+    static Header decodeHeader(InputStream inStream) throws IOException {
+        long id = idCoder.decode(inStream);
+        String name = IdGenerator.isCompact(id) ? null : nameCoder.decode(inStream);
+        Long parentId = parentCoder.decode(inStream);
+        return new Header(id, name, parentId, fitnessCoder.decode(inStream));
+    }
+
+    @Override
+    public void encode(Individual<GenomeT> value, OutputStream outStream) throws IOException {
+        encodeHeader(value, outStream);
+        nullableGenomeCoder.encode(value.getGenome(), outStream);
+    }
+
+    @Override
+    public Individual<GenomeT> decode(InputStream inStream) throws IOException {
+        Header header = decodeHeader(inStream);
+        return header.toIndividual(nullableGenomeCoder.decode(inStream));
+    }
+
+    @Override
+    public List<? extends Coder<?>> getCoderArguments() {
+        return Collections.singletonList(genomeCoder);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        verifyDeterministic(this, "Fitness values are not encoded deterministically", fitnessCoder);
+        verifyDeterministic(this, "Genome coder must be deterministic", genomeCoder);
+    }
+}
@@ -0,0 +1,197 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.StructuredCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.omegabyte.gaboom.Individual;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IndividualListCoder encodes a list of individuals.  When the genome coder
+ * is a DeltaGenomeCoder, a genome may be encoded as the delta from the genome
+ * of a previous individual of the list: the individual it was derived from,
+ * found by its lineage id, the last mutant of the same parent, or one of the
+ * WINDOW individuals before it.  The delta is used only when it is smaller
+ * than the full genome, so children that differ from a parent or a sibling by
+ * a few genes travel as a reference plus their genes.  The deltas are decoded
+ * lazily, when the genome of the individual is first read, so individuals
+ * whose fitness only is read are never materialized.  A delta may be taken
+ * from a genome that is itself a delta, up to MAX_DEPTH deltas from a full
+ * genome, so reading a genome decodes at most MAX_DEPTH deltas.  Otherwise the list is
+ * encoded as a ListCoder of IndividualCoder.
+ * @param <GenomeT>
+ */
+public class IndividualListCoder<GenomeT extends Serializable> extends StructuredCoder<List<Individual<GenomeT>>> {
+    public static final int WINDOW = 4;
+    public static final int MAX_DEPTH = 16;
+
+    private static final VarIntCoder intCoder = VarIntCoder.of();
+    private static final int NULL_GENOME = 0;
+    private static final int FULL_GENOME = 1;
+    private static final int DELTA_GENOME = 2;
+
+    private final Coder<GenomeT> genomeCoder;
+    private final ListCoder<Individual<GenomeT>> listCoder;
+
+    public static <GenomeT extends Serializable> IndividualListCoder<GenomeT> of(Coder<GenomeT> genomeCoder) {
+        return new IndividualListCoder<>(genomeCoder);
+    }
+
+    private IndividualListCoder(Coder<GenomeT> genomeCoder) {
+        this.genomeCoder = genomeCoder;
+        this.listCoder = ListCoder.of(IndividualCoder.of(genomeCoder));
+    }
+
+    public Coder<GenomeT> getGenomeCoder() {
+        return genomeCoder;
+    }
+
+    /**
+     * Returns the index of the previous individual whose genome gives the
+     * smallest delta, or -1 if the full genome is smaller.  The genomes
+     * already MAX_DEPTH deltas away from a full genome are not candidates.
+     * @param deltaCoder
+     * @param individuals
+     * @param index
+     * @param indices
+     * @param siblings
+     * @param depths the number of deltas from a full genome of the previous individuals
+     * @param <GenomeT>
+     * @return
+     */
+    static <GenomeT extends Serializable> int findBase(DeltaGenomeCoder<GenomeT> deltaCoder, List<Individual<GenomeT>> individuals, int index, Map<Long, Integer> indices, Map<Long, Integer> siblings, int[] depths) {
+        Individual<GenomeT> individual = individuals.get(index);
+        GenomeT genome = individual.getGenome();
+        long bestSize = deltaCoder.fullSize(genome);
+        int best = -1;
+
+        List<Integer> candidates = new ArrayList<>();
+        Integer parent = indices.get(individual.getLineageId());
+        if (parent != null) {
+            candidates.add(parent);
+        }
+        Integer sibling = individual.isMutant() ? siblings.get(individual.getLineageId()) : null;
+        if (sibling != null) {
+            candidates.add(sibling);
+        }
+        for (int i = Math.max(0, index - WINDOW); i < index; i++) {
+            candidates.add(i);
+        }
+        for (int candidate : candidates) {
+            GenomeT base = individuals.get(candidate).getGenome();
+            if (base == null || depths[candidate] >= MAX_DEPTH) {
+                continue;
+            }
+            long size = deltaCoder.deltaSize(base, genome);
+            if (size < bestSize) {
+                bestSize = size;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void encode(List<Individual<GenomeT>> value, OutputStream outStream) throws IOException {
+        if (!(genomeCoder instanceof DeltaGenomeCoder)) {
+            listCoder.encode(value, outStream);
+            return;
+        }
+
+        DeltaGenomeCoder<GenomeT> deltaCoder = (DeltaGenomeCoder<GenomeT>) genomeCoder;
+        Map<Long, Integer> indices = new HashMap<>();
+        Map<Long, Integer> siblings = new HashMap<>();
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        int[] depths = new int[value.size()];
+        intCoder.encode(value.size(), outStream);
+        for (int i = 0; i < value.size(); i++) {
+            Individual<GenomeT> individual = value.get(i);
+            IndividualCoder.encodeHeader(individual, outStream);
+            if (individual.getGenome() == null) {
+                outStream.write(NULL_GENOME);
+            } else {
+                int base = findBase(deltaCoder, value, i, indices, siblings, depths);
+                if (base < 0) {
+                    outStream.write(FULL_GENOME);
+                    deltaCoder.encode(individual.getGenome(), outStream);
+                } else {
+                    // the delta is length prefixed so that it is decoded lazily
+                    delta.reset();
+                    deltaCoder.encodeDelta(value.get(base).getGenome(), individual.getGenome(), delta);
+                    outStream.write(DELTA_GENOME);
+                    intCoder.encode(i - base, outStream);
+                    intCoder.encode(delta.size(), outStream);
+                    delta.writeTo(outStream);
+                    depths[i] = depths[base] + 1;
+                }
+            }
+            indices.putIfAbsent(individual.getNumericId(), i);
+            if (individual.isMutant() && individual.getGenome() != null) {
+                siblings.put(individual.getLineageId(), i);
+            }
+        }
+    }
+
+    private static <GenomeT extends Serializable> GenomeT decodeDelta(DeltaGenomeCoder<GenomeT> deltaCoder, Individual<GenomeT> base, byte[] delta) {
+        try {
+            return deltaCoder.decodeDelta(base.getGenome(), new ByteArrayInputStream(delta));
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Invalid delta of %d bytes from the genome of %s", delta.length, base.getId()), e);
+        }
+    }
+
+    @Override
+    public List<Individual<GenomeT>> decode(InputStream inStream) throws IOException {
+        if (!(genomeCoder instanceof DeltaGenomeCoder)) {
+            return listCoder.decode(inStream);
+        }
+
+        DeltaGenomeCoder<GenomeT> deltaCoder = (DeltaGenomeCoder<GenomeT>) genomeCoder;
+        int size = intCoder.decode(inStream);
+        List<Individual<GenomeT>> individuals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            IndividualCoder.Header header = IndividualCoder.decodeHeader(inStream);
+            int tag = inStream.read();
+            switch (tag) {
+                case NULL_GENOME:
+                    individuals.add(header.toIndividual(null));
+                    break;
+                case FULL_GENOME:
+                    individuals.add(header.toIndividual(deltaCoder.decode(inStream)));
+                    break;
+                case DELTA_GENOME:
+                    Individual<GenomeT> base = individuals.get(i - intCoder.decode(inStream));
+                    byte[] delta = new byte[intCoder.decode(inStream)];
+                    new DataInputStream(inStream).readFully(delta);
+                    individuals.add(header.<GenomeT>toIndividual(null).withLazyGenome(() -> decodeDelta(deltaCoder, base, delta)));
+                    break;
+                default:
+                    throw new IOException("Invalid genome tag " + tag);
+            }
+        }
+        return individuals;
+    }
+
+    @Override
+    public List<? extends Coder<?>> getCoderArguments() {
+        return Collections.singletonList(genomeCoder);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        verifyDeterministic(this, "Individuals must be encoded deterministically", listCoder);
+    }
+}
@@ -0,0 +1,60 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.BigEndianLongCoder;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.StructuredCoder;
+import org.omegabyte.gaboom.Individuals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * IndividualsCoder encodes the seed and the list of individuals of an
+ * Individuals object.
+ * @param <GenomeT>
+ */
+public class IndividualsCoder<GenomeT extends Serializable> extends StructuredCoder<Individuals<GenomeT>> {
+    private static final BigEndianLongCoder seedCoder = BigEndianLongCoder.of();
+
+    private final Coder<GenomeT> genomeCoder;
+    private final IndividualListCoder<GenomeT> individualsCoder;
+
+    public static <GenomeT extends Serializable> IndividualsCoder<GenomeT> of(Coder<GenomeT> genomeCoder) {
+        return new IndividualsCoder<>(genomeCoder);
+    }
+
+    private IndividualsCoder(Coder<GenomeT> genomeCoder) {
+        this.genomeCoder = genomeCoder;
+        this.individualsCoder = IndividualListCoder.of(genomeCoder);
+    }
+
+    public Coder<GenomeT> getGenomeCoder() {
+        return genomeCoder;
+    }
+
+    @Override
+    public void encode(Individuals<GenomeT> value, OutputStream outStream) throws IOException {
+        seedCoder.encode(value.getSeed(), outStream);
+        individualsCoder.encode(value.getIndividuals(), outStream);
+    }
+
+    @Override
+    public Individuals<GenomeT> decode(InputStream inStream) throws IOException {
+        long seed = seedCoder.decode(inStream);
+        return new Individuals<>(seed, individualsCoder.decode(inStream));
+    }
+
+    @Override
+    public List<? extends Coder<?>> getCoderArguments() {
+        return Collections.singletonList(genomeCoder);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        verifyDeterministic(this, "Individuals must be encoded deterministically", individualsCoder);
+    }
+}
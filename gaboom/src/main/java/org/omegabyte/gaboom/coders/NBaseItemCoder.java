@@ -0,0 +1,38 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.AtomicCoder;
+import org.apache.beam.sdk.coders.BigEndianLongCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.omegabyte.gaboom.NBaseItem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * NBaseItemCoder encodes a NBaseItem as its fixed width seed followed by a
+ * variable length n.
+ */
+public class NBaseItemCoder extends AtomicCoder<NBaseItem> {
+    private static final NBaseItemCoder INSTANCE = new NBaseItemCoder();
+    private static final BigEndianLongCoder seedCoder = BigEndianLongCoder.of();
+    private static final VarIntCoder nCoder = VarIntCoder.of();
+
+    public static NBaseItemCoder of() {
+        return INSTANCE;
+    }
+
+    private NBaseItemCoder() {}
+
+    @Override
+    public void encode(NBaseItem value, OutputStream outStream) throws IOException {
+        seedCoder.encode(value.getSeed(), outStream);
+        nCoder.encode(value.getN(), outStream);
+    }
+
+    @Override
+    public NBaseItem decode(InputStream inStream) throws IOException {
+        long seed = seedCoder.decode(inStream);
+        return new NBaseItem(seed, nCoder.decode(inStream));
+    }
+}
@@ -0,0 +1,50 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.AtomicCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * PermutationGenomeCoder encodes the size of the permutation followed by the
+ * variable width genes.
+ */
+public class PermutationGenomeCoder extends AtomicCoder<PermutationGenome> {
+    private static final PermutationGenomeCoder INSTANCE = new PermutationGenomeCoder();
+    private static final VarIntCoder intCoder = VarIntCoder.of();
+
+    public static PermutationGenomeCoder of() {
+        return INSTANCE;
+    }
+
+    private PermutationGenomeCoder() {}
+
+    @Override
+    public void encode(PermutationGenome value, OutputStream outStream) throws IOException {
+        intCoder.encode(value.size(), outStream);
+        for (int i = 0; i < value.size(); i++) {
+            intCoder.encode(value.get(i), outStream);
+        }
+    }
+
+    @Override
+    public PermutationGenome decode(InputStream inStream) throws IOException {
+        int size = intCoder.decode(inStream);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = intCoder.decode(inStream);
+        }
+        return PermutationGenome.wrap(order);
+    }
+
+    @Override
+    public void verifyDeterministic() {}
+
+    @Override
+    public boolean consistentWithEquals() {
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.BigEndianLongCoder;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.StructuredCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.coders.VarLongCoder;
+import org.omegabyte.gaboom.Population;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PopulationCoder encodes the id, creation time, generation count, seed and
+ * individuals of a population.
+ * @param <GenomeT>
+ */
+public class PopulationCoder<GenomeT extends Serializable> extends StructuredCoder<Population<GenomeT>> {
+    private static final StringUtf8Coder idCoder = StringUtf8Coder.of();
+    private static final VarLongCoder createdCoder = VarLongCoder.of();
+    private static final VarIntCoder generationsCoder = VarIntCoder.of();
+    private static final BigEndianLongCoder seedCoder = BigEndianLongCoder.of();
+
+    private final Coder<GenomeT> genomeCoder;
+    private final IndividualListCoder<GenomeT> individualsCoder;
+
+    public static <GenomeT extends Serializable> PopulationCoder<GenomeT> of(Coder<GenomeT> genomeCoder) {
+        return new PopulationCoder<>(genomeCoder);
+    }
+
+    private PopulationCoder(Coder<GenomeT> genomeCoder) {
+        this.genomeCoder = genomeCoder;
+        this.individualsCoder = IndividualListCoder.of(genomeCoder);
+    }
+
+    public Coder<GenomeT> getGenomeCoder() {
+        return genomeCoder;
+    }
+
+    @Override
+    public void encode(Population<GenomeT> value, OutputStream outStream) throws IOException {
+        idCoder.encode(value.getId(), outStream);
+        createdCoder.encode(value.getCreated(), outStream);
+        generationsCoder.encode(value.getGenerations(), outStream);
+        seedCoder.encode(value.getSeed(), outStream);
+        individualsCoder.encode(value.getIndividuals(), outStream);
+    }
+
+    @Override
+    public Population<GenomeT> decode(InputStream inStream) throws IOException {
+        String id = idCoder.decode(inStream);
+        long created = createdCoder.decode(inStream);
+        int generations = generationsCoder.decode(inStream);
+        long seed = seedCoder.decode(inStream);
+        return new Population<>(id, created, generations, seed, individualsCoder.decode(inStream));
+    }
+
+    @Override
+    public List<? extends Coder<?>> getCoderArguments() {
+        return Collections.singletonList(genomeCoder);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        verifyDeterministic(this, "Individuals must be encoded deterministically", individualsCoder);
+    }
+}
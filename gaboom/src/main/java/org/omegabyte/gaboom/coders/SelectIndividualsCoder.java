@@ -0,0 +1,64 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.BigEndianLongCoder;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.StructuredCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.omegabyte.gaboom.SelectIndividuals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SelectIndividualsCoder encodes the seed, the individuals and the number of
+ * individuals to select.
+ * @param <GenomeT>
+ */
+public class SelectIndividualsCoder<GenomeT extends Serializable> extends StructuredCoder<SelectIndividuals<GenomeT>> {
+    private static final BigEndianLongCoder seedCoder = BigEndianLongCoder.of();
+    private static final VarIntCoder nCoder = VarIntCoder.of();
+
+    private final Coder<GenomeT> genomeCoder;
+    private final IndividualListCoder<GenomeT> individualsCoder;
+
+    public static <GenomeT extends Serializable> SelectIndividualsCoder<GenomeT> of(Coder<GenomeT> genomeCoder) {
+        return new SelectIndividualsCoder<>(genomeCoder);
+    }
+
+    private SelectIndividualsCoder(Coder<GenomeT> genomeCoder) {
+        this.genomeCoder = genomeCoder;
+        this.individualsCoder = IndividualListCoder.of(genomeCoder);
+    }
+
+    public Coder<GenomeT> getGenomeCoder() {
+        return genomeCoder;
+    }
+
+    @Override
+    public void encode(SelectIndividuals<GenomeT> value, OutputStream outStream) throws IOException {
+        seedCoder.encode(value.getSeed(), outStream);
+        nCoder.encode(value.getN(), outStream);
+        individualsCoder.encode(value.getIndividuals(), outStream);
+    }
+
+    @Override
+    public SelectIndividuals<GenomeT> decode(InputStream inStream) throws IOException {
+        long seed = seedCoder.decode(inStream);
+        int n = nCoder.decode(inStream);
+        return new SelectIndividuals<>(seed, individualsCoder.decode(inStream), n);
+    }
+
+    @Override
+    public List<? extends Coder<?>> getCoderArguments() {
+        return Collections.singletonList(genomeCoder);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        verifyDeterministic(this, "Individuals must be encoded deterministically", individualsCoder);
+    }
+}
@@ -0,0 +1,148 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.coders.VarLongCoder;
+import org.omegabyte.gaboom.genome.GenomeStore;
+import org.omegabyte.gaboom.genome.StoredGenome;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * StoredGenomeCoder encodes the name of the store of a StoredGenome followed
+ * by its size and its bytes, which are decoded into the store of the same name
+ * in the decoding worker: the store the worker has, or a new store of direct
+ * buffers if it has none.  withDirectory decodes into a store of files mapped
+ * from the directory instead, and fails if the worker has a store of that
+ * name of another kind.
+ *
+ * withHandles encodes the worker id and the handle of the genome instead of
+ * its bytes.  It is only valid when the producer and the consumer share a
+ * worker, e.g. between fused steps or with an in process runner, and while
+ * the genome is held by the store: decoding a handle of another worker or of
+ * a dropped genome fails.
+ */
+public class StoredGenomeCoder extends CustomCoder<StoredGenome> {
+    private static final StoredGenomeCoder INSTANCE = new StoredGenomeCoder(false);
+    private static final StoredGenomeCoder HANDLES = new StoredGenomeCoder(true);
+    private static final int COPY_SIZE = 1 << 16;
+    private static final StringUtf8Coder nameCoder = StringUtf8Coder.of();
+    private static final VarIntCoder sizeCoder = VarIntCoder.of();
+    private static final VarLongCoder handleCoder = VarLongCoder.of();
+
+    private final boolean handles;
+    private final File directory;
+
+    public static StoredGenomeCoder of() {
+        return INSTANCE;
+    }
+
+    private StoredGenomeCoder(boolean handles) {
+        this(handles, null);
+    }
+
+    private StoredGenomeCoder(boolean handles, File directory) {
+        this.handles = handles;
+        this.directory = directory;
+    }
+
+    private Object readResolve() {
+        if (directory != null) {
+            return this;
+        }
+        return handles ? HANDLES : INSTANCE;
+    }
+
+    /**
+     * Ships the handles of the genomes rather than their bytes.
+     * @return
+     */
+    public StoredGenomeCoder withHandles() {
+        return directory == null ? HANDLES : new StoredGenomeCoder(true, directory);
+    }
+
+    /**
+     * Decodes the genomes into stores of files mapped from the directory.
+     * @param directory
+     * @return
+     */
+    public StoredGenomeCoder withDirectory(File directory) {
+        return new StoredGenomeCoder(handles, directory);
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private GenomeStore getStore(String storeName) {
+        if (directory != null) {
+            return GenomeStore.mapped(storeName, directory);
+        }
+        GenomeStore store = GenomeStore.lookup(storeName);
+        return store != null ? store : GenomeStore.direct(storeName);
+    }
+
+    @Override
+    public void encode(StoredGenome value, OutputStream outStream) throws IOException {
+        nameCoder.encode(value.getStoreName(), outStream);
+        if (handles) {
+            new DataOutputStream(outStream).writeLong(value.getWorkerId());
+            handleCoder.encode(value.getHandle(), outStream);
+            return;
+        }
+
+        sizeCoder.encode(value.size(), outStream);
+        ByteBuffer buffer = value.asByteBuffer();
+        byte[] chunk = new byte[Math.min(value.size(), COPY_SIZE)];
+        while (buffer.hasRemaining()) {
+            int n = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, n);
+            outStream.write(chunk, 0, n);
+        }
+    }
+
+    @Override
+    public StoredGenome decode(InputStream inStream) throws IOException {
+        String storeName = nameCoder.decode(inStream);
+        if (handles) {
+            long workerId = new DataInputStream(inStream).readLong();
+            long handle = handleCoder.decode(inStream);
+            if (workerId != GenomeStore.WORKER_ID) {
+                throw new IllegalStateException(String.format("Genome %d of the store %s was stored by another worker", handle, storeName));
+            }
+            return getStore(storeName).resolve(handle);
+        }
+
+        int size = sizeCoder.decode(inStream);
+        return getStore(storeName).read(inStream, size);
+    }
+
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+        if (handles) {
+            throw new NonDeterministicException(this, "Handles depend on the worker that stored the genome");
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof StoredGenomeCoder)) {
+            return false;
+        }
+        StoredGenomeCoder that = (StoredGenomeCoder) other;
+        return that.handles == handles && Objects.equals(that.directory, directory);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(handles, directory);
+    }
+}
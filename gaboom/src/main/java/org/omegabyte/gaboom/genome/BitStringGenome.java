@@ -0,0 +1,130 @@
+package org.omegabyte.gaboom.genome;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * BitStringGenome is an immutable string of bits packed into 64 bit words.
+ * The bits past the length of the last word are always cleared.
+ */
+public final class BitStringGenome implements LinearGenome<BitStringGenome> {
+    private final long[] words;
+    private final int length;
+
+    private BitStringGenome(long[] words, int length) {
+        this.words = words;
+        this.length = length;
+    }
+
+    public static int wordsFor(int length) {
+        return (length + 63) >>> 6;
+    }
+
+    /**
+     * Wraps the words without copying them, the caller must not modify the
+     * array afterwards.
+     * @param words
+     * @param length
+     * @return
+     */
+    public static BitStringGenome wrap(long[] words, int length) {
+        if (words.length != wordsFor(length)) {
+            throw new IllegalArgumentException(String.format("%d words cannot hold %d bits", words.length, length));
+        }
+        clearTail(words, length);
+        return new BitStringGenome(words, length);
+    }
+
+    public static BitStringGenome of(boolean... bits) {
+        long[] words = new long[wordsFor(bits.length)];
+        for (int i = 0; i < bits.length; i++) {
+            if (bits[i]) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        return new BitStringGenome(words, bits.length);
+    }
+
+    private static void clearTail(long[] words, int length) {
+        if ((length & 63) != 0) {
+            words[words.length - 1] &= -1L >>> (64 - (length & 63));
+        }
+    }
+
+    public boolean get(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException(String.valueOf(i));
+        }
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    public long getWord(int i) {
+        return words[i];
+    }
+
+    public int getWordCount() {
+        return words.length;
+    }
+
+    public long[] toLongArray() {
+        return words.clone();
+    }
+
+    @Override
+    public BitStringGenome onePoint(BitStringGenome other, int point) {
+        long[] result = words.clone();
+        int word = point >>> 6;
+        if (word < result.length) {
+            long mask = -1L << point;
+            result[word] = (result[word] & ~mask) | (other.words[word] & mask);
+            System.arraycopy(other.words, word + 1, result, word + 1, result.length - word - 1);
+        }
+        return new BitStringGenome(result, length);
+    }
+
+    @Override
+    public BitStringGenome uniform(BitStringGenome other, Random random) {
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            long mask = random.nextLong();
+            result[i] = (words[i] & mask) | (other.words[i] & ~mask);
+        }
+        return new BitStringGenome(result, length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof BitStringGenome)) {
+            return false;
+        }
+        BitStringGenome that = (BitStringGenome) o;
+        return length == that.length && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * length + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(get(i) ? '1' : '0');
+        }
+        return sb.toString();
+    }
+}
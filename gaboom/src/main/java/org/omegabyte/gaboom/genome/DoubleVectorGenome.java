@@ -0,0 +1,75 @@
+package org.omegabyte.gaboom.genome;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * DoubleVectorGenome is an immutable vector of real valued genes.
+ */
+public final class DoubleVectorGenome implements LinearGenome<DoubleVectorGenome> {
+    private final double[] values;
+
+    private DoubleVectorGenome(double[] values) {
+        this.values = values;
+    }
+
+    public static DoubleVectorGenome of(double... values) {
+        return new DoubleVectorGenome(values.clone());
+    }
+
+    /**
+     * Wraps the values without copying them, the caller must not modify the
+     * array afterwards.
+     * @param values
+     * @return
+     */
+    public static DoubleVectorGenome wrap(double[] values) {
+        return new DoubleVectorGenome(values);
+    }
+
+    public double get(int i) {
+        return values[i];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    public double[] toArray() {
+        return values.clone();
+    }
+
+    @Override
+    public DoubleVectorGenome onePoint(DoubleVectorGenome other, int point) {
+        double[] result = values.clone();
+        System.arraycopy(other.values, point, result, point, values.length - point);
+        return new DoubleVectorGenome(result);
+    }
+
+    @Override
+    public DoubleVectorGenome uniform(DoubleVectorGenome other, Random random) {
+        double[] result = values.clone();
+        for (int i = 0; i < result.length; i++) {
+            if (random.nextBoolean()) {
+                result[i] = other.values[i];
+            }
+        }
+        return new DoubleVectorGenome(result);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DoubleVectorGenome && Arrays.equals(values, ((DoubleVectorGenome) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
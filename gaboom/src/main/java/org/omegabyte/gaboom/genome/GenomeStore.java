@@ -0,0 +1,298 @@
+package org.omegabyte.gaboom.genome;
+
+import org.omegabyte.gaboom.utils.SplitMixRandom;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GenomeStore keeps large genomes out of the heap, in direct buffers or in
+ * memory mapped files of a local directory, and hands out StoredGenomes that
+ * only hold a handle to them.  The stores are registered by name in the
+ * worker, so that a StoredGenome decoded in the worker that stored it can be
+ * resolved by its handle.
+ *
+ * A genome is kept while a StoredGenome of it is reachable, or while it is
+ * retained.  The memory of the direct buffers and of the mappings is freed by
+ * the garbage collector once the small StoredGenomes are collected, and the
+ * mapped files are deleted as soon as they are mapped.  Retaining a genome
+ * keeps it available by handle across generations, after its individuals are
+ * dropped, until it is released as many times.
+ */
+public final class GenomeStore {
+    private static final int COPY_SIZE = 1 << 16;
+    private static final Map<String, GenomeStore> stores = new ConcurrentHashMap<>();
+
+    /**
+     * The id of the worker, that is of the JVM, the handles are valid in.
+     */
+    public static final long WORKER_ID = new Random().nextLong();
+
+    private final String name;
+    private final File directory;
+    private final AtomicLong nextHandle = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ByteBuffer> collected = new ReferenceQueue<>();
+
+    private static final class Entry extends WeakReference<ByteBuffer> {
+        private final long handle;
+        private final int size;
+        private final long contentHash;
+        private ByteBuffer retained = null;
+        private int references = 0;
+
+        private Entry(long handle, ByteBuffer buffer, long contentHash, ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.handle = handle;
+            this.size = buffer.capacity();
+            this.contentHash = contentHash;
+        }
+    }
+
+    private GenomeStore(String name, File directory) {
+        this.name = name;
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the store of the worker with the given name, creating a store
+     * of direct buffers if there is none.
+     * @param name
+     * @return
+     * @throws IllegalStateException if the store of that name maps files
+     */
+    public static GenomeStore direct(String name) {
+        GenomeStore store = stores.computeIfAbsent(name, n -> new GenomeStore(n, null));
+        if (store.directory != null) {
+            throw new IllegalStateException(String.format("The store %s maps files of %s", name, store.directory));
+        }
+        return store;
+    }
+
+    /**
+     * Returns the store of the worker with the given name, creating a store
+     * of files mapped from the directory if there is none.
+     * @param name
+     * @param directory
+     * @return
+     * @throws IllegalStateException if the store of that name keeps direct
+     * buffers or maps files of another directory
+     */
+    public static GenomeStore mapped(String name, File directory) {
+        GenomeStore store = stores.computeIfAbsent(name, n -> new GenomeStore(n, directory));
+        if (!directory.equals(store.directory)) {
+            throw new IllegalStateException(String.format("The store %s %s", name,
+                    store.directory == null ? "keeps direct buffers" : "maps files of " + store.directory));
+        }
+        return store;
+    }
+
+    /**
+     * Returns the store of the worker with the given name, or null if there
+     * is none.
+     * @param name
+     * @return
+     */
+    public static GenomeStore lookup(String name) {
+        return stores.get(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isMapped() {
+        return directory != null;
+    }
+
+    /**
+     * Returns the number of genomes held by the store.
+     * @return
+     */
+    public int size() {
+        purge();
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of bytes of the genomes held by the store.
+     * @return
+     */
+    public long getBytes() {
+        purge();
+        return bytes.get();
+    }
+
+    private void purge() {
+        Object reference;
+        while ((reference = collected.poll()) != null) {
+            Entry entry = (Entry) reference;
+            if (entries.remove(entry.handle, entry)) {
+                bytes.addAndGet(-entry.size);
+            }
+        }
+    }
+
+    private ByteBuffer allocate(int size) throws IOException {
+        if (directory == null) {
+            return ByteBuffer.allocateDirect(size);
+        }
+        File file = File.createTempFile(name, ".genome", directory);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            // the mapping outlives the file
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Returns a 64 bit hash of the bytes of the buffer, read 8 bytes at a
+     * time.
+     * @param buffer
+     * @return
+     */
+    static long contentHash(ByteBuffer buffer) {
+        int size = buffer.capacity();
+        long h = size;
+        int i = 0;
+        for (; i + Long.BYTES <= size; i += Long.BYTES) {
+            h = Long.rotateLeft(h ^ buffer.getLong(i) * 0x9e3779b97f4a7c15L, 31) * 0xbf58476d1ce4e5b9L;
+        }
+        for (; i < size; i++) {
+            h = (h ^ (buffer.get(i) & 0xff)) * 0x100000001b3L;
+        }
+        return SplitMixRandom.split(h);
+    }
+
+    private StoredGenome add(ByteBuffer buffer) {
+        purge();
+        buffer.clear();
+        long handle = nextHandle.getAndIncrement();
+        long contentHash = contentHash(buffer);
+        entries.put(handle, new Entry(handle, buffer, contentHash, collected));
+        bytes.addAndGet(buffer.capacity());
+        return new StoredGenome(name, WORKER_ID, handle, buffer, contentHash);
+    }
+
+    /**
+     * Stores the remaining bytes of the buffer.
+     * @param genome
+     * @return
+     * @throws IOException
+     */
+    public StoredGenome put(ByteBuffer genome) throws IOException {
+        ByteBuffer buffer = allocate(genome.remaining());
+        buffer.put(genome.duplicate());
+        return add(buffer);
+    }
+
+    public StoredGenome put(byte[] genome) throws IOException {
+        return put(ByteBuffer.wrap(genome));
+    }
+
+    /**
+     * Stores the next size bytes of the stream.
+     * @param inStream
+     * @param size
+     * @return
+     * @throws IOException
+     */
+    public StoredGenome read(InputStream inStream, int size) throws IOException {
+        ByteBuffer buffer = allocate(size);
+        byte[] chunk = new byte[Math.min(size, COPY_SIZE)];
+        while (buffer.hasRemaining()) {
+            int n = inStream.read(chunk, 0, Math.min(chunk.length, buffer.remaining()));
+            if (n < 0) {
+                throw new IOException(String.format("Genome of %d bytes ended after %d bytes", size, buffer.position()));
+            }
+            buffer.put(chunk, 0, n);
+        }
+        return add(buffer);
+    }
+
+    /**
+     * Returns the buffer of the handle, or null if the genome is not held by
+     * the store anymore.
+     * @param handle
+     * @return
+     */
+    ByteBuffer get(long handle) {
+        Entry entry = entries.get(handle);
+        return entry == null ? null : entry.get();
+    }
+
+    /**
+     * Returns the stored genome of the handle.
+     * @param handle
+     * @return
+     */
+    public StoredGenome resolve(long handle) {
+        Entry entry = entries.get(handle);
+        ByteBuffer buffer = entry == null ? null : entry.get();
+        if (buffer == null) {
+            throw new IllegalStateException(String.format("Genome %d is not held by the store %s", handle, name));
+        }
+        return new StoredGenome(name, WORKER_ID, handle, buffer, entry.contentHash);
+    }
+
+    /**
+     * Keeps the genome held by the store until it is released.
+     * @param genome
+     */
+    public void retain(StoredGenome genome) {
+        Entry entry = entries.get(genome.getHandle());
+        if (entry == null) {
+            throw new IllegalStateException(String.format("Genome %d is not held by the store %s", genome.getHandle(), name));
+        }
+        synchronized (entry) {
+            entry.references++;
+            entry.retained = genome.buffer();
+        }
+    }
+
+    /**
+     * Releases a retention of the genome.  The genome is dropped once it is
+     * neither retained nor reachable.
+     * @param genome
+     */
+    public void release(StoredGenome genome) {
+        Entry entry = entries.get(genome.getHandle());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.references > 0 && --entry.references == 0) {
+                entry.retained = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of retentions of the genome.
+     * @param genome
+     * @return
+     */
+    public int getReferences(StoredGenome genome) {
+        Entry entry = entries.get(genome.getHandle());
+        if (entry == null) {
+            return 0;
+        }
+        synchronized (entry) {
+            return entry.references;
+        }
+    }
+}
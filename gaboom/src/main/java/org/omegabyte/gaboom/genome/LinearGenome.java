@@ -0,0 +1,32 @@
+package org.omegabyte.gaboom.genome;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * LinearGenome is a fixed length genome whose genes can be exchanged
+ * position by position with another genome of the same length.
+ * @param <GenomeT>
+ */
+public interface LinearGenome<GenomeT extends LinearGenome<GenomeT>> extends Serializable {
+
+    int size();
+
+    /**
+     * Returns the genes [0, point) of this genome followed by the genes
+     * [point, size) of the other genome.
+     * @param other
+     * @param point
+     * @return
+     */
+    GenomeT onePoint(GenomeT other, int point);
+
+    /**
+     * Returns a genome where every gene is taken from this or the other
+     * genome with equal probability.
+     * @param other
+     * @param random
+     * @return
+     */
+    GenomeT uniform(GenomeT other, Random random);
+}
@@ -0,0 +1,157 @@
+package org.omegabyte.gaboom.genome;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * PermutationGenome is an immutable ordering of the integers [0, size).
+ */
+public final class PermutationGenome implements Serializable {
+    private final int[] order;
+
+    private PermutationGenome(int[] order) {
+        this.order = order;
+    }
+
+    public static PermutationGenome identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return new PermutationGenome(order);
+    }
+
+    public static PermutationGenome of(int... order) {
+        return wrap(order.clone());
+    }
+
+    /**
+     * Wraps the order without copying it, the caller must not modify the
+     * array afterwards.
+     * @param order
+     * @return
+     */
+    public static PermutationGenome wrap(int[] order) {
+        boolean[] seen = new boolean[order.length];
+        for (int v : order) {
+            if (v < 0 || v >= order.length || seen[v]) {
+                throw new IllegalArgumentException("Not a permutation: " + Arrays.toString(order));
+            }
+            seen[v] = true;
+        }
+        return new PermutationGenome(order);
+    }
+
+    public int get(int i) {
+        return order[i];
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public int[] toArray() {
+        return order.clone();
+    }
+
+    /**
+     * Returns the genome with the genes at i and j exchanged.
+     * @param i
+     * @param j
+     * @return
+     */
+    public PermutationGenome swap(int i, int j) {
+        int[] result = order.clone();
+        result[i] = order[j];
+        result[j] = order[i];
+        return new PermutationGenome(result);
+    }
+
+    /**
+     * Returns the genome with the genes [from, to] in reverse order.
+     * @param from
+     * @param to
+     * @return
+     */
+    public PermutationGenome reverse(int from, int to) {
+        int[] result = order.clone();
+        for (int i = from, j = to; i < j; i++, j--) {
+            result[i] = order[j];
+            result[j] = order[i];
+        }
+        return new PermutationGenome(result);
+    }
+
+    /**
+     * Order crossover (OX): the genes [from, to] are copied from this genome
+     * and the remaining positions are filled, starting after to, with the
+     * genes of the other genome in their order of appearance.
+     * @param other
+     * @param from
+     * @param to
+     * @return
+     */
+    public PermutationGenome orderCrossover(PermutationGenome other, int from, int to) {
+        int n = order.length;
+        int[] result = new int[n];
+        boolean[] used = new boolean[n];
+        for (int i = from; i <= to; i++) {
+            result[i] = order[i];
+            used[order[i]] = true;
+        }
+
+        int pos = (to + 1) % n;
+        for (int k = 0; k < n; k++) {
+            int gene = other.order[(to + 1 + k) % n];
+            if (!used[gene]) {
+                result[pos] = gene;
+                pos = (pos + 1) % n;
+            }
+        }
+        return new PermutationGenome(result);
+    }
+
+    /**
+     * Partially mapped crossover (PMX): the genes [from, to] are copied from
+     * this genome and the remaining genes come from the other genome, where
+     * conflicts are resolved through the mapping defined by the segment.
+     * @param other
+     * @param from
+     * @param to
+     * @return
+     */
+    public PermutationGenome partiallyMappedCrossover(PermutationGenome other, int from, int to) {
+        int n = order.length;
+        int[] result = other.order.clone();
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[result[i]] = i;
+        }
+
+        for (int i = from; i <= to; i++) {
+            int gene = order[i];
+            int j = position[gene];
+            int displaced = result[i];
+            result[j] = displaced;
+            position[displaced] = j;
+            result[i] = gene;
+            position[gene] = i;
+        }
+        return new PermutationGenome(result);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PermutationGenome && Arrays.equals(order, ((PermutationGenome) o).order);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(order);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(order);
+    }
+}
@@ -0,0 +1,133 @@
+package org.omegabyte.gaboom.genome;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+/**
+ * StoredGenome is an immutable genome held by a GenomeStore.  It only holds
+ * the handle of the genome in the store of its worker, so that individuals of
+ * very large genomes stay small on the heap.  Its bytes are read through
+ * asByteBuffer.
+ *
+ * Java serialization keeps the handle only: a StoredGenome deserialized in
+ * another worker, or after its genome was dropped, cannot be read.
+ *
+ * The hash of the content is computed once when the genome is stored, so
+ * hashCode does not read the bytes and equals only compares the bytes of
+ * genomes of the same hash.
+ */
+public final class StoredGenome implements Serializable {
+    private final String storeName;
+    private final long workerId;
+    private final long handle;
+    private final int size;
+    private final long contentHash;
+    private transient ByteBuffer buffer;
+
+    StoredGenome(String storeName, long workerId, long handle, ByteBuffer buffer, long contentHash) {
+        this.storeName = storeName;
+        this.workerId = workerId;
+        this.handle = handle;
+        this.size = buffer.capacity();
+        this.buffer = buffer;
+        this.contentHash = contentHash;
+    }
+
+    public String getStoreName() {
+        return storeName;
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    public long getHandle() {
+        return handle;
+    }
+
+    /**
+     * Returns the number of bytes of the genome.
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the 64 bit hash of the bytes of the genome.
+     * @return
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Returns true if the genome can be read in this worker.
+     * @return
+     */
+    public boolean isAvailable() {
+        return buffer != null || resolve() != null;
+    }
+
+    private ByteBuffer resolve() {
+        GenomeStore store = workerId == GenomeStore.WORKER_ID ? GenomeStore.lookup(storeName) : null;
+        if (store != null) {
+            buffer = store.get(handle);
+        }
+        return buffer;
+    }
+
+    ByteBuffer buffer() {
+        if (buffer == null && resolve() == null) {
+            throw new IllegalStateException(String.format("Genome %d of the store %s is not available in this worker", handle, storeName));
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a read only view of the bytes of the genome.
+     * @return
+     */
+    public ByteBuffer asByteBuffer() {
+        ByteBuffer view = buffer().asReadOnlyBuffer();
+        view.clear();
+        return view;
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[size];
+        asByteBuffer().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Compares the bytes of the genomes, unless they have the same handle or
+     * different content hashes.
+     * @param o
+     * @return
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StoredGenome)) {
+            return false;
+        }
+        StoredGenome other = (StoredGenome) o;
+        if (workerId == other.workerId && handle == other.handle && storeName.equals(other.storeName)) {
+            return true;
+        }
+        return size == other.size && contentHash == other.contentHash && asByteBuffer().equals(other.asByteBuffer());
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(contentHash);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StoredGenome(%s:%d, %d bytes)", storeName, handle, size);
+    }
+}
@@ -0,0 +1,181 @@
+package org.omegabyte.gaboom.io;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.util.VarInt;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.utils.IdGenerator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SnapshotFormat reads and writes the records of a snapshot file.  A file
+ * starts with the magic number, the format version and the kind of records it
+ * contains, followed by the records each prefixed with a RECORD marker and
+ * terminated by an END marker, so truncated files are detected.
+ *
+ * An individual is encoded as its id, a flags byte, the id of its parent, the
+ * fitness and the genome when present.  Version 1 files, without parents, are
+ * still read.  The genome is written with the genome coder
+ * and prefixed with its length, so readers can skip it.  Strings and lengths
+ * are var ints, the creation time, seed and fitness are fixed size.
+ */
+public class SnapshotFormat {
+    public static final int MAGIC = 0x4742534E;
+    public static final byte VERSION = 2;
+
+    public static final byte POPULATION = 1;
+    public static final byte HALL_OF_FAME = 2;
+
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+
+    private static final byte HAS_FITNESS = 1;
+    private static final byte HAS_GENOME = 2;
+    private static final byte HAS_PARENT = 4;
+
+    public static void writeHeader(DataOutputStream out, byte kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(kind);
+    }
+
+    public static void readHeader(DataInputStream in, byte kind) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException(String.format("Not a snapshot file, magic=%08x", magic));
+        }
+        byte version = in.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        byte actualKind = in.readByte();
+        if (actualKind != kind) {
+            throw new IOException("Expected snapshot records of kind " + kind + ", got " + actualKind);
+        }
+    }
+
+    public static void writeEnd(DataOutputStream out) throws IOException {
+        out.writeByte(END);
+    }
+
+    /**
+     * Reads the next record marker and returns false at the end of the file.
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    public static boolean hasNext(DataInputStream in) throws IOException {
+        byte marker = in.readByte();
+        if (marker != RECORD && marker != END) {
+            throw new IOException("Corrupted snapshot, unexpected marker " + marker);
+        }
+        return marker == RECORD;
+    }
+
+    public static <GenomeT extends Serializable> void writePopulation(DataOutputStream out, Population<GenomeT> population, Coder<GenomeT> genomeCoder) throws IOException {
+        out.writeByte(RECORD);
+        writeString(out, population.getId());
+        out.writeLong(population.getCreated());
+        VarInt.encode(population.getGenerations(), out);
+        out.writeLong(population.getSeed());
+        writeIndividuals(out, population.getIndividuals(), genomeCoder);
+    }
+
+    public static <GenomeT extends Serializable> Population<GenomeT> readPopulation(DataInputStream in, Coder<GenomeT> genomeCoder) throws IOException {
+        String id = readString(in);
+        long created = in.readLong();
+        int generations = VarInt.decodeInt(in);
+        long seed = in.readLong();
+        return new Population<>(id, created, generations, seed, readIndividuals(in, genomeCoder));
+    }
+
+    public static <GenomeT extends Serializable> void writeHallOfFame(DataOutputStream out, List<Individual<GenomeT>> hallOfFame, Coder<GenomeT> genomeCoder) throws IOException {
+        out.writeByte(RECORD);
+        writeIndividuals(out, hallOfFame, genomeCoder);
+    }
+
+    public static <GenomeT extends Serializable> List<Individual<GenomeT>> readHallOfFame(DataInputStream in, Coder<GenomeT> genomeCoder) throws IOException {
+        return readIndividuals(in, genomeCoder);
+    }
+
+    private static <GenomeT extends Serializable> void writeIndividuals(DataOutputStream out, List<Individual<GenomeT>> individuals, Coder<GenomeT> genomeCoder) throws IOException {
+        VarInt.encode(individuals.size(), out);
+        for (Individual<GenomeT> individual : individuals) {
+            writeIndividual(out, individual, genomeCoder);
+        }
+    }
+
+    private static <GenomeT extends Serializable> List<Individual<GenomeT>> readIndividuals(DataInputStream in, Coder<GenomeT> genomeCoder) throws IOException {
+        int size = VarInt.decodeInt(in);
+        List<Individual<GenomeT>> individuals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            individuals.add(readIndividual(in, genomeCoder));
+        }
+        return individuals;
+    }
+
+    private static <GenomeT extends Serializable> void writeIndividual(DataOutputStream out, Individual<GenomeT> individual, Coder<GenomeT> genomeCoder) throws IOException {
+        writeString(out, individual.getId());
+        byte flags = 0;
+        if (individual.getFitness() != null) {
+            flags |= HAS_FITNESS;
+        }
+        if (individual.getGenome() != null) {
+            flags |= HAS_GENOME;
+        }
+        if (individual.isMutant()) {
+            flags |= HAS_PARENT;
+        }
+        out.writeByte(flags);
+        if (individual.isMutant()) {
+            out.writeLong(individual.getLineageId());
+        }
+        if (individual.getFitness() != null) {
+            out.writeDouble(individual.getFitness());
+        }
+        if (individual.getGenome() != null) {
+            byte[] genome = CoderUtils.encodeToByteArray(genomeCoder, individual.getGenome());
+            VarInt.encode(genome.length, out);
+            out.write(genome);
+        }
+    }
+
+    private static <GenomeT extends Serializable> Individual<GenomeT> readIndividual(DataInputStream in, Coder<GenomeT> genomeCoder) throws IOException {
+        String id = readString(in);
+        byte flags = in.readByte();
+        Long parentId = (flags & HAS_PARENT) != 0 ? in.readLong() : null;
+        Double fitness = (flags & HAS_FITNESS) != 0 ? in.readDouble() : null;
+        GenomeT genome = null;
+        if ((flags & HAS_GENOME) != 0) {
+            byte[] bytes = new byte[VarInt.decodeInt(in)];
+            in.readFully(bytes);
+            genome = CoderUtils.decodeFromByteArray(genomeCoder, bytes);
+        }
+        Individual<GenomeT> individual = new Individual<>(id, genome);
+        if (parentId != null && IdGenerator.isCompact(individual.getNumericId())) {
+            individual = new Individual<>(individual.getNumericId(), parentId, genome);
+        }
+        individual.setFitness(fitness);
+        return individual;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        VarInt.encode(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[VarInt.decodeInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,499 @@
+package org.omegabyte.gaboom.io;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.NullableCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.io.FileIO;
+import org.apache.beam.sdk.io.FileSystems;
+import org.apache.beam.sdk.io.fs.EmptyMatchTreatment;
+import org.apache.beam.sdk.io.fs.MatchResult;
+import org.apache.beam.sdk.io.fs.MetadataCoder;
+import org.apache.beam.sdk.io.fs.ResourceId;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.Flatten;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.util.MimeTypes;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PBegin;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.PDone;
+import org.apache.beam.sdk.values.TupleTag;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+import org.omegabyte.gaboom.coders.PopulationCoder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SnapshotIO writes the populations and the hall of fame of a run to sharded
+ * snapshot files, and reads them back so that Evolve can resume from them in
+ * place of Initialize.  The populations are written to
+ * {prefix}-population-SSSSS-of-NNNNN.snapshot and the hall of fame to
+ * {prefix}-halloffame-00000-of-00001.snapshot, see SnapshotFormat.  Every
+ * shard is written, empty ones included, and a snapshot is only read if all
+ * its shards are there, so a snapshot is never mixed with the shards of
+ * another one.
+ */
+public class SnapshotIO {
+    public static final int DEFAULT_NUM_SHARDS = 8;
+
+    private static final String POPULATION = "population";
+    private static final String HALL_OF_FAME = "halloffame";
+    private static final String SUFFIX = ".snapshot";
+    private static final Pattern SHARD = Pattern.compile("-(\\d{5})-of-(\\d{5})" + Pattern.quote(SUFFIX) + "$");
+
+    static String shardName(String prefix, String kind, int shard, int numShards) {
+        return String.format("%s-%s-%05d-of-%05d%s", prefix, kind, shard, numShards, SUFFIX);
+    }
+
+    static String filePattern(String prefix, String kind) {
+        return String.format("%s-%s-*%s", prefix, kind, SUFFIX);
+    }
+
+    /**
+     * Checks that the files matched by the pattern are the numShards shards,
+     * all of the same numShards, of a single snapshot.
+     * @param filePattern
+     * @param files
+     * @throws IOException if a shard is missing or the shards disagree
+     */
+    static void checkShards(String filePattern, List<MatchResult.Metadata> files) throws IOException {
+        int numShards = -1;
+        Set<Integer> shards = new HashSet<>();
+        for (MatchResult.Metadata file : files) {
+            Matcher matcher = SHARD.matcher(file.resourceId().getFilename());
+            if (!matcher.find()) {
+                throw new IOException("Not a snapshot shard " + file.resourceId());
+            }
+            int shard = Integer.parseInt(matcher.group(1));
+            int of = Integer.parseInt(matcher.group(2));
+            if (numShards >= 0 && of != numShards) {
+                throw new IOException(String.format("Snapshot %s mixes shards of %d and %d shards", filePattern, numShards, of));
+            }
+            if (shard >= of) {
+                throw new IOException(String.format("Snapshot %s has shard %d of %d shards", filePattern, shard, of));
+            }
+            numShards = of;
+            shards.add(shard);
+        }
+        if (shards.size() != numShards) {
+            throw new IOException(String.format("Snapshot %s has %d of its %d shards", filePattern, shards.size(), numShards));
+        }
+    }
+
+    /**
+     * Write stores the populations and hall of fame of a PCollectionTuple.
+     * The genome coder of the populations must be known, and there must be no
+     * snapshot at the prefix yet.
+     * @param <GenomeT>
+     */
+    public static class Write<GenomeT extends Serializable> extends PTransform<PCollectionTuple, PDone> {
+        private final String prefix;
+        private final TupleTag<Population<GenomeT>> populationTT;
+        private final TupleTag<List<Individual<GenomeT>>> hallOfFameTT;
+        private final int numShards;
+
+        Write(String prefix, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, int numShards) {
+            this.prefix = prefix;
+            this.populationTT = populationTT;
+            this.hallOfFameTT = hallOfFameTT;
+            this.numShards = numShards;
+        }
+
+        public Write<GenomeT> withNumShards(int numShards) {
+            if (numShards < 1) {
+                throw new IllegalArgumentException("numShards must be at least 1, got " + numShards);
+            }
+            return new Write<>(prefix, populationTT, hallOfFameTT, numShards);
+        }
+
+        @Override
+        public PDone expand(PCollectionTuple input) {
+            PCollection<Population<GenomeT>> population = input.get(populationTT);
+            Coder<GenomeT> genomeCoder = GenomeCoders.of(population.getCoder());
+            if (genomeCoder == null) {
+                throw new IllegalArgumentException("Snapshots require a known genome coder, got " + population.getCoder());
+            }
+            for (String kind : Arrays.asList(POPULATION, HALL_OF_FAME)) {
+                checkNoShards(filePattern(prefix, kind));
+            }
+
+            population
+                    .apply(ParDo.of(new ShardPopulationFn<>(numShards)))
+                    .setCoder(KvCoder.of(VarIntCoder.of(), PopulationCoder.of(genomeCoder)))
+                    .apply("WritePopulationShards", new WriteShards<>(PopulationCoder.of(genomeCoder), numShards, new WritePopulationShardFn<>(prefix, numShards, genomeCoder)));
+
+            input.get(hallOfFameTT)
+                    .apply(ParDo.of(new ShardHallOfFameFn<>()))
+                    .setCoder(KvCoder.of(VarIntCoder.of(), ListCoder.of(IndividualCoder.of(genomeCoder))))
+                    .apply("WriteHallOfFameShards", new WriteShards<>(ListCoder.of(IndividualCoder.of(genomeCoder)), 1, new WriteHallOfFameShardFn<>(prefix, genomeCoder)));
+
+            return PDone.in(input.getPipeline());
+        }
+
+        private static void checkNoShards(String filePattern) {
+            try {
+                MatchResult match = FileSystems.match(filePattern, EmptyMatchTreatment.ALLOW);
+                if (match.status() == MatchResult.Status.OK && !match.metadata().isEmpty()) {
+                    throw new IllegalStateException(String.format("A snapshot already exists, %d files match %s", match.metadata().size(), filePattern));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot match " + filePattern, e);
+            }
+        }
+    }
+
+    /**
+     * WriteShards groups the records by shard and writes every shard from 0
+     * to numShards - 1, the shards without records as empty files.
+     * @param <T>
+     */
+    static class WriteShards<T> extends PTransform<PCollection<KV<Integer, T>>, PDone> {
+        private final Coder<T> recordCoder;
+        private final int numShards;
+        private final WriteShardFn<T> writeShardFn;
+
+        WriteShards(Coder<T> recordCoder, int numShards, WriteShardFn<T> writeShardFn) {
+            this.recordCoder = recordCoder;
+            this.numShards = numShards;
+            this.writeShardFn = writeShardFn;
+        }
+
+        @Override
+        public PDone expand(PCollection<KV<Integer, T>> input) {
+            // a null record per shard, skipped by WriteShardFn, so that no shard is left out
+            KvCoder<Integer, T> coder = KvCoder.of(VarIntCoder.of(), NullableCoder.of(recordCoder));
+            List<KV<Integer, T>> emptyShards = new ArrayList<>(numShards);
+            for (int i = 0; i < numShards; i++) {
+                emptyShards.add(KV.of(i, null));
+            }
+            PCollection<KV<Integer, T>> shards = input.getPipeline().apply("CreateShards", Create.of(emptyShards).withCoder(coder));
+
+            PCollectionList.of(shards).and(input)
+                    .apply(Flatten.pCollections())
+                    .setCoder(coder)
+                    .apply(GroupByKey.create())
+                    .apply(ParDo.of(writeShardFn));
+            return PDone.in(input.getPipeline());
+        }
+    }
+
+    /**
+     * Read loads the populations and hall of fame written by Write, one file
+     * per element so the shards are read in parallel.  With memory mapping,
+     * local files are mapped instead of streamed.  The read fails if a shard
+     * is missing or the shards are not of the same snapshot.
+     * @param <GenomeT>
+     */
+    public static class Read<GenomeT extends Serializable> extends PTransform<PBegin, PCollectionTuple> {
+        private final String prefix;
+        private final Coder<GenomeT> genomeCoder;
+        private final TupleTag<Population<GenomeT>> populationTT;
+        private final TupleTag<List<Individual<GenomeT>>> hallOfFameTT;
+        private final boolean memoryMapped;
+
+        Read(String prefix, Coder<GenomeT> genomeCoder, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, boolean memoryMapped) {
+            this.prefix = prefix;
+            this.genomeCoder = genomeCoder;
+            this.populationTT = populationTT;
+            this.hallOfFameTT = hallOfFameTT;
+            this.memoryMapped = memoryMapped;
+        }
+
+        public Read<GenomeT> withMemoryMapping() {
+            return new Read<>(prefix, genomeCoder, populationTT, hallOfFameTT, true);
+        }
+
+        @Override
+        public PCollectionTuple expand(PBegin input) {
+            PCollection<Population<GenomeT>> population = input
+                    .apply("MatchPopulations", new MatchShards(filePattern(prefix, POPULATION)))
+                    .apply("ReadPopulationMatches", FileIO.readMatches())
+                    .apply(ParDo.of(new ReadPopulationFn<>(genomeCoder, memoryMapped)))
+                    .setCoder(PopulationCoder.of(genomeCoder));
+
+            PCollection<List<Individual<GenomeT>>> hallOfFame = input
+                    .apply("MatchHallOfFame", new MatchShards(filePattern(prefix, HALL_OF_FAME)))
+                    .apply("ReadHallOfFameMatches", FileIO.readMatches())
+                    .apply(ParDo.of(new ReadHallOfFameFn<>(genomeCoder, memoryMapped)))
+                    .setCoder(ListCoder.of(IndividualCoder.of(genomeCoder)));
+
+            return PCollectionTuple.of(populationTT, population).and(hallOfFameTT, hallOfFame);
+        }
+    }
+
+    /**
+     * MatchShards matches the shards of a snapshot and checks them against
+     * each other before they are read.
+     */
+    static class MatchShards extends PTransform<PBegin, PCollection<MatchResult.Metadata>> {
+        private final String filePattern;
+
+        MatchShards(String filePattern) {
+            this.filePattern = filePattern;
+        }
+
+        @Override
+        public PCollection<MatchResult.Metadata> expand(PBegin input) {
+            PCollection<MatchResult.Metadata> files = input.apply(FileIO.match().filepattern(filePattern));
+            PCollectionView<List<MatchResult.Metadata>> filesView = files.apply(View.asList());
+            return files
+                    .apply(ParDo.of(new CheckShardsFn(filePattern, filesView)).withSideInputs(filesView))
+                    .setCoder(MetadataCoder.of());
+        }
+    }
+
+    static class CheckShardsFn extends DoFn<MatchResult.Metadata, MatchResult.Metadata> {
+        private final String filePattern;
+        private final PCollectionView<List<MatchResult.Metadata>> filesView;
+
+        CheckShardsFn(String filePattern, PCollectionView<List<MatchResult.Metadata>> filesView) {
+            this.filePattern = filePattern;
+            this.filesView = filesView;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) throws IOException {
+            checkShards(filePattern, c.sideInput(filesView));
+            c.output(c.element());
+        }
+    }
+
+    static class ShardPopulationFn<GenomeT extends Serializable> extends DoFn<Population<GenomeT>, KV<Integer, Population<GenomeT>>> {
+        private final int numShards;
+
+        ShardPopulationFn(int numShards) {
+            this.numShards = numShards;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(KV.of(Math.floorMod(c.element().getId().hashCode(), numShards), c.element()));
+        }
+    }
+
+    static class ShardHallOfFameFn<GenomeT extends Serializable> extends DoFn<List<Individual<GenomeT>>, KV<Integer, List<Individual<GenomeT>>>> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(KV.of(0, c.element()));
+        }
+    }
+
+    /**
+     * Writes the records to a temporary file which is then renamed, so
+     * readers never see a partial shard.
+     */
+    static abstract class WriteShardFn<T> extends DoFn<KV<Integer, Iterable<T>>, Void> {
+        abstract byte kind();
+
+        abstract String shardName(int shard);
+
+        abstract void writeRecord(DataOutputStream out, T record) throws IOException;
+
+        @ProcessElement
+        public void processElement(ProcessContext c) throws IOException {
+            String name = shardName(c.element().getKey());
+            ResourceId temp = FileSystems.matchNewResource(name + ".tmp", false);
+            ResourceId target = FileSystems.matchNewResource(name, false);
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(FileSystems.create(temp, MimeTypes.BINARY))))) {
+                SnapshotFormat.writeHeader(out, kind());
+                for (T record : c.element().getValue()) {
+                    if (record != null) {
+                        writeRecord(out, record);
+                    }
+                }
+                SnapshotFormat.writeEnd(out);
+            }
+            FileSystems.rename(Collections.singletonList(temp), Collections.singletonList(target));
+        }
+    }
+
+    static class WritePopulationShardFn<GenomeT extends Serializable> extends WriteShardFn<Population<GenomeT>> {
+        private final String prefix;
+        private final int numShards;
+        private final Coder<GenomeT> genomeCoder;
+
+        WritePopulationShardFn(String prefix, int numShards, Coder<GenomeT> genomeCoder) {
+            this.prefix = prefix;
+            this.numShards = numShards;
+            this.genomeCoder = genomeCoder;
+        }
+
+        @Override
+        byte kind() {
+            return SnapshotFormat.POPULATION;
+        }
+
+        @Override
+        String shardName(int shard) {
+            return SnapshotIO.shardName(prefix, POPULATION, shard, numShards);
+        }
+
+        @Override
+        void writeRecord(DataOutputStream out, Population<GenomeT> population) throws IOException {
+            SnapshotFormat.writePopulation(out, population, genomeCoder);
+        }
+    }
+
+    static class WriteHallOfFameShardFn<GenomeT extends Serializable> extends WriteShardFn<List<Individual<GenomeT>>> {
+        private final String prefix;
+        private final Coder<GenomeT> genomeCoder;
+
+        WriteHallOfFameShardFn(String prefix, Coder<GenomeT> genomeCoder) {
+            this.prefix = prefix;
+            this.genomeCoder = genomeCoder;
+        }
+
+        @Override
+        byte kind() {
+            return SnapshotFormat.HALL_OF_FAME;
+        }
+
+        @Override
+        String shardName(int shard) {
+            return SnapshotIO.shardName(prefix, HALL_OF_FAME, shard, 1);
+        }
+
+        @Override
+        void writeRecord(DataOutputStream out, List<Individual<GenomeT>> hallOfFame) throws IOException {
+            SnapshotFormat.writeHallOfFame(out, hallOfFame, genomeCoder);
+        }
+    }
+
+    static abstract class ReadShardFn<T> extends DoFn<FileIO.ReadableFile, T> {
+        private final boolean memoryMapped;
+
+        ReadShardFn(boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+        }
+
+        abstract byte kind();
+
+        abstract T readRecord(DataInputStream in) throws IOException;
+
+        @ProcessElement
+        public void processElement(ProcessContext c) throws IOException {
+            try (DataInputStream in = new DataInputStream(open(c.element()))) {
+                SnapshotFormat.readHeader(in, kind());
+                while (SnapshotFormat.hasNext(in)) {
+                    c.output(readRecord(in));
+                }
+            }
+        }
+
+        private InputStream open(FileIO.ReadableFile file) throws IOException {
+            ResourceId resourceId = file.getMetadata().resourceId();
+            if (memoryMapped && "file".equals(resourceId.getScheme()) && file.getMetadata().sizeBytes() <= Integer.MAX_VALUE) {
+                try (FileChannel channel = FileChannel.open(Paths.get(resourceId.toString()), StandardOpenOption.READ)) {
+                    return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+            return new BufferedInputStream(Channels.newInputStream(file.open()));
+        }
+    }
+
+    static class ReadPopulationFn<GenomeT extends Serializable> extends ReadShardFn<Population<GenomeT>> {
+        private final Coder<GenomeT> genomeCoder;
+
+        ReadPopulationFn(Coder<GenomeT> genomeCoder, boolean memoryMapped) {
+            super(memoryMapped);
+            this.genomeCoder = genomeCoder;
+        }
+
+        @Override
+        byte kind() {
+            return SnapshotFormat.POPULATION;
+        }
+
+        @Override
+        Population<GenomeT> readRecord(DataInputStream in) throws IOException {
+            return SnapshotFormat.readPopulation(in, genomeCoder);
+        }
+    }
+
+    static class ReadHallOfFameFn<GenomeT extends Serializable> extends ReadShardFn<List<Individual<GenomeT>>> {
+        private final Coder<GenomeT> genomeCoder;
+
+        ReadHallOfFameFn(Coder<GenomeT> genomeCoder, boolean memoryMapped) {
+            super(memoryMapped);
+            this.genomeCoder = genomeCoder;
+        }
+
+        @Override
+        byte kind() {
+            return SnapshotFormat.HALL_OF_FAME;
+        }
+
+        @Override
+        List<Individual<GenomeT>> readRecord(DataInputStream in) throws IOException {
+            return SnapshotFormat.readHallOfFame(in, genomeCoder);
+        }
+    }
+
+    static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    public static <GenomeT extends Serializable> Write<GenomeT> write(String prefix, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT) {
+        return new Write<>(prefix, populationTT, hallOfFameTT, DEFAULT_NUM_SHARDS);
+    }
+
+    public static <GenomeT extends Serializable> Read<GenomeT> read(String prefix, Coder<GenomeT> genomeCoder, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT) {
+        return new Read<>(prefix, genomeCoder, populationTT, hallOfFameTT, false);
+    }
+}
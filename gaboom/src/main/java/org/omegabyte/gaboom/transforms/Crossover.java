@@ -1,6 +1,7 @@
 package org.omegabyte.gaboom.transforms;
 
 import org.apache.beam.runners.dataflow.repackaged.com.google.common.collect.ImmutableList;
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
@@ -11,6 +12,8 @@ import org.omegabyte.gaboom.CrossoverIndividuals;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
 import org.omegabyte.gaboom.transforms.crossover.IndividualsToCrossoverFn;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+import org.omegabyte.gaboom.utils.IdGenerator;
 
 import java.io.Serializable;
 import java.util.Arrays;
@@ -21,6 +24,7 @@ import java.util.Random;
 public class Crossover {
 
     public abstract static class CrossoverFn<GenomeT extends Serializable> extends DoFn<KV<String, CrossoverIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+        private final Counter crossovers = GaboomMetrics.counter(GaboomMetrics.CROSSOVERS);
         private double crossRate = 0;
 
         public void setCrossRate(double crossRate) {
@@ -40,9 +44,12 @@ public class Crossover {
             if (crossRate > 0 && rng.nextDouble() <= crossRate) {
                 GenomeT o1 = crossover(c, rng, p1.getGenome(), p2.getGenome());
                 GenomeT o2 = crossover(c, rng, p1.getGenome(), p2.getGenome());
+                crossovers.inc();
 
-                offspring.getIndividuals().add(new Individual<>(rng, o1));
-                offspring.getIndividuals().add(new Individual<>(rng, o2));
+                // the ids of the offsprings are hashed from a salt and the ids of their parents
+                long salt = rng.nextLong();
+                offspring.getIndividuals().add(new Individual<>(IdGenerator.idOf(salt, p1.getNumericId(), p2.getNumericId(), 0), o1));
+                offspring.getIndividuals().add(new Individual<>(IdGenerator.idOf(salt, p1.getNumericId(), p2.getNumericId(), 1), o2));
             } else {
                 offspring.getIndividuals().add(p1);
                 offspring.getIndividuals().add(p2);
@@ -75,6 +82,14 @@ public class Crossover {
             return ct;
         }
 
+        public CrossoverFn<GenomeT> getFn() {
+            return fn;
+        }
+
+        public List<PCollectionView<?>> getSideInputs() {
+            return sideInputs;
+        }
+
         @Override
         public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
             return input
@@ -1,41 +1,193 @@
 package org.omegabyte.gaboom.transforms;
 
+import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.coders.KvCoder;
-import org.apache.beam.sdk.coders.SerializableCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarLongCoder;
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.transforms.*;
 import org.apache.beam.sdk.values.*;
 import org.omegabyte.gaboom.BaseItem;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.BaseItemCoder;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.coders.IndividualCoder;
 import org.omegabyte.gaboom.transforms.evaluate.AssignIndividualTransform;
+import org.omegabyte.gaboom.transforms.evaluate.BatchFitnessTransform;
+import org.omegabyte.gaboom.transforms.evaluate.CachedFitnessFn;
+import org.omegabyte.gaboom.transforms.evaluate.CachedFitnessTransform;
 import org.omegabyte.gaboom.transforms.evaluate.CreateIndividualsTransform;
+import org.omegabyte.gaboom.transforms.evaluate.EvaluateInKeyFn;
+import org.omegabyte.gaboom.transforms.evaluate.FitnessFnTransform;
 import org.omegabyte.gaboom.transforms.evaluate.IndexIndividualFn;
 import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Random;
 
 public class Evaluate {
 
+    /**
+     * FitnessTransform evaluates the individuals of a PCollection.  The
+     * evaluations of a transform other than the ones of gaboom are counted
+     * in fitnessEvaluations as its individuals are sent to it, but its
+     * fitness latency is not known, so fitnessLatencyMicros is not reported
+     * for it.
+     * @param <GenomeT>
+     */
     public static abstract class FitnessTransform<GenomeT extends Serializable> extends PTransform<PCollection<Individual<GenomeT>>, PCollection<Individual<GenomeT>>> {}
 
+    /**
+     * FitnessFn is a pure function from a genome to its fitness.  Being free
+     * of side inputs and of other individuals, it allows the populations to be
+     * evaluated in place without shuffling the individuals.
+     * @param <GenomeT>
+     */
+    public static abstract class FitnessFn<GenomeT extends Serializable> implements Serializable {
+        public void setup() {}
+
+        public abstract double fitness(GenomeT genome);
+
+        public void teardown() {}
+    }
+
+    /**
+     * BatchFitnessFn scores a batch of individuals at once, returning their
+     * fitnesses in the order of the batch.
+     * @param <GenomeT>
+     */
+    public static abstract class BatchFitnessFn<GenomeT extends Serializable> implements Serializable {
+        public void setup() {}
+
+        public abstract List<Double> evaluate(List<Individual<GenomeT>> individuals);
+
+        public void teardown() {}
+    }
+
+    /**
+     * Returns whether the fitness transform counts its fitness evaluations
+     * itself.
+     * @param fitnessTransform
+     * @return
+     */
+    public static boolean countsEvaluations(FitnessTransform<?> fitnessTransform) {
+        return fitnessTransform instanceof FitnessFnTransform
+                || fitnessTransform instanceof BatchFitnessTransform
+                || fitnessTransform instanceof CachedFitnessTransform;
+    }
+
+    /**
+     * Returns whether the fitness function counts its fitness evaluations
+     * itself, as a CachedFitnessFn counts only its misses.
+     * @param fitnessFn
+     * @return
+     */
+    public static boolean countsEvaluations(FitnessFn<?> fitnessFn) {
+        return fitnessFn instanceof CachedFitnessFn;
+    }
+
     public static class EvaluateTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, Individuals<GenomeT>>>, PCollection<KV<String, Individuals<GenomeT>>>> {
         private final FitnessTransform<GenomeT> fitnessTransform;
+        private final FitnessFn<GenomeT> fitnessFn;
+        private final int hotKeyFanout;
 
         public EvaluateTransform(FitnessTransform<GenomeT> fitnessTransform) {
+            this(fitnessTransform, null, 0);
+        }
+
+        /**
+         * Evaluates and sorts each population inside a single ParDo per key.
+         * The output is identical to the fan out evaluation of the same
+         * fitness function.
+         * @param fitnessFn
+         */
+        public EvaluateTransform(FitnessFn<GenomeT> fitnessFn) {
+            this(FitnessFnTransform.of(fitnessFn), fitnessFn, 0);
+        }
+
+        private EvaluateTransform(FitnessTransform<GenomeT> fitnessTransform, FitnessFn<GenomeT> fitnessFn, int hotKeyFanout) {
             this.fitnessTransform = fitnessTransform;
+            this.fitnessFn = fitnessFn;
+            this.hotKeyFanout = hotKeyFanout;
+        }
+
+        /**
+         * Returns the fitness function evaluated inside the population key, or
+         * null when the individuals are evaluated by a FitnessTransform.
+         * @return
+         */
+        public FitnessFn<GenomeT> getFitnessFn() {
+            return fitnessFn;
+        }
+
+        /**
+         * Evaluates the individuals of a fitness function one by one across
+         * the workers instead of inside their population key.
+         * @return
+         */
+        public EvaluateTransform<GenomeT> withFanOut() {
+            return new EvaluateTransform<>(fitnessTransform, null, hotKeyFanout);
+        }
+
+        /**
+         * Sorts the individuals of a fanned out evaluation in partial sorted
+         * runs on fanout intermediate keys per population before they are
+         * merged on the population key, see Combine.PerKey.withHotKeyFanout.
+         * The same fanout applies to the hall of fame of Initialize and
+         * Evolve.  A fanout of 0 or 1 disables it.
+         * @param fanout
+         * @return
+         */
+        public EvaluateTransform<GenomeT> withHotKeyFanout(int fanout) {
+            return new EvaluateTransform<>(fitnessTransform, fitnessFn, fanout);
+        }
+
+        public int getHotKeyFanout() {
+            return hotKeyFanout;
+        }
+
+        /**
+         * Memoizes the fitness of the genomes in a bounded per-worker cache,
+         * keyed by the genome itself.
+         * @param maxSize
+         * @return
+         */
+        public EvaluateTransform<GenomeT> withFitnessCache(int maxSize) {
+            return withFitnessCache(maxSize, genome -> genome);
+        }
+
+        /**
+         * Memoizes the fitness of the genomes in a bounded per-worker cache,
+         * keyed by the given genome key function.
+         * @param maxSize
+         * @param genomeKeyFn
+         * @return
+         */
+        public EvaluateTransform<GenomeT> withFitnessCache(int maxSize, SerializableFunction<GenomeT, ?> genomeKeyFn) {
+            if (fitnessFn != null) {
+                return new EvaluateTransform<>(CachedFitnessFn.of(fitnessFn, maxSize, genomeKeyFn)).withHotKeyFanout(hotKeyFanout);
+            }
+            return new EvaluateTransform<>(CachedFitnessTransform.of(fitnessTransform, maxSize, genomeKeyFn)).withHotKeyFanout(hotKeyFanout);
         }
 
         static class ExpandIndividualsFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, Individual<GenomeT>> {
-            private final TupleTag<KV<String, String>> keyAtIdTT;
+            private final TupleTag<KV<Long, String>> keyAtIdTT;
+            private final TupleTag<KV<Long, Long>> lineageAtIdTT;
             private final TupleTag<KV<String, BaseItem>> baseItemAtKeyTT;
             private final TupleTag<KV<String, Individual<GenomeT>>> evaluatedAtKeyTT;
+            private final boolean countEvaluations;
+            private final Counter alreadyEvaluated = GaboomMetrics.counter(GaboomMetrics.ALREADY_EVALUATED);
+            private final Counter evaluations = GaboomMetrics.counter(GaboomMetrics.FITNESS_EVALUATIONS);
 
-            public ExpandIndividualsFn(TupleTag<KV<String, String>> keyAtIdTT, TupleTag<KV<String, BaseItem>> baseItemAtKeyTT, TupleTag<KV<String, Individual<GenomeT>>> evaluatedAtKeyTT) {
+            public ExpandIndividualsFn(TupleTag<KV<Long, String>> keyAtIdTT, TupleTag<KV<Long, Long>> lineageAtIdTT, TupleTag<KV<String, BaseItem>> baseItemAtKeyTT, TupleTag<KV<String, Individual<GenomeT>>> evaluatedAtKeyTT, boolean countEvaluations) {
                 this.keyAtIdTT = keyAtIdTT;
+                this.lineageAtIdTT = lineageAtIdTT;
                 this.baseItemAtKeyTT = baseItemAtKeyTT;
                 this.evaluatedAtKeyTT = evaluatedAtKeyTT;
+                this.countEvaluations = countEvaluations;
             }
 
             @ProcessElement
@@ -43,17 +195,22 @@ public class Evaluate {
                 String key = c.element().getKey();
                 Individuals<GenomeT> individuals = c.element().getValue();
 
-                Random r = new Random();
-                r.setSeed(individuals.getSeed());
-
+                Random r = individuals.getRandomGenerator();
                 c.output(baseItemAtKeyTT, KV.of(key, new BaseItem(r.nextLong())));
                 individuals.getIndividuals().forEach(i -> {
                     if (i.getFitness() != null) {
+                        alreadyEvaluated.inc();
                         c.output(evaluatedAtKeyTT, KV.of(key, i));
                         return;
                     }
 
-                    c.output(keyAtIdTT, KV.of(i.getId(), key));
+                    c.output(keyAtIdTT, KV.of(i.getNumericId(), key));
+                    if (i.isMutant()) {
+                        c.output(lineageAtIdTT, KV.of(i.getNumericId(), i.getLineageId()));
+                    }
+                    if (countEvaluations) {
+                        evaluations.inc();
+                    }
                     c.output(i);
                 });
             }
@@ -61,32 +218,50 @@ public class Evaluate {
 
         @Override
         public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+            if (fitnessFn != null) {
+                return input.apply(ParDo.of(new EvaluateInKeyFn<>(fitnessFn)))
+                        .setCoder(input.getCoder());
+            }
+
             // apply indexes based on the individual id and ignore evaluated individuals
-            TupleTag<KV<String, String>> keyAtIdTT = new TupleTag<>();
+            TupleTag<KV<Long, String>> keyAtIdTT = new TupleTag<>();
+            TupleTag<KV<Long, Long>> lineageAtIdTT = new TupleTag<>();
             TupleTag<KV<String, BaseItem>> baseItemAtKeyTT = new TupleTag<>();
             TupleTag<KV<String, Individual<GenomeT>>> evaluatedAtKeyTT = new TupleTag<>();
             TupleTag<Individual<GenomeT>> notEvaluatedAtKeyTT = new TupleTag<>();
-            PCollectionTuple result = input.apply(ParDo.of(new ExpandIndividualsFn<>(keyAtIdTT, baseItemAtKeyTT, evaluatedAtKeyTT))
-                    .withOutputTags(notEvaluatedAtKeyTT, TupleTagList.of(keyAtIdTT).and(baseItemAtKeyTT).and(evaluatedAtKeyTT)));
+            PCollectionTuple result = input.apply(ParDo.of(new ExpandIndividualsFn<>(keyAtIdTT, lineageAtIdTT, baseItemAtKeyTT, evaluatedAtKeyTT, !countsEvaluations(fitnessTransform)))
+                    .withOutputTags(notEvaluatedAtKeyTT, TupleTagList.of(keyAtIdTT).and(lineageAtIdTT).and(baseItemAtKeyTT).and(evaluatedAtKeyTT)));
+            Coder<GenomeT> genomeCoder = GenomeCoders.of(input.getCoder());
+            if (genomeCoder != null) {
+                result.get(notEvaluatedAtKeyTT).setCoder(IndividualCoder.of(genomeCoder));
+            }
 
             // perform the fitness transform
-            PCollection<KV<String, Individual<GenomeT>>> indexedIndividualPCollection = result.get(notEvaluatedAtKeyTT)
+            PCollection<KV<Long, Individual<GenomeT>>> indexedIndividualPCollection = result.get(notEvaluatedAtKeyTT)
                     .apply(fitnessTransform)
                     .apply(ParDo.of(new IndexIndividualFn<>()));
 
-            // apply indexes based on input id
-            PCollection<KV<String, String>> keyAtId = result.get(keyAtIdTT)
-                    .setCoder(KvCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of()));
-            PCollection<KV<String, Individual<GenomeT>>> evaluated = indexedIndividualPCollection.apply(AssignIndividualTransform.of(keyAtId));
+            // apply indexes based on input id, restoring the parents of the mutants
+            PCollection<KV<Long, String>> keyAtId = result.get(keyAtIdTT)
+                    .setCoder(KvCoder.of(VarLongCoder.of(), StringUtf8Coder.of()));
+            PCollection<KV<Long, Long>> lineageAtId = result.get(lineageAtIdTT)
+                    .setCoder(KvCoder.of(VarLongCoder.of(), VarLongCoder.of()));
+            PCollection<KV<String, Individual<GenomeT>>> evaluated = indexedIndividualPCollection
+                    .apply(AssignIndividualTransform.<GenomeT>of(keyAtId).withLineage(lineageAtId));
 
             // combine all inputs into the sorted list and return the updated individuals
             PCollection<KV<String, Individual<GenomeT>>> evaluatedAtKey = result.get(evaluatedAtKeyTT)
                     .setCoder(evaluated.getCoder());
             PCollection<KV<String, BaseItem>> baseItemAtKey = result.get(baseItemAtKeyTT)
-                    .setCoder(KvCoder.of(StringUtf8Coder.of(), SerializableCoder.of(BaseItem.class)));
+                    .setCoder(KvCoder.of(StringUtf8Coder.of(), BaseItemCoder.of()));
+            Combine.PerKey<String, Individual<GenomeT>, List<Individual<GenomeT>>> perKey = Combine.perKey(new SortIndividualsFn<>());
+            PTransform<PCollection<KV<String, Individual<GenomeT>>>, PCollection<KV<String, List<Individual<GenomeT>>>>> sort = perKey;
+            if (hotKeyFanout > 1) {
+                sort = perKey.withHotKeyFanout(hotKeyFanout);
+            }
             return PCollectionList.of(evaluated).and(evaluatedAtKey)
                     .apply(Flatten.pCollections())
-                    .apply(Combine.perKey(new SortIndividualsFn<>()))
+                    .apply(sort)
                     .apply(CreateIndividualsTransform.of(baseItemAtKey));
         }
     }
@@ -94,4 +269,12 @@ public class Evaluate {
     public static <GenomeT extends Serializable> EvaluateTransform<GenomeT> as(FitnessTransform<GenomeT> fitnessTransform) {
         return new EvaluateTransform<>(fitnessTransform);
     }
+
+    public static <GenomeT extends Serializable> EvaluateTransform<GenomeT> as(FitnessFn<GenomeT> fitnessFn) {
+        return new EvaluateTransform<>(fitnessFn);
+    }
+
+    public static <GenomeT extends Serializable> EvaluateTransform<GenomeT> as(BatchFitnessFn<GenomeT> batchFitnessFn) {
+        return new EvaluateTransform<>(BatchFitnessTransform.of(batchFitnessFn));
+    }
 }
@@ -1,6 +1,7 @@
 package org.omegabyte.gaboom.transforms;
 
 import org.apache.beam.runners.dataflow.repackaged.com.google.common.collect.ImmutableList;
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
@@ -9,7 +10,7 @@ import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.PCollectionView;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
-import org.omegabyte.gaboom.utils.IdGenerator;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
 
 import java.io.Serializable;
 import java.util.Arrays;
@@ -20,6 +21,7 @@ import java.util.Random;
 public class Mutate {
 
     public abstract static class MutateFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+        private final Counter mutations = GaboomMetrics.counter(GaboomMetrics.MUTATIONS);
         private double mutRate = 0;
 
         public void setMutRate(double mutRate) {
@@ -37,9 +39,10 @@ public class Mutate {
             Individuals<GenomeT> outputIndividuals = new Individuals<>(rng.nextLong());
             individuals.getIndividuals().forEach(ind -> {
                 if (mutRate > 0 && rng.nextDouble() <= mutRate) {
-                    String id = ind.getId() + '.' + IdGenerator.newId(rng, 3);
-                    GenomeT genome = mutate(c, rng, ind.getGenome());
-                    outputIndividuals.getIndividuals().add(new Individual<>(id, genome));
+                    // the id of the mutant is drawn before its genome
+                    Individual<GenomeT> mutant = ind.mutant(rng);
+                    outputIndividuals.getIndividuals().add(mutant.withGenome(mutate(c, rng, ind.getGenome())));
+                    mutations.inc();
                 } else {
                     outputIndividuals.getIndividuals().add(ind);
                 }
@@ -72,6 +75,14 @@ public class Mutate {
             return mt;
         }
 
+        public MutateFn<GenomeT> getFn() {
+            return fn;
+        }
+
+        public List<PCollectionView<?>> getSideInputs() {
+            return sideInputs;
+        }
+
         @Override
         public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
             return input.apply(ParDo.of(fn).withSideInputs(sideInputs));
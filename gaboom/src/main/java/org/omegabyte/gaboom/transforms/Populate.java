@@ -10,6 +10,7 @@ import org.apache.beam.sdk.values.PCollectionView;
 import org.omegabyte.gaboom.BaseItem;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.utils.IdGenerator;
 
 import java.io.Serializable;
 import java.util.Arrays;
@@ -36,7 +37,7 @@ public class Populate {
             Individuals<GenomeT> individuals = new Individuals<>(rng.nextLong());
             for (int i = 0; i < popSize; i++) {
                 GenomeT genome = makeGenome(c, rng);
-                individuals.getIndividuals().add(new Individual<>(rng, genome));
+                individuals.getIndividuals().add(new Individual<>(IdGenerator.idOf(baseItem.getSeed(), i), genome));
             }
             c.output(individuals);
         }
@@ -4,6 +4,7 @@ import org.apache.beam.sdk.coders.BigEndianIntegerCoder;
 import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.coders.ListCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
@@ -11,6 +12,8 @@ import org.apache.beam.sdk.util.SerializableUtils;
 import org.apache.beam.sdk.values.*;
 import org.omegabyte.gaboom.Individuals;
 import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
 
 import java.io.Serializable;
 import java.util.List;
@@ -25,11 +28,15 @@ public class Select {
      * SelectFn is a DoFn that returns the subset of a population along with
      * the selected indexes in a separate (and optional) output.  Individuals
      * from the initial population should be evaluated and sorted before being
-     * passed to the SelectFn.
+     * passed to the SelectFn.  Implementations count the selected individuals
+     * and the dropped selections with the selected and selectionErrors
+     * counters.
      * @param <GenomeT>
      */
     public static abstract class SelectFn<GenomeT extends Serializable> extends DoFn<KV<String, SelectIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>>{
         protected TupleTag<KV<String, List<Integer>>> selectIndicesTupleTag = new TupleTag<>();
+        protected final Counter selected = GaboomMetrics.counter(GaboomMetrics.SELECTED);
+        protected final Counter selectionErrors = GaboomMetrics.counter(GaboomMetrics.SELECTION_ERRORS);
 
         public void setSelectIndicesTupleTag(TupleTag<KV<String, List<Integer>>> selectIndicesTupleTag) {
             this.selectIndicesTupleTag = selectIndicesTupleTag;
@@ -77,6 +84,9 @@ public class Select {
         public PCollectionTuple expand(PCollection<KV<String, SelectIndividuals<GenomeT>>> input) {
             PCollectionTuple output = input.apply(ParDo.of(fn).withOutputTags(selectIndividualsTupleTag, TupleTagList.of(selectIndicesTupleTag)));
             output.get(selectIndicesTupleTag).setCoder(KvCoder.of(StringUtf8Coder.of(), ListCoder.of(BigEndianIntegerCoder.of())));
+
+            // multi output ParDos do not bind the genome type from the input coder
+            GenomeCoders.setIndividualsAtKey(output.get(selectIndividualsTupleTag), input.getCoder());
             return output;
         }
     }
@@ -0,0 +1,22 @@
+package org.omegabyte.gaboom.transforms.crossover;
+
+import org.omegabyte.gaboom.genome.LinearGenome;
+import org.omegabyte.gaboom.transforms.Crossover;
+
+import java.util.Random;
+
+/**
+ * CrossoverOnePointFn takes the head of the first parent and the tail of the
+ * second parent, split at a random point inside the genome.
+ * @param <GenomeT>
+ */
+public class CrossoverOnePointFn<GenomeT extends LinearGenome<GenomeT>> extends Crossover.CrossoverFn<GenomeT> {
+
+    @Override
+    public GenomeT crossover(ProcessContext context, Random random, GenomeT p1, GenomeT p2) {
+        if (p1.size() < 2) {
+            return p1;
+        }
+        return p1.onePoint(p2, 1 + random.nextInt(p1.size() - 1));
+    }
+}
@@ -0,0 +1,25 @@
+package org.omegabyte.gaboom.transforms.crossover;
+
+import org.omegabyte.gaboom.genome.PermutationGenome;
+import org.omegabyte.gaboom.transforms.Crossover;
+
+import java.util.Random;
+
+/**
+ * CrossoverOrderedFn performs the order crossover (OX) on permutations: a
+ * random segment of the first parent is kept and the remaining genes follow
+ * the order of the second parent.
+ */
+public class CrossoverOrderedFn extends Crossover.CrossoverFn<PermutationGenome> {
+
+    @Override
+    public PermutationGenome crossover(ProcessContext context, Random random, PermutationGenome p1, PermutationGenome p2) {
+        int n = p1.size();
+        if (n < 2) {
+            return p1;
+        }
+        int i = random.nextInt(n);
+        int j = random.nextInt(n);
+        return p1.orderCrossover(p2, Math.min(i, j), Math.max(i, j));
+    }
+}
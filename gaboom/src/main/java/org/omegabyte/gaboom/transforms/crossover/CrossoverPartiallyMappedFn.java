@@ -0,0 +1,25 @@
+package org.omegabyte.gaboom.transforms.crossover;
+
+import org.omegabyte.gaboom.genome.PermutationGenome;
+import org.omegabyte.gaboom.transforms.Crossover;
+
+import java.util.Random;
+
+/**
+ * CrossoverPartiallyMappedFn performs the partially mapped crossover (PMX) on
+ * permutations: a random segment of the first parent is kept and the genes
+ * of the second parent are placed around it through the segment mapping.
+ */
+public class CrossoverPartiallyMappedFn extends Crossover.CrossoverFn<PermutationGenome> {
+
+    @Override
+    public PermutationGenome crossover(ProcessContext context, Random random, PermutationGenome p1, PermutationGenome p2) {
+        int n = p1.size();
+        if (n < 2) {
+            return p1;
+        }
+        int i = random.nextInt(n);
+        int j = random.nextInt(n);
+        return p1.partiallyMappedCrossover(p2, Math.min(i, j), Math.max(i, j));
+    }
+}
@@ -0,0 +1,19 @@
+package org.omegabyte.gaboom.transforms.crossover;
+
+import org.omegabyte.gaboom.genome.LinearGenome;
+import org.omegabyte.gaboom.transforms.Crossover;
+
+import java.util.Random;
+
+/**
+ * CrossoverUniformFn takes every gene from either parent with equal
+ * probability.
+ * @param <GenomeT>
+ */
+public class CrossoverUniformFn<GenomeT extends LinearGenome<GenomeT>> extends Crossover.CrossoverFn<GenomeT> {
+
+    @Override
+    public GenomeT crossover(ProcessContext context, Random random, GenomeT p1, GenomeT p2) {
+        return p1.uniform(p2, random);
+    }
+}
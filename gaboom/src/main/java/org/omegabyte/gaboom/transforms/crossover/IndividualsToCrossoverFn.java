@@ -1,10 +1,12 @@
 package org.omegabyte.gaboom.transforms.crossover;
 
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.values.KV;
 import org.omegabyte.gaboom.CrossoverIndividuals;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +15,8 @@ import java.io.Serializable;
 public class IndividualsToCrossoverFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, CrossoverIndividuals<GenomeT>>> {
     private static final Logger logger = LoggerFactory.getLogger(IndividualsToCrossoverFn.class);
 
+    private final Counter crossoverErrors = GaboomMetrics.counter(GaboomMetrics.CROSSOVER_ERRORS);
+
     @ProcessElement
     public void processElement(ProcessContext c) {
         String key = c.element().getKey();
@@ -20,6 +24,7 @@ public class IndividualsToCrossoverFn<GenomeT extends Serializable> extends DoFn
 
         if (individuals.getIndividuals().size() != 2) {
             logger.error("Selection size {} is invalid for crossover, id={}", individuals.getIndividuals().size(), key);
+            crossoverErrors.inc();
             return;
         }
 
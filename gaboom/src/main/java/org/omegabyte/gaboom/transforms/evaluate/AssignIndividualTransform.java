@@ -1,5 +1,7 @@
 package org.omegabyte.gaboom.transforms.evaluate;
 
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
@@ -13,24 +15,48 @@ import org.omegabyte.gaboom.Individual;
 
 import java.io.Serializable;
 
-public class AssignIndividualTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, Individual<GenomeT>>>, PCollection<KV<String, Individual<GenomeT>>>> {
-    private final PCollection<KV<String, String>> keyAtId;
+/**
+ * AssignIndividualTransform keys the individuals, keyed by their numeric id,
+ * by the key assigned to their id.  With the lineage of the mutants, it also
+ * restores the parent of the mutants rebuilt from their id by the fitness
+ * transform.
+ * @param <GenomeT>
+ */
+public class AssignIndividualTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<Long, Individual<GenomeT>>>, PCollection<KV<String, Individual<GenomeT>>>> {
+    private final PCollection<KV<Long, String>> keyAtId;
+    private final PCollection<KV<Long, Long>> lineageAtId;
 
-    public AssignIndividualTransform(PCollection<KV<String, String>> keyAtId) {
+    public AssignIndividualTransform(PCollection<KV<Long, String>> keyAtId) {
+        this(keyAtId, null);
+    }
+
+    private AssignIndividualTransform(PCollection<KV<Long, String>> keyAtId, PCollection<KV<Long, Long>> lineageAtId) {
         this.keyAtId = keyAtId;
+        this.lineageAtId = lineageAtId;
     }
 
-    public static <GenomeT extends Serializable> AssignIndividualTransform<GenomeT> of(PCollection<KV<String, String>> keyAtId) {
+    /**
+     * Restores the given parent ids, keyed by the ids of the mutants.
+     * @param lineageAtId
+     * @return
+     */
+    public AssignIndividualTransform<GenomeT> withLineage(PCollection<KV<Long, Long>> lineageAtId) {
+        return new AssignIndividualTransform<>(keyAtId, lineageAtId);
+    }
+
+    public static <GenomeT extends Serializable> AssignIndividualTransform<GenomeT> of(PCollection<KV<Long, String>> keyAtId) {
         return new AssignIndividualTransform<>(keyAtId);
     }
 
-    static class AssignIndividualFn<GenomeT extends Serializable> extends DoFn<KV<String, CoGbkResult>, KV<String, Individual<GenomeT>>> {
+    static class AssignIndividualFn<GenomeT extends Serializable> extends DoFn<KV<Long, CoGbkResult>, KV<String, Individual<GenomeT>>> {
         private final TupleTag<String> indexTT;
         private final TupleTag<Individual<GenomeT>> individualTT;
+        private final TupleTag<Long> lineageTT;
 
-        public AssignIndividualFn(TupleTag<String> indexTT, TupleTag<Individual<GenomeT>> individualTT) {
+        public AssignIndividualFn(TupleTag<String> indexTT, TupleTag<Individual<GenomeT>> individualTT, TupleTag<Long> lineageTT) {
             this.indexTT = indexTT;
             this.individualTT = individualTT;
+            this.lineageTT = lineageTT;
         }
 
         @ProcessElement
@@ -38,16 +64,27 @@ public class AssignIndividualTransform<GenomeT extends Serializable> extends PTr
             CoGbkResult result = c.element().getValue();
             String key = result.getOnly(indexTT);
             Individual<GenomeT> individual = result.getOnly(individualTT);
+            Long parentId = lineageTT == null ? null : result.getOnly(lineageTT, null);
+            if (parentId != null && !individual.isMutant()) {
+                Individual<GenomeT> mutant = new Individual<>(individual.getNumericId(), parentId, individual.getGenome());
+                mutant.setFitness(individual.getFitness());
+                individual = mutant;
+            }
             c.output(KV.of(key, individual));
         }
     }
 
     @Override
-    public PCollection<KV<String, Individual<GenomeT>>> expand(PCollection<KV<String, Individual<GenomeT>>> input) {
+    public PCollection<KV<String, Individual<GenomeT>>> expand(PCollection<KV<Long, Individual<GenomeT>>> input) {
         TupleTag<String> indexTT = new TupleTag<>();
         TupleTag<Individual<GenomeT>> individualTT = new TupleTag<>();
-        return KeyedPCollectionTuple.of(individualTT, input).and(indexTT, keyAtId)
-                .apply(CoGroupByKey.create())
-                .apply(ParDo.of(new AssignIndividualFn<>(indexTT, individualTT)));
+        TupleTag<Long> lineageTT = lineageAtId == null ? null : new TupleTag<>();
+        KeyedPCollectionTuple<Long> joined = KeyedPCollectionTuple.of(individualTT, input).and(indexTT, keyAtId);
+        if (lineageTT != null) {
+            joined = joined.and(lineageTT, lineageAtId);
+        }
+        return joined.apply(CoGroupByKey.create())
+                .apply(ParDo.of(new AssignIndividualFn<>(indexTT, individualTT, lineageTT)))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), ((KvCoder<Long, Individual<GenomeT>>) input.getCoder()).getValueCoder()));
     }
 }
\ No newline at end of file
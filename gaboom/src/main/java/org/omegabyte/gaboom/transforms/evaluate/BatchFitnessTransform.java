@@ -0,0 +1,251 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.GroupIntoBatches;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.joda.time.Instant;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * BatchFitnessTransform evaluates individuals in batches through a
+ * BatchFitnessFn.  A batch holds at most batchSize individuals and, when
+ * maxBatchBytes is set, at most maxBatchBytes of encoded individuals (a single
+ * larger individual makes its own batch).  Batches are filled within a bundle
+ * by default, or per key when the individuals are spread over numKeys keys,
+ * which lets batches fill across bundles.  The batch sizes and fill ratio are
+ * reported as metrics, and the fitness latency is measured per batch.
+ * @param <GenomeT>
+ */
+public class BatchFitnessTransform<GenomeT extends Serializable> extends Evaluate.FitnessTransform<GenomeT> {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final Evaluate.BatchFitnessFn<GenomeT> fn;
+    private final int batchSize;
+    private final long maxBatchBytes;
+    private final int numKeys;
+
+    public BatchFitnessTransform(Evaluate.BatchFitnessFn<GenomeT> fn, int batchSize, long maxBatchBytes, int numKeys) {
+        this.fn = fn;
+        this.batchSize = batchSize;
+        this.maxBatchBytes = maxBatchBytes;
+        this.numKeys = numKeys;
+    }
+
+    public static <GenomeT extends Serializable> BatchFitnessTransform<GenomeT> of(Evaluate.BatchFitnessFn<GenomeT> fn) {
+        return new BatchFitnessTransform<>(fn, DEFAULT_BATCH_SIZE, 0, 0);
+    }
+
+    public BatchFitnessTransform<GenomeT> withBatchSize(int batchSize) {
+        return new BatchFitnessTransform<>(fn, batchSize, maxBatchBytes, numKeys);
+    }
+
+    public BatchFitnessTransform<GenomeT> withMaxBatchBytes(long maxBatchBytes) {
+        return new BatchFitnessTransform<>(fn, batchSize, maxBatchBytes, numKeys);
+    }
+
+    /**
+     * Fills the batches per key instead of per bundle, spreading the
+     * individuals over numKeys keys.
+     * @param numKeys
+     * @return
+     */
+    public BatchFitnessTransform<GenomeT> perKey(int numKeys) {
+        return new BatchFitnessTransform<>(fn, batchSize, maxBatchBytes, numKeys);
+    }
+
+    static class Batch<GenomeT extends Serializable> {
+        private final List<Individual<GenomeT>> individuals = new ArrayList<>();
+        private long bytes = 0;
+        private Instant timestamp = BoundedWindow.TIMESTAMP_MIN_VALUE;
+
+        void add(Individual<GenomeT> individual, long size, Instant timestamp) {
+            individuals.add(individual);
+            bytes += size;
+            if (timestamp.isAfter(this.timestamp)) {
+                this.timestamp = timestamp;
+            }
+        }
+
+        void clear() {
+            individuals.clear();
+            bytes = 0;
+            timestamp = BoundedWindow.TIMESTAMP_MIN_VALUE;
+        }
+    }
+
+    static abstract class BatchFn<InputT, GenomeT extends Serializable> extends DoFn<InputT, Individual<GenomeT>> {
+        private final Distribution batchSizes = GaboomMetrics.distribution(GaboomMetrics.BATCH_SIZE);
+        private final Distribution batchFill = GaboomMetrics.distribution(GaboomMetrics.BATCH_FILL_PERCENT);
+        private final Counter batches = GaboomMetrics.counter(GaboomMetrics.BATCHES);
+        private final Counter evaluations = GaboomMetrics.counter(GaboomMetrics.FITNESS_EVALUATIONS);
+        private final Distribution fitnessLatency = GaboomMetrics.distribution(GaboomMetrics.FITNESS_LATENCY_MICROS);
+
+        private final Evaluate.BatchFitnessFn<GenomeT> fn;
+        private final Coder<Individual<GenomeT>> coder;
+        protected final int batchSize;
+        protected final long maxBatchBytes;
+
+        BatchFn(Evaluate.BatchFitnessFn<GenomeT> fn, Coder<Individual<GenomeT>> coder, int batchSize, long maxBatchBytes) {
+            this.fn = fn;
+            this.coder = coder;
+            this.batchSize = batchSize;
+            this.maxBatchBytes = maxBatchBytes;
+        }
+
+        @Setup
+        public void setup() {
+            fn.setup();
+        }
+
+        @Teardown
+        public void teardown() {
+            fn.teardown();
+        }
+
+        protected long sizeOf(Individual<GenomeT> individual) throws CoderException {
+            if (maxBatchBytes <= 0) {
+                return 0;
+            }
+            return CoderUtils.encodeToByteArray(coder, individual).length;
+        }
+
+        protected boolean exceedsBytes(Batch<GenomeT> batch, long size) {
+            return maxBatchBytes > 0 && !batch.individuals.isEmpty() && batch.bytes + size > maxBatchBytes;
+        }
+
+        protected void evaluate(Batch<GenomeT> batch, Consumer<Individual<GenomeT>> output) {
+            List<Individual<GenomeT>> individuals = batch.individuals;
+            long start = System.nanoTime();
+            List<Double> fitnesses = fn.evaluate(individuals);
+            GaboomMetrics.updateLatency(fitnessLatency, start);
+            if (fitnesses.size() != individuals.size()) {
+                throw new IllegalStateException(String.format("Batch of %d individuals returned %d fitnesses", individuals.size(), fitnesses.size()));
+            }
+
+            double fill = (double) individuals.size() / batchSize;
+            if (maxBatchBytes > 0) {
+                fill = Math.max(fill, (double) batch.bytes / maxBatchBytes);
+            }
+            batches.inc();
+            batchSizes.update(individuals.size());
+            batchFill.update(Math.round(Math.min(fill, 1) * 100));
+            evaluations.inc(individuals.size());
+
+            for (int i = 0; i < individuals.size(); i++) {
+                Individual<GenomeT> individual = individuals.get(i);
+                output.accept(individual.withFitness(fitnesses.get(i)));
+            }
+            batch.clear();
+        }
+    }
+
+    static class BundleBatchFn<GenomeT extends Serializable> extends BatchFn<Individual<GenomeT>, GenomeT> {
+        private transient Map<BoundedWindow, Batch<GenomeT>> batches;
+
+        BundleBatchFn(Evaluate.BatchFitnessFn<GenomeT> fn, Coder<Individual<GenomeT>> coder, int batchSize, long maxBatchBytes) {
+            super(fn, coder, batchSize, maxBatchBytes);
+        }
+
+        @StartBundle
+        public void startBundle() {
+            batches = new HashMap<>();
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c, BoundedWindow window) throws CoderException {
+            Individual<GenomeT> individual = c.element();
+            long size = sizeOf(individual);
+            Batch<GenomeT> batch = batches.computeIfAbsent(window, w -> new Batch<>());
+
+            // outputs cannot move backward in time, so the batch is emitted at its latest timestamp
+            if (exceedsBytes(batch, size)) {
+                Instant timestamp = batch.timestamp.isAfter(c.timestamp()) ? batch.timestamp : c.timestamp();
+                evaluate(batch, ind -> c.outputWithTimestamp(ind, timestamp));
+            }
+            batch.add(individual, size, c.timestamp());
+            if (batch.individuals.size() >= batchSize) {
+                Instant timestamp = batch.timestamp;
+                evaluate(batch, ind -> c.outputWithTimestamp(ind, timestamp));
+            }
+        }
+
+        @FinishBundle
+        public void finishBundle(FinishBundleContext c) {
+            batches.forEach((window, batch) -> {
+                if (!batch.individuals.isEmpty()) {
+                    Instant timestamp = batch.timestamp;
+                    evaluate(batch, ind -> c.output(ind, timestamp, window));
+                }
+            });
+            batches = null;
+        }
+    }
+
+    static class ShardIndividualFn<GenomeT extends Serializable> extends DoFn<Individual<GenomeT>, KV<Integer, Individual<GenomeT>>> {
+        private final int numKeys;
+
+        ShardIndividualFn(int numKeys) {
+            this.numKeys = numKeys;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(KV.of(Math.floorMod(Long.hashCode(c.element().getNumericId()), numKeys), c.element()));
+        }
+    }
+
+    static class KeyBatchFn<GenomeT extends Serializable> extends BatchFn<KV<Integer, Iterable<Individual<GenomeT>>>, GenomeT> {
+
+        KeyBatchFn(Evaluate.BatchFitnessFn<GenomeT> fn, Coder<Individual<GenomeT>> coder, int batchSize, long maxBatchBytes) {
+            super(fn, coder, batchSize, maxBatchBytes);
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) throws CoderException {
+            Batch<GenomeT> batch = new Batch<>();
+            for (Individual<GenomeT> individual : c.element().getValue()) {
+                long size = sizeOf(individual);
+                if (exceedsBytes(batch, size)) {
+                    evaluate(batch, c::output);
+                }
+                batch.add(individual, size, c.timestamp());
+            }
+            if (!batch.individuals.isEmpty()) {
+                evaluate(batch, c::output);
+            }
+        }
+    }
+
+    @Override
+    public PCollection<Individual<GenomeT>> expand(PCollection<Individual<GenomeT>> input) {
+        if (numKeys <= 0) {
+            return input.apply(ParDo.of(new BundleBatchFn<>(fn, input.getCoder(), batchSize, maxBatchBytes)))
+                    .setCoder(input.getCoder());
+        }
+
+        return input.apply(ParDo.of(new ShardIndividualFn<>(numKeys)))
+                .setCoder(KvCoder.of(VarIntCoder.of(), input.getCoder()))
+                .apply(GroupIntoBatches.ofSize(batchSize))
+                .apply(ParDo.of(new KeyBatchFn<>(fn, input.getCoder(), batchSize, maxBatchBytes)))
+                .setCoder(input.getCoder());
+    }
+}
@@ -0,0 +1,70 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * CachedFitnessFn memoizes a FitnessFn in a bounded per-worker cache, like
+ * CachedFitnessTransform does for fitness transforms.  Only the misses are
+ * counted as fitness evaluations and timed, so the evaluation metrics mean
+ * the same with and without the cache.
+ * @param <GenomeT>
+ */
+public class CachedFitnessFn<GenomeT extends Serializable> extends Evaluate.FitnessFn<GenomeT> {
+    private final Counter hits = GaboomMetrics.counter(GaboomMetrics.FITNESS_CACHE_HITS);
+    private final Counter misses = GaboomMetrics.counter(GaboomMetrics.FITNESS_CACHE_MISSES);
+    private final Counter evaluations = GaboomMetrics.counter(GaboomMetrics.FITNESS_EVALUATIONS);
+    private final Distribution fitnessLatency = GaboomMetrics.distribution(GaboomMetrics.FITNESS_LATENCY_MICROS);
+
+    private final Evaluate.FitnessFn<GenomeT> fitnessFn;
+    private final SerializableFunction<GenomeT, ?> genomeKeyFn;
+    private final int maxSize;
+    private final String cacheId = UUID.randomUUID().toString();
+    private transient FitnessCache cache;
+
+    public CachedFitnessFn(Evaluate.FitnessFn<GenomeT> fitnessFn, int maxSize, SerializableFunction<GenomeT, ?> genomeKeyFn) {
+        this.fitnessFn = fitnessFn;
+        this.maxSize = maxSize;
+        this.genomeKeyFn = genomeKeyFn;
+    }
+
+    public static <GenomeT extends Serializable> CachedFitnessFn<GenomeT> of(Evaluate.FitnessFn<GenomeT> fitnessFn, int maxSize, SerializableFunction<GenomeT, ?> genomeKeyFn) {
+        return new CachedFitnessFn<>(fitnessFn, maxSize, genomeKeyFn);
+    }
+
+    @Override
+    public void setup() {
+        cache = FitnessCache.acquire(cacheId, maxSize);
+        fitnessFn.setup();
+    }
+
+    @Override
+    public double fitness(GenomeT genome) {
+        Object key = genomeKeyFn.apply(genome);
+        Double fitness = cache.get(key);
+        if (fitness != null) {
+            hits.inc();
+            return fitness;
+        }
+
+        misses.inc();
+        long start = System.nanoTime();
+        double value = fitnessFn.fitness(genome);
+        GaboomMetrics.updateLatency(fitnessLatency, start);
+        evaluations.inc();
+        cache.put(key, value);
+        return value;
+    }
+
+    @Override
+    public void teardown() {
+        FitnessCache.release(cacheId);
+        fitnessFn.teardown();
+    }
+}
@@ -0,0 +1,146 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.Flatten;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * CachedFitnessTransform memoizes the fitness of the wrapped transform in a
+ * bounded per-worker cache.  Individuals whose genome key is cached skip the
+ * fitness transform, the others are evaluated and their fitness is stored.
+ * The genome key defaults to the genome itself, so the genome must implement
+ * equals and hashCode, otherwise a key function has to be given.  The cache
+ * is dropped from the worker when the DoFns of the transform are torn down.
+ * The misses are counted as fitness evaluations when the wrapped transform
+ * does not count them itself.
+ * @param <GenomeT>
+ */
+public class CachedFitnessTransform<GenomeT extends Serializable> extends Evaluate.FitnessTransform<GenomeT> {
+    private final Evaluate.FitnessTransform<GenomeT> fitnessTransform;
+    private final SerializableFunction<GenomeT, ?> genomeKeyFn;
+    private final int maxSize;
+    private final String cacheId = UUID.randomUUID().toString();
+
+    public CachedFitnessTransform(Evaluate.FitnessTransform<GenomeT> fitnessTransform, int maxSize, SerializableFunction<GenomeT, ?> genomeKeyFn) {
+        this.fitnessTransform = fitnessTransform;
+        this.maxSize = maxSize;
+        this.genomeKeyFn = genomeKeyFn;
+    }
+
+    public static <GenomeT extends Serializable> CachedFitnessTransform<GenomeT> of(Evaluate.FitnessTransform<GenomeT> fitnessTransform, int maxSize) {
+        return new CachedFitnessTransform<>(fitnessTransform, maxSize, genome -> genome);
+    }
+
+    public static <GenomeT extends Serializable> CachedFitnessTransform<GenomeT> of(Evaluate.FitnessTransform<GenomeT> fitnessTransform, int maxSize, SerializableFunction<GenomeT, ?> genomeKeyFn) {
+        return new CachedFitnessTransform<>(fitnessTransform, maxSize, genomeKeyFn);
+    }
+
+    static class LookupFitnessFn<GenomeT extends Serializable> extends DoFn<Individual<GenomeT>, Individual<GenomeT>> {
+        private final Counter hits = GaboomMetrics.counter(GaboomMetrics.FITNESS_CACHE_HITS);
+        private final Counter misses = GaboomMetrics.counter(GaboomMetrics.FITNESS_CACHE_MISSES);
+        private final Counter evaluations = GaboomMetrics.counter(GaboomMetrics.FITNESS_EVALUATIONS);
+
+        private final TupleTag<Individual<GenomeT>> cachedTT;
+        private final SerializableFunction<GenomeT, ?> genomeKeyFn;
+        private final String cacheId;
+        private final int maxSize;
+        private final boolean countEvaluations;
+        private transient FitnessCache cache;
+
+        public LookupFitnessFn(TupleTag<Individual<GenomeT>> cachedTT, SerializableFunction<GenomeT, ?> genomeKeyFn, String cacheId, int maxSize, boolean countEvaluations) {
+            this.cachedTT = cachedTT;
+            this.genomeKeyFn = genomeKeyFn;
+            this.cacheId = cacheId;
+            this.maxSize = maxSize;
+            this.countEvaluations = countEvaluations;
+        }
+
+        @Setup
+        public void setup() {
+            cache = FitnessCache.acquire(cacheId, maxSize);
+        }
+
+        @Teardown
+        public void teardown() {
+            FitnessCache.release(cacheId);
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            Individual<GenomeT> individual = c.element();
+            Double fitness = cache.get(genomeKeyFn.apply(individual.getGenome()));
+            if (fitness == null) {
+                misses.inc();
+                if (countEvaluations) {
+                    evaluations.inc();
+                }
+                c.output(individual);
+                return;
+            }
+
+            hits.inc();
+            c.output(cachedTT, individual.withFitness(fitness));
+        }
+    }
+
+    static class StoreFitnessFn<GenomeT extends Serializable> extends DoFn<Individual<GenomeT>, Individual<GenomeT>> {
+        private final SerializableFunction<GenomeT, ?> genomeKeyFn;
+        private final String cacheId;
+        private final int maxSize;
+        private transient FitnessCache cache;
+
+        public StoreFitnessFn(SerializableFunction<GenomeT, ?> genomeKeyFn, String cacheId, int maxSize) {
+            this.genomeKeyFn = genomeKeyFn;
+            this.cacheId = cacheId;
+            this.maxSize = maxSize;
+        }
+
+        @Setup
+        public void setup() {
+            cache = FitnessCache.acquire(cacheId, maxSize);
+        }
+
+        @Teardown
+        public void teardown() {
+            FitnessCache.release(cacheId);
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            Individual<GenomeT> individual = c.element();
+            if (individual.getFitness() != null) {
+                cache.put(genomeKeyFn.apply(individual.getGenome()), individual.getFitness());
+            }
+            c.output(individual);
+        }
+    }
+
+    @Override
+    public PCollection<Individual<GenomeT>> expand(PCollection<Individual<GenomeT>> input) {
+        TupleTag<Individual<GenomeT>> missedTT = new TupleTag<>();
+        TupleTag<Individual<GenomeT>> cachedTT = new TupleTag<>();
+        PCollectionTuple result = input.apply(ParDo.of(new LookupFitnessFn<>(cachedTT, genomeKeyFn, cacheId, maxSize, !Evaluate.countsEvaluations(fitnessTransform)))
+                .withOutputTags(missedTT, TupleTagList.of(cachedTT)));
+        PCollection<Individual<GenomeT>> missed = result.get(missedTT).setCoder(input.getCoder());
+        PCollection<Individual<GenomeT>> cached = result.get(cachedTT).setCoder(input.getCoder());
+
+        PCollection<Individual<GenomeT>> evaluated = missed
+                .apply(fitnessTransform)
+                .apply(ParDo.of(new StoreFitnessFn<>(genomeKeyFn, cacheId, maxSize)));
+        return PCollectionList.of(evaluated).and(cached)
+                .apply(Flatten.pCollections());
+    }
+}
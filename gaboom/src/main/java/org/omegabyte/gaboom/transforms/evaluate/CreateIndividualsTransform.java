@@ -12,6 +12,7 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.omegabyte.gaboom.BaseItem;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.GenomeCoders;
 
 import java.io.Serializable;
 import java.util.List;
@@ -50,8 +51,9 @@ public class CreateIndividualsTransform<GenomeT extends Serializable> extends PT
     public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, List<Individual<GenomeT>>>> input) {
         TupleTag<BaseItem> baseItemTT = new TupleTag<>();
         TupleTag<List<Individual<GenomeT>>> individualsTT = new TupleTag<>();
-        return KeyedPCollectionTuple.of(baseItemTT, baseItem).and(individualsTT, input)
+        PCollection<KV<String, Individuals<GenomeT>>> output = KeyedPCollectionTuple.of(baseItemTT, baseItem).and(individualsTT, input)
                 .apply(CoGroupByKey.create())
                 .apply(ParDo.of(new CreateIndividualsFn<>(baseItemTT, individualsTT)));
+        return GenomeCoders.setIndividualsAtKey(output, input.getCoder());
     }
 }
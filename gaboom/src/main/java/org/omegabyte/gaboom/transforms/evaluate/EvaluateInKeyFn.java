@@ -0,0 +1,85 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * EvaluateInKeyFn evaluates the individuals without a fitness and sorts the
+ * population in place.  It draws the seed of the output the same way as the
+ * fan out evaluation, so both produce the same populations.  The
+ * evaluations are counted and timed here unless the fitness function counts
+ * them itself, see Evaluate.countsEvaluations.
+ * @param <GenomeT>
+ */
+public class EvaluateInKeyFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+    private final Counter evaluations = GaboomMetrics.counter(GaboomMetrics.FITNESS_EVALUATIONS);
+    private final Counter alreadyEvaluated = GaboomMetrics.counter(GaboomMetrics.ALREADY_EVALUATED);
+    private final Distribution fitnessLatency = GaboomMetrics.distribution(GaboomMetrics.FITNESS_LATENCY_MICROS);
+
+    private final Evaluate.FitnessFn<GenomeT> fitnessFn;
+    private final boolean countEvaluations;
+
+    public EvaluateInKeyFn(Evaluate.FitnessFn<GenomeT> fitnessFn) {
+        this.fitnessFn = fitnessFn;
+        this.countEvaluations = !Evaluate.countsEvaluations(fitnessFn);
+    }
+
+    @Setup
+    public void setup() {
+        fitnessFn.setup();
+    }
+
+    @Teardown
+    public void teardown() {
+        fitnessFn.teardown();
+    }
+
+    /**
+     * Evaluates the individuals without a fitness and returns them sorted,
+     * along with the next seed.  The DoFns that evaluate inside their own key
+     * call it on an EvaluateInKeyFn of their fitness function.
+     * @param individuals
+     * @return
+     */
+    public Individuals<GenomeT> evaluate(Individuals<GenomeT> individuals) {
+        Random rng = individuals.getRandomGenerator();
+
+        List<Individual<GenomeT>> evaluated = new ArrayList<>(individuals.getIndividuals().size());
+        for (Individual<GenomeT> individual : individuals.getIndividuals()) {
+            if (individual.getFitness() != null) {
+                alreadyEvaluated.inc();
+                evaluated.add(individual);
+                continue;
+            }
+
+            double fitness;
+            if (countEvaluations) {
+                long start = System.nanoTime();
+                fitness = fitnessFn.fitness(individual.getGenome());
+                GaboomMetrics.updateLatency(fitnessLatency, start);
+                evaluations.inc();
+            } else {
+                fitness = fitnessFn.fitness(individual.getGenome());
+            }
+            evaluated.add(individual.withFitness(fitness));
+        }
+        evaluated.sort(SortIndividualsFn::compare);
+        return new Individuals<>(rng.nextLong(), evaluated);
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c) {
+        c.output(KV.of(c.element().getKey(), evaluate(c.element().getValue())));
+    }
+}
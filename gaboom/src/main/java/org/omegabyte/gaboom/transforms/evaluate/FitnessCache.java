@@ -0,0 +1,67 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FitnessCache is a bounded least recently used map from genome keys to
+ * fitness values.  The caches live in the worker, and are shared by all the
+ * DoFn instances of a CachedFitnessTransform through its cache id, which is
+ * drawn when the transform is built and travels with its serialized copies.
+ * A cache is acquired by each DoFn instance in its setup and released in its
+ * teardown, and dropped from the worker once no instance uses it.
+ */
+public class FitnessCache {
+    private static final Map<String, FitnessCache> caches = new ConcurrentHashMap<>();
+
+    private final LinkedHashMap<Object, Double> entries;
+    private int users = 0;
+
+    FitnessCache(int maxSize) {
+        this.entries = new LinkedHashMap<Object, Double>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Double> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache of the worker with the given id, creating it if there
+     * is none, and counts a user of it.
+     * @param cacheId
+     * @param maxSize
+     * @return
+     */
+    public static FitnessCache acquire(String cacheId, int maxSize) {
+        return caches.compute(cacheId, (id, cache) -> {
+            if (cache == null) {
+                cache = new FitnessCache(maxSize);
+            }
+            cache.users++;
+            return cache;
+        });
+    }
+
+    /**
+     * Counts a user less of the cache with the given id, and drops the cache
+     * once it has no user.
+     * @param cacheId
+     */
+    public static void release(String cacheId) {
+        caches.computeIfPresent(cacheId, (id, cache) -> --cache.users > 0 ? cache : null);
+    }
+
+    public synchronized Double get(Object key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(Object key, double fitness) {
+        entries.put(key, fitness);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,72 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.PCollection;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.io.Serializable;
+
+/**
+ * FitnessFnTransform applies a FitnessFn to every individual.
+ * @param <GenomeT>
+ */
+public class FitnessFnTransform<GenomeT extends Serializable> extends Evaluate.FitnessTransform<GenomeT> {
+    private final Evaluate.FitnessFn<GenomeT> fitnessFn;
+
+    public FitnessFnTransform(Evaluate.FitnessFn<GenomeT> fitnessFn) {
+        this.fitnessFn = fitnessFn;
+    }
+
+    public static <GenomeT extends Serializable> FitnessFnTransform<GenomeT> of(Evaluate.FitnessFn<GenomeT> fitnessFn) {
+        return new FitnessFnTransform<>(fitnessFn);
+    }
+
+    static class FitnessFnDoFn<GenomeT extends Serializable> extends DoFn<Individual<GenomeT>, Individual<GenomeT>> {
+        private final Counter evaluations = GaboomMetrics.counter(GaboomMetrics.FITNESS_EVALUATIONS);
+        private final Distribution fitnessLatency = GaboomMetrics.distribution(GaboomMetrics.FITNESS_LATENCY_MICROS);
+
+        private final Evaluate.FitnessFn<GenomeT> fitnessFn;
+        private final boolean countEvaluations;
+
+        public FitnessFnDoFn(Evaluate.FitnessFn<GenomeT> fitnessFn) {
+            this.fitnessFn = fitnessFn;
+            this.countEvaluations = !Evaluate.countsEvaluations(fitnessFn);
+        }
+
+        @Setup
+        public void setup() {
+            fitnessFn.setup();
+        }
+
+        @Teardown
+        public void teardown() {
+            fitnessFn.teardown();
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            Individual<GenomeT> individual = c.element();
+            double fitness;
+            if (countEvaluations) {
+                long start = System.nanoTime();
+                fitness = fitnessFn.fitness(individual.getGenome());
+                GaboomMetrics.updateLatency(fitnessLatency, start);
+                evaluations.inc();
+            } else {
+                fitness = fitnessFn.fitness(individual.getGenome());
+            }
+            c.output(individual.withFitness(fitness));
+        }
+    }
+
+    @Override
+    public PCollection<Individual<GenomeT>> expand(PCollection<Individual<GenomeT>> input) {
+        return input.apply(ParDo.of(new FitnessFnDoFn<>(fitnessFn)))
+                .setCoder(input.getCoder());
+    }
+}
@@ -6,10 +6,10 @@ import org.omegabyte.gaboom.Individual;
 
 import java.io.Serializable;
 
-public class IndexIndividualFn<GenomeT extends Serializable> extends DoFn<Individual<GenomeT>, KV<String, Individual<GenomeT>>> {
+public class IndexIndividualFn<GenomeT extends Serializable> extends DoFn<Individual<GenomeT>, KV<Long, Individual<GenomeT>>> {
     @ProcessElement
     public void processElement(ProcessContext c) {
         Individual<GenomeT> individual = c.element();
-        c.output(KV.of(individual.getId(), individual));
+        c.output(KV.of(individual.getNumericId(), individual));
     }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package org.omegabyte.gaboom.transforms.evaluate;
 
+import org.apache.beam.sdk.coders.CannotProvideCoderException;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderRegistry;
+import org.apache.beam.sdk.coders.ListCoder;
 import org.apache.beam.sdk.transforms.Combine;
 import org.omegabyte.gaboom.Individual;
 
@@ -7,11 +11,30 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
+/**
+ * SortIndividualsFn sorts the individuals by fitness, and then by id.  The
+ * accumulators buffer the individuals unsorted, they are sorted once when
+ * merged or extracted, and merged accumulators are combined by a k-way merge.
+ * The accumulators are encoded with the coder of the individuals, so the
+ * combine can be lifted before the shuffle and the sorted runs of a hot key
+ * can be fanned out.
+ * @param <GenomeT>
+ */
 public class SortIndividualsFn<GenomeT extends Serializable> extends Combine.CombineFn<Individual<GenomeT>, List<Individual<GenomeT>>, List<Individual<GenomeT>>> {
 
     public static <GenomeT extends Serializable> int compare(Individual<GenomeT> i1, Individual<GenomeT> i2) {
-        return Comparator.comparingDouble(Individual<GenomeT>::getFitness).thenComparing(Individual::getId).compare(i1, i2);
+        int result = Double.compare(i1.getFitness(), i2.getFitness());
+        if (result != 0) {
+            return result;
+        }
+        return Individual.compareIds(i1, i2);
+    }
+
+    @Override
+    public Coder<List<Individual<GenomeT>>> getAccumulatorCoder(CoderRegistry registry, Coder<Individual<GenomeT>> inputCoder) throws CannotProvideCoderException {
+        return ListCoder.of(inputCoder);
     }
 
     @Override
@@ -21,48 +44,50 @@ public class SortIndividualsFn<GenomeT extends Serializable> extends Combine.Com
 
     @Override
     public List<Individual<GenomeT>> addInput(List<Individual<GenomeT>> accumulator, Individual<GenomeT> input) {
-
-        for (int i = 0; i < accumulator.size(); i++) {
-            Individual<GenomeT> individual = accumulator.get(i);
-            if (compare(input, individual) < 0) {
-                accumulator.add(i, input);
-                return accumulator;
-            }
-        }
         accumulator.add(input);
         return accumulator;
     }
 
+    private static class Cursor<GenomeT extends Serializable> {
+        private final List<Individual<GenomeT>> individuals;
+        private int index = 0;
+
+        Cursor(List<Individual<GenomeT>> individuals) {
+            this.individuals = individuals;
+        }
+
+        Individual<GenomeT> head() {
+            return individuals.get(index);
+        }
+    }
+
     @Override
     public List<Individual<GenomeT>> mergeAccumulators(Iterable<List<Individual<GenomeT>>> iterable) {
-        List<Individual<GenomeT>> result = new ArrayList<>();
+        int size = 0;
+        PriorityQueue<Cursor<GenomeT>> heap = new PriorityQueue<>(Comparator.comparing(Cursor<GenomeT>::head, SortIndividualsFn::compare));
         for (List<Individual<GenomeT>> input : iterable) {
-            List<Individual<GenomeT>> merged = new ArrayList<>();
-            int resultIndex = 0;
-            int inputIndex = 0;
-
-            while (resultIndex < result.size() && inputIndex < input.size()) {
-                Individual<GenomeT> resultIndividual = result.get(resultIndex);
-                Individual<GenomeT> inputIndividual = input.get(inputIndex);
-                if (compare(resultIndividual, inputIndividual) < 0) {
-                    merged.add(result.get(resultIndex++));
-                } else {
-                    merged.add(input.get(inputIndex++));
-                }
+            if (input.isEmpty()) {
+                continue;
             }
+            input.sort(SortIndividualsFn::compare);
+            heap.add(new Cursor<>(input));
+            size += input.size();
+        }
 
-            if (resultIndex < result.size()) {
-                merged.addAll(result.subList(resultIndex, result.size()));
-            } else if (inputIndex < input.size()) {
-                merged.addAll(input.subList(inputIndex, input.size()));
+        List<Individual<GenomeT>> result = new ArrayList<>(size);
+        while (!heap.isEmpty()) {
+            Cursor<GenomeT> cursor = heap.poll();
+            result.add(cursor.head());
+            if (++cursor.index < cursor.individuals.size()) {
+                heap.add(cursor);
             }
-            result = merged;
         }
         return result;
     }
 
     @Override
     public List<Individual<GenomeT>> extractOutput(List<Individual<GenomeT>> individuals) {
+        individuals.sort(SortIndividualsFn::compare);
         return individuals;
     }
-}
\ No newline at end of file
+}
@@ -11,7 +11,6 @@ import org.omegabyte.gaboom.Individuals;
 import org.omegabyte.gaboom.Population;
 import org.omegabyte.gaboom.transforms.Evaluate;
 import org.omegabyte.gaboom.transforms.model.ModelTransform;
-import org.omegabyte.gaboom.transforms.model.SetMutantNameFn;
 
 import java.io.Serializable;
 import java.util.List;
@@ -43,7 +42,6 @@ public class Evolve<GenomeT extends Serializable> extends PTransform<PCollection
         return input.get(populationTT)
                 .apply(ParDo.of(new IndexIndividuals<>()))
                 .apply(modelTransform)
-                .apply(ParDo.of(new SetMutantNameFn<>()))
                 .apply(new Repopulate<>(evaluateTransform, input.get(populationTT), input.get(hallOfFameTT), populationTT, hallOfFameTT, numBest));
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.state.StateSpec;
+import org.apache.beam.sdk.state.StateSpecs;
+import org.apache.beam.sdk.state.ValueState;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.transforms.halloffame.HallOfFameFn;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * GlobalHallOfFameFn folds the halls of fame of the populations, all sent to
+ * a single key, into the global hall of fame kept in state, and emits it when
+ * it changes.  The state holds numBest individuals whatever the number of
+ * halls of fame received, and individuals already in the hall of fame are not
+ * added again.
+ * @param <GenomeT>
+ */
+public class GlobalHallOfFameFn<GenomeT extends Serializable> extends DoFn<KV<String, List<Individual<GenomeT>>>, List<Individual<GenomeT>>> {
+    private static final String HALL_OF_FAME = "hallOfFame";
+
+    private final int numBest;
+
+    @StateId(HALL_OF_FAME)
+    private final StateSpec<ValueState<List<Individual<GenomeT>>>> hallOfFameSpec;
+
+    public GlobalHallOfFameFn(int numBest, Coder<List<Individual<GenomeT>>> hallOfFameCoder) {
+        this.numBest = numBest;
+        this.hallOfFameSpec = StateSpecs.value(hallOfFameCoder);
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c, @StateId(HALL_OF_FAME) ValueState<List<Individual<GenomeT>>> hallOfFameState) {
+        List<Individual<GenomeT>> previous = hallOfFameState.read();
+        List<Individual<GenomeT>> hallOfFame = StreamingEvolveFn.addNew(new HallOfFameFn<>(numBest), previous, c.element().getValue());
+        if (!StreamingEvolveFn.sameIndividuals(previous, hallOfFame)) {
+            hallOfFameState.write(hallOfFame);
+            c.output(hallOfFame);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.omegabyte.gaboom.transforms.ga;
 
+import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.coders.ListCoder;
 import org.apache.beam.sdk.transforms.Create;
 import org.apache.beam.sdk.transforms.DoFn;
@@ -10,8 +11,12 @@ import org.omegabyte.gaboom.BaseItem;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
 import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+import org.omegabyte.gaboom.coders.PopulationCoder;
 import org.omegabyte.gaboom.transforms.Evaluate;
 import org.omegabyte.gaboom.transforms.Populate;
+import org.omegabyte.gaboom.transforms.shard.ShardPopulationTransform;
 import org.omegabyte.gaboom.utils.IdGenerator;
 
 import java.io.Serializable;
@@ -29,8 +34,13 @@ public class Initialize<GenomeT extends Serializable> extends PTransform<PBegin,
     private final long seed;
     private final int numPops;
     private final int numBest;
+    private final int numShards;
 
     public Initialize(Populate.PopulateTransform<GenomeT> populateTransform, Evaluate.EvaluateTransform<GenomeT> evaluateTransform, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, long seed, int numPops, int numBest) {
+        this(populateTransform, evaluateTransform, populationTT, hallOfFameTT, seed, numPops, numBest, 0);
+    }
+
+    private Initialize(Populate.PopulateTransform<GenomeT> populateTransform, Evaluate.EvaluateTransform<GenomeT> evaluateTransform, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, long seed, int numPops, int numBest, int numShards) {
         this.populateTransform = populateTransform;
         this.evaluateTransform = evaluateTransform;
         this.populationTT = populationTT;
@@ -38,6 +48,22 @@ public class Initialize<GenomeT extends Serializable> extends PTransform<PBegin,
         this.seed = seed;
         this.numPops = numPops;
         this.numBest = numBest;
+        this.numShards = numShards;
+    }
+
+    /**
+     * Splits each population into numShards shard populations, whose ids
+     * are the keys of the shards, see Shards.  The shards are evaluated and
+     * kept apart, so that Evolve with a ModelSharded of as many shards never
+     * gathers a population.
+     * @param numShards
+     * @return
+     */
+    public Initialize<GenomeT> withNumShards(int numShards) {
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("numShards must be positive");
+        }
+        return new Initialize<>(populateTransform, evaluateTransform, populationTT, hallOfFameTT, seed, numPops, numBest, numShards);
     }
 
     static class InitializeFn<GenomeT extends Serializable> extends DoFn<Individuals<GenomeT>, KV<String, Individuals<GenomeT>>> {
@@ -60,16 +86,28 @@ public class Initialize<GenomeT extends Serializable> extends PTransform<PBegin,
             baseItems.add(new BaseItem(rng.nextLong()));
         }
 
-        PCollection<Population<GenomeT>> dummyPopulation = pBegin.apply("DummyPopulation", Create.of(new Population<>("dummy")));
-        PCollection<Individual<GenomeT>> dummyIndividual = pBegin.apply("DummyIndividual", Create.of(new Individual<>("dummy", null)));
+        PCollection<KV<String, Individuals<GenomeT>>> individuals = pBegin.apply(Create.of(baseItems))
+                .apply(populateTransform)
+                .apply(ParDo.of(new InitializeFn<>()));
+        if (numShards > 0) {
+            individuals = individuals.apply(ShardPopulationTransform.of(numShards));
+        }
 
-        PCollection<Population<GenomeT>> population = pBegin.apply("InitialPopulation", Create.empty(dummyPopulation.getCoder()));
-        PCollection<List<Individual<GenomeT>>> hallOfFame = pBegin.apply("InitialHallOfFame", Create.empty(ListCoder.of(dummyIndividual.getCoder())));
+        Coder<Population<GenomeT>> populationCoder;
+        Coder<Individual<GenomeT>> individualCoder;
+        Coder<GenomeT> genomeCoder = GenomeCoders.of(individuals.getCoder());
+        if (genomeCoder != null) {
+            populationCoder = PopulationCoder.of(genomeCoder);
+            individualCoder = IndividualCoder.of(genomeCoder);
+        } else {
+            populationCoder = pBegin.apply("DummyPopulation", Create.of(new Population<GenomeT>("dummy"))).getCoder();
+            individualCoder = pBegin.apply("DummyIndividual", Create.of(new Individual<GenomeT>("dummy", null))).getCoder();
+        }
 
-        return pBegin.apply(Create.of(baseItems))
-                .apply(populateTransform)
-                .apply(ParDo.of(new InitializeFn<>()))
-                .apply(new Repopulate<>(evaluateTransform, population, hallOfFame, populationTT, hallOfFameTT, numBest));
+        PCollection<Population<GenomeT>> population = pBegin.apply("InitialPopulation", Create.empty(populationCoder));
+        PCollection<List<Individual<GenomeT>>> hallOfFame = pBegin.apply("InitialHallOfFame", Create.empty(ListCoder.of(individualCoder)));
+
+        return individuals.apply(new Repopulate<>(evaluateTransform, population, hallOfFame, populationTT, hallOfFameTT, numBest));
     }
 }
 
@@ -0,0 +1,74 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Select;
+import org.omegabyte.gaboom.transforms.halloffame.HallOfFameTransform;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LocalEvolve runs numGenerations generations of the generational model per
+ * population inside a single LocalEvolveFn, and only materializes the
+ * populations and the hall of fame once at the end.  With numGenerations set
+ * to 1 it produces the same output as Evolve with a ModelGenerational and an
+ * EvaluateTransform built from the same FitnessFn.
+ * @param <GenomeT>
+ */
+public class LocalEvolve<GenomeT extends Serializable> extends PTransform<PCollectionTuple, PCollectionTuple> {
+    private final Select.SelectFn<GenomeT> selectFn;
+    private final Crossover.CrossoverTransform<GenomeT> crossoverTransform;
+    private final Mutate.MutateTransform<GenomeT> mutateTransform;
+    private final Evaluate.FitnessFn<GenomeT> fitnessFn;
+    private final TupleTag<Population<GenomeT>> populationTT;
+    private final TupleTag<List<Individual<GenomeT>>> hallOfFameTT;
+    private final int numBest;
+    private final int numGenerations;
+
+    public LocalEvolve(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.FitnessFn<GenomeT> fitnessFn, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, int numBest, int numGenerations) {
+        this.selectFn = selectFn;
+        this.crossoverTransform = crossoverTransform;
+        this.mutateTransform = mutateTransform;
+        this.fitnessFn = fitnessFn;
+        this.populationTT = populationTT;
+        this.hallOfFameTT = hallOfFameTT;
+        this.numBest = numBest;
+        this.numGenerations = numGenerations;
+    }
+
+    @Override
+    public PCollectionTuple expand(PCollectionTuple input) {
+        PCollection<Population<GenomeT>> population = input.get(populationTT);
+        PCollection<List<Individual<GenomeT>>> hallOfFame = input.get(hallOfFameTT);
+
+        List<PCollectionView<?>> sideInputs = new ArrayList<>();
+        sideInputs.addAll(crossoverTransform.getSideInputs());
+        sideInputs.addAll(mutateTransform.getSideInputs());
+
+        TupleTag<Population<GenomeT>> evolvedTT = new TupleTag<>();
+        TupleTag<List<Individual<GenomeT>>> bestTT = new TupleTag<>();
+        LocalEvolveFn<GenomeT> fn = new LocalEvolveFn<>(selectFn, crossoverTransform.getFn(), mutateTransform.getFn(), fitnessFn, bestTT, numBest, numGenerations);
+        PCollectionTuple result = population.apply(ParDo.of(fn)
+                .withSideInputs(sideInputs)
+                .withOutputTags(evolvedTT, TupleTagList.of(bestTT)));
+
+        // multi output ParDos do not bind the genome type from the input coder
+        PCollection<Population<GenomeT>> evolved = result.get(evolvedTT).setCoder(population.getCoder());
+        PCollection<List<Individual<GenomeT>>> best = result.get(bestTT).setCoder(hallOfFame.getCoder());
+
+        return PCollectionTuple.of(populationTT, evolved)
+                .and(hallOfFameTT, best.apply(new HallOfFameTransform<>(hallOfFame, numBest)));
+    }
+}
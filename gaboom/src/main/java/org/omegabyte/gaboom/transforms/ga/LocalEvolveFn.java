@@ -0,0 +1,100 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.values.TupleTag;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Select;
+import org.omegabyte.gaboom.transforms.evaluate.EvaluateInKeyFn;
+import org.omegabyte.gaboom.transforms.halloffame.HallOfFameFn;
+import org.omegabyte.gaboom.transforms.model.GenerateOffspringsInKeyFn;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * LocalEvolveFn evolves a population for several generations in memory.  Each
+ * generation follows the generational model: the SelectFn, CrossoverFn and
+ * MutateFn are invoked on the worker by a GenerateOffspringsInKeyFn, and
+ * the offsprings are renamed and evaluated with the FitnessFn.  The seeds are
+ * drawn in the same order as Evolve, so one generation of LocalEvolveFn
+ * produces the same population as one application of Evolve with a
+ * ModelGenerational and an in-key evaluation.
+ *
+ * The evolved population is the main output, the best individuals seen across
+ * all generations are sent to the hall of fame output.
+ * @param <GenomeT>
+ */
+public class LocalEvolveFn<GenomeT extends Serializable> extends DoFn<Population<GenomeT>, Population<GenomeT>> {
+    private final GenerateOffspringsInKeyFn<GenomeT> generateOffspringsFn;
+    private final EvaluateInKeyFn<GenomeT> evaluateInKeyFn;
+    private final TupleTag<List<Individual<GenomeT>>> hallOfFameTT;
+    private final int numBest;
+    private final int numGenerations;
+
+    public LocalEvolveFn(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverFn<GenomeT> crossoverFn, Mutate.MutateFn<GenomeT> mutateFn, Evaluate.FitnessFn<GenomeT> fitnessFn, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, int numBest, int numGenerations) {
+        if (numGenerations < 1) {
+            throw new IllegalArgumentException("numGenerations must be at least 1, got " + numGenerations);
+        }
+        this.generateOffspringsFn = new GenerateOffspringsInKeyFn<>(selectFn, crossoverFn, mutateFn);
+        this.evaluateInKeyFn = new EvaluateInKeyFn<>(fitnessFn);
+        this.hallOfFameTT = hallOfFameTT;
+        this.numBest = numBest;
+        this.numGenerations = numGenerations;
+    }
+
+    @Setup
+    public void setup() {
+        generateOffspringsFn.setup();
+        evaluateInKeyFn.setup();
+    }
+
+    @Teardown
+    public void teardown() {
+        generateOffspringsFn.teardown();
+        evaluateInKeyFn.teardown();
+    }
+
+    /**
+     * Returns the evaluated and sorted individuals of the next generation, or
+     * null if the population could not be renewed.
+     * @param population
+     * @param c
+     * @param window
+     * @return
+     */
+    Individuals<GenomeT> nextGeneration(Population<GenomeT> population, DoFn<?, ?>.WindowedContext c, BoundedWindow window) {
+        SelectIndividuals<GenomeT> selectIndividuals = new SelectIndividuals<>(population.getSeed(), population.getIndividuals(), population.getIndividuals().size());
+        Individuals<GenomeT> offsprings = generateOffspringsFn.generate(population.getId(), selectIndividuals, c, window);
+        if (offsprings == null) {
+            return null;
+        }
+        return evaluateInKeyFn.evaluate(offsprings);
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c, BoundedWindow window) {
+        Population<GenomeT> population = c.element();
+        HallOfFameFn<GenomeT> hallOfFameFn = new HallOfFameFn<>(numBest);
+
+        List<Individual<GenomeT>> hallOfFame = hallOfFameFn.createAccumulator();
+        for (int generation = 0; generation < numGenerations; generation++) {
+            Individuals<GenomeT> evaluated = nextGeneration(population, c, window);
+            if (evaluated == null) {
+                break;
+            }
+
+            population = new Population<>(population.getId(), population.getCreated(), population.getGenerations() + 1, evaluated.getSeed(), evaluated.getIndividuals());
+            hallOfFame = hallOfFameFn.addInput(hallOfFame, evaluated.getIndividuals());
+        }
+
+        c.output(population);
+        c.output(hallOfFameTT, hallOfFame);
+    }
+}
@@ -0,0 +1,311 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.transforms.join.CoGbkResult;
+import org.apache.beam.sdk.transforms.join.CoGroupByKey;
+import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Migrate exchanges individuals between the populations, following the island
+ * model.  Every interval generations each population sends copies of its
+ * numMigrants best individuals, or of a random sample, to its neighbours in
+ * the topology.  The populations are placed on the topology in the order of
+ * their ids.  The migrants are shuffled once, keyed by their destination
+ * together with the populations, and replace the worst individuals of the
+ * destination with the fitness they were evaluated with.  The hall of fame
+ * is passed through.
+ * @param <GenomeT>
+ */
+public class Migrate<GenomeT extends Serializable> extends PTransform<PCollectionTuple, PCollectionTuple> {
+    private final TupleTag<Population<GenomeT>> populationTT;
+    private final TupleTag<List<Individual<GenomeT>>> hallOfFameTT;
+    private final Topology topology;
+    private final int numMigrants;
+    private final boolean randomMigrants;
+    private final int interval;
+
+    public enum Topology {
+        // each population sends to the next one
+        RING,
+        // the populations are laid on a wrapped grid and send to their four neighbours
+        TORUS,
+        // each population sends to one other population drawn at random
+        RANDOM,
+        // each population sends to all the others
+        FULLY_CONNECTED
+    }
+
+    public Migrate(TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT) {
+        this(populationTT, hallOfFameTT, Topology.RING, 1, false, 1);
+    }
+
+    private Migrate(TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, Topology topology, int numMigrants, boolean randomMigrants, int interval) {
+        if (numMigrants < 0) {
+            throw new IllegalArgumentException("numMigrants must not be negative");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.populationTT = populationTT;
+        this.hallOfFameTT = hallOfFameTT;
+        this.topology = topology;
+        this.numMigrants = numMigrants;
+        this.randomMigrants = randomMigrants;
+        this.interval = interval;
+    }
+
+    public Migrate<GenomeT> withTopology(Topology topology) {
+        return new Migrate<>(populationTT, hallOfFameTT, topology, numMigrants, randomMigrants, interval);
+    }
+
+    /**
+     * Sends the numMigrants best individuals of each population.
+     * @param numMigrants
+     * @return
+     */
+    public Migrate<GenomeT> withBestMigrants(int numMigrants) {
+        return new Migrate<>(populationTT, hallOfFameTT, topology, numMigrants, false, interval);
+    }
+
+    /**
+     * Sends numMigrants distinct individuals of each population drawn at
+     * random.
+     * @param numMigrants
+     * @return
+     */
+    public Migrate<GenomeT> withRandomMigrants(int numMigrants) {
+        return new Migrate<>(populationTT, hallOfFameTT, topology, numMigrants, true, interval);
+    }
+
+    /**
+     * Migrates when the number of generations of a population is a multiple
+     * of interval.
+     * @param interval
+     * @return
+     */
+    public Migrate<GenomeT> withInterval(int interval) {
+        return new Migrate<>(populationTT, hallOfFameTT, topology, numMigrants, randomMigrants, interval);
+    }
+
+    /**
+     * Returns the positions the population at position sends its migrants to.
+     * @param topology
+     * @param position
+     * @param numPops
+     * @param rng
+     * @return
+     */
+    static List<Integer> getDestinations(Topology topology, int position, int numPops, Random rng) {
+        Set<Integer> destinations = new LinkedHashSet<>();
+        switch (topology) {
+            case RING:
+                destinations.add((position + 1) % numPops);
+                break;
+            case TORUS:
+                // the widest grid no wider than it is high
+                int width = (int) Math.sqrt(numPops);
+                while (numPops % width != 0) {
+                    width--;
+                }
+                int height = numPops / width;
+                int row = position / width;
+                int column = position % width;
+                destinations.add(row * width + (column + 1) % width);
+                destinations.add(row * width + (column + width - 1) % width);
+                destinations.add(((row + 1) % height) * width + column);
+                destinations.add(((row + height - 1) % height) * width + column);
+                break;
+            case RANDOM:
+                if (numPops > 1) {
+                    destinations.add((position + 1 + rng.nextInt(numPops - 1)) % numPops);
+                }
+                break;
+            case FULLY_CONNECTED:
+                for (int i = 0; i < numPops; i++) {
+                    destinations.add(i);
+                }
+                break;
+        }
+        destinations.remove(position);
+        return new ArrayList<>(destinations);
+    }
+
+    /**
+     * Returns the migrants of a population, sorted by fitness: its best
+     * individuals, or a random sample drawn by a partial shuffle.
+     * @param individuals
+     * @param numMigrants
+     * @param randomMigrants
+     * @param rng
+     * @param <GenomeT>
+     * @return
+     */
+    static <GenomeT extends Serializable> List<Individual<GenomeT>> getMigrants(List<Individual<GenomeT>> individuals, int numMigrants, boolean randomMigrants, Random rng) {
+        List<Individual<GenomeT>> migrants = new ArrayList<>(individuals);
+        int n = Math.min(numMigrants, migrants.size());
+        if (randomMigrants) {
+            for (int i = 0; i < n; i++) {
+                int j = i + rng.nextInt(migrants.size() - i);
+                migrants.set(i, migrants.set(j, migrants.get(i)));
+            }
+            migrants = new ArrayList<>(migrants.subList(0, n));
+        }
+        migrants.sort(SortIndividualsFn::compare);
+        return new ArrayList<>(migrants.subList(0, n));
+    }
+
+    static class EmigrateFn<GenomeT extends Serializable> extends DoFn<Population<GenomeT>, KV<String, Population<GenomeT>>> {
+        private final TupleTag<KV<String, Individuals<GenomeT>>> migrantsTT;
+        private final PCollectionView<List<String>> populationIdsView;
+        private final Topology topology;
+        private final int numMigrants;
+        private final boolean randomMigrants;
+        private final int interval;
+        private final Counter migrated = GaboomMetrics.counter(GaboomMetrics.MIGRANTS);
+
+        EmigrateFn(TupleTag<KV<String, Individuals<GenomeT>>> migrantsTT, PCollectionView<List<String>> populationIdsView, Topology topology, int numMigrants, boolean randomMigrants, int interval) {
+            this.migrantsTT = migrantsTT;
+            this.populationIdsView = populationIdsView;
+            this.topology = topology;
+            this.numMigrants = numMigrants;
+            this.randomMigrants = randomMigrants;
+            this.interval = interval;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            Population<GenomeT> population = c.element();
+            c.output(KV.of(population.getId(), population));
+            if (numMigrants == 0 || population.getGenerations() % interval != 0) {
+                return;
+            }
+
+            List<String> populationIds = new ArrayList<>(c.sideInput(populationIdsView));
+            populationIds.sort(String::compareTo);
+            int position = populationIds.indexOf(population.getId());
+            Random rng = population.getRandomGenerator(population.getGenerations());
+            List<Integer> destinations = getDestinations(topology, position, populationIds.size(), rng);
+            if (destinations.isEmpty()) {
+                return;
+            }
+
+            List<Individual<GenomeT>> migrants = getMigrants(population.getIndividuals(), numMigrants, randomMigrants, rng);
+            for (int destination : destinations) {
+                c.output(migrantsTT, KV.of(populationIds.get(destination), new Individuals<>(population.getSeed(), migrants)));
+                migrated.inc(migrants.size());
+            }
+        }
+    }
+
+    static class ImmigrateFn<GenomeT extends Serializable> extends DoFn<KV<String, CoGbkResult>, Population<GenomeT>> {
+        private final TupleTag<Population<GenomeT>> populationTT;
+        private final TupleTag<Individuals<GenomeT>> migrantsTT;
+
+        ImmigrateFn(TupleTag<Population<GenomeT>> populationTT, TupleTag<Individuals<GenomeT>> migrantsTT) {
+            this.populationTT = populationTT;
+            this.migrantsTT = migrantsTT;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            CoGbkResult result = c.element().getValue();
+            Population<GenomeT> population = result.getOnly(populationTT);
+            c.output(merge(population, result.getAll(migrantsTT)));
+        }
+
+        /**
+         * Returns the population where the immigrants replace the worst
+         * individuals.  Immigrants already in the population are dropped.
+         * @param population
+         * @param immigrants
+         * @param <GenomeT>
+         * @return
+         */
+        static <GenomeT extends Serializable> Population<GenomeT> merge(Population<GenomeT> population, Iterable<Individuals<GenomeT>> immigrants) {
+            int size = population.getIndividuals().size();
+            Set<Long> ids = new HashSet<>();
+            population.getIndividuals().forEach(i -> ids.add(i.getNumericId()));
+
+            List<Individual<GenomeT>> newcomers = new ArrayList<>();
+            immigrants.forEach(migrants -> migrants.getIndividuals().forEach(i -> {
+                if (ids.add(i.getNumericId())) {
+                    newcomers.add(i);
+                }
+            }));
+            if (newcomers.isEmpty()) {
+                return population;
+            }
+            newcomers.sort(SortIndividualsFn::compare);
+
+            List<Individual<GenomeT>> individuals = new ArrayList<>(population.getIndividuals());
+            individuals.sort(SortIndividualsFn::compare);
+            int kept = Math.max(size - newcomers.size(), 0);
+            individuals = new ArrayList<>(individuals.subList(0, kept));
+            individuals.addAll(newcomers.subList(0, size - kept));
+            individuals.sort(SortIndividualsFn::compare);
+            return new Population<>(population.getId(), population.getCreated(), population.getGenerations(), population.getSeed(), individuals);
+        }
+    }
+
+    static class PopulationIdFn<GenomeT extends Serializable> extends DoFn<Population<GenomeT>, String> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(c.element().getId());
+        }
+    }
+
+    @Override
+    public PCollectionTuple expand(PCollectionTuple input) {
+        PCollection<Population<GenomeT>> population = input.get(populationTT);
+        PCollectionView<List<String>> populationIdsView = population
+                .apply("PopulationIds", ParDo.of(new PopulationIdFn<>()))
+                .apply(View.asList());
+
+        TupleTag<KV<String, Population<GenomeT>>> populationAtKeyTT = new TupleTag<>();
+        TupleTag<KV<String, Individuals<GenomeT>>> migrantsAtKeyTT = new TupleTag<>();
+        PCollectionTuple result = population.apply(ParDo.of(new EmigrateFn<>(migrantsAtKeyTT, populationIdsView, topology, numMigrants, randomMigrants, interval))
+                .withSideInputs(populationIdsView)
+                .withOutputTags(populationAtKeyTT, TupleTagList.of(migrantsAtKeyTT)));
+        Coder<Population<GenomeT>> populationCoder = population.getCoder();
+        PCollection<KV<String, Population<GenomeT>>> populationAtKey = result.get(populationAtKeyTT)
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), populationCoder));
+        PCollection<KV<String, Individuals<GenomeT>>> migrantsAtKey = GenomeCoders.setIndividualsAtKey(result.get(migrantsAtKeyTT), populationCoder);
+
+        TupleTag<Population<GenomeT>> populationTT = new TupleTag<>();
+        TupleTag<Individuals<GenomeT>> migrantsTT = new TupleTag<>();
+        PCollection<Population<GenomeT>> migrated = KeyedPCollectionTuple
+                .of(populationTT, populationAtKey)
+                .and(migrantsTT, migrantsAtKey)
+                .apply(CoGroupByKey.create())
+                .apply(ParDo.of(new ImmigrateFn<>(populationTT, migrantsTT)))
+                .setCoder(populationCoder);
+        return PCollectionTuple.of(this.populationTT, migrated).and(this.hallOfFameTT, input.get(hallOfFameTT));
+    }
+}
@@ -1,5 +1,8 @@
 package org.omegabyte.gaboom.transforms.ga;
 
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
@@ -13,10 +16,14 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
 import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.coders.PopulationCoder;
 import org.omegabyte.gaboom.transforms.Evaluate;
 import org.omegabyte.gaboom.transforms.halloffame.HallOfFameTransform;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
 
 class Repopulate<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, Individuals<GenomeT>>>, PCollectionTuple> {
@@ -43,6 +50,21 @@ class Repopulate<GenomeT extends Serializable> extends PTransform<PCollection<KV
         }
     }
 
+    /**
+     * IndexGeneration keys the previous generation of the populations by
+     * their id, without their individuals.  Only their id, age and generation
+     * count are joined with the next individuals, so the individuals are not
+     * shuffled.
+     * @param <GenomeT>
+     */
+    static class IndexGeneration<GenomeT extends Serializable> extends DoFn<Population<GenomeT>, KV<String, Population<GenomeT>>> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            Population<GenomeT> population = c.element();
+            c.output(KV.of(population.getId(), new Population<>(population.getId(), population.getCreated(), population.getGenerations(), population.getSeed(), Collections.emptyList())));
+        }
+    }
+
     static class GetIndividuals<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, List<Individual<GenomeT>>> {
         @ProcessElement
         public void processElement(ProcessContext c) {
@@ -53,6 +75,10 @@ class Repopulate<GenomeT extends Serializable> extends PTransform<PCollection<KV
     static class RepopulateFn<GenomeT extends Serializable> extends DoFn<KV<String, CoGbkResult>, Population<GenomeT>> {
         private final TupleTag<Population<GenomeT>> populationTT;
         private final TupleTag<Individuals<GenomeT>> individualsTT;
+        private final Counter populations = GaboomMetrics.counter(GaboomMetrics.POPULATIONS);
+        private final Distribution generation = GaboomMetrics.distribution(GaboomMetrics.GENERATION);
+        private final Distribution bestFitness = GaboomMetrics.distribution(GaboomMetrics.BEST_FITNESS);
+        private final Distribution meanFitness = GaboomMetrics.distribution(GaboomMetrics.MEAN_FITNESS);
 
         public RepopulateFn(TupleTag<Population<GenomeT>> populationTT, TupleTag<Individuals<GenomeT>> individualsTT) {
             this.populationTT = populationTT;
@@ -65,12 +91,30 @@ class Repopulate<GenomeT extends Serializable> extends PTransform<PCollection<KV
             Population<GenomeT> population = result.getOnly(populationTT, new Population<>(c.element().getKey()));
             Individuals<GenomeT> individuals = result.getOnly(individualsTT);
 
-            if (!population.isNew()) {
-                population = population.clone();
-            }
-            population.update(individuals);
+            population = population.next(individuals);
+            updateMetrics(population);
             c.output(population);
         }
+
+        private void updateMetrics(Population<GenomeT> population) {
+            populations.inc();
+            generation.update(population.getGenerations());
+
+            double best = Double.POSITIVE_INFINITY;
+            double sum = 0;
+            int n = 0;
+            for (Individual<GenomeT> individual : population.getIndividuals()) {
+                if (individual.getFitness() != null) {
+                    best = Math.min(best, individual.getFitness());
+                    sum += individual.getFitness();
+                    n++;
+                }
+            }
+            if (n > 0) {
+                GaboomMetrics.updateFitness(bestFitness, best);
+                GaboomMetrics.updateFitness(meanFitness, sum / n);
+            }
+        }
     }
 
     @Override
@@ -79,11 +123,11 @@ class Repopulate<GenomeT extends Serializable> extends PTransform<PCollection<KV
                 .apply(evaluateTransform);
 
         PCollection<KV<String, Population<GenomeT>>> populationAtKey = population
-                .apply(ParDo.of(new IndexPopulation<>()));
+                .apply(ParDo.of(new IndexGeneration<>()));
 
         PCollection<List<Individual<GenomeT>>> hallOfFame = individualsAtKey
                 .apply(ParDo.of(new GetIndividuals<>()))
-                .apply(new HallOfFameTransform<>(this.hallOfFame, numBest));
+                .apply(new HallOfFameTransform<>(this.hallOfFame, numBest).withFanout(evaluateTransform.getHotKeyFanout()));
 
         TupleTag<Population<GenomeT>> populationTT = new TupleTag<>();
         TupleTag<Individuals<GenomeT>> individualsTT = new TupleTag<>();
@@ -92,6 +136,11 @@ class Repopulate<GenomeT extends Serializable> extends PTransform<PCollection<KV
                 .and(individualsTT, individualsAtKey)
                 .apply(CoGroupByKey.create())
                 .apply(ParDo.of(new RepopulateFn<>(populationTT, individualsTT)));
+
+        Coder<GenomeT> genomeCoder = GenomeCoders.of(individualsAtKey.getCoder());
+        if (genomeCoder != null) {
+            population.setCoder(PopulationCoder.of(genomeCoder));
+        }
         return PCollectionTuple.of(this.populationTT, population).and(this.hallOfFameTT, hallOfFame);
     }
 }
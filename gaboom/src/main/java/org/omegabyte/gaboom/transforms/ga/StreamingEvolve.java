@@ -0,0 +1,124 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.WithKeys;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindows;
+import org.apache.beam.sdk.transforms.windowing.Window;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.joda.time.Duration;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Select;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * StreamingEvolve evolves an unbounded stream of populations with the
+ * generational model.  Each population lives in keyed state and is evolved
+ * one generation per interval of processing time until maxGenerations is
+ * reached, or forever if maxGenerations is 0.  A new population with the same
+ * id replaces the current one.
+ *
+ * The output contains every generation of every population, and the global
+ * hall of fame which is emitted again each time a population improves it.
+ * The global hall of fame is kept in keyed state by a GlobalHallOfFameFn, so
+ * it holds numBest individuals however long the stream runs.
+ *
+ * The generations are made in timer callbacks, where side inputs are not
+ * available, so the crossover and mutate transforms cannot have side inputs.
+ * @param <GenomeT>
+ */
+public class StreamingEvolve<GenomeT extends Serializable> extends PTransform<PCollection<Population<GenomeT>>, PCollectionTuple> {
+    private final Select.SelectFn<GenomeT> selectFn;
+    private final Crossover.CrossoverTransform<GenomeT> crossoverTransform;
+    private final Mutate.MutateTransform<GenomeT> mutateTransform;
+    private final Evaluate.FitnessFn<GenomeT> fitnessFn;
+    private final TupleTag<Population<GenomeT>> populationTT;
+    private final TupleTag<List<Individual<GenomeT>>> hallOfFameTT;
+    private final int numBest;
+    private final Duration interval;
+    private final int maxGenerations;
+
+    public StreamingEvolve(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.FitnessFn<GenomeT> fitnessFn, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, int numBest) {
+        this(selectFn, crossoverTransform, mutateTransform, fitnessFn, populationTT, hallOfFameTT, numBest, Duration.standardSeconds(1), 0);
+    }
+
+    private StreamingEvolve(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.FitnessFn<GenomeT> fitnessFn, TupleTag<Population<GenomeT>> populationTT, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, int numBest, Duration interval, int maxGenerations) {
+        if (!crossoverTransform.getSideInputs().isEmpty() || !mutateTransform.getSideInputs().isEmpty()) {
+            throw new IllegalArgumentException("StreamingEvolve does not support side inputs: generations run in timers");
+        }
+        this.selectFn = selectFn;
+        this.crossoverTransform = crossoverTransform;
+        this.mutateTransform = mutateTransform;
+        this.fitnessFn = fitnessFn;
+        this.populationTT = populationTT;
+        this.hallOfFameTT = hallOfFameTT;
+        this.numBest = numBest;
+        this.interval = interval;
+        this.maxGenerations = maxGenerations;
+    }
+
+    /**
+     * Sets the processing time between two generations of a population.
+     * @param interval
+     * @return
+     */
+    public StreamingEvolve<GenomeT> withInterval(Duration interval) {
+        return new StreamingEvolve<>(selectFn, crossoverTransform, mutateTransform, fitnessFn, populationTT, hallOfFameTT, numBest, interval, maxGenerations);
+    }
+
+    /**
+     * Stops the evolution of a population once it reaches the given number of
+     * generations.
+     * @param maxGenerations
+     * @return
+     */
+    public StreamingEvolve<GenomeT> withMaxGenerations(int maxGenerations) {
+        return new StreamingEvolve<>(selectFn, crossoverTransform, mutateTransform, fitnessFn, populationTT, hallOfFameTT, numBest, interval, maxGenerations);
+    }
+
+    @Override
+    public PCollectionTuple expand(PCollection<Population<GenomeT>> input) {
+        Coder<Population<GenomeT>> populationCoder = input.getCoder();
+        Coder<GenomeT> genomeCoder = GenomeCoders.of(populationCoder);
+        @SuppressWarnings("unchecked")
+        Coder<List<Individual<GenomeT>>> hallOfFameCoder = genomeCoder != null
+                ? ListCoder.of(IndividualCoder.of(genomeCoder))
+                : ListCoder.of(SerializableCoder.of((Class<Individual<GenomeT>>) (Class) Individual.class));
+
+        TupleTag<Population<GenomeT>> evolvedTT = new TupleTag<>();
+        TupleTag<List<Individual<GenomeT>>> bestTT = new TupleTag<>();
+        LocalEvolveFn<GenomeT> localEvolveFn = new LocalEvolveFn<>(selectFn, crossoverTransform.getFn(), mutateTransform.getFn(), fitnessFn, bestTT, numBest, 1);
+        PCollectionTuple result = input
+                .apply(ParDo.of(new Repopulate.IndexPopulation<>()))
+                .apply(ParDo.of(new StreamingEvolveFn<>(localEvolveFn, bestTT, numBest, interval, maxGenerations, populationCoder, hallOfFameCoder))
+                        .withOutputTags(evolvedTT, TupleTagList.of(bestTT)));
+
+        // multi output ParDos do not bind the genome type from the input coder
+        PCollection<Population<GenomeT>> evolved = result.get(evolvedTT).setCoder(populationCoder);
+        // the global hall of fame is kept in the state of a single key
+        PCollection<List<Individual<GenomeT>>> hallOfFame = result.get(bestTT).setCoder(hallOfFameCoder)
+                .apply(Window.into(new GlobalWindows()))
+                .apply(WithKeys.of(""))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), hallOfFameCoder))
+                .apply(ParDo.of(new GlobalHallOfFameFn<>(numBest, hallOfFameCoder)))
+                .setCoder(hallOfFameCoder);
+
+        return PCollectionTuple.of(populationTT, evolved).and(hallOfFameTT, hallOfFame);
+    }
+}
@@ -0,0 +1,163 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.state.StateSpec;
+import org.apache.beam.sdk.state.StateSpecs;
+import org.apache.beam.sdk.state.TimeDomain;
+import org.apache.beam.sdk.state.Timer;
+import org.apache.beam.sdk.state.TimerSpec;
+import org.apache.beam.sdk.state.TimerSpecs;
+import org.apache.beam.sdk.state.ValueState;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.TupleTag;
+import org.joda.time.Duration;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.transforms.halloffame.HallOfFameFn;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * StreamingEvolveFn keeps every population in keyed state and evolves it one
+ * generation each time its processing time timer fires.  A population
+ * received for a key replaces the one in state and restarts its evolution.
+ *
+ * Every generation is sent to the main output, and the hall of fame of the
+ * key is sent to the hall of fame output only when it changes, be it by a
+ * received population or by a generation.
+ * @param <GenomeT>
+ */
+public class StreamingEvolveFn<GenomeT extends Serializable> extends DoFn<KV<String, Population<GenomeT>>, Population<GenomeT>> {
+    private static final String POPULATION = "population";
+    private static final String HALL_OF_FAME = "hallOfFame";
+    private static final String GENERATION = "generation";
+
+    private final LocalEvolveFn<GenomeT> localEvolveFn;
+    private final TupleTag<List<Individual<GenomeT>>> hallOfFameTT;
+    private final int numBest;
+    private final Duration interval;
+    private final int maxGenerations;
+
+    @StateId(POPULATION)
+    private final StateSpec<ValueState<Population<GenomeT>>> populationSpec;
+
+    @StateId(HALL_OF_FAME)
+    private final StateSpec<ValueState<List<Individual<GenomeT>>>> hallOfFameSpec;
+
+    @TimerId(GENERATION)
+    private final TimerSpec generationSpec = TimerSpecs.timer(TimeDomain.PROCESSING_TIME);
+
+    public StreamingEvolveFn(LocalEvolveFn<GenomeT> localEvolveFn, TupleTag<List<Individual<GenomeT>>> hallOfFameTT, int numBest, Duration interval, int maxGenerations, Coder<Population<GenomeT>> populationCoder, Coder<List<Individual<GenomeT>>> hallOfFameCoder) {
+        this.localEvolveFn = localEvolveFn;
+        this.hallOfFameTT = hallOfFameTT;
+        this.numBest = numBest;
+        this.interval = interval;
+        this.maxGenerations = maxGenerations;
+        this.populationSpec = StateSpecs.value(populationCoder);
+        this.hallOfFameSpec = StateSpecs.value(hallOfFameCoder);
+    }
+
+    @Setup
+    public void setup() {
+        localEvolveFn.setup();
+    }
+
+    @Teardown
+    public void teardown() {
+        localEvolveFn.teardown();
+    }
+
+    private boolean isDone(Population<GenomeT> population) {
+        return maxGenerations > 0 && population.getGenerations() >= maxGenerations;
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c,
+                               @StateId(POPULATION) ValueState<Population<GenomeT>> populationState,
+                               @StateId(HALL_OF_FAME) ValueState<List<Individual<GenomeT>>> hallOfFameState,
+                               @TimerId(GENERATION) Timer generationTimer) {
+        Population<GenomeT> population = c.element().getValue();
+        populationState.write(population);
+
+        List<Individual<GenomeT>> previous = hallOfFameState.read();
+        List<Individual<GenomeT>> hallOfFame = addNew(new HallOfFameFn<>(numBest), previous, population.getIndividuals());
+        if (!sameIndividuals(previous, hallOfFame)) {
+            hallOfFameState.write(hallOfFame);
+            c.output(hallOfFameTT, hallOfFame);
+        }
+
+        if (!isDone(population)) {
+            generationTimer.offset(interval).setRelative();
+        }
+    }
+
+    @OnTimer(GENERATION)
+    public void onGeneration(OnTimerContext c,
+                             @StateId(POPULATION) ValueState<Population<GenomeT>> populationState,
+                             @StateId(HALL_OF_FAME) ValueState<List<Individual<GenomeT>>> hallOfFameState,
+                             @TimerId(GENERATION) Timer generationTimer) {
+        Population<GenomeT> population = populationState.read();
+        if (population == null || isDone(population)) {
+            return;
+        }
+
+        Individuals<GenomeT> evaluated = localEvolveFn.nextGeneration(population, c, c.window());
+        if (evaluated == null) {
+            return;
+        }
+        population = new Population<>(population.getId(), population.getCreated(), population.getGenerations() + 1, evaluated.getSeed(), evaluated.getIndividuals());
+        populationState.write(population);
+        c.output(population);
+
+        List<Individual<GenomeT>> previous = hallOfFameState.read();
+        List<Individual<GenomeT>> hallOfFame = addNew(new HallOfFameFn<>(numBest), previous, evaluated.getIndividuals());
+        if (!sameIndividuals(previous, hallOfFame)) {
+            hallOfFameState.write(hallOfFame);
+            c.output(hallOfFameTT, hallOfFame);
+        }
+
+        if (!isDone(population)) {
+            generationTimer.offset(interval).setRelative();
+        }
+    }
+
+    /**
+     * Adds to the hall of fame the individuals it does not hold yet, by
+     * numeric id, so that the individuals carried over from a generation to
+     * the next are not added twice.
+     * @param hallOfFameFn
+     * @param previous the hall of fame, or null if there is none yet
+     * @param individuals
+     * @param <GenomeT>
+     * @return
+     */
+    static <GenomeT extends Serializable> List<Individual<GenomeT>> addNew(HallOfFameFn<GenomeT> hallOfFameFn, List<Individual<GenomeT>> previous, List<Individual<GenomeT>> individuals) {
+        if (previous == null) {
+            return hallOfFameFn.addInput(hallOfFameFn.createAccumulator(), individuals);
+        }
+        Set<Long> ids = new HashSet<>();
+        previous.forEach(i -> ids.add(i.getNumericId()));
+        List<Individual<GenomeT>> added = individuals.stream()
+                .filter(i -> !ids.contains(i.getNumericId()))
+                .collect(Collectors.toList());
+        return hallOfFameFn.addInput(previous, added);
+    }
+
+    static <GenomeT extends Serializable> boolean sameIndividuals(List<Individual<GenomeT>> a, List<Individual<GenomeT>> b) {
+        if (a == null || a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (Individual.compareIds(a.get(i), b.get(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
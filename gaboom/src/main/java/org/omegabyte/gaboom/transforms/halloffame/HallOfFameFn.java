@@ -1,5 +1,8 @@
 package org.omegabyte.gaboom.transforms.halloffame;
 
+import org.apache.beam.sdk.coders.CannotProvideCoderException;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderRegistry;
 import org.apache.beam.sdk.transforms.Combine;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
@@ -8,6 +11,12 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * HallOfFameFn keeps the nBest individuals of sorted lists of individuals.
+ * The accumulator is such a list, encoded with the coder of the inputs, so the
+ * combine can be lifted and fanned out.
+ * @param <GenomeT>
+ */
 public class HallOfFameFn<GenomeT extends Serializable> extends Combine.CombineFn<List<Individual<GenomeT>>, List<Individual<GenomeT>>, List<Individual<GenomeT>>> {
     final private int nBest;
 
@@ -15,6 +24,11 @@ public class HallOfFameFn<GenomeT extends Serializable> extends Combine.CombineF
         this.nBest = nBest;
     }
 
+    @Override
+    public Coder<List<Individual<GenomeT>>> getAccumulatorCoder(CoderRegistry registry, Coder<List<Individual<GenomeT>>> inputCoder) throws CannotProvideCoderException {
+        return inputCoder;
+    }
+
     @Override
     public List<Individual<GenomeT>> createAccumulator() {
         return new ArrayList<>();
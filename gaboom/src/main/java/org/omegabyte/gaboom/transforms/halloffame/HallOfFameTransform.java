@@ -10,20 +10,45 @@ import org.omegabyte.gaboom.Individual;
 import java.io.Serializable;
 import java.util.List;
 
+/**
+ * HallOfFameTransform merges the nBest individuals of the sorted lists of
+ * individuals with the previous hall of fame, in a global combine.
+ * @param <GenomeT>
+ */
 public class HallOfFameTransform<GenomeT extends Serializable> extends PTransform<PCollection<List<Individual<GenomeT>>>, PCollection<List<Individual<GenomeT>>>> {
     private final PCollection<List<Individual<GenomeT>>> hallOfFamePCollection;
     private final int nBest;
+    private final int fanout;
 
     public HallOfFameTransform(PCollection<List<Individual<GenomeT>>> hallOfFamePCollection, int nBest) {
+        this(hallOfFamePCollection, nBest, 0);
+    }
+
+    private HallOfFameTransform(PCollection<List<Individual<GenomeT>>> hallOfFamePCollection, int nBest, int fanout) {
         this.hallOfFamePCollection = hallOfFamePCollection;
         this.nBest = nBest;
+        this.fanout = fanout;
+    }
+
+    /**
+     * Combines the lists on fanout intermediate keys before the final merge,
+     * see Combine.Globally.withFanout.  A fanout of 0 or 1 disables it.
+     * @param fanout
+     * @return
+     */
+    public HallOfFameTransform<GenomeT> withFanout(int fanout) {
+        return new HallOfFameTransform<>(hallOfFamePCollection, nBest, fanout);
     }
 
     @Override
     public PCollection<List<Individual<GenomeT>>> expand(PCollection<List<Individual<GenomeT>>> input) {
+        Combine.Globally<List<Individual<GenomeT>>, List<Individual<GenomeT>>> combine = Combine.globally(new HallOfFameFn<>(nBest));
+        if (fanout > 1) {
+            combine = combine.withFanout(fanout);
+        }
         return PCollectionList.of(input)
                 .and(hallOfFamePCollection)
                 .apply(Flatten.pCollections())
-                .apply(Combine.globally(new HallOfFameFn<>(nBest)));
+                .apply(combine);
     }
 }
\ No newline at end of file
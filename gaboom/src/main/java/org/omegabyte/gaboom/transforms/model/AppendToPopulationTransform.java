@@ -17,8 +17,14 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public class AppendToPopulationTransform<GenomeT extends Serializable> extends PTransform<PCollectionList<KV<String, Individuals<GenomeT>>>, PCollection<KV<String, Individuals<GenomeT>>>> {
-    static class AppendToPopulationFn<GenomeT extends Serializable> extends DoFn<KV<String, CoGbkResult>, KV<String, Individuals<GenomeT>>> {
+/**
+ * AppendToPopulationTransform joins the individuals of each key across the
+ * collections of the list and appends them in the order of the list.
+ * @param <KeyT>
+ * @param <GenomeT>
+ */
+public class AppendToPopulationTransform<KeyT, GenomeT extends Serializable> extends PTransform<PCollectionList<KV<KeyT, Individuals<GenomeT>>>, PCollection<KV<KeyT, Individuals<GenomeT>>>> {
+    static class AppendToPopulationFn<KeyT, GenomeT extends Serializable> extends DoFn<KV<KeyT, CoGbkResult>, KV<KeyT, Individuals<GenomeT>>> {
         private final TupleTag<Individuals<GenomeT>> originalTT;
         private final TupleTag<Individuals<GenomeT>> nextTT;
 
@@ -29,7 +35,7 @@ public class AppendToPopulationTransform<GenomeT extends Serializable> extends P
 
         @ProcessElement
         public void processElement(ProcessContext c) {
-            String key = c.element().getKey();
+            KeyT key = c.element().getKey();
             CoGbkResult result = c.element().getValue();
 
             Individuals<GenomeT> original = result.getOnly(originalTT);
@@ -44,15 +50,16 @@ public class AppendToPopulationTransform<GenomeT extends Serializable> extends P
     }
 
     @Override
-    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollectionList<KV<String, Individuals<GenomeT>>> input) {
-        PCollection<KV<String, Individuals<GenomeT>>> result = input.get(0);
+    public PCollection<KV<KeyT, Individuals<GenomeT>>> expand(PCollectionList<KV<KeyT, Individuals<GenomeT>>> input) {
+        PCollection<KV<KeyT, Individuals<GenomeT>>> result = input.get(0);
         for (int i = 1; i < input.size(); i++) {
             TupleTag<Individuals<GenomeT>> resultTT = new TupleTag<>();
             TupleTag<Individuals<GenomeT>> nextTT = new TupleTag<>();
             result = KeyedPCollectionTuple.of(resultTT, result)
                     .and(nextTT, input.get(i))
                     .apply(CoGroupByKey.create())
-                    .apply(ParDo.of(new AppendToPopulationFn<>(resultTT, nextTT)));
+                    .apply(ParDo.of(new AppendToPopulationFn<>(resultTT, nextTT)))
+                    .setCoder(input.get(0).getCoder());
         }
         return result;
     }
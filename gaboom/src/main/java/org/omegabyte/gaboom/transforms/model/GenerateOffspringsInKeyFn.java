@@ -0,0 +1,129 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.values.KV;
+import org.omegabyte.gaboom.CrossoverIndividuals;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Select;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+import org.omegabyte.gaboom.utils.LocalFn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * GenerateOffspringsInKeyFn selects the pairs of parents, crosses and mutates
+ * them for a whole population in one pass, so the population is read once
+ * instead of being copied with each pair.  The SelectFn, CrossoverFn and
+ * MutateFn are invoked on the worker, and the seeds are drawn in the same
+ * order as the fan out of GenerateOffspringsTransform, so both produce the
+ * same offsprings.
+ * @param <GenomeT>
+ */
+public class GenerateOffspringsInKeyFn<GenomeT extends Serializable> extends DoFn<KV<String, SelectIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+    private static final Logger logger = LoggerFactory.getLogger(GenerateOffspringsInKeyFn.class);
+
+    private final LocalFn<KV<String, SelectIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>> selectFn;
+    private final LocalFn<KV<String, CrossoverIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>> crossoverFn;
+    private final LocalFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> mutateFn;
+    private final Counter offsprings = GaboomMetrics.counter(GaboomMetrics.OFFSPRINGS);
+    private final Counter offspringErrors = GaboomMetrics.counter(GaboomMetrics.OFFSPRING_ERRORS);
+    private final Counter crossoverErrors = GaboomMetrics.counter(GaboomMetrics.CROSSOVER_ERRORS);
+
+    public GenerateOffspringsInKeyFn(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverFn<GenomeT> crossoverFn, Mutate.MutateFn<GenomeT> mutateFn) {
+        this.selectFn = new LocalFn<>(selectFn);
+        this.crossoverFn = new LocalFn<>(crossoverFn);
+        this.mutateFn = new LocalFn<>(mutateFn);
+    }
+
+    @Setup
+    public void setup() {
+        selectFn.setup();
+        crossoverFn.setup();
+        mutateFn.setup();
+    }
+
+    @Teardown
+    public void teardown() {
+        selectFn.teardown();
+        crossoverFn.teardown();
+        mutateFn.teardown();
+    }
+
+    @StartBundle
+    public void startBundle(StartBundleContext c) {
+        selectFn.startBundle(c);
+        crossoverFn.startBundle(c);
+        mutateFn.startBundle(c);
+    }
+
+    @FinishBundle
+    public void finishBundle(FinishBundleContext c) {
+        selectFn.finishBundle(c);
+        crossoverFn.finishBundle(c);
+        mutateFn.finishBundle(c);
+    }
+
+    /**
+     * Returns the n first offsprings of the population in the order of their
+     * ids, or null if too few offsprings were generated.
+     * @param key
+     * @param selectIndividuals
+     * @param c
+     * @param window
+     * @return
+     */
+    public Individuals<GenomeT> generate(String key, SelectIndividuals<GenomeT> selectIndividuals, DoFn<?, ?>.WindowedContext c, BoundedWindow window) {
+        int n = selectIndividuals.getN();
+        Random rng = selectIndividuals.getRandomGenerator();
+        long offspringsSeed = rng.nextLong();
+
+        List<Individual<GenomeT>> offspringList = new ArrayList<>();
+        for (int i = 0; i < (n+1)/2; i++) {
+            SelectIndividuals<GenomeT> pair = new SelectIndividuals<>(rng.nextLong(), selectIndividuals.getIndividuals(), 2);
+            for (KV<String, Individuals<GenomeT>> parents : selectFn.process(KV.of(key, pair), c, window)) {
+                if (parents.getValue().getIndividuals().size() != 2) {
+                    logger.error("Selection size {} is invalid for crossover, id={}", parents.getValue().getIndividuals().size(), key);
+                    crossoverErrors.inc();
+                    continue;
+                }
+                Individual<GenomeT> p1 = parents.getValue().getIndividuals().get(0);
+                Individual<GenomeT> p2 = parents.getValue().getIndividuals().get(1);
+                CrossoverIndividuals<GenomeT> crossoverIndividuals = new CrossoverIndividuals<>(parents.getValue().getSeed(), p1, p2);
+                for (KV<String, Individuals<GenomeT>> children : crossoverFn.process(KV.of(key, crossoverIndividuals), c, window)) {
+                    for (KV<String, Individuals<GenomeT>> mutants : mutateFn.process(children, c, window)) {
+                        offspringList.addAll(mutants.getValue().getIndividuals());
+                    }
+                }
+            }
+        }
+        offspringList.sort(Individual::compareIds);
+
+        if (offspringList.size() < n) {
+            logger.error("Not enough individuals to populate, id={}", key);
+            offspringErrors.inc();
+            return null;
+        }
+        offsprings.inc(n);
+        return new Individuals<>(offspringsSeed, new ArrayList<>(offspringList.subList(0, n)));
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c, BoundedWindow window) {
+        String key = c.element().getKey();
+        Individuals<GenomeT> individuals = generate(key, c.element().getValue(), c, window);
+        if (individuals != null) {
+            c.output(KV.of(key, individuals));
+        }
+    }
+}
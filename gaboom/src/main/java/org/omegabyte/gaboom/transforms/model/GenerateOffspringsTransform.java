@@ -1,8 +1,8 @@
 package org.omegabyte.gaboom.transforms.model;
 
 import org.apache.beam.sdk.coders.KvCoder;
-import org.apache.beam.sdk.coders.SerializableCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
@@ -14,30 +14,57 @@ import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
 import org.omegabyte.gaboom.NBaseItem;
 import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.coders.NBaseItemCoder;
+import org.omegabyte.gaboom.coders.GenomeCoders;
 import org.omegabyte.gaboom.transforms.Crossover;
 import org.omegabyte.gaboom.transforms.Mutate;
 import org.omegabyte.gaboom.transforms.Select;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.*;
 
+/**
+ * GenerateOffspringsTransform generates getN offsprings for each population
+ * from pairs of selected parents.  By default the pairs of a population are
+ * selected, crossed and mutated in a single ParDo per key, see
+ * GenerateOffspringsInKeyFn.  withFanOut spreads the pairs across the workers
+ * instead, each pair carrying the population it is selected from.  Both
+ * produce the same offsprings.
+ * @param <GenomeT>
+ */
 public class GenerateOffspringsTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, SelectIndividuals<GenomeT>>>, PCollection<KV<String, Individuals<GenomeT>>>> {
-    private final Select.SelectNoIndexTransform<GenomeT> selectTransform;
+    private final Select.SelectFn<GenomeT> selectFn;
     private final Crossover.CrossoverTransform<GenomeT> crossoverTransform;
     private final Mutate.MutateTransform<GenomeT> mutateTransform;
+    private final boolean fanOut;
 
     public GenerateOffspringsTransform(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform) {
-        this.selectTransform = Select.as(selectFn);
+        this(selectFn, crossoverTransform, mutateTransform, false);
+    }
+
+    private GenerateOffspringsTransform(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, boolean fanOut) {
+        this.selectFn = selectFn;
         this.crossoverTransform = crossoverTransform;
         this.mutateTransform = mutateTransform;
+        this.fanOut = fanOut;
     }
 
     public static <GenomeT extends Serializable> GenerateOffspringsTransform<GenomeT> of(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform) {
         return new GenerateOffspringsTransform<>(selectFn, crossoverTransform, mutateTransform);
     }
 
+    /**
+     * Selects, crosses and mutates the pairs of parents one by one across the
+     * workers instead of inside their population key.
+     * @return
+     */
+    public GenerateOffspringsTransform<GenomeT> withFanOut() {
+        return new GenerateOffspringsTransform<>(selectFn, crossoverTransform, mutateTransform, true);
+    }
+
     static class SelectParentsFn<GenomeT extends Serializable> extends DoFn<KV<String, SelectIndividuals<GenomeT>>, KV<String, SelectIndividuals<GenomeT>>> {
         private final TupleTag<KV<String, NBaseItem>> nBaseItemIndexTupleTag;
 
@@ -63,6 +90,8 @@ public class GenerateOffspringsTransform<GenomeT extends Serializable> extends P
 
         private final TupleTag<NBaseItem> nBaseItemTupleTag;
         private final TupleTag<Individuals<GenomeT>> individualsTupleTag;
+        private final Counter offsprings = GaboomMetrics.counter(GaboomMetrics.OFFSPRINGS);
+        private final Counter offspringErrors = GaboomMetrics.counter(GaboomMetrics.OFFSPRING_ERRORS);
 
         public GenerateOffspringsFn(TupleTag<NBaseItem> nBaseItemTupleTag, TupleTag<Individuals<GenomeT>> individualsTupleTag) {
             this.nBaseItemTupleTag = nBaseItemTupleTag;
@@ -77,41 +106,53 @@ public class GenerateOffspringsTransform<GenomeT extends Serializable> extends P
             NBaseItem nBaseItem = result.getOnly(nBaseItemTupleTag);
             List<Individual<GenomeT>> individualList = new ArrayList<>();
             result.getAll(individualsTupleTag).forEach(individuals -> individualList.addAll(individuals.getIndividuals()));
-            Collections.sort(individualList, Comparator.comparing(Individual::getId));
+            individualList.sort(Individual::compareIds);
 
             if (individualList.size() < nBaseItem.getN()) {
                 logger.error("Not enough individuals to populate, id={}", key);
+                offspringErrors.inc();
                 return;
             }
 
             Individuals<GenomeT> individuals = new Individuals<>(nBaseItem.getSeed());
             individuals.getIndividuals().addAll(individualList.subList(0, nBaseItem.getN()));
+            offsprings.inc(nBaseItem.getN());
             c.output(KV.of(key, individuals));
         }
     }
 
     @Override
     public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, SelectIndividuals<GenomeT>>> input) {
+        if (!fanOut) {
+            List<PCollectionView<?>> sideInputs = new ArrayList<>(crossoverTransform.getSideInputs());
+            sideInputs.addAll(mutateTransform.getSideInputs());
+            PCollection<KV<String, Individuals<GenomeT>>> output = input.apply(ParDo.of(new GenerateOffspringsInKeyFn<>(selectFn, crossoverTransform.getFn(), mutateTransform.getFn()))
+                    .withSideInputs(sideInputs));
+            return GenomeCoders.setIndividualsAtKey(output, input.getCoder());
+        }
+
         // Select pairs
         TupleTag<KV<String, NBaseItem>> nBaseItemAtKeyTT = new TupleTag<>();
         TupleTag<KV<String, SelectIndividuals<GenomeT>>> selectPairsAtKeyTT = new TupleTag<>();
         PCollectionTuple result = input.apply(ParDo.of(new SelectParentsFn<GenomeT>(nBaseItemAtKeyTT))
                 .withOutputTags(selectPairsAtKeyTT, TupleTagList.of(nBaseItemAtKeyTT)));
+        result.get(selectPairsAtKeyTT).setCoder(input.getCoder());
 
         PCollection<KV<String, NBaseItem>> nBaseItemAtKey = result.get(nBaseItemAtKeyTT)
-                .setCoder(KvCoder.of(StringUtf8Coder.of(), SerializableCoder.of(NBaseItem.class)));
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), NBaseItemCoder.of()));
 
         // Create offspring
         PCollection<KV<String, Individuals<GenomeT>>> offsprings = result.get(selectPairsAtKeyTT)
-                .apply(selectTransform)
+                .apply(Select.as(selectFn))
                 .apply(crossoverTransform)
                 .apply(mutateTransform);
 
         // Combine offspring
         TupleTag<NBaseItem> nBaseItemTT = new TupleTag<>();
         TupleTag<Individuals<GenomeT>> offspringsTT = new TupleTag<>();
-        return KeyedPCollectionTuple.of(offspringsTT, offsprings).and(nBaseItemTT, nBaseItemAtKey)
+        PCollection<KV<String, Individuals<GenomeT>>> output = KeyedPCollectionTuple.of(offspringsTT, offsprings).and(nBaseItemTT, nBaseItemAtKey)
                 .apply(CoGroupByKey.create())
                 .apply(ParDo.of(new GenerateOffspringsFn<>(nBaseItemTT, offspringsTT)));
+        return GenomeCoders.setIndividualsAtKey(output, input.getCoder());
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.omegabyte.gaboom.BaseItem;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.GenomeCoders;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -53,8 +54,9 @@ public class IndividualsFromIndividualTransform<GenomeT extends Serializable> ex
     public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individual<GenomeT>>> input) {
         TupleTag<Individual<GenomeT>> individualTT = new TupleTag<>();
         TupleTag<BaseItem> baseItemTT = new TupleTag<>();
-        return KeyedPCollectionTuple.of(individualTT, input).and(baseItemTT, baseItem)
+        PCollection<KV<String, Individuals<GenomeT>>> output = KeyedPCollectionTuple.of(individualTT, input).and(baseItemTT, baseItem)
                 .apply(CoGroupByKey.create())
                 .apply(ParDo.of(new IndividualsFromIndividualFn<>(individualTT, baseItemTT)));
+        return GenomeCoders.setIndividualsAtKey(output, input.getCoder());
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.beam.sdk.values.TupleTag;
 import org.omegabyte.gaboom.Individuals;
 import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.coders.GenomeCoders;
 import org.omegabyte.gaboom.transforms.Crossover;
 import org.omegabyte.gaboom.transforms.Evaluate;
 import org.omegabyte.gaboom.transforms.Mutate;
@@ -79,10 +80,11 @@ public class ModelDownToSize<GenomeT extends Serializable> extends ModelTransfor
         // Reduce the population back to its original size
         TupleTag<Individuals<GenomeT>> cumulativePopulationTT = new TupleTag<>();
         TupleTag<Integer> populationSizeTT = new TupleTag<>();
-        return KeyedPCollectionTuple.of(cumulativePopulationTT, cumulativePopulation)
+        PCollection<KV<String, SelectIndividuals<GenomeT>>> selector = KeyedPCollectionTuple.of(cumulativePopulationTT, cumulativePopulation)
                 .and(populationSizeTT, populationSize)
                 .apply(CoGroupByKey.create())
-                .apply(ParDo.of(new IndividualsWithSizeToSelectorFn<>(cumulativePopulationTT, populationSizeTT)))
+                .apply(ParDo.of(new IndividualsWithSizeToSelectorFn<>(cumulativePopulationTT, populationSizeTT)));
+        return GenomeCoders.setSelectIndividualsAtKey(selector, input.getCoder())
                 .apply(Select.as(selectFnB));
     }
 }
\ No newline at end of file
@@ -11,12 +11,12 @@ import org.omegabyte.gaboom.transforms.Select;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-import static org.omegabyte.gaboom.Individual.ID_LENGTH;
-
 public class ModelMutateStrict<GenomeT extends Serializable> extends ModelTransform<GenomeT> {
     private final Select.SelectFn<GenomeT> selectFn;
     private final Mutate.MutateTransform<GenomeT> mutateTransform;
@@ -30,19 +30,36 @@ public class ModelMutateStrict<GenomeT extends Serializable> extends ModelTransf
         this.numChosen = numChosen;
     }
 
+    /**
+     * DedupeIndividualsFn keeps the best of each selected individual and its
+     * mutants, that is of the individuals whose parent is in the list and of
+     * the others.  An individual selected several times keeps as many of
+     * them.
+     * @param <GenomeT>
+     */
     static class DedupeIndividualsFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
         @ProcessElement
         public void processElement(ProcessContext c) {
             String key = c.element().getKey();
             Individuals<GenomeT> individuals = c.element().getValue();
 
+            Set<Long> members = new HashSet<>();
+            individuals.getIndividuals().forEach(ind -> members.add(ind.getNumericId()));
+
+            Map<Long, Integer> selections = new HashMap<>();
+            individuals.getIndividuals().forEach(ind -> {
+                if (!ind.isMutant() || !members.contains(ind.getLineageId())) {
+                    selections.merge(ind.getNumericId(), 1, Integer::sum);
+                }
+            });
+
             List<Individual<GenomeT>> individualList = new ArrayList<>();
-            Set<String> ids = new HashSet<>();
             individuals.getIndividuals().forEach(ind -> {
-                String id = ind.getId().substring(0, ID_LENGTH);
-                if (!ids.contains(id)) {
+                long id = ind.isMutant() && members.contains(ind.getLineageId()) ? ind.getLineageId() : ind.getNumericId();
+                int remaining = selections.getOrDefault(id, 0);
+                if (remaining > 0) {
                     individualList.add(ind);
-                    ids.add(id);
+                    selections.put(id, remaining - 1);
                 }
             });
             c.output(KV.of(key, new Individuals<>(individuals.getSeed(), individualList)));
@@ -1,43 +1,209 @@
 package org.omegabyte.gaboom.transforms.model;
 
+import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.coders.KvCoder;
-import org.apache.beam.sdk.coders.SerializableCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarLongCoder;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.Flatten;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.transforms.join.CoGbkResult;
 import org.apache.beam.sdk.transforms.join.CoGroupByKey;
 import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
 import org.apache.beam.sdk.values.*;
 import org.omegabyte.gaboom.BaseItem;
+import org.omegabyte.gaboom.CrossoverIndividuals;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.BaseItemCoder;
+import org.omegabyte.gaboom.coders.GenomeCoders;
 import org.omegabyte.gaboom.transforms.Crossover;
 import org.omegabyte.gaboom.transforms.Evaluate;
 import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.evaluate.EvaluateInKeyFn;
+import org.omegabyte.gaboom.utils.LocalFn;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+/**
+ * ModelRing crosses each individual with its neighbour on the ring of the
+ * population, mutates the two offsprings and keeps the best of the parent and
+ * its offsprings.
+ *
+ * With a FitnessTransform every parent and its offsprings are keyed by the 64
+ * bit id of the parent and fanned out across the workers, only the crossover,
+ * mutation and evaluation see its string id.  With a FitnessFn the ring
+ * is crossed, evaluated and reduced inside the population key by a RingInKeyFn,
+ * unless the serial evaluation of a population is estimated to take longer
+ * than maxSerialMicros, in which case the population falls back to the fan
+ * out.  The estimate is checked again after each parent, from the time spent
+ * on the population so far and the latency measured by the worker, so that a
+ * worker without any measure yet does not commit a slow population to the
+ * serial path.  Both produce the same individuals, so the offsprings made
+ * before a fall back are dropped.
+ * @param <GenomeT>
+ */
 public class ModelRing<GenomeT extends Serializable> extends ModelTransform<GenomeT> {
+    public static final long DEFAULT_MAX_SERIAL_MICROS = 10000000;
+
     private final Crossover.CrossoverTransform<GenomeT> crossoverTransform;
     private final Mutate.MutateTransform<GenomeT> mutateTransform;
     private final Evaluate.EvaluateTransform<GenomeT> evaluateTransform;
+    private final Evaluate.FitnessFn<GenomeT> fitnessFn;
+    private final long maxSerialMicros;
 
     public ModelRing(Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.FitnessTransform<GenomeT> fitnessTransform) {
-        this.crossoverTransform = crossoverTransform.withCrossRate(1);
+        this(crossoverTransform.withCrossRate(1), mutateTransform, Evaluate.as(fitnessTransform), null, DEFAULT_MAX_SERIAL_MICROS);
+    }
+
+    public ModelRing(Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.FitnessFn<GenomeT> fitnessFn) {
+        this(crossoverTransform.withCrossRate(1), mutateTransform, Evaluate.as(fitnessFn), fitnessFn, DEFAULT_MAX_SERIAL_MICROS);
+    }
+
+    private ModelRing(Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.EvaluateTransform<GenomeT> evaluateTransform, Evaluate.FitnessFn<GenomeT> fitnessFn, long maxSerialMicros) {
+        this.crossoverTransform = crossoverTransform;
         this.mutateTransform = mutateTransform;
-        this.evaluateTransform = Evaluate.as(fitnessTransform);
+        this.evaluateTransform = evaluateTransform;
+        this.fitnessFn = fitnessFn;
+        this.maxSerialMicros = maxSerialMicros;
+    }
+
+    /**
+     * Fans the parents and their offsprings out across the workers instead of
+     * reducing the ring inside the population key.
+     * @return
+     */
+    public ModelRing<GenomeT> withFanOut() {
+        return new ModelRing<>(crossoverTransform, mutateTransform, evaluateTransform, null, maxSerialMicros);
     }
 
-    static class ModelRingFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
-        private final TupleTag<KV<String, String>> indexTupleTag;
+    /**
+     * Sets the estimated time of the evaluation of a population above which it
+     * falls back to the fan out.  The estimate is the mean fitness latency
+     * measured on the worker times the number of offsprings.
+     * @param maxSerialMicros
+     * @return
+     */
+    public ModelRing<GenomeT> withMaxSerialMicros(long maxSerialMicros) {
+        return new ModelRing<>(crossoverTransform, mutateTransform, evaluateTransform, fitnessFn, maxSerialMicros);
+    }
+
+    /**
+     * Returns the estimated time of the serial evaluation of n offsprings, or
+     * 0 while no fitness was measured.
+     * @param totalNanos
+     * @param evaluations
+     * @param n
+     * @return
+     */
+    static long estimateMicros(long totalNanos, long evaluations, int n) {
+        if (evaluations == 0) {
+            return 0;
+        }
+        return (long) ((double) totalNanos / evaluations * n / 1000);
+    }
+
+    static class RingInKeyFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+        private final LocalFn<KV<String, CrossoverIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>> crossoverFn;
+        private final LocalFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> mutateFn;
+        private final EvaluateInKeyFn<GenomeT> evaluateInKeyFn;
+        private final long maxSerialMicros;
+        private final TupleTag<KV<String, Individuals<GenomeT>>> fallbackTupleTag;
+        private transient long totalNanos;
+        private transient long evaluations;
+
+        public RingInKeyFn(Crossover.CrossoverFn<GenomeT> crossoverFn, Mutate.MutateFn<GenomeT> mutateFn, Evaluate.FitnessFn<GenomeT> fitnessFn, long maxSerialMicros, TupleTag<KV<String, Individuals<GenomeT>>> fallbackTupleTag) {
+            this.crossoverFn = new LocalFn<>(crossoverFn);
+            this.mutateFn = new LocalFn<>(mutateFn);
+            this.evaluateInKeyFn = new EvaluateInKeyFn<>(fitnessFn);
+            this.maxSerialMicros = maxSerialMicros;
+            this.fallbackTupleTag = fallbackTupleTag;
+        }
+
+        @Setup
+        public void setup() {
+            crossoverFn.setup();
+            mutateFn.setup();
+            evaluateInKeyFn.setup();
+        }
+
+        @Teardown
+        public void teardown() {
+            crossoverFn.teardown();
+            mutateFn.teardown();
+            evaluateInKeyFn.teardown();
+        }
+
+        @StartBundle
+        public void startBundle(StartBundleContext c) {
+            crossoverFn.startBundle(c);
+            mutateFn.startBundle(c);
+        }
+
+        @FinishBundle
+        public void finishBundle(FinishBundleContext c) {
+            crossoverFn.finishBundle(c);
+            mutateFn.finishBundle(c);
+        }
+
+        private Individual<GenomeT> best(String key, long seed, Individual<GenomeT> parent, Individual<GenomeT> neighbour, ProcessContext c, BoundedWindow window) {
+            List<Individual<GenomeT>> candidates = new ArrayList<>();
+            candidates.add(parent);
+            long candidatesSeed = 0;
+            for (KV<String, Individuals<GenomeT>> children : crossoverFn.process(KV.of(key, new CrossoverIndividuals<>(seed, parent, neighbour)), c, window)) {
+                for (KV<String, Individuals<GenomeT>> mutants : mutateFn.process(children, c, window)) {
+                    candidatesSeed = mutants.getValue().getSeed();
+                    candidates.addAll(mutants.getValue().getIndividuals());
+                }
+            }
+
+            long unevaluated = candidates.stream().filter(i -> i.getFitness() == null).count();
+            long start = System.nanoTime();
+            Individuals<GenomeT> ranked = evaluateInKeyFn.evaluate(new Individuals<>(candidatesSeed, candidates));
+            totalNanos += System.nanoTime() - start;
+            evaluations += unevaluated;
+            return ranked.getIndividuals().get(0);
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c, BoundedWindow window) {
+            String key = c.element().getKey();
+            Individuals<GenomeT> parents = c.element().getValue();
+            int parentSize = parents.getIndividuals().size();
+
+            if (estimateMicros(totalNanos, evaluations, 2 * parentSize) > maxSerialMicros) {
+                c.output(fallbackTupleTag, c.element());
+                return;
+            }
+
+            long start = System.nanoTime();
+            Random rng = parents.getRandomGenerator();
+            Individuals<GenomeT> output = new Individuals<>(rng.nextLong());
+            for (int i = 0; i < parentSize; i++) {
+                Individual<GenomeT> parent = parents.getIndividuals().get(i);
+                Individual<GenomeT> neighbour = parents.getIndividuals().get((i+1)%parentSize);
+                output.getIndividuals().add(best(key, rng.nextLong(), parent, neighbour, c, window));
+
+                long elapsedMicros = (System.nanoTime() - start) / 1000;
+                if (i + 1 < parentSize && elapsedMicros + estimateMicros(totalNanos, evaluations, 2 * (parentSize - i - 1)) > maxSerialMicros) {
+                    c.output(fallbackTupleTag, c.element());
+                    return;
+                }
+            }
+            c.output(KV.of(key, output));
+        }
+    }
+
+    static class ModelRingFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<Long, Individuals<GenomeT>>> {
+        private final TupleTag<KV<Long, String>> indexTupleTag;
         private final TupleTag<KV<String, BaseItem>> baseItemTupleTag;
-        private final TupleTag<KV<String, Individuals<GenomeT>>> parentTupleTag;
+        private final TupleTag<KV<Long, Individuals<GenomeT>>> parentTupleTag;
 
-        public ModelRingFn(TupleTag<KV<String, String>> indexTupleTag, TupleTag<KV<String, BaseItem>> baseItemTupleTag, TupleTag<KV<String, Individuals<GenomeT>>> parentTupleTag) {
+        public ModelRingFn(TupleTag<KV<Long, String>> indexTupleTag, TupleTag<KV<String, BaseItem>> baseItemTupleTag, TupleTag<KV<Long, Individuals<GenomeT>>> parentTupleTag) {
             this.indexTupleTag = indexTupleTag;
             this.baseItemTupleTag = baseItemTupleTag;
             this.parentTupleTag = parentTupleTag;
@@ -53,21 +219,21 @@ public class ModelRing<GenomeT extends Serializable> extends ModelTransform<Geno
             c.output(baseItemTupleTag, KV.of(key, new BaseItem(rng.nextLong())));
             for (int i = 0; i < parentSize; i++) {
                 Individual<GenomeT> parent = parents.getIndividuals().get(i);
-                c.output(indexTupleTag, KV.of(parent.getId(), key));
+                c.output(indexTupleTag, KV.of(parent.getNumericId(), key));
 
                 List<Individual<GenomeT>> plist = new ArrayList<>();
                 plist.add(parent);
-                c.output(parentTupleTag, KV.of(parent.getId(), new Individuals<>(parents.getSeed(), plist)));
+                c.output(parentTupleTag, KV.of(parent.getNumericId(), new Individuals<>(parents.getSeed(), plist)));
 
                 Individuals<GenomeT> crossoverIndividuals = new Individuals<>(rng.nextLong());
                 crossoverIndividuals.getIndividuals().add(parent);
                 crossoverIndividuals.getIndividuals().add(parents.getIndividuals().get((i+1)%parentSize));
-                c.output(KV.of(parent.getId(), crossoverIndividuals));
+                c.output(KV.of(parent.getNumericId(), crossoverIndividuals));
             }
         }
     }
 
-    static class GetBestIndividualFn<GenomeT extends Serializable> extends DoFn<KV<String, CoGbkResult>, KV<String, Individual<GenomeT>>> {
+    static class GetBestIndividualFn<GenomeT extends Serializable> extends DoFn<KV<Long, CoGbkResult>, KV<String, Individual<GenomeT>>> {
         private final TupleTag<Individuals<GenomeT>> rankedTT;
         private final TupleTag<String> keyTT;
 
@@ -84,38 +250,63 @@ public class ModelRing<GenomeT extends Serializable> extends ModelTransform<Geno
         }
     }
 
-    @Override
-    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+    private PCollection<KV<String, Individuals<GenomeT>>> expandFanOut(PCollection<KV<String, Individuals<GenomeT>>> input) {
         // Set up indexes for each selection
-        TupleTag<KV<String, String>> keyAtIdTT = new TupleTag<>();
+        TupleTag<KV<Long, String>> keyAtIdTT = new TupleTag<>();
         TupleTag<KV<String, BaseItem>> baseItemAtKeyTT = new TupleTag<>();
-        TupleTag<KV<String, Individuals<GenomeT>>> originalIndividualAtIdTT = new TupleTag<>();
-        TupleTag<KV<String, Individuals<GenomeT>>> crossoverIndividualsAtIdTT = new TupleTag<>();
+        TupleTag<KV<Long, Individuals<GenomeT>>> originalIndividualAtIdTT = new TupleTag<>();
+        TupleTag<KV<Long, Individuals<GenomeT>>> crossoverIndividualsAtIdTT = new TupleTag<>();
         PCollectionTuple result = input.apply(ParDo.of(new ModelRingFn<>(keyAtIdTT, baseItemAtKeyTT, originalIndividualAtIdTT))
                 .withOutputTags(crossoverIndividualsAtIdTT,
                         TupleTagList.of(keyAtIdTT)
                                 .and(baseItemAtKeyTT)
                                 .and(originalIndividualAtIdTT)));
+        Coder<KV<Long, Individuals<GenomeT>>> individualsAtIdCoder = KvCoder.of(VarLongCoder.of(), ((KvCoder<String, Individuals<GenomeT>>) input.getCoder()).getValueCoder());
+        result.get(crossoverIndividualsAtIdTT).setCoder(individualsAtIdCoder);
 
         // Make offsprings
-        PCollection<KV<String, Individuals<GenomeT>>> offsprings = result.get(crossoverIndividualsAtIdTT)
+        PCollection<KV<Long, Individuals<GenomeT>>> offsprings = result.get(crossoverIndividualsAtIdTT)
+                .apply("CrossoverAtStringId", ParDo.of(new StringKeyFn<>())).setCoder(input.getCoder())
                 .apply(crossoverTransform)
-                .apply(mutateTransform);
+                .apply(mutateTransform)
+                .apply("OffspringsAtId", ParDo.of(new NumericKeyFn<>())).setCoder(individualsAtIdCoder);
 
         // Append the offsprings back into the original parent and evaluate
-        PCollection<KV<String, Individuals<GenomeT>>> ranked = PCollectionList.of(result.get(originalIndividualAtIdTT).setCoder(input.getCoder())).and(offsprings)
+        PCollection<KV<Long, Individuals<GenomeT>>> ranked = PCollectionList.of(result.get(originalIndividualAtIdTT).setCoder(individualsAtIdCoder)).and(offsprings)
                 .apply(new AppendToPopulationTransform<>())
-                .apply(evaluateTransform);
+                .apply("CandidatesAtStringId", ParDo.of(new StringKeyFn<>())).setCoder(input.getCoder())
+                .apply(evaluateTransform)
+                .apply("RankedAtId", ParDo.of(new NumericKeyFn<>())).setCoder(individualsAtIdCoder);
 
         // Get the best individual and restore its index
         TupleTag<Individuals<GenomeT>> rankedTT = new TupleTag<>();
         TupleTag<String> keyTT = new TupleTag<>();
-        return KeyedPCollectionTuple
+        PCollection<KV<String, Individual<GenomeT>>> best = KeyedPCollectionTuple
                 .of(rankedTT, ranked)
-                .and(keyTT, result.get(keyAtIdTT).setCoder(KvCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of())))
+                .and(keyTT, result.get(keyAtIdTT).setCoder(KvCoder.of(VarLongCoder.of(), StringUtf8Coder.of())))
                 .apply(CoGroupByKey.create())
-                .apply(ParDo.of(new GetBestIndividualFn<>(rankedTT, keyTT)))
+                .apply(ParDo.of(new GetBestIndividualFn<>(rankedTT, keyTT)));
+        return GenomeCoders.setIndividualAtKey(best, input.getCoder())
                 .apply(IndividualsFromIndividualTransform.of(result.get(baseItemAtKeyTT)
-                        .setCoder(KvCoder.of(StringUtf8Coder.of(), SerializableCoder.of(BaseItem.class)))));
+                        .setCoder(KvCoder.of(StringUtf8Coder.of(), BaseItemCoder.of()))));
+    }
+
+    @Override
+    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+        if (fitnessFn == null) {
+            return expandFanOut(input);
+        }
+
+        List<PCollectionView<?>> sideInputs = new ArrayList<>(crossoverTransform.getSideInputs());
+        sideInputs.addAll(mutateTransform.getSideInputs());
+        TupleTag<KV<String, Individuals<GenomeT>>> ringTT = new TupleTag<>();
+        TupleTag<KV<String, Individuals<GenomeT>>> fallbackTT = new TupleTag<>();
+        PCollectionTuple result = input.apply(ParDo.of(new RingInKeyFn<>(crossoverTransform.getFn(), mutateTransform.getFn(), fitnessFn, maxSerialMicros, fallbackTT))
+                .withSideInputs(sideInputs)
+                .withOutputTags(ringTT, TupleTagList.of(fallbackTT)));
+
+        PCollection<KV<String, Individuals<GenomeT>>> fallback = expandFanOut(result.get(fallbackTT).setCoder(input.getCoder()));
+        return PCollectionList.of(result.get(ringTT).setCoder(input.getCoder())).and(fallback)
+                .apply(Flatten.pCollections());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,286 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.join.CoGbkResult;
+import org.apache.beam.sdk.transforms.join.CoGroupByKey;
+import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
+import org.apache.beam.sdk.values.*;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.NBaseItem;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.coders.NBaseItemCoder;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.select.SelectRouletteFn;
+import org.omegabyte.gaboom.transforms.shard.ReshardPopulationTransform;
+import org.omegabyte.gaboom.transforms.shard.ShardRanking;
+import org.omegabyte.gaboom.transforms.shard.ShardSelection;
+import org.omegabyte.gaboom.transforms.shard.Shards;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+import org.omegabyte.gaboom.utils.SplitMixRandom;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ModelSharded is the generational model for populations split across
+ * numShards shards, so that no element holds a whole population.  The
+ * evaluated shards are ranked against their population with ShardRanking,
+ * and each shard sums the selection weights of its individuals.  The pairs of
+ * parents of the population are then allocated to the shards in proportion
+ * to these masses, by stochastic universal sampling over the shards, which is
+ * the only step grouping a population, on one small record per shard.  Each
+ * shard finally samples its parents by weight and makes its offsprings, as
+ * GenerateOffspringsTransform does.  Both parents of a pair come from the
+ * same shard.
+ *
+ * The model applies to populations that are already sharded, keyed by
+ * Shards.key, and reshards the offsprings by their id with
+ * ReshardPopulationTransform, so that the shards keep their size across
+ * generations whatever the selection pressure.  The populations stay sharded
+ * from one generation to the next: Initialize.withNumShards creates them as
+ * shard populations, whose ids are the keys of the shards, that Evolve then
+ * evaluates and repopulates shard by shard.
+ * @param <GenomeT>
+ */
+public class ModelSharded<GenomeT extends Serializable> extends ModelTransform<GenomeT> {
+    private static final int NUM_QUANTILES = 101;
+
+    private final int numShards;
+    private final ShardSelection selection;
+    private final Crossover.CrossoverTransform<GenomeT> crossoverTransform;
+    private final Mutate.MutateTransform<GenomeT> mutateTransform;
+
+    public ModelSharded(int numShards, ShardSelection selection, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform) {
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("numShards must be positive");
+        }
+        this.numShards = numShards;
+        this.selection = selection;
+        this.crossoverTransform = crossoverTransform;
+        this.mutateTransform = mutateTransform;
+    }
+
+    static class ShardMass implements Serializable {
+        final String key;
+        final long seed;
+        final int size;
+        final double mass;
+
+        ShardMass(String key, long seed, int size, double mass) {
+            this.key = key;
+            this.seed = seed;
+            this.size = size;
+            this.mass = mass;
+        }
+    }
+
+    /**
+     * Returns the selection weights of the individuals of a shard.
+     * @param selection
+     * @param boundaries
+     * @param individuals
+     * @param <GenomeT>
+     * @return
+     */
+    static <GenomeT extends Serializable> double[] getWeights(ShardSelection selection, List<Double> boundaries, List<Individual<GenomeT>> individuals) {
+        double worst = boundaries.get(boundaries.size() - 1);
+        double[] weights = new double[individuals.size()];
+        for (int i = 0; i < weights.length; i++) {
+            double fitness = individuals.get(i).getFitness();
+            weights[i] = selection.weight(fitness, ShardRanking.rank(boundaries, fitness), worst);
+        }
+        return weights;
+    }
+
+    static class ShardMassFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, ShardMass>> {
+        private final ShardSelection selection;
+        private final PCollectionView<Map<String, List<Double>>> boundariesView;
+
+        ShardMassFn(ShardSelection selection, PCollectionView<Map<String, List<Double>>> boundariesView) {
+            this.selection = selection;
+            this.boundariesView = boundariesView;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            String key = c.element().getKey();
+            String populationId = Shards.populationOf(key);
+            Individuals<GenomeT> individuals = c.element().getValue();
+
+            double mass = 0;
+            if (!individuals.getIndividuals().isEmpty()) {
+                for (double weight : getWeights(selection, c.sideInput(boundariesView).get(populationId), individuals.getIndividuals())) {
+                    mass += weight;
+                }
+            }
+            c.output(KV.of(populationId, new ShardMass(key, individuals.getSeed(), individuals.getIndividuals().size(), mass)));
+        }
+    }
+
+    /**
+     * Returns the number of pairs of parents of each shard, spreading pairs
+     * pointers evenly over the masses from offset, between 0 and 1.  Shards
+     * without mass, or without individuals, get none.
+     * @param masses
+     * @param pairs
+     * @param offset
+     * @return
+     */
+    static int[] allocate(double[] masses, int pairs, double offset) {
+        int[] allocation = new int[masses.length];
+        double total = 0;
+        for (double mass : masses) {
+            total += mass;
+        }
+        if (pairs == 0 || total <= 0) {
+            return allocation;
+        }
+
+        double step = total / pairs;
+        double pointer = offset * step;
+        double cumulative = 0;
+        int allocated = 0;
+        for (int i = 0; i < masses.length && allocated < pairs; i++) {
+            cumulative += masses[i];
+            while (allocated < pairs && pointer < cumulative) {
+                allocation[i]++;
+                allocated++;
+                pointer += step;
+            }
+        }
+        // pointers left past the last shard by rounding
+        for (int i = masses.length - 1; i >= 0 && allocated < pairs; i--) {
+            if (masses[i] > 0) {
+                allocation[i] += pairs - allocated;
+                allocated = pairs;
+            }
+        }
+        return allocation;
+    }
+
+    static class AllocateFn extends DoFn<KV<String, Iterable<ShardMass>>, KV<String, NBaseItem>> {
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            List<ShardMass> shards = new ArrayList<>();
+            c.element().getValue().forEach(shards::add);
+            shards.sort((s1, s2) -> Integer.compare(Shards.shardOf(s1.key), Shards.shardOf(s2.key)));
+
+            int size = 0;
+            double[] masses = new double[shards.size()];
+            for (int i = 0; i < masses.length; i++) {
+                size += shards.get(i).size;
+                masses[i] = shards.get(i).size > 0 ? shards.get(i).mass : 0;
+            }
+
+            Random rng = SplitMixRandom.of(shards.get(0).seed, shards.size());
+            int[] pairs = allocate(masses, (size + 1) / 2, rng.nextDouble());
+            // an odd population makes one offspring less than its pairs
+            int extra = 2 * ((size + 1) / 2) - size;
+            for (int i = shards.size() - 1; i >= 0; i--) {
+                int n = 2 * pairs[i];
+                if (extra > 0 && n > 0) {
+                    n -= extra;
+                    extra = 0;
+                }
+                c.output(KV.of(shards.get(i).key, new NBaseItem(rng.nextLong(), n)));
+            }
+        }
+    }
+
+    static class SelectShardParentsFn<GenomeT extends Serializable> extends DoFn<KV<String, CoGbkResult>, KV<String, Individuals<GenomeT>>> {
+        private final ShardSelection selection;
+        private final PCollectionView<Map<String, List<Double>>> boundariesView;
+        private final TupleTag<Individuals<GenomeT>> individualsTT;
+        private final TupleTag<NBaseItem> allocationTT;
+        private final TupleTag<KV<String, NBaseItem>> nBaseItemAtKeyTT;
+        private final Counter selected = GaboomMetrics.counter(GaboomMetrics.SELECTED);
+
+        SelectShardParentsFn(ShardSelection selection, PCollectionView<Map<String, List<Double>>> boundariesView, TupleTag<Individuals<GenomeT>> individualsTT, TupleTag<NBaseItem> allocationTT, TupleTag<KV<String, NBaseItem>> nBaseItemAtKeyTT) {
+            this.selection = selection;
+            this.boundariesView = boundariesView;
+            this.individualsTT = individualsTT;
+            this.allocationTT = allocationTT;
+            this.nBaseItemAtKeyTT = nBaseItemAtKeyTT;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            String key = c.element().getKey();
+            CoGbkResult result = c.element().getValue();
+            List<Individual<GenomeT>> individuals = result.getOnly(individualsTT).getIndividuals();
+            NBaseItem allocation = result.getOnly(allocationTT);
+            Random rng = allocation.getRandomGenerator();
+
+            c.output(nBaseItemAtKeyTT, KV.of(key, new NBaseItem(rng.nextLong(), allocation.getN())));
+            int pairs = (allocation.getN() + 1) / 2;
+            if (pairs == 0) {
+                return;
+            }
+
+            double[] wheel = getWeights(selection, c.sideInput(boundariesView).get(Shards.populationOf(key)), individuals);
+            double sum = 0;
+            for (int i = 0; i < wheel.length; i++) {
+                sum += wheel[i];
+                wheel[i] = sum;
+            }
+            for (int i = 0; i < pairs; i++) {
+                List<Individual<GenomeT>> parents = new ArrayList<>(2);
+                parents.add(individuals.get(SelectRouletteFn.spin(wheel, rng.nextDouble() * sum)));
+                parents.add(individuals.get(SelectRouletteFn.spin(wheel, rng.nextDouble() * sum)));
+                c.output(KV.of(key, new Individuals<>(rng.nextLong(), parents)));
+            }
+            selected.inc(2 * pairs);
+        }
+    }
+
+    @Override
+    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+        PCollectionView<Map<String, List<Double>>> boundariesView = input.apply(new ShardRanking<>(NUM_QUANTILES));
+
+        // Allocate the pairs of parents to the shards
+        PCollection<KV<String, NBaseItem>> allocation = input
+                .apply(ParDo.of(new ShardMassFn<GenomeT>(selection, boundariesView)).withSideInputs(boundariesView))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), SerializableCoder.of(ShardMass.class)))
+                .apply(GroupByKey.create())
+                .apply(ParDo.of(new AllocateFn()))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), NBaseItemCoder.of()));
+
+        // Select the parents in each shard
+        TupleTag<Individuals<GenomeT>> individualsTT = new TupleTag<>();
+        TupleTag<NBaseItem> allocationTT = new TupleTag<>();
+        TupleTag<KV<String, NBaseItem>> nBaseItemAtKeyTT = new TupleTag<>();
+        TupleTag<KV<String, Individuals<GenomeT>>> parentsAtKeyTT = new TupleTag<>();
+        PCollectionTuple result = KeyedPCollectionTuple.of(individualsTT, input).and(allocationTT, allocation)
+                .apply(CoGroupByKey.create())
+                .apply(ParDo.of(new SelectShardParentsFn<>(selection, boundariesView, individualsTT, allocationTT, nBaseItemAtKeyTT))
+                        .withSideInputs(boundariesView)
+                        .withOutputTags(parentsAtKeyTT, TupleTagList.of(nBaseItemAtKeyTT)));
+        result.get(parentsAtKeyTT).setCoder(input.getCoder());
+        PCollection<KV<String, NBaseItem>> nBaseItemAtKey = result.get(nBaseItemAtKeyTT)
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), NBaseItemCoder.of()));
+
+        // Create offspring and combine them in their shard
+        PCollection<KV<String, Individuals<GenomeT>>> offsprings = result.get(parentsAtKeyTT)
+                .apply(crossoverTransform)
+                .apply(mutateTransform);
+        TupleTag<NBaseItem> nBaseItemTT = new TupleTag<>();
+        TupleTag<Individuals<GenomeT>> offspringsTT = new TupleTag<>();
+        PCollection<KV<String, Individuals<GenomeT>>> output = KeyedPCollectionTuple.of(offspringsTT, offsprings).and(nBaseItemTT, nBaseItemAtKey)
+                .apply("CombineOffsprings", CoGroupByKey.create())
+                .apply(ParDo.of(new GenerateOffspringsTransform.GenerateOffspringsFn<>(nBaseItemTT, offspringsTT)));
+        return GenomeCoders.setIndividualsAtKey(output, input.getCoder())
+                .apply(ReshardPopulationTransform.of(numShards));
+    }
+}
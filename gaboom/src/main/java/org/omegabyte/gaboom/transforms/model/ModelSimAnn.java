@@ -1,23 +1,41 @@
 package org.omegabyte.gaboom.transforms.model;
 
+import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.coders.KvCoder;
-import org.apache.beam.sdk.coders.SerializableCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarLongCoder;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.transforms.join.CoGbkResult;
 import org.apache.beam.sdk.transforms.join.CoGroupByKey;
 import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
 import org.apache.beam.sdk.values.*;
 import org.omegabyte.gaboom.BaseItem;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.BaseItemCoder;
+import org.omegabyte.gaboom.coders.GenomeCoders;
 import org.omegabyte.gaboom.transforms.Evaluate;
 import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.evaluate.EvaluateInKeyFn;
+import org.omegabyte.gaboom.utils.LocalFn;
 
 import java.io.Serializable;
 import java.util.Random;
 
+/**
+ * ModelSimAnn replaces every individual by a mutant for each temperature of
+ * the cooling schedule, from t down to tmin with a factor alpha.
+ *
+ * When the evaluation is done by a FitnessFn the whole schedule runs inside a
+ * single ParDo per population, so the size of the pipeline graph does not
+ * depend on the number of temperature steps.  A FitnessTransform can only be
+ * applied as a pipeline stage, so the model then expands one
+ * mutate/evaluate/select block per temperature step.  Both expansions draw
+ * the same seeds.
+ * @param <GenomeT>
+ */
 public class ModelSimAnn<GenomeT extends Serializable> extends ModelTransform<GenomeT> {
     private final Mutate.MutateTransform<GenomeT> mutateTransform;
     private final Evaluate.EvaluateTransform<GenomeT> evaluateTransform;
@@ -33,6 +51,10 @@ public class ModelSimAnn<GenomeT extends Serializable> extends ModelTransform<Ge
         this.alpha = alpha;
     }
 
+    public ModelSimAnn(Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.FitnessFn<GenomeT> fitnessFn, double t, double tmin, double alpha) {
+        this(mutateTransform, Evaluate.as(fitnessFn), t, tmin, alpha);
+    }
+
     public ModelSimAnn(Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.EvaluateTransform<GenomeT> evaluateTransform, double t, double tmin, double alpha) {
         this.mutateTransform = mutateTransform.withMutRate(1);
         this.evaluateTransform = evaluateTransform;
@@ -41,11 +63,11 @@ public class ModelSimAnn<GenomeT extends Serializable> extends ModelTransform<Ge
         this.alpha = alpha;
     }
 
-    static class SplitIndividualsFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
-        private final TupleTag<KV<String, String>> keyAtIdTT;
+    static class SplitIndividualsFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<Long, Individuals<GenomeT>>> {
+        private final TupleTag<KV<Long, String>> keyAtIdTT;
         private final TupleTag<KV<String, BaseItem>> baseItemAtKeyTT;
 
-        public SplitIndividualsFn(TupleTag<KV<String, String>> keyAtIdTT, TupleTag<KV<String, BaseItem>> baseItemAtKeyTT) {
+        public SplitIndividualsFn(TupleTag<KV<Long, String>> keyAtIdTT, TupleTag<KV<String, BaseItem>> baseItemAtKeyTT) {
             this.keyAtIdTT = keyAtIdTT;
             this.baseItemAtKeyTT = baseItemAtKeyTT;
         }
@@ -58,16 +80,16 @@ public class ModelSimAnn<GenomeT extends Serializable> extends ModelTransform<Ge
 
             c.output(baseItemAtKeyTT, KV.of(key, new BaseItem(rng.nextLong())));
             individuals.getIndividuals().forEach(ind -> {
-                c.output(keyAtIdTT, KV.of(ind.getId(), key));
+                c.output(keyAtIdTT, KV.of(ind.getNumericId(), key));
 
                 Individuals<GenomeT> result = new Individuals<>(rng.nextLong());
                 result.getIndividuals().add(ind);
-                c.output(KV.of(ind.getId(), result));
+                c.output(KV.of(ind.getNumericId(), result));
             });
         }
     }
 
-    static class ModelSimAnnFn<GenomeT extends Serializable> extends DoFn<KV<String, CoGbkResult>, KV<String, Individual<GenomeT>>> {
+    static class ModelSimAnnFn<GenomeT extends Serializable> extends DoFn<KV<Long, CoGbkResult>, KV<String, Individual<GenomeT>>> {
         private final TupleTag<Individuals<GenomeT>> firstGenTupleTag;
         private final TupleTag<Individuals<GenomeT>> nextGenTupleTag;
         private final TupleTag<String> idTupleTag;
@@ -86,19 +108,88 @@ public class ModelSimAnn<GenomeT extends Serializable> extends ModelTransform<Ge
             String key = result.getOnly(idTupleTag);
 
             Individual<GenomeT> firstGen = result.getOnly(firstGenTupleTag).getIndividuals().get(0);
-            Individual<GenomeT> nextGen = result.getOnly(nextGenTupleTag).getIndividuals().get(0);
-            Random rng = result.getOnly(nextGenTupleTag).getRandomGenerator();
+            c.output(KV.of(key, accept(firstGen, result.getOnly(nextGenTupleTag), t)));
+        }
+
+        static <GenomeT extends Serializable> Individual<GenomeT> accept(Individual<GenomeT> firstGen, Individuals<GenomeT> nextGenIndividuals, double t) {
+            Individual<GenomeT> nextGen = nextGenIndividuals.getIndividuals().get(0);
+            Random rng = nextGenIndividuals.getRandomGenerator();
 
             if (nextGen.getFitness() < firstGen.getFitness()) {
-                c.output(KV.of(key, nextGen));
-                return;
+                return nextGen;
             }
             double p = Math.exp(firstGen.getFitness() - nextGen.getFitness() / t);
             if (p > rng.nextDouble()) {
-                c.output(KV.of(key, nextGen));
-                return;
+                return nextGen;
             }
-            c.output(KV.of(key, nextGen));
+            return nextGen;
+        }
+    }
+
+    /**
+     * IterativeSimAnnFn runs the whole cooling schedule of a population in
+     * memory.  Each step mutates every individual with its own seed,
+     * evaluates the mutant and applies the acceptance rule, in the same order
+     * as the expanded model.
+     * @param <GenomeT>
+     */
+    static class IterativeSimAnnFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+        private final LocalFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> mutateFn;
+        private final EvaluateInKeyFn<GenomeT> evaluateInKeyFn;
+        private final double t;
+        private final double tmin;
+        private final double alpha;
+
+        public IterativeSimAnnFn(Mutate.MutateFn<GenomeT> mutateFn, Evaluate.FitnessFn<GenomeT> fitnessFn, double t, double tmin, double alpha) {
+            this.mutateFn = new LocalFn<>(mutateFn);
+            this.evaluateInKeyFn = new EvaluateInKeyFn<>(fitnessFn);
+            this.t = t;
+            this.tmin = tmin;
+            this.alpha = alpha;
+        }
+
+        @Setup
+        public void setup() {
+            mutateFn.setup();
+            evaluateInKeyFn.setup();
+        }
+
+        @Teardown
+        public void teardown() {
+            mutateFn.teardown();
+            evaluateInKeyFn.teardown();
+        }
+
+        @StartBundle
+        public void startBundle(StartBundleContext c) {
+            mutateFn.startBundle(c);
+        }
+
+        @FinishBundle
+        public void finishBundle(FinishBundleContext c) {
+            mutateFn.finishBundle(c);
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c, BoundedWindow window) {
+            String key = c.element().getKey();
+            Individuals<GenomeT> individuals = c.element().getValue();
+
+            for (double t = this.t; t >= tmin; t *= alpha) {
+                Random rng = individuals.getRandomGenerator();
+                Individuals<GenomeT> selected = new Individuals<>(rng.nextLong());
+                for (Individual<GenomeT> ind : individuals.getIndividuals()) {
+                    Individuals<GenomeT> original = new Individuals<>(rng.nextLong());
+                    original.getIndividuals().add(ind);
+
+                    for (KV<String, Individuals<GenomeT>> mutant : mutateFn.process(KV.of(key, original), c, window)) {
+                        Individuals<GenomeT> evaluated = evaluateInKeyFn.evaluate(mutant.getValue());
+                        selected.getIndividuals().add(ModelSimAnnFn.accept(ind, evaluated, t));
+                    }
+                }
+                individuals = selected;
+            }
+            c.output(KV.of(key, individuals));
         }
     }
 
@@ -109,33 +200,44 @@ public class ModelSimAnn<GenomeT extends Serializable> extends ModelTransform<Ge
             return input;
         }
 
+        Evaluate.FitnessFn<GenomeT> fitnessFn = evaluateTransform.getFitnessFn();
+        if (fitnessFn != null) {
+            return input.apply(ParDo.of(new IterativeSimAnnFn<>(mutateTransform.getFn(), fitnessFn, t, tmin, alpha))
+                    .withSideInputs(mutateTransform.getSideInputs()))
+                    .setCoder(input.getCoder());
+        }
+
         // Set up indexes for each individual
-        TupleTag<KV<String, String>> keyAtIdTT = new TupleTag<>();
+        TupleTag<KV<Long, String>> keyAtIdTT = new TupleTag<>();
         TupleTag<KV<String, BaseItem>> baseItemAtKeyTT = new TupleTag<>();
-        TupleTag<KV<String, Individuals<GenomeT>>> originalIndividualAtIdTT = new TupleTag<>();
+        TupleTag<KV<Long, Individuals<GenomeT>>> originalIndividualAtIdTT = new TupleTag<>();
         PCollectionTuple result = input.apply(ParDo.of(new SplitIndividualsFn<GenomeT>(keyAtIdTT, baseItemAtKeyTT))
                 .withOutputTags(originalIndividualAtIdTT,
                         TupleTagList.of(keyAtIdTT).and(baseItemAtKeyTT)));
+        Coder<KV<Long, Individuals<GenomeT>>> individualsAtIdCoder = KvCoder.of(VarLongCoder.of(), ((KvCoder<String, Individuals<GenomeT>>) input.getCoder()).getValueCoder());
+        result.get(originalIndividualAtIdTT).setCoder(individualsAtIdCoder);
 
-        // Apply mutation and evaluate
-        PCollection<KV<String, Individuals<GenomeT>>> mutant = result.get(originalIndividualAtIdTT)
+        // Apply mutation and evaluate, the transforms take the string id
+        PCollection<KV<Long, Individuals<GenomeT>>> mutant = result.get(originalIndividualAtIdTT)
+                .apply("OriginalAtStringId", ParDo.of(new StringKeyFn<>())).setCoder(input.getCoder())
                 .apply(mutateTransform)
-                .apply(evaluateTransform);
+                .apply(evaluateTransform)
+                .apply("MutantAtId", ParDo.of(new NumericKeyFn<>())).setCoder(individualsAtIdCoder);
 
         // Append mutants to originals, perform simulated annealing to select members, and restore index
         TupleTag<Individuals<GenomeT>> originalIndividualTT = new TupleTag<>();
         TupleTag<Individuals<GenomeT>> mutantTT = new TupleTag<>();
         TupleTag<String> keyTT = new TupleTag<>();
-        return KeyedPCollectionTuple
+        PCollection<KV<String, Individual<GenomeT>>> selected = KeyedPCollectionTuple
                 .of(originalIndividualTT, result.get(originalIndividualAtIdTT))
                 .and(mutantTT, mutant)
-                .and(keyTT, result.get(keyAtIdTT).setCoder(KvCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of())))
+                .and(keyTT, result.get(keyAtIdTT).setCoder(KvCoder.of(VarLongCoder.of(), StringUtf8Coder.of())))
                 .apply(CoGroupByKey.create())
-                .apply(ParDo.of(new ModelSimAnnFn<>(originalIndividualTT, mutantTT, keyTT, t)))
+                .apply(ParDo.of(new ModelSimAnnFn<>(originalIndividualTT, mutantTT, keyTT, t)));
 
-                // Get the new population and do it again
-                .apply(IndividualsFromIndividualTransform.of(result.get(baseItemAtKeyTT).setCoder(KvCoder.of(StringUtf8Coder.of(), SerializableCoder.of(BaseItem.class)))))
-                .apply(ParDo.of(new SetMutantNameFn<>()))
+        // Get the new population and do it again
+        return GenomeCoders.setIndividualAtKey(selected, input.getCoder())
+                .apply(IndividualsFromIndividualTransform.of(result.get(baseItemAtKeyTT).setCoder(KvCoder.of(StringUtf8Coder.of(), BaseItemCoder.of()))))
                 .apply(new ModelSimAnn<>(mutateTransform, evaluateTransform, t*alpha, tmin, alpha));
     }
 }
\ No newline at end of file
@@ -0,0 +1,372 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.util.SerializableUtils;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.omegabyte.gaboom.CrossoverIndividuals;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Select;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+import org.omegabyte.gaboom.utils.LocalFn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * ModelSteadyStateBatch performs numSteps steady state replacements per
+ * population inside the population key.  Each step selects two parents with
+ * the SelectFn, crosses and mutates them, and evaluates the new offsprings
+ * with the BatchFitnessFn.  Like ModelSteadyStateStrict, the best two of the
+ * parents and their offsprings replace the parents, or like
+ * ModelSteadyStateLoose withLoose, the offsprings replace the parents.
+ *
+ * A step only has 2 to 4 individuals to evaluate, so withBatchSteps gathers
+ * the offsprings of several steps into one call to the BatchFitnessFn.  The
+ * steps of a batch select their parents from the population as it was before
+ * the batch, and their replacements are then applied in order; a parent
+ * already replaced by an earlier step of the batch is not replaced again.
+ * With the default of one step per batch every selection sees the previous
+ * replacement, as in the other steady state models.
+ *
+ * The population is kept evaluated and sorted between the steps, as Evolve
+ * leaves it between two generations.
+ * @param <GenomeT>
+ */
+public class ModelSteadyStateBatch<GenomeT extends Serializable> extends ModelTransform<GenomeT> {
+    private final Select.SelectFn<GenomeT> selectFn;
+    private final Crossover.CrossoverTransform<GenomeT> crossoverTransform;
+    private final Mutate.MutateTransform<GenomeT> mutateTransform;
+    private final Evaluate.BatchFitnessFn<GenomeT> fitnessFn;
+    private final int numSteps;
+    private final int batchSteps;
+    private final boolean loose;
+
+    public ModelSteadyStateBatch(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.BatchFitnessFn<GenomeT> fitnessFn) {
+        this(selectFn, crossoverTransform, mutateTransform, fitnessFn, 1, 1, false);
+    }
+
+    private ModelSteadyStateBatch(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverTransform<GenomeT> crossoverTransform, Mutate.MutateTransform<GenomeT> mutateTransform, Evaluate.BatchFitnessFn<GenomeT> fitnessFn, int numSteps, int batchSteps, boolean loose) {
+        if (numSteps < 1) {
+            throw new IllegalArgumentException("numSteps must be at least 1, got " + numSteps);
+        }
+        if (batchSteps < 1) {
+            throw new IllegalArgumentException("batchSteps must be at least 1, got " + batchSteps);
+        }
+        this.selectFn = selectFn;
+        this.crossoverTransform = crossoverTransform;
+        this.mutateTransform = mutateTransform;
+        this.fitnessFn = fitnessFn;
+        this.numSteps = numSteps;
+        this.batchSteps = batchSteps;
+        this.loose = loose;
+    }
+
+    /**
+     * Sets the number of replacements per population and application.
+     * @param numSteps
+     * @return
+     */
+    public ModelSteadyStateBatch<GenomeT> withSteps(int numSteps) {
+        return new ModelSteadyStateBatch<>(selectFn, crossoverTransform, mutateTransform, fitnessFn, numSteps, batchSteps, loose);
+    }
+
+    /**
+     * Sets the number of steps whose offsprings are evaluated in one call to
+     * the BatchFitnessFn.
+     * @param batchSteps
+     * @return
+     */
+    public ModelSteadyStateBatch<GenomeT> withBatchSteps(int batchSteps) {
+        return new ModelSteadyStateBatch<>(selectFn, crossoverTransform, mutateTransform, fitnessFn, numSteps, batchSteps, loose);
+    }
+
+    /**
+     * Replaces the parents by their offsprings whatever their fitness.
+     * @return
+     */
+    public ModelSteadyStateBatch<GenomeT> withLoose() {
+        return new ModelSteadyStateBatch<>(selectFn, crossoverTransform, mutateTransform, fitnessFn, numSteps, batchSteps, true);
+    }
+
+    /**
+     * Replaces the individuals at the indices, in the order of the indices,
+     * and keeps the population sorted.  Only the last replacement of an index
+     * selected twice is kept.
+     * @param population
+     * @param indices
+     * @param replacements
+     * @param <GenomeT>
+     */
+    static <GenomeT extends Serializable> void replace(List<Individual<GenomeT>> population, List<Integer> indices, List<Individual<GenomeT>> replacements) {
+        Map<Integer, Individual<GenomeT>> replaced = new TreeMap<>(Collections.reverseOrder());
+        for (int i = 0; i < indices.size(); i++) {
+            replaced.put(indices.get(i), replacements.get(i));
+        }
+        replaced.keySet().forEach(index -> population.remove((int) index));
+        for (Individual<GenomeT> individual : replaced.values()) {
+            int index = Collections.binarySearch(population, individual, SortIndividualsFn::compare);
+            population.add(index < 0 ? -index - 1 : index, individual);
+        }
+    }
+
+    /**
+     * Step holds the parents of a step, the individuals of the population
+     * they replace and the offsprings to evaluate.
+     * @param <GenomeT>
+     */
+    static class Step<GenomeT extends Serializable> {
+        private final List<Individual<GenomeT>> parents;
+        private final List<Individual<GenomeT>> replaced;
+        private List<Individual<GenomeT>> offsprings;
+
+        Step(List<Individual<GenomeT>> parents, List<Individual<GenomeT>> replaced, List<Individual<GenomeT>> offsprings) {
+            this.parents = parents;
+            this.replaced = replaced;
+            this.offsprings = offsprings;
+        }
+    }
+
+    static class SteadyStateInKeyFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+        private static final Logger logger = LoggerFactory.getLogger(SteadyStateInKeyFn.class);
+
+        private final TupleTag<KV<String, List<Integer>>> indicesTT = new TupleTag<>();
+        private final LocalFn<KV<String, SelectIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>> selectFn;
+        private final LocalFn<KV<String, CrossoverIndividuals<GenomeT>>, KV<String, Individuals<GenomeT>>> crossoverFn;
+        private final LocalFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> mutateFn;
+        private final Evaluate.BatchFitnessFn<GenomeT> fitnessFn;
+        private final int numSteps;
+        private final int batchSteps;
+        private final boolean loose;
+        private final Counter evaluations = GaboomMetrics.counter(GaboomMetrics.FITNESS_EVALUATIONS);
+        private final Counter crossoverErrors = GaboomMetrics.counter(GaboomMetrics.CROSSOVER_ERRORS);
+        private final Counter selectionErrors = GaboomMetrics.counter(GaboomMetrics.SELECTION_ERRORS);
+        private final Distribution fitnessLatency = GaboomMetrics.distribution(GaboomMetrics.FITNESS_LATENCY_MICROS);
+
+        public SteadyStateInKeyFn(Select.SelectFn<GenomeT> selectFn, Crossover.CrossoverFn<GenomeT> crossoverFn, Mutate.MutateFn<GenomeT> mutateFn, Evaluate.BatchFitnessFn<GenomeT> fitnessFn, int numSteps, int batchSteps, boolean loose) {
+            Select.SelectFn<GenomeT> indexedSelectFn = SerializableUtils.clone(selectFn);
+            indexedSelectFn.setSelectIndicesTupleTag(indicesTT);
+            this.selectFn = new LocalFn<>(indexedSelectFn);
+            this.crossoverFn = new LocalFn<>(crossoverFn);
+            this.mutateFn = new LocalFn<>(mutateFn);
+            this.fitnessFn = fitnessFn;
+            this.numSteps = numSteps;
+            this.batchSteps = batchSteps;
+            this.loose = loose;
+        }
+
+        @Setup
+        public void setup() {
+            selectFn.setup();
+            crossoverFn.setup();
+            mutateFn.setup();
+            fitnessFn.setup();
+        }
+
+        @Teardown
+        public void teardown() {
+            selectFn.teardown();
+            crossoverFn.teardown();
+            mutateFn.teardown();
+            fitnessFn.teardown();
+        }
+
+        @StartBundle
+        public void startBundle(StartBundleContext c) {
+            selectFn.startBundle(c);
+            crossoverFn.startBundle(c);
+            mutateFn.startBundle(c);
+        }
+
+        @FinishBundle
+        public void finishBundle(FinishBundleContext c) {
+            selectFn.finishBundle(c);
+            crossoverFn.finishBundle(c);
+            mutateFn.finishBundle(c);
+        }
+
+        /**
+         * Evaluates the individuals without a fitness in a single batch.
+         * @param individuals
+         * @return
+         */
+        private List<Individual<GenomeT>> evaluate(List<Individual<GenomeT>> individuals) {
+            List<Individual<GenomeT>> batch = new ArrayList<>();
+            individuals.forEach(i -> {
+                if (i.getFitness() == null) {
+                    batch.add(i);
+                }
+            });
+            if (batch.isEmpty()) {
+                return individuals;
+            }
+
+            long start = System.nanoTime();
+            List<Double> fitnesses = fitnessFn.evaluate(batch);
+            GaboomMetrics.updateLatency(fitnessLatency, start);
+            if (fitnesses.size() != batch.size()) {
+                throw new IllegalStateException(String.format("Batch of %d individuals returned %d fitnesses", batch.size(), fitnesses.size()));
+            }
+            evaluations.inc(batch.size());
+
+            List<Individual<GenomeT>> evaluated = new ArrayList<>(individuals.size());
+            int next = 0;
+            for (Individual<GenomeT> individual : individuals) {
+                evaluated.add(individual.getFitness() == null ? individual.withFitness(fitnesses.get(next++)) : individual);
+            }
+            return evaluated;
+        }
+
+        /**
+         * Selects the parents of a step from the sorted population and makes
+         * their offsprings, or returns null if the selection failed.
+         * @param key
+         * @param seed
+         * @param population
+         * @param c
+         * @param window
+         * @return
+         */
+        Step<GenomeT> breed(String key, long seed, List<Individual<GenomeT>> population, ProcessContext c, BoundedWindow window) {
+            List<KV<String, List<Integer>>> indices = new ArrayList<>();
+            List<KV<String, Individuals<GenomeT>>> selected = selectFn.process(KV.of(key, new SelectIndividuals<>(seed, population, 2)), c, window, indicesTT, indices);
+            if (selected.isEmpty() || indices.isEmpty()) {
+                return null;
+            }
+
+            Individuals<GenomeT> parents = selected.get(0).getValue();
+            if (parents.getIndividuals().size() != 2) {
+                logger.error("Selection size {} is invalid for crossover, id={}", parents.getIndividuals().size(), key);
+                crossoverErrors.inc();
+                return null;
+            }
+
+            Individual<GenomeT> p1 = parents.getIndividuals().get(0);
+            Individual<GenomeT> p2 = parents.getIndividuals().get(1);
+            List<Individual<GenomeT>> offsprings = new ArrayList<>();
+            for (KV<String, Individuals<GenomeT>> children : crossoverFn.process(KV.of(key, new CrossoverIndividuals<>(parents.getSeed(), p1, p2)), c, window)) {
+                for (KV<String, Individuals<GenomeT>> mutants : mutateFn.process(children, c, window)) {
+                    offsprings.addAll(mutants.getValue().getIndividuals());
+                }
+            }
+
+            List<Individual<GenomeT>> replaced = new ArrayList<>();
+            indices.get(0).getValue().forEach(index -> replaced.add(population.get(index)));
+            return new Step<>(parents.getIndividuals(), replaced, offsprings);
+        }
+
+        /**
+         * Replaces the parents of an evaluated step in the sorted population.
+         * @param key
+         * @param step
+         * @param population
+         */
+        void replace(String key, Step<GenomeT> step, List<Individual<GenomeT>> population) {
+            List<Individual<GenomeT>> candidates = new ArrayList<>();
+            if (!loose) {
+                candidates.addAll(step.parents);
+            }
+            candidates.addAll(step.offsprings);
+            if (!loose) {
+                candidates.sort(SortIndividualsFn::compare);
+            }
+
+            if (candidates.size() < step.replaced.size()) {
+                logger.error("Selection size does not equal size of indices to replace: id={}", key);
+                selectionErrors.inc();
+                return;
+            }
+            List<Integer> indices = new ArrayList<>();
+            List<Individual<GenomeT>> replacements = new ArrayList<>();
+            for (int i = 0; i < step.replaced.size(); i++) {
+                int index = indexOfSame(population, step.replaced.get(i));
+                if (index >= 0) {
+                    indices.add(index);
+                    replacements.add(candidates.get(i));
+                }
+            }
+            ModelSteadyStateBatch.replace(population, indices, replacements);
+        }
+
+        private static <GenomeT extends Serializable> int indexOfSame(List<Individual<GenomeT>> population, Individual<GenomeT> individual) {
+            for (int i = 0; i < population.size(); i++) {
+                if (population.get(i) == individual) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Performs the steps of a batch on the sorted population, evaluating
+         * all their offsprings at once.
+         * @param key
+         * @param rng
+         * @param numSteps
+         * @param population
+         * @param c
+         * @param window
+         */
+        void batch(String key, Random rng, int numSteps, List<Individual<GenomeT>> population, ProcessContext c, BoundedWindow window) {
+            List<Step<GenomeT>> steps = new ArrayList<>();
+            List<Individual<GenomeT>> offsprings = new ArrayList<>();
+            for (int i = 0; i < numSteps; i++) {
+                Step<GenomeT> step = breed(key, rng.nextLong(), population, c, window);
+                if (step != null) {
+                    steps.add(step);
+                    offsprings.addAll(step.offsprings);
+                }
+            }
+
+            List<Individual<GenomeT>> evaluated = evaluate(offsprings);
+            int next = 0;
+            for (Step<GenomeT> step : steps) {
+                step.offsprings = evaluated.subList(next, next + step.offsprings.size());
+                next += step.offsprings.size();
+                replace(key, step, population);
+            }
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c, BoundedWindow window) {
+            String key = c.element().getKey();
+            Individuals<GenomeT> individuals = c.element().getValue();
+            Random rng = individuals.getRandomGenerator();
+
+            List<Individual<GenomeT>> population = evaluate(new ArrayList<>(individuals.getIndividuals()));
+            population.sort(SortIndividualsFn::compare);
+            for (int i = 0; i < numSteps; i += batchSteps) {
+                batch(key, rng, Math.min(batchSteps, numSteps - i), population, c, window);
+            }
+            c.output(KV.of(key, new Individuals<>(rng.nextLong(), population)));
+        }
+    }
+
+    @Override
+    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+        List<PCollectionView<?>> sideInputs = new ArrayList<>(crossoverTransform.getSideInputs());
+        sideInputs.addAll(mutateTransform.getSideInputs());
+        return input.apply(ParDo.of(new SteadyStateInKeyFn<>(selectFn, crossoverTransform.getFn(), mutateTransform.getFn(), fitnessFn, numSteps, batchSteps, loose))
+                .withSideInputs(sideInputs))
+                .setCoder(input.getCoder());
+    }
+}
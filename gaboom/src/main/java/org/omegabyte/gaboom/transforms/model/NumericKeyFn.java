@@ -0,0 +1,18 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.omegabyte.gaboom.utils.IdGenerator;
+
+/**
+ * NumericKeyFn rekeys values keyed by the string id of an individual by its
+ * 64 bit id, so that the joins on the id shuffle a long key.
+ * @param <ValueT>
+ */
+class NumericKeyFn<ValueT> extends DoFn<KV<String, ValueT>, KV<Long, ValueT>> {
+
+    @ProcessElement
+    public void processElement(ProcessContext c) {
+        c.output(KV.of(IdGenerator.parse(c.element().getKey()), c.element().getValue()));
+    }
+}
@@ -1,5 +1,6 @@
 package org.omegabyte.gaboom.transforms.model;
 
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
@@ -9,13 +10,12 @@ import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.TupleTag;
-import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 
 public class ReplacePopulationTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<String,Individuals<GenomeT>>>, PCollection<KV<String, Individuals<GenomeT>>>> {
@@ -37,6 +37,7 @@ public class ReplacePopulationTransform<GenomeT extends Serializable> extends PT
         private final TupleTag<Individuals<GenomeT>> populationTT;
         private final TupleTag<Individuals<GenomeT>> selectedTT;
         private final TupleTag<List<Integer>> indicesTT;
+        private final Counter selectionErrors = GaboomMetrics.counter(GaboomMetrics.SELECTION_ERRORS);
 
         public ReplacePopulationFn(TupleTag<Individuals<GenomeT>> populationTT, TupleTag<Individuals<GenomeT>> selectedTT, TupleTag<List<Integer>> indicesTT) {
             this.populationTT = populationTT;
@@ -49,19 +50,18 @@ public class ReplacePopulationTransform<GenomeT extends Serializable> extends PT
             String key = c.element().getKey();
             CoGbkResult result = c.element().getValue();
 
-            List<Individual<GenomeT>> population = new ArrayList<>(result.getOnly(populationTT).getIndividuals());
+            Individuals<GenomeT> population = result.getOnly(populationTT);
             Individuals<GenomeT> selected = result.getOnly(selectedTT);
             List<Integer> indices = result.getOnly(indicesTT);
 
             if (selected.getIndividuals().size() != indices.size()) {
                 logger.error("Selection size does not equal size of indices to replace: id={}", key);
+                selectionErrors.inc();
                 return;
             }
 
-            for (int i = 0; i < indices.size(); i++) {
-                population.set(indices.get(i), selected.getIndividuals().get(i));
-            }
-            c.output(KV.of(key, new Individuals<>(selected.getSeed(), population)));
+            // the population is shared, only the replaced individuals are new
+            c.output(KV.of(key, population.withReplaced(selected.getSeed(), indices, selected.getIndividuals())));
         }
     }
 
@@ -72,6 +72,7 @@ public class ReplacePopulationTransform<GenomeT extends Serializable> extends PT
         TupleTag<List<Integer>> indicesTT = new TupleTag<>();
         return KeyedPCollectionTuple.of(populationTT, input).and(selectedTT, selected).and(indicesTT, indices)
                 .apply(CoGroupByKey.create())
-                .apply(ParDo.of(new ReplacePopulationFn<>(populationTT, selectedTT, indicesTT)));
+                .apply(ParDo.of(new ReplacePopulationFn<>(populationTT, selectedTT, indicesTT)))
+                .setCoder(input.getCoder());
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.omegabyte.gaboom.utils.IdGenerator;
+
+/**
+ * StringKeyFn rekeys values keyed by the 64 bit id of an individual by its
+ * string id, for the transforms that take a string key.  NumericKeyFn turns
+ * it back into the same 64 bit id.
+ * @param <ValueT>
+ */
+class StringKeyFn<ValueT> extends DoFn<KV<Long, ValueT>, KV<String, ValueT>> {
+
+    @ProcessElement
+    public void processElement(ProcessContext c) {
+        c.output(KV.of(IdGenerator.toString(c.element().getKey()), c.element().getValue()));
+    }
+}
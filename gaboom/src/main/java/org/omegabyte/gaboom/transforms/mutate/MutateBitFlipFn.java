@@ -0,0 +1,42 @@
+package org.omegabyte.gaboom.transforms.mutate;
+
+import org.omegabyte.gaboom.genome.BitStringGenome;
+import org.omegabyte.gaboom.transforms.Mutate;
+
+import java.util.Random;
+
+/**
+ * MutateBitFlipFn flips every bit with probability bitRate.  The flipped
+ * positions are found by sampling the geometric gaps between them, so the
+ * cost is proportional to the number of flips rather than the length.
+ */
+public class MutateBitFlipFn extends Mutate.MutateFn<BitStringGenome> {
+    private final double bitRate;
+
+    public MutateBitFlipFn(double bitRate) {
+        this.bitRate = bitRate;
+    }
+
+    @Override
+    public BitStringGenome mutate(ProcessContext context, Random random, BitStringGenome genome) {
+        long[] words = genome.toLongArray();
+        int length = genome.size();
+        if (bitRate >= 1) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] = ~words[i];
+            }
+        } else if (bitRate > 0) {
+            double logq = Math.log1p(-bitRate);
+            int i = -1;
+            while (true) {
+                double gap = Math.floor(Math.log(1 - random.nextDouble()) / logq);
+                if (gap >= length - i - 1) {
+                    break;
+                }
+                i += (int) gap + 1;
+                words[i >>> 6] ^= 1L << i;
+            }
+        }
+        return BitStringGenome.wrap(words, length);
+    }
+}
@@ -0,0 +1,35 @@
+package org.omegabyte.gaboom.transforms.mutate;
+
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.transforms.Mutate;
+
+import java.util.Random;
+
+/**
+ * MutateGaussianFn adds normally distributed noise with standard deviation
+ * sigma to every gene with probability geneRate.
+ */
+public class MutateGaussianFn extends Mutate.MutateFn<DoubleVectorGenome> {
+    private final double sigma;
+    private final double geneRate;
+
+    public MutateGaussianFn(double sigma, double geneRate) {
+        this.sigma = sigma;
+        this.geneRate = geneRate;
+    }
+
+    public MutateGaussianFn(double sigma) {
+        this(sigma, 1);
+    }
+
+    @Override
+    public DoubleVectorGenome mutate(ProcessContext context, Random random, DoubleVectorGenome genome) {
+        double[] values = genome.toArray();
+        for (int i = 0; i < values.length; i++) {
+            if (random.nextDouble() < geneRate) {
+                values[i] += random.nextGaussian() * sigma;
+            }
+        }
+        return DoubleVectorGenome.wrap(values);
+    }
+}
@@ -0,0 +1,26 @@
+package org.omegabyte.gaboom.transforms.mutate;
+
+import org.omegabyte.gaboom.genome.PermutationGenome;
+import org.omegabyte.gaboom.transforms.Mutate;
+
+import java.util.Random;
+
+/**
+ * MutateSwapFn exchanges two distinct randomly chosen genes.
+ */
+public class MutateSwapFn extends Mutate.MutateFn<PermutationGenome> {
+
+    @Override
+    public PermutationGenome mutate(ProcessContext context, Random random, PermutationGenome genome) {
+        int n = genome.size();
+        if (n < 2) {
+            return genome;
+        }
+        int i = random.nextInt(n);
+        int j = random.nextInt(n - 1);
+        if (j >= i) {
+            j++;
+        }
+        return genome.swap(i, j);
+    }
+}
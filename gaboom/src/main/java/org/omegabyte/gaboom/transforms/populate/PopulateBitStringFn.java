@@ -0,0 +1,27 @@
+package org.omegabyte.gaboom.transforms.populate;
+
+import org.omegabyte.gaboom.genome.BitStringGenome;
+import org.omegabyte.gaboom.transforms.Populate;
+
+import java.util.Random;
+
+/**
+ * PopulateBitStringFn makes bit strings of the given length with uniformly
+ * random bits.
+ */
+public class PopulateBitStringFn extends Populate.PopulateFn<BitStringGenome> {
+    private final int length;
+
+    public PopulateBitStringFn(int length) {
+        this.length = length;
+    }
+
+    @Override
+    public BitStringGenome makeGenome(ProcessContext context, Random random) {
+        long[] words = new long[BitStringGenome.wordsFor(length)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = random.nextLong();
+        }
+        return BitStringGenome.wrap(words, length);
+    }
+}
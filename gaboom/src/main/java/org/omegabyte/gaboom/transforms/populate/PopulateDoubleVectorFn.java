@@ -0,0 +1,31 @@
+package org.omegabyte.gaboom.transforms.populate;
+
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.transforms.Populate;
+
+import java.util.Random;
+
+/**
+ * PopulateDoubleVectorFn makes vectors of the given size whose genes are
+ * uniformly distributed in [min, max).
+ */
+public class PopulateDoubleVectorFn extends Populate.PopulateFn<DoubleVectorGenome> {
+    private final int size;
+    private final double min;
+    private final double max;
+
+    public PopulateDoubleVectorFn(int size, double min, double max) {
+        this.size = size;
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public DoubleVectorGenome makeGenome(ProcessContext context, Random random) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = min + random.nextDouble() * (max - min);
+        }
+        return DoubleVectorGenome.wrap(values);
+    }
+}
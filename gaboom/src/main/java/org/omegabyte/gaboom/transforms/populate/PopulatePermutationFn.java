@@ -0,0 +1,29 @@
+package org.omegabyte.gaboom.transforms.populate;
+
+import org.omegabyte.gaboom.genome.PermutationGenome;
+import org.omegabyte.gaboom.transforms.Populate;
+
+import java.util.Random;
+
+/**
+ * PopulatePermutationFn makes uniformly random permutations of the given
+ * size.
+ */
+public class PopulatePermutationFn extends Populate.PopulateFn<PermutationGenome> {
+    private final int size;
+
+    public PopulatePermutationFn(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public PermutationGenome makeGenome(ProcessContext context, Random random) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return PermutationGenome.wrap(order);
+    }
+}
@@ -0,0 +1,62 @@
+package org.omegabyte.gaboom.transforms.select;
+
+/**
+ * RemainingIndices holds the indices 0 to size-1 not removed yet in a Fenwick
+ * tree, so that finding the index of a given rank among the remaining ones
+ * and removing an index both cost O(log size).
+ */
+class RemainingIndices {
+    private final int[] tree;
+    private final int mask;
+    private int size;
+
+    RemainingIndices(int size) {
+        // tree[i] counts the remaining indices in (i - lowbit(i), i]
+        this.tree = new int[size + 1];
+        for (int i = 1; i <= size; i++) {
+            tree[i] = i & -i;
+        }
+        this.mask = size == 0 ? 0 : Integer.highestOneBit(size);
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the given rank, counting from 0, among the
+     * remaining indices in increasing order.
+     * @param rank
+     * @return
+     */
+    int get(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " of " + size + " remaining indices");
+        }
+        int pos = 0;
+        int remaining = rank;
+        for (int step = mask; step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Removes the index of the given rank and returns it.
+     * @param rank
+     * @return
+     */
+    int remove(int rank) {
+        int index = get(rank);
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+        size--;
+        return index;
+    }
+}
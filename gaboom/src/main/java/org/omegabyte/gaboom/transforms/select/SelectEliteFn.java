@@ -26,6 +26,7 @@ public class SelectEliteFn<GenomeT extends Serializable> extends Select.SelectFn
 
         if (selectIndividuals.getN() > selectIndividuals.getIndividuals().size()) {
             logger.error("Select size {} is greater than individual list {}, key={}", selectIndividuals.getN(), selectIndividuals.getIndividuals().size(), key);
+            selectionErrors.inc();
             return;
         }
 
@@ -35,6 +36,7 @@ public class SelectEliteFn<GenomeT extends Serializable> extends Select.SelectFn
             indices.add(i);
             individuals.add(selectIndividuals.getIndividuals().get(i));
         }
+        selected.inc(individuals.size());
         c.output(selectIndicesTupleTag, KV.of(key, indices));
         c.output(KV.of(key, new Individuals<>(selectIndividuals.getSeed(), individuals)));
     }
@@ -15,37 +15,57 @@ import java.util.Random;
 
 /**
  * SelectRouletteFn samples individuals through roulette wheel selection (also
- * known as fitness proportionate selection).
+ * known as fitness proportionate selection).  The wheel is a cumulative array
+ * and each draw is a binary search, so n draws among N individuals cost
+ * O(N + n log N).
  * @param <GenomeT>
  */
 public class SelectRouletteFn<GenomeT extends Serializable> extends Select.SelectFn<GenomeT> {
     private static final Logger logger = LoggerFactory.getLogger(SelectRouletteFn.class);
 
-    private List<Double> getWheel(List<Individual<GenomeT>> individuals) {
+    /**
+     * Returns the cumulative probabilities of the individuals, sorted by
+     * increasing fitness.
+     * @param individuals
+     * @param <GenomeT>
+     * @return
+     */
+    static <GenomeT extends Serializable> double[] getWheel(List<Individual<GenomeT>> individuals) {
         int n = individuals.size();
+        double worst = individuals.get(n-1).getFitness();
+        double[] wheel = new double[n];
         double total = 0;
-
-        List<Double> wheel = new ArrayList<>();
         for (int i = 0; i < n; i++) {
-            wheel.add(individuals.get(n-1).getFitness()-individuals.get(i).getFitness()+1);
-            total += wheel.get(i);
+            wheel[i] = worst-individuals.get(i).getFitness()+1;
+            total += wheel[i];
         }
-        return cumsum(divide(wheel, total));
-    }
-
-    private List<Double> divide(List<Double> doubles, Double value) {
-        List<Double> divided = new ArrayList<>();
-        doubles.forEach(d -> divided.add(d/value));
-        return divided;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += wheel[i]/total;
+            wheel[i] = sum;
+        }
+        return wheel;
     }
 
-    private List<Double> cumsum(List<Double> doubles) {
-        List<Double> summed = new ArrayList<>();
-        summed.add(doubles.get(0));
-        for (int i = 1; i < doubles.size(); i++) {
-            summed.add(doubles.get(i) + summed.get(i-1));
+    /**
+     * Returns the index of the first slot of the wheel above value.  A value
+     * past the last slot, left by rounding, lands in the last slot.
+     * @param wheel
+     * @param value
+     * @return
+     */
+    public static int spin(double[] wheel, double value) {
+        int low = 0;
+        int high = wheel.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (value < wheel[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
         }
-        return summed;
+        return low;
     }
 
     @ProcessElement
@@ -55,6 +75,7 @@ public class SelectRouletteFn<GenomeT extends Serializable> extends Select.Selec
 
         if (selectIndividuals.getIndividuals().size() == 0) {
             logger.error("Select individuals is 0, key={}", key);
+            selectionErrors.inc();
             return;
         }
 
@@ -62,17 +83,13 @@ public class SelectRouletteFn<GenomeT extends Serializable> extends Select.Selec
         List<Integer> indices = new ArrayList<>();
         List<Individual<GenomeT>> individuals = new ArrayList<>();
 
-        List<Double> wheel = getWheel(selectIndividuals.getIndividuals());
+        double[] wheel = getWheel(selectIndividuals.getIndividuals());
         for (int i = 0; i < selectIndividuals.getN(); i++) {
-            double value = rng.nextDouble();
-            for (int j = 0; j < wheel.size(); j++) {
-                if (value < wheel.get(j)) {
-                    indices.add(j);
-                    individuals.add(selectIndividuals.getIndividuals().get(j));
-                    break;
-                }
-            }
+            int j = spin(wheel, rng.nextDouble());
+            indices.add(j);
+            individuals.add(selectIndividuals.getIndividuals().get(j));
         }
+        selected.inc(individuals.size());
         c.output(selectIndicesTupleTag, KV.of(key, indices));
         c.output(KV.of(key, new Individuals<>(rng.nextLong(), individuals)));
     }
@@ -0,0 +1,61 @@
+package org.omegabyte.gaboom.transforms.select;
+
+import org.apache.beam.sdk.values.KV;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.transforms.Select;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SelectStochasticUniversalFn samples individuals through stochastic universal
+ * sampling.  The wheel is the one of SelectRouletteFn, but the n individuals
+ * are picked by n evenly spaced pointers from a single random offset, in one
+ * pass over the wheel.  The selected individuals are then shuffled so that
+ * neighbours on the wheel are not paired for crossover.
+ * @param <GenomeT>
+ */
+public class SelectStochasticUniversalFn<GenomeT extends Serializable> extends Select.SelectFn<GenomeT> {
+    private static final Logger logger = LoggerFactory.getLogger(SelectStochasticUniversalFn.class);
+
+    @ProcessElement
+    public void processElement(ProcessContext c) {
+        String key = c.element().getKey();
+        SelectIndividuals<GenomeT> selectIndividuals = c.element().getValue();
+
+        if (selectIndividuals.getIndividuals().size() == 0) {
+            logger.error("Select individuals is 0, key={}", key);
+            selectionErrors.inc();
+            return;
+        }
+
+        Random rng = selectIndividuals.getRandomGenerator();
+        int n = selectIndividuals.getN();
+        double[] wheel = SelectRouletteFn.getWheel(selectIndividuals.getIndividuals());
+
+        List<Integer> indices = new ArrayList<>(n);
+        double step = 1.0 / n;
+        double pointer = rng.nextDouble() * step;
+        int j = 0;
+        for (int i = 0; i < n; i++, pointer += step) {
+            while (j < wheel.length - 1 && pointer >= wheel[j]) {
+                j++;
+            }
+            indices.add(j);
+        }
+        Collections.shuffle(indices, rng);
+
+        List<Individual<GenomeT>> individuals = new ArrayList<>(n);
+        indices.forEach(i -> individuals.add(selectIndividuals.getIndividuals().get(i)));
+        selected.inc(individuals.size());
+        c.output(selectIndicesTupleTag, KV.of(key, indices));
+        c.output(KV.of(key, new Individuals<>(rng.nextLong(), individuals)));
+    }
+}
@@ -17,7 +17,8 @@ import java.util.Random;
  * SelectTournamentFn samples individuas through tournament selection.  The
  * tournament is composed of randomly chosen individuals.  The winner of the
  * tournament is the chosen individual with the lowest fitness.  The obtained
- * individuals are all distinct.
+ * individuals are all distinct.  The remaining individuals are kept in a
+ * Fenwick tree, so each pick costs O(nContestants log N).
  * @param <GenomeT>
  */
 public class SelectTournamentFn<GenomeT extends Serializable> extends Select.SelectFn<GenomeT> {
@@ -37,16 +38,13 @@ public class SelectTournamentFn<GenomeT extends Serializable> extends Select.Sel
 
         if (selectIndividuals.getIndividuals().size() - nContestants < selectIndividuals.getN()) {
             logger.error("Not enough individuals for tournament selection, id={}", key);
+            selectionErrors.inc();
             return;
         }
 
-        List<Integer> options = new ArrayList<>();
-        for (int i = 0; i < selectIndividuals.getIndividuals().size(); i++) {
-            options.add(i);
-        }
-
-        List<Integer> indices = new ArrayList<>();
-        List<Individual<GenomeT>> individualList = new ArrayList<>();
+        RemainingIndices options = new RemainingIndices(selectIndividuals.getIndividuals().size());
+        List<Integer> indices = new ArrayList<>(selectIndividuals.getN());
+        List<Individual<GenomeT>> individualList = new ArrayList<>(selectIndividuals.getN());
         for (int i = 0; i < selectIndividuals.getN(); i++) {
             int maxIndex = options.size();
             for (int j = 0; j < nContestants; j++) {
@@ -60,6 +58,7 @@ public class SelectTournamentFn<GenomeT extends Serializable> extends Select.Sel
             indices.add(value);
             individualList.add(selectIndividuals.getIndividuals().get(value));
         }
+        selected.inc(individualList.size());
         c.output(selectIndicesTupleTag, KV.of(key, indices));
         c.output(KV.of(key, new Individuals<>(rng.nextLong(), individualList)));
     }
@@ -0,0 +1,78 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.utils.SplitMixRandom;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReshardPopulationTransform moves the individuals of sharded populations to
+ * the shard of their id, Shards.shardOf(id, numShards), so that offsprings do
+ * not stay in the shard of their parents.  Every shard of a population, even
+ * an empty one, is emitted, and takes the seed split from the lowest shard
+ * it received individuals from.
+ * @param <GenomeT>
+ */
+public class ReshardPopulationTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, Individuals<GenomeT>>>, PCollection<KV<String, Individuals<GenomeT>>>> {
+    private final int numShards;
+
+    public ReshardPopulationTransform(int numShards) {
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("numShards must be positive");
+        }
+        this.numShards = numShards;
+    }
+
+    public static <GenomeT extends Serializable> ReshardPopulationTransform<GenomeT> of(int numShards) {
+        return new ReshardPopulationTransform<>(numShards);
+    }
+
+    static class ReshardFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, KV<Integer, Individuals<GenomeT>>>> {
+        private final int numShards;
+
+        ReshardFn(int numShards) {
+            this.numShards = numShards;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            String key = c.element().getKey();
+            String populationId = Shards.populationOf(key);
+            int source = Shards.shardOf(key);
+            Individuals<GenomeT> individuals = c.element().getValue();
+
+            List<List<Individual<GenomeT>>> shards = new ArrayList<>(numShards);
+            for (int i = 0; i < numShards; i++) {
+                shards.add(new ArrayList<>());
+            }
+            individuals.getIndividuals().forEach(i -> shards.get(Shards.shardOf(i.getNumericId(), numShards)).add(i));
+            for (int i = 0; i < numShards; i++) {
+                c.output(KV.of(Shards.key(populationId, i), KV.of(source, new Individuals<>(SplitMixRandom.split(individuals.getSeed(), i), shards.get(i)))));
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+        PCollection<KV<String, Individuals<GenomeT>>> output = input
+                .apply(ParDo.of(new ReshardFn<>(numShards)))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), KvCoder.of(VarIntCoder.of(), ((KvCoder<String, Individuals<GenomeT>>) input.getCoder()).getValueCoder())))
+                .apply(GroupByKey.create())
+                .apply(ParDo.of(new UnshardPopulationTransform.MergeShardsFn<>()));
+        return GenomeCoders.setIndividualsAtKey(output, input.getCoder());
+    }
+}
@@ -0,0 +1,65 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.utils.SplitMixRandom;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShardPopulationTransform splits each population into numShards shards
+ * keyed by Shards.key.  The individuals are spread by their id, and every
+ * shard, even an empty one, is emitted with its own seed split from the seed
+ * of the population.
+ * @param <GenomeT>
+ */
+public class ShardPopulationTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, Individuals<GenomeT>>>, PCollection<KV<String, Individuals<GenomeT>>>> {
+    private final int numShards;
+
+    public ShardPopulationTransform(int numShards) {
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("numShards must be positive");
+        }
+        this.numShards = numShards;
+    }
+
+    public static <GenomeT extends Serializable> ShardPopulationTransform<GenomeT> of(int numShards) {
+        return new ShardPopulationTransform<>(numShards);
+    }
+
+    static class ShardPopulationFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Individuals<GenomeT>>> {
+        private final int numShards;
+
+        ShardPopulationFn(int numShards) {
+            this.numShards = numShards;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            String key = c.element().getKey();
+            Individuals<GenomeT> individuals = c.element().getValue();
+
+            List<List<Individual<GenomeT>>> shards = new ArrayList<>(numShards);
+            for (int i = 0; i < numShards; i++) {
+                shards.add(new ArrayList<>());
+            }
+            individuals.getIndividuals().forEach(i -> shards.get(Shards.shardOf(i.getNumericId(), numShards)).add(i));
+            for (int i = 0; i < numShards; i++) {
+                c.output(KV.of(Shards.key(key, i), new Individuals<>(SplitMixRandom.split(individuals.getSeed(), i), shards.get(i))));
+            }
+        }
+    }
+
+    @Override
+    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+        return GenomeCoders.setIndividualsAtKey(input.apply(ParDo.of(new ShardPopulationFn<>(numShards))), input.getCoder());
+    }
+}
@@ -0,0 +1,85 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.coders.DoubleCoder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.transforms.ApproximateQuantiles;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardRanking computes the fitness quantile boundaries of each sharded
+ * population with a combiner, so that every shard can rank its individuals
+ * against the whole population without gathering it.  The first and last
+ * boundaries are the exact best and worst fitness.
+ * @param <GenomeT>
+ */
+public class ShardRanking<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, Individuals<GenomeT>>>, PCollectionView<Map<String, List<Double>>>> {
+    private final int numQuantiles;
+
+    public ShardRanking(int numQuantiles) {
+        if (numQuantiles < 2) {
+            throw new IllegalArgumentException("numQuantiles must be at least 2");
+        }
+        this.numQuantiles = numQuantiles;
+    }
+
+    static class FitnessAtPopulationFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, Double>> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            String populationId = Shards.populationOf(c.element().getKey());
+            for (Individual<GenomeT> individual : c.element().getValue().getIndividuals()) {
+                c.output(KV.of(populationId, individual.getFitness()));
+            }
+        }
+    }
+
+    /**
+     * Returns the approximate fraction of the population fitter than the
+     * fitness, between 0 and 1, interpolated between the boundaries.
+     * @param boundaries
+     * @param fitness
+     * @return
+     */
+    public static double rank(List<Double> boundaries, double fitness) {
+        int last = boundaries.size() - 1;
+        if (last <= 0 || fitness <= boundaries.get(0)) {
+            return 0;
+        }
+        if (fitness >= boundaries.get(last)) {
+            return 1;
+        }
+        int low = 0;
+        int high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (boundaries.get(mid) <= fitness) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        double lower = boundaries.get(low);
+        double upper = boundaries.get(high);
+        return (low + (fitness - lower) / (upper - lower)) / last;
+    }
+
+    @Override
+    public PCollectionView<Map<String, List<Double>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+        return input.apply(ParDo.of(new FitnessAtPopulationFn<>()))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), DoubleCoder.of()))
+                .apply(ApproximateQuantiles.perKey(numQuantiles))
+                .apply(View.asMap());
+    }
+}
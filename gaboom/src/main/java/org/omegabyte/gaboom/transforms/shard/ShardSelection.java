@@ -0,0 +1,46 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import java.io.Serializable;
+
+/**
+ * ShardSelection weights the individuals of a shard so that sampling them in
+ * proportion to their weight matches a selection over the whole population.
+ * The weights only depend on the fitness, the rank given by ShardRanking, and
+ * the worst fitness of the population.
+ */
+public abstract class ShardSelection implements Serializable {
+
+    public abstract double weight(double fitness, double rank, double worst);
+
+    /**
+     * Tournament selection among nContestants drawn with replacement: the
+     * winner is at rank r with density nContestants (1 - r)^(nContestants-1).
+     * Unlike SelectTournamentFn the same individual can win several times.
+     * @param nContestants
+     * @return
+     */
+    public static ShardSelection tournament(int nContestants) {
+        if (nContestants <= 0) {
+            throw new IllegalArgumentException("nContestants must be positive");
+        }
+        return new ShardSelection() {
+            @Override
+            public double weight(double fitness, double rank, double worst) {
+                return nContestants * Math.pow(1 - rank, nContestants - 1);
+            }
+        };
+    }
+
+    /**
+     * Roulette wheel selection with the wheel of SelectRouletteFn.
+     * @return
+     */
+    public static ShardSelection roulette() {
+        return new ShardSelection() {
+            @Override
+            public double weight(double fitness, double rank, double worst) {
+                return worst - fitness + 1;
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+/**
+ * Shards names the sub-keys of a sharded population.  A population split
+ * across numShards elements is keyed by the id of the population followed by
+ * SEPARATOR and the index of the shard, so the transforms working on
+ * KV<String, Individuals> apply to the shards unchanged.
+ */
+public class Shards {
+    public static final char SEPARATOR = '#';
+
+    public static String key(String populationId, int shard) {
+        return populationId + SEPARATOR + shard;
+    }
+
+    public static String populationOf(String key) {
+        int i = key.lastIndexOf(SEPARATOR);
+        if (i < 0) {
+            throw new IllegalArgumentException("Not a shard key: " + key);
+        }
+        return key.substring(0, i);
+    }
+
+    public static int shardOf(String key) {
+        int i = key.lastIndexOf(SEPARATOR);
+        if (i < 0) {
+            throw new IllegalArgumentException("Not a shard key: " + key);
+        }
+        return Integer.parseInt(key.substring(i + 1));
+    }
+
+    /**
+     * Returns the shard of an individual, spreading the individuals evenly
+     * across the shards whatever their ids.
+     * @param id
+     * @param numShards
+     * @return
+     */
+    public static int shardOf(long id, int numShards) {
+        long h = id * 0x9e3779b97f4a7c15L;
+        return (int) ((h >>> 32) * numShards >>> 32);
+    }
+}
@@ -0,0 +1,77 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.GenomeCoders;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UnshardPopulationTransform merges the shards of each population back into
+ * a single element keyed by the id of the population.  The individuals are
+ * sorted by fitness once they are all evaluated, and by id otherwise, and
+ * the population takes the seed of its first shard.
+ * @param <GenomeT>
+ */
+public class UnshardPopulationTransform<GenomeT extends Serializable> extends PTransform<PCollection<KV<String, Individuals<GenomeT>>>, PCollection<KV<String, Individuals<GenomeT>>>> {
+
+    public static <GenomeT extends Serializable> UnshardPopulationTransform<GenomeT> of() {
+        return new UnshardPopulationTransform<>();
+    }
+
+    static class PopulationKeyFn<GenomeT extends Serializable> extends DoFn<KV<String, Individuals<GenomeT>>, KV<String, KV<Integer, Individuals<GenomeT>>>> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            String key = c.element().getKey();
+            c.output(KV.of(Shards.populationOf(key), KV.of(Shards.shardOf(key), c.element().getValue())));
+        }
+    }
+
+    static class MergeShardsFn<GenomeT extends Serializable> extends DoFn<KV<String, Iterable<KV<Integer, Individuals<GenomeT>>>>, KV<String, Individuals<GenomeT>>> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            int first = Integer.MAX_VALUE;
+            long seed = 0;
+            boolean evaluated = true;
+            List<Individual<GenomeT>> individuals = new ArrayList<>();
+            for (KV<Integer, Individuals<GenomeT>> shard : c.element().getValue()) {
+                if (shard.getKey() < first) {
+                    first = shard.getKey();
+                    seed = shard.getValue().getSeed();
+                }
+                for (Individual<GenomeT> individual : shard.getValue().getIndividuals()) {
+                    evaluated &= individual.getFitness() != null;
+                    individuals.add(individual);
+                }
+            }
+            if (evaluated) {
+                individuals.sort(SortIndividualsFn::compare);
+            } else {
+                individuals.sort(Individual::compareIds);
+            }
+            c.output(KV.of(c.element().getKey(), new Individuals<>(seed, individuals)));
+        }
+    }
+
+    @Override
+    public PCollection<KV<String, Individuals<GenomeT>>> expand(PCollection<KV<String, Individuals<GenomeT>>> input) {
+        PCollection<KV<String, Individuals<GenomeT>>> output = input
+                .apply(ParDo.of(new PopulationKeyFn<>()))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), KvCoder.of(VarIntCoder.of(), ((KvCoder<String, Individuals<GenomeT>>) input.getCoder()).getValueCoder())))
+                .apply(GroupByKey.create())
+                .apply(ParDo.of(new MergeShardsFn<>()));
+        return GenomeCoders.setIndividualsAtKey(output, input.getCoder());
+    }
+}
@@ -0,0 +1,81 @@
+package org.omegabyte.gaboom.utils;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
+
+/**
+ * GaboomMetrics names the counters and distributions reported by the gaboom
+ * transforms.  They all live in the "gaboom" namespace so runner dashboards
+ * can filter them regardless of the classes that report them.
+ *
+ * Distributions only hold longs: latencies are in microseconds and fitnesses
+ * are multiplied by FITNESS_SCALE and rounded.
+ */
+public class GaboomMetrics {
+    public static final String NAMESPACE = "gaboom";
+    public static final double FITNESS_SCALE = 1000;
+
+    // Evaluate
+    public static final String FITNESS_EVALUATIONS = "fitnessEvaluations";
+    public static final String ALREADY_EVALUATED = "alreadyEvaluated";
+    public static final String FITNESS_LATENCY_MICROS = "fitnessLatencyMicros";
+    public static final String FITNESS_CACHE_HITS = "fitnessCacheHits";
+    public static final String FITNESS_CACHE_MISSES = "fitnessCacheMisses";
+
+    // BatchFitnessTransform
+    public static final String BATCHES = "batches";
+    public static final String BATCH_SIZE = "batchSize";
+    public static final String BATCH_FILL_PERCENT = "batchFillPercent";
+
+    // Select
+    public static final String SELECTED = "selected";
+    public static final String SELECTION_ERRORS = "selectionErrors";
+
+    // Crossover
+    public static final String CROSSOVERS = "crossovers";
+    public static final String CROSSOVER_ERRORS = "crossoverErrors";
+
+    // Mutate
+    public static final String MUTATIONS = "mutations";
+
+    // GenerateOffspringsTransform
+    public static final String OFFSPRINGS = "offsprings";
+    public static final String OFFSPRING_ERRORS = "offspringErrors";
+
+    // Repopulate
+    public static final String POPULATIONS = "populations";
+    public static final String GENERATION = "generation";
+    public static final String BEST_FITNESS = "bestFitness";
+    public static final String MEAN_FITNESS = "meanFitness";
+
+    // Migrate
+    public static final String MIGRANTS = "migrants";
+
+    public static Counter counter(String name) {
+        return Metrics.counter(NAMESPACE, name);
+    }
+
+    public static Distribution distribution(String name) {
+        return Metrics.distribution(NAMESPACE, name);
+    }
+
+    /**
+     * Records a fitness in a distribution, scaled by FITNESS_SCALE.
+     * @param distribution
+     * @param fitness
+     */
+    public static void updateFitness(Distribution distribution, double fitness) {
+        distribution.update(Math.round(fitness * FITNESS_SCALE));
+    }
+
+    /**
+     * Records the time elapsed since startNanos in a distribution, in
+     * microseconds.
+     * @param distribution
+     * @param startNanos
+     */
+    public static void updateLatency(Distribution distribution, long startNanos) {
+        distribution.update((System.nanoTime() - startNanos) / 1000);
+    }
+}
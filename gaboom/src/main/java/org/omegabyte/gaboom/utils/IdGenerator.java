@@ -1,15 +1,149 @@
 package org.omegabyte.gaboom.utils;
 
-import org.apache.commons.text.RandomStringGenerator;
-
+import java.util.Arrays;
 import java.util.Random;
 
+/**
+ * IdGenerator makes the 64 bit ids of the individuals.  A compact id is a non
+ * negative long rendered as ID_LENGTH base 62 digits.  The digits follow the
+ * order of ASCII, so comparing two compact ids orders them like their strings.
+ * Any other string is kept as is by the individual and is given a negative
+ * hashed id.
+ *
+ * The ids are unique within a run without any coordination between workers:
+ * an id is a 63 bit hash of a seed and keys, such as the seed of a population
+ * and the index of the individual, or a random salt and the ids of the
+ * parents.  Two ids then only collide when the hashes of distinct inputs
+ * collide, with a probability of about n^2 / 2^64 for n ids.  An id drawn
+ * from a generator alone would be limited by the state of the generator,
+ * only 48 bits for java.util.Random.
+ */
 public class IdGenerator {
+    public static final int ID_LENGTH = 11;
+
+    // the characters in the order they are drawn
+    private static final char[] CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    // the characters in the order of their base 62 digit
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int[] CHAR_TO_DIGIT = new int[128];
+
+    static {
+        Arrays.fill(CHAR_TO_DIGIT, -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            CHAR_TO_DIGIT[DIGITS[i]] = i;
+        }
+    }
+
     public static String newId(Random r, int length) {
-        RandomStringGenerator rsg = new RandomStringGenerator.Builder()
-                .withinRange(new char[]{'0', '9'}, new char[]{'a', 'z'}, new char[]{'A', 'Z'})
-                .usingRandom(r::nextInt)
-                .build();
-        return rsg.generate(length);
+        char[] id = new char[length];
+        for (int i = 0; i < length; i++) {
+            id[i] = CHARS[r.nextInt(CHARS.length)];
+        }
+        return new String(id);
+    }
+
+    /**
+     * Returns the compact id hashed from the seed and the keys.
+     * @param seed
+     * @param keys
+     * @return
+     */
+    public static long idOf(long seed, long... keys) {
+        return SplitMixRandom.split(seed, keys) >>> 1;
+    }
+
+    /**
+     * Draws a new id from the generator.  Its uniqueness is limited by the
+     * state of the generator, prefer idOf when the id can be derived from a
+     * seed and an index or from the ids of parents.
+     * @param r
+     * @return
+     */
+    public static long nextId(Random r) {
+        return idOf(r.nextLong());
+    }
+
+    public static boolean isCompact(long id) {
+        return id >= 0;
+    }
+
+    private static void appendDigits(StringBuilder sb, long value, int length) {
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = DIGITS[(int) (value % DIGITS.length)];
+            value /= DIGITS.length;
+        }
+        sb.append(chars);
+    }
+
+    /**
+     * Renders a compact id as its string, and any other id as # and its hex
+     * digits, which parse back to the id.
+     * @param id
+     * @return
+     */
+    public static String toString(long id) {
+        if (!isCompact(id)) {
+            return "#" + Long.toHexString(id);
+        }
+        StringBuilder sb = new StringBuilder(ID_LENGTH);
+        appendDigits(sb, id, ID_LENGTH);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the compact id of ID_LENGTH base 62 digits, or -1 if they are
+     * not digits or overflow a long.
+     * @param id
+     * @return
+     */
+    private static long parseDigits(String id) {
+        long value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            int digit = c < CHAR_TO_DIGIT.length ? CHAR_TO_DIGIT[c] : -1;
+            if (digit < 0 || value > (Long.MAX_VALUE - digit) / DIGITS.length) {
+                return -1;
+            }
+            value = value * DIGITS.length + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the long id of a string id: its compact form when it has one,
+     * the id rendered by toString for a hashed id, or else a negative 64 bit
+     * hash of the string.
+     * @param id
+     * @return
+     */
+    public static long parse(String id) {
+        if (id.length() == ID_LENGTH) {
+            long value = parseDigits(id);
+            if (value >= 0) {
+                return value;
+            }
+        }
+        if (id.length() == 17 && id.charAt(0) == '#') {
+            try {
+                long value = Long.parseUnsignedLong(id.substring(1), 16);
+                if (value < 0) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                // not a rendered id
+            }
+        }
+        return hash(id) | Long.MIN_VALUE;
+    }
+
+    private static long hash(String id) {
+        // 64 bit FNV-1a, finalized so that every bit depends on every char
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return SplitMixRandom.split(h);
     }
-}
\ No newline at end of file
+}
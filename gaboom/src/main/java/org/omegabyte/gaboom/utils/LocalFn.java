@@ -0,0 +1,242 @@
+package org.omegabyte.gaboom.utils;
+
+import org.apache.beam.sdk.options.PipelineOptions;
+import org.apache.beam.sdk.state.State;
+import org.apache.beam.sdk.state.Timer;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.reflect.DoFnInvoker;
+import org.apache.beam.sdk.transforms.reflect.DoFnInvokers;
+import org.apache.beam.sdk.transforms.reflect.DoFnSignature;
+import org.apache.beam.sdk.transforms.reflect.DoFnSignatures;
+import org.apache.beam.sdk.transforms.splittabledofn.RestrictionTracker;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.transforms.windowing.PaneInfo;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.joda.time.Instant;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LocalFn invokes the ProcessElement method of a DoFn in memory and
+ * collects its main output, and optionally the outputs of one additional tag.
+ * Other additional outputs are discarded and side inputs are read from the
+ * enclosing context, which can be the context of a ProcessElement or an
+ * OnTimer method.  Side inputs are only available from a ProcessElement
+ * context.
+ *
+ * The host DoFn forwards its lifecycle: setup and teardown from its own
+ * Setup and Teardown methods, startBundle and finishBundle from its
+ * StartBundle and FinishBundle methods.  The wrapped fn may only take a
+ * ProcessContext, a window and the pipeline options, a fn with state,
+ * timers or a restriction tracker is rejected when the LocalFn is created.
+ * @param <InputT>
+ * @param <OutputT>
+ */
+public class LocalFn<InputT, OutputT> implements Serializable {
+    private final DoFn<InputT, OutputT> fn;
+    private transient DoFnInvoker<InputT, OutputT> invoker;
+
+    public LocalFn(DoFn<InputT, OutputT> fn) {
+        DoFnSignature signature = DoFnSignatures.signatureForDoFn(fn);
+        if (signature.usesState() || signature.usesTimers() || signature.processElement().isSplittable()) {
+            throw new IllegalArgumentException("A LocalFn cannot run a DoFn with state, timers or a restriction: " + fn.getClass().getName());
+        }
+        for (DoFnSignature.Parameter parameter : signature.processElement().extraParameters()) {
+            if (!(parameter instanceof DoFnSignature.Parameter.ProcessContextParameter
+                    || parameter instanceof DoFnSignature.Parameter.WindowParameter
+                    || parameter instanceof DoFnSignature.Parameter.PipelineOptionsParameter)) {
+                throw new IllegalArgumentException("A LocalFn cannot provide the parameter " + parameter + " of " + fn.getClass().getName());
+            }
+        }
+        this.fn = fn;
+    }
+
+    public void setup() {
+        invoker = DoFnInvokers.invokerFor(fn);
+        invoker.invokeSetup();
+    }
+
+    public void teardown() {
+        if (invoker != null) {
+            invoker.invokeTeardown();
+            invoker = null;
+        }
+    }
+
+    /**
+     * Starts a bundle of the wrapped fn, with the options of the bundle of
+     * the host.
+     * @param context
+     */
+    public void startBundle(DoFn<?, ?>.StartBundleContext context) {
+        invoker.invokeStartBundle(fn.new StartBundleContext() {
+            @Override
+            public PipelineOptions getPipelineOptions() {
+                return context.getPipelineOptions();
+            }
+        });
+    }
+
+    /**
+     * Finishes a bundle of the wrapped fn.  Its outputs belong to elements
+     * of the host, so the wrapped fn cannot output when finishing a bundle.
+     * @param context
+     */
+    public void finishBundle(DoFn<?, ?>.FinishBundleContext context) {
+        invoker.invokeFinishBundle(fn.new FinishBundleContext() {
+            @Override
+            public PipelineOptions getPipelineOptions() {
+                return context.getPipelineOptions();
+            }
+
+            @Override
+            public void output(OutputT output, Instant timestamp, BoundedWindow window) {
+                throw new IllegalStateException("A LocalFn cannot output when finishing a bundle");
+            }
+
+            @Override
+            public <T> void output(TupleTag<T> tag, T output, Instant timestamp, BoundedWindow window) {
+                throw new IllegalStateException("A LocalFn cannot output when finishing a bundle");
+            }
+        });
+    }
+
+    public List<OutputT> process(InputT element, DoFn<?, ?>.WindowedContext context, BoundedWindow window) {
+        return process(element, context, window, null, null);
+    }
+
+    /**
+     * Processes an element and also collects the outputs of one additional
+     * tag into additionalOutputs.
+     * @param element
+     * @param context
+     * @param window
+     * @param additionalTag
+     * @param additionalOutputs
+     * @param <AdditionalT>
+     * @return
+     */
+    public <AdditionalT> List<OutputT> process(InputT element, DoFn<?, ?>.WindowedContext context, BoundedWindow window, TupleTag<AdditionalT> additionalTag, List<AdditionalT> additionalOutputs) {
+        List<OutputT> outputs = new ArrayList<>();
+        DoFn<InputT, OutputT>.ProcessContext localContext = fn.new ProcessContext() {
+            @Override
+            public InputT element() {
+                return element;
+            }
+
+            @Override
+            public <T> T sideInput(PCollectionView<T> view) {
+                if (context instanceof DoFn.ProcessContext) {
+                    return ((DoFn<?, ?>.ProcessContext) context).sideInput(view);
+                }
+                throw new IllegalStateException("Side inputs are only available when processing an element");
+            }
+
+            @Override
+            public Instant timestamp() {
+                if (context instanceof DoFn.OnTimerContext) {
+                    return ((DoFn<?, ?>.OnTimerContext) context).timestamp();
+                }
+                return ((DoFn<?, ?>.ProcessContext) context).timestamp();
+            }
+
+            @Override
+            public PaneInfo pane() {
+                if (context instanceof DoFn.ProcessContext) {
+                    return ((DoFn<?, ?>.ProcessContext) context).pane();
+                }
+                return PaneInfo.NO_FIRING;
+            }
+
+            @Override
+            public void updateWatermark(Instant watermark) {
+                if (context instanceof DoFn.ProcessContext) {
+                    ((DoFn<?, ?>.ProcessContext) context).updateWatermark(watermark);
+                    return;
+                }
+                throw new IllegalStateException("The watermark can only be updated when processing an element");
+            }
+
+            @Override
+            public PipelineOptions getPipelineOptions() {
+                return context.getPipelineOptions();
+            }
+
+            @Override
+            public void output(OutputT output) {
+                outputs.add(output);
+            }
+
+            @Override
+            public void outputWithTimestamp(OutputT output, Instant timestamp) {
+                outputs.add(output);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> void output(TupleTag<T> tag, T output) {
+                if (additionalTag != null && additionalTag.equals(tag)) {
+                    additionalOutputs.add((AdditionalT) output);
+                }
+            }
+
+            @Override
+            public <T> void outputWithTimestamp(TupleTag<T> tag, T output, Instant timestamp) {
+                output(tag, output);
+            }
+        };
+
+        invoker.invokeProcessElement(new DoFnInvoker.ArgumentProvider<InputT, OutputT>() {
+            @Override
+            public DoFn<InputT, OutputT>.ProcessContext processContext(DoFn<InputT, OutputT> doFn) {
+                return localContext;
+            }
+
+            @Override
+            public BoundedWindow window() {
+                return window;
+            }
+
+            @Override
+            public PipelineOptions pipelineOptions() {
+                return context.getPipelineOptions();
+            }
+
+            // the constructor rejects the fns that take any other parameter
+
+            @Override
+            public DoFn<InputT, OutputT>.StartBundleContext startBundleContext(DoFn<InputT, OutputT> doFn) {
+                throw new IllegalStateException("No StartBundleContext when processing an element");
+            }
+
+            @Override
+            public DoFn<InputT, OutputT>.FinishBundleContext finishBundleContext(DoFn<InputT, OutputT> doFn) {
+                throw new IllegalStateException("No FinishBundleContext when processing an element");
+            }
+
+            @Override
+            public DoFn<InputT, OutputT>.OnTimerContext onTimerContext(DoFn<InputT, OutputT> doFn) {
+                throw new IllegalStateException("No OnTimerContext when processing an element");
+            }
+
+            @Override
+            public RestrictionTracker<?> restrictionTracker() {
+                throw new IllegalStateException("A LocalFn has no restriction tracker");
+            }
+
+            @Override
+            public State state(String stateId) {
+                throw new IllegalStateException("A LocalFn has no state");
+            }
+
+            @Override
+            public Timer timer(String timerId) {
+                throw new IllegalStateException("A LocalFn has no timers");
+            }
+        });
+        return outputs;
+    }
+}
@@ -0,0 +1,121 @@
+package org.omegabyte.gaboom.utils;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * PatchedList is a copy-on-write view of a list with some of its elements
+ * replaced.  The base list is shared rather than copied, so replacing k
+ * elements costs O(k).  Patching a PatchedList patches its base list, so the
+ * views never nest, and once more than 1/MAX_PATCH_RATIO of the elements are
+ * patched the list is copied into a plain list.
+ *
+ * The view can be modified like an ArrayList without touching the base list:
+ * set adds a patch, and the first change of its size copies the elements into
+ * a list of its own.  A list of its own is shared again, and copied on the
+ * next change of size, once the view is patched by of.
+ * @param <E>
+ */
+public class PatchedList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+    public static final int MAX_PATCH_RATIO = 8;
+
+    private List<E> base;
+    private Map<Integer, E> patches;
+    // the base list is a copy of this view only, modified in place
+    private boolean owned = false;
+
+    private PatchedList(List<E> base, Map<Integer, E> patches) {
+        this.base = base;
+        this.patches = patches;
+    }
+
+    /**
+     * Returns the list with the element at each index of patches replaced.
+     * The list itself is left untouched.
+     * @param list
+     * @param patches
+     * @param <E>
+     * @return
+     */
+    public static <E> List<E> of(List<E> list, Map<Integer, E> patches) {
+        List<E> base = list;
+        Map<Integer, E> merged = new HashMap<>();
+        if (list instanceof PatchedList) {
+            PatchedList<E> patched = (PatchedList<E>) list;
+            base = patched.base;
+            merged.putAll(patched.patches);
+            patched.owned = false;
+        }
+        for (Map.Entry<Integer, E> patch : patches.entrySet()) {
+            if (patch.getKey() < 0 || patch.getKey() >= base.size()) {
+                throw new IndexOutOfBoundsException("Index: " + patch.getKey() + ", Size: " + base.size());
+            }
+            merged.put(patch.getKey(), patch.getValue());
+        }
+
+        if (merged.size() * MAX_PATCH_RATIO > base.size()) {
+            List<E> copy = new ArrayList<>(base);
+            merged.forEach(copy::set);
+            return copy;
+        }
+        return new PatchedList<>(base, merged);
+    }
+
+    @Override
+    public E get(int index) {
+        if (patches.containsKey(index)) {
+            return patches.get(index);
+        }
+        return base.get(index);
+    }
+
+    @Override
+    public int size() {
+        return base.size();
+    }
+
+    private List<E> own() {
+        if (!owned) {
+            List<E> copy = new ArrayList<>(base);
+            patches.forEach(copy::set);
+            base = copy;
+            patches = new HashMap<>();
+            owned = true;
+        }
+        return base;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        if (owned) {
+            return base.set(index, element);
+        }
+        E previous = base.get(index);
+        if (patches.containsKey(index)) {
+            previous = patches.get(index);
+        }
+        patches.put(index, element);
+        if (patches.size() * MAX_PATCH_RATIO > base.size()) {
+            own();
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        own().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = own().remove(index);
+        modCount++;
+        return removed;
+    }
+}
@@ -0,0 +1,118 @@
+package org.omegabyte.gaboom.utils;
+
+import java.util.Random;
+
+/**
+ * SplitMixRandom is a SplitMix64 generator behind the java.util.Random API,
+ * so MutateFn, CrossoverFn and PopulateFn code written against Random keeps
+ * working.  Unlike Random it holds a plain long instead of an AtomicLong
+ * updated with compare-and-set, and it is not thread safe: every element
+ * builds its own generator from its seed.
+ *
+ * Independent streams are derived from a seed and a path of keys such as
+ * (generation, population, index) with split.  A stream only depends on its
+ * seed and its keys, never on how many values were drawn elsewhere, so the
+ * results do not depend on how the work is split across workers.
+ */
+public class SplitMixRandom extends Random {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+    private long state;
+    // false while Random calls setSeed from its constructor
+    private boolean constructed;
+
+    public SplitMixRandom(long seed) {
+        super(seed);
+        constructed = true;
+    }
+
+    /**
+     * Returns the seed of the stream identified by the keys under seed.
+     * @param seed
+     * @param keys
+     * @return
+     */
+    public static long split(long seed, long... keys) {
+        long s = mix64(seed);
+        for (long key : keys) {
+            s = mix64(s + GOLDEN_GAMMA * (key + 1));
+        }
+        return s;
+    }
+
+    /**
+     * Returns a generator for the stream identified by the keys under seed.
+     * @param seed
+     * @param keys
+     * @return
+     */
+    public static SplitMixRandom of(long seed, long... keys) {
+        return new SplitMixRandom(split(seed, keys));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        if (constructed) {
+            // resets the cached gaussian of Random
+            super.setSeed(seed);
+        }
+        this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // Lemire's multiply and reject, unbiased
+        long m = (nextLong() >>> 32) * bound;
+        long l = m & 0xffffffffL;
+        if (l < bound) {
+            long t = (0x100000000L - bound) % bound;
+            while (l < t) {
+                m = (nextLong() >>> 32) * bound;
+                l = m & 0xffffffffL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * FLOAT_UNIT;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Date;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 public class BaseItemTest {
 
@@ -34,4 +35,16 @@ public class BaseItemTest {
         expected.setSeed(0);
         assertEquals(expected.nextLong(), baseItem.getRandomGenerator().nextLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    // It should derive independent streams from the seed without drawing from it
+    public void testGetRandomGeneratorStream() {
+        BaseItem baseItem = new BaseItem(0);
+        long first = baseItem.getRandomGenerator().nextLong();
+        long stream = baseItem.getRandomGenerator(1, 2, 3).nextLong();
+        assertEquals(stream, new BaseItem(0).getRandomGenerator(1, 2, 3).nextLong());
+        assertNotEquals(stream, baseItem.getRandomGenerator(1, 2, 4).nextLong());
+        assertNotEquals(stream, baseItem.getRandomGenerator(1, 3, 2).nextLong());
+        assertEquals(first, baseItem.getRandomGenerator().nextLong());
+    }
+}
@@ -1,11 +1,15 @@
 package org.omegabyte.gaboom;
 
 import org.junit.Test;
+import org.omegabyte.gaboom.utils.IdGenerator;
 
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class IndividualTest {
 
@@ -24,7 +28,8 @@ public class IndividualTest {
         Random r = new Random();
         r.setSeed(0);
         Individual<String> individual = new Individual<>(r, "test");
-        assertEquals("22Pbd7", individual.getId());
+        assertEquals(IdGenerator.toString(IdGenerator.nextId(new Random(0))), individual.getId());
+        assertEquals(IdGenerator.ID_LENGTH, individual.getId().length());
         assertEquals("test", individual.getGenome());
         assertNull(individual.getFitness());
     }
@@ -36,4 +41,63 @@ public class IndividualTest {
         individual.setFitness(12.4);
         assertEquals(12.4, individual.getFitness().doubleValue(), 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    //@DisplayName("It should derive a mutant from its parent")
+    public void testMutant() {
+        Random r = new Random(0);
+        Individual<String> individual = new Individual<>(r, "test");
+        Individual<String> mutant = individual.mutant(r).withGenome("tost");
+        assertTrue(mutant.isMutant());
+        assertFalse(individual.isMutant());
+        assertNotEquals(individual.getId(), mutant.getId());
+        assertEquals(IdGenerator.ID_LENGTH, mutant.getId().length());
+        assertEquals(individual.getNumericId(), mutant.getLineageId());
+        assertEquals(individual.getNumericId(), individual.getLineageId());
+        assertEquals("tost", mutant.getGenome());
+        assertNull(mutant.getFitness());
+
+        Individual<String> mutantOfMutant = mutant.mutant(r);
+        assertTrue(mutantOfMutant.isMutant());
+        assertEquals(IdGenerator.ID_LENGTH, mutantOfMutant.getId().length());
+        assertEquals(mutant.getNumericId(), mutantOfMutant.getLineageId());
+        assertEquals(mutant.getNumericId(), mutantOfMutant.withFitness(1.0).getLineageId());
+    }
+
+    @Test
+    //@DisplayName("It should keep an id that is not compact")
+    public void testMutantNotCompact() {
+        Individual<String> individual = new Individual<>("testIndividual", "test");
+        Individual<String> mutant = individual.mutant(new Random(0));
+        assertTrue(IdGenerator.isCompact(mutant.getNumericId()));
+        assertTrue(mutant.isMutant());
+        assertEquals(individual.getNumericId(), mutant.getLineageId());
+    }
+
+    @Test
+    //@DisplayName("It should copy the individual with a fitness")
+    public void testWithFitness() {
+        Individual<String> individual = new Individual<>(new Random(0), "test");
+        Individual<String> evaluated = individual.withFitness(1.5);
+        assertNull(individual.getFitness());
+        assertEquals(1.5, evaluated.getFitness(), 0);
+        assertEquals(individual.getNumericId(), evaluated.getNumericId());
+    }
+
+    @Test
+    //@DisplayName("It should materialize a lazy genome once, when it is first read")
+    public void testWithLazyGenome() {
+        int[] calls = {0};
+        Individual<String> individual = new Individual<>(new Random(0), (String) null).withFitness(2.0).withLazyGenome(() -> {
+            calls[0]++;
+            return "lazy";
+        });
+        Individual<String> evaluated = individual.withFitness(3.0);
+        assertEquals(0, calls[0]);
+        assertEquals("lazy", evaluated.getGenome());
+        assertEquals("lazy", individual.getGenome());
+        assertEquals("lazy", individual.getGenome());
+        assertEquals(2, calls[0]);
+        assertEquals(2.0, individual.getFitness(), 0);
+    }
+}
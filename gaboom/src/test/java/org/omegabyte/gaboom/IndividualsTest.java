@@ -3,9 +3,11 @@ package org.omegabyte.gaboom;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class IndividualsTest {
 
@@ -26,4 +28,22 @@ public class IndividualsTest {
         Individuals<Integer> individuals = new Individuals<>(0);
         assertEquals(0, individuals.getIndividuals().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    //@DisplayName("It should replace individuals without changing the original list")
+    public void testWithReplaced() {
+        List<Individual<Integer>> individualList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            individualList.add(new Individual<>("p" + i, i));
+        }
+        Individuals<Integer> individuals = new Individuals<>(0, individualList);
+        Individual<Integer> replacement = new Individual<>("r", 10);
+
+        Individuals<Integer> replaced = individuals.withReplaced(5, Arrays.asList(3), Arrays.asList(replacement));
+        assertEquals(5, replaced.getSeed());
+        assertEquals(10, replaced.getIndividuals().size());
+        assertSame(replacement, replaced.getIndividuals().get(3));
+        assertSame(individualList.get(4), replaced.getIndividuals().get(4));
+        assertEquals("p3", individualList.get(3).getId());
+    }
+}
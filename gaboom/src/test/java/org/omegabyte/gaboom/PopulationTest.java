@@ -22,27 +22,23 @@ public class PopulationTest {
     }
 
     @Test
-    //@DisplayName("It should update the population with the new individuals")
-    public void update() {
+    //@DisplayName("It should return the next generation without changing the population")
+    public void next() {
         List<Individual<Integer>> individualList = new ArrayList<>();
         individualList.add(new Individual<>("p1", 1));
-        individualList.add(new Individual<>("p1", 2));
-        Individuals<Integer> individuals = new Individuals<>(10, individualList);
-
-        Population<Integer> population = new Population<>("test");
-        population.update(individuals);
-        assert population.getSeed() == 10;
-        assert population.getIndividuals() == individuals.getIndividuals();
-        assert population.getGenerations() == 0;
-
-        individualList = new ArrayList<>();
-        individualList.add(new Individual<>("p3", 3));
-        individualList.add(new Individual<>("p4", 4));
-        individuals = new Individuals<>(20, individualList);
-
-        population.update(individuals);
-        assert population.getSeed() == 20;
-        assert population.getIndividuals() == individuals.getIndividuals();
-        assert population.getGenerations() == 1;
+        Population<Integer> population = new Population<>("test", 5, 2, 10, individualList);
+
+        List<Individual<Integer>> nextList = new ArrayList<>();
+        nextList.add(new Individual<>("p2", 2));
+        Population<Integer> next = population.next(new Individuals<>(20, nextList));
+        assertEquals("test", next.getId());
+        assertEquals(5, next.getCreated());
+        assertEquals(3, next.getGenerations());
+        assertEquals(20, next.getSeed());
+        assert next.getIndividuals() == nextList;
+
+        assertEquals(2, population.getGenerations());
+        assertEquals(10, population.getSeed());
+        assert population.getIndividuals() == individualList;
     }
-}
\ No newline at end of file
+}
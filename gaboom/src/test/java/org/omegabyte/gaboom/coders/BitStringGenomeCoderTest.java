@@ -0,0 +1,17 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitStringGenomeCoderTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        BitStringGenome genome = BitStringGenome.wrap(new long[]{0x123456789L, 5L}, 70);
+        assertEquals(genome, CoderUtils.clone(BitStringGenomeCoder.of(), genome));
+        assertEquals(1 + 2 * 8, CoderUtils.encodeToByteArray(BitStringGenomeCoder.of(), genome).length);
+    }
+}
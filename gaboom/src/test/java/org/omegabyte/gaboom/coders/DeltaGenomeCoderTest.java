@@ -0,0 +1,68 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.util.SerializableUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DeltaGenomeCoderTest {
+
+    private static <GenomeT extends Serializable> int checkDelta(DeltaGenomeCoder<GenomeT> coder, GenomeT base, GenomeT value) throws Exception {
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        coder.encodeDelta(base, value, outStream);
+        assertEquals(value, coder.decodeDelta(base, new ByteArrayInputStream(outStream.toByteArray())));
+        assertEquals(value, CoderUtils.clone(coder, value));
+        return outStream.size();
+    }
+
+    @Test
+    // It should encode the changed words of a bit string
+    public void testBitString() throws Exception {
+        long[] words = new long[8];
+        BitStringGenome base = BitStringGenome.wrap(words.clone(), 500);
+        words[3] = 1L << 7;
+        words[6] = -1L;
+        BitStringGenome value = BitStringGenome.wrap(words, 500);
+        DeltaGenomeCoder<BitStringGenome> coder = DeltaGenomeCoder.bitString();
+        assertEquals(1 + 2 * 9, checkDelta(coder, base, value));
+        assertTrue(coder.deltaSize(base, value) < coder.fullSize(value));
+        assertEquals(Long.MAX_VALUE, coder.deltaSize(BitStringGenome.wrap(new long[8], 499), value));
+    }
+
+    @Test
+    // It should encode the changed values of a double vector
+    public void testDoubleVector() throws Exception {
+        DoubleVectorGenome base = DoubleVectorGenome.of(1, 2, 3, 4, 5, 6, 7, 8);
+        DoubleVectorGenome value = DoubleVectorGenome.of(1, 2, 3, -4, 5, 6, 7, Double.NaN);
+        DeltaGenomeCoder<DoubleVectorGenome> coder = DeltaGenomeCoder.doubleVector();
+        assertEquals(1 + 2 * 9, checkDelta(coder, base, value));
+        assertEquals(1, checkDelta(coder, base, base));
+    }
+
+    @Test
+    // It should encode the moved elements of a permutation
+    public void testPermutation() throws Exception {
+        PermutationGenome base = PermutationGenome.identity(100);
+        PermutationGenome value = base.swap(10, 90);
+        DeltaGenomeCoder<PermutationGenome> coder = DeltaGenomeCoder.permutation();
+        assertEquals(1 + 2 * 2, checkDelta(coder, base, value));
+        assertTrue(coder.deltaSize(base, value) < coder.fullSize(value));
+    }
+
+    @Test
+    // It should keep the coders singletons
+    public void testSerializable() {
+        assertSame(DeltaGenomeCoder.bitString(), SerializableUtils.clone(DeltaGenomeCoder.bitString()));
+        assertEquals(DeltaGenomeCoder.permutation(), SerializableUtils.clone(DeltaGenomeCoder.permutation()));
+    }
+}
@@ -0,0 +1,17 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+
+import static org.junit.Assert.assertEquals;
+
+public class DoubleVectorGenomeCoderTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DoubleVectorGenome genome = DoubleVectorGenome.of(1.5, -2, Double.NaN, 0);
+        assertEquals(genome, CoderUtils.clone(DoubleVectorGenomeCoder.of(), genome));
+        assertEquals(1 + 4 * 8, CoderUtils.encodeToByteArray(DoubleVectorGenomeCoder.of(), genome).length);
+    }
+}
@@ -0,0 +1,48 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.CoderRegistry;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.values.TypeDescriptor;
+import org.junit.Test;
+import org.omegabyte.gaboom.*;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+import org.omegabyte.gaboom.genome.StoredGenome;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GaboomCoderProviderTest {
+    private final CoderRegistry registry = CoderRegistry.createDefault();
+
+    @Test
+    public void testBaseItems() throws Exception {
+        assertEquals(BaseItemCoder.of(), registry.getCoder(BaseItem.class));
+        assertEquals(NBaseItemCoder.of(), registry.getCoder(NBaseItem.class));
+    }
+
+    @Test
+    public void testGenomes() throws Exception {
+        assertEquals(DoubleVectorGenomeCoder.of(), registry.getCoder(DoubleVectorGenome.class));
+        assertEquals(BitStringGenomeCoder.of(), registry.getCoder(BitStringGenome.class));
+        assertEquals(PermutationGenomeCoder.of(), registry.getCoder(PermutationGenome.class));
+        assertEquals(StoredGenomeCoder.of(), registry.getCoder(StoredGenome.class));
+        assertEquals(IndividualsCoder.of(PermutationGenomeCoder.of()), registry.getCoder(new TypeDescriptor<Individuals<PermutationGenome>>() {}));
+    }
+
+    @Test
+    public void testGenomeTypes() throws Exception {
+        assertEquals(IndividualCoder.of(StringUtf8Coder.of()), registry.getCoder(new TypeDescriptor<Individual<String>>() {}));
+        assertEquals(IndividualsCoder.of(StringUtf8Coder.of()), registry.getCoder(new TypeDescriptor<Individuals<String>>() {}));
+        assertEquals(SelectIndividualsCoder.of(StringUtf8Coder.of()), registry.getCoder(new TypeDescriptor<SelectIndividuals<String>>() {}));
+        assertEquals(CrossoverIndividualsCoder.of(StringUtf8Coder.of()), registry.getCoder(new TypeDescriptor<CrossoverIndividuals<String>>() {}));
+        assertEquals(PopulationCoder.of(StringUtf8Coder.of()), registry.getCoder(new TypeDescriptor<Population<String>>() {}));
+    }
+
+    @Test
+    public void testUnknownGenomeFallsBack() throws Exception {
+        assertTrue(registry.getCoder(Individuals.class) instanceof SerializableCoder);
+    }
+}
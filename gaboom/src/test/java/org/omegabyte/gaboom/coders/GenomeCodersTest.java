@@ -0,0 +1,22 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GenomeCodersTest {
+
+    @Test
+    public void testOf() {
+        assertEquals(VarIntCoder.of(), GenomeCoders.of(IndividualCoder.of(VarIntCoder.of())));
+        assertEquals(VarIntCoder.of(), GenomeCoders.of(KvCoder.of(StringUtf8Coder.of(), IndividualsCoder.of(VarIntCoder.of()))));
+        assertEquals(VarIntCoder.of(), GenomeCoders.of(ListCoder.of(IndividualCoder.of(VarIntCoder.of()))));
+        assertEquals(VarIntCoder.of(), GenomeCoders.of(PopulationCoder.of(VarIntCoder.of())));
+        assertNull(GenomeCoders.of(StringUtf8Coder.of()));
+    }
+}
@@ -0,0 +1,67 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IndividualCoderTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        IndividualCoder<String> coder = IndividualCoder.of(StringUtf8Coder.of());
+        Individual<String> individual = new Individual<>("abc123", "genome");
+        individual.setFitness(1.5);
+
+        Individual<String> result = CoderUtils.clone(coder, individual);
+        assertEquals("abc123", result.getId());
+        assertEquals("genome", result.getGenome());
+        assertEquals(1.5, result.getFitness(), 0);
+    }
+
+    @Test
+    public void testRoundTripNulls() throws Exception {
+        IndividualCoder<String> coder = IndividualCoder.of(StringUtf8Coder.of());
+        Individual<String> result = CoderUtils.clone(coder, new Individual<>("abc123", null));
+        assertEquals("abc123", result.getId());
+        assertNull(result.getGenome());
+        assertNull(result.getFitness());
+    }
+
+    @Test
+    public void testRoundTripNotCompact() throws Exception {
+        IndividualCoder<String> coder = IndividualCoder.of(StringUtf8Coder.of());
+        Individual<String> individual = new Individual<>("testIndividual.abc", "genome");
+        Individual<String> result = CoderUtils.clone(coder, individual);
+        assertEquals("testIndividual.abc", result.getId());
+        assertEquals(individual.getNumericId(), result.getNumericId());
+        assertFalse(result.isMutant());
+    }
+
+    @Test
+    public void testRoundTripMutant() throws Exception {
+        IndividualCoder<String> coder = IndividualCoder.of(StringUtf8Coder.of());
+        Individual<String> individual = new Individual<>(new Random(0), "genome");
+        Individual<String> mutant = individual.mutant(new Random(1)).mutant(new Random(2));
+        Individual<String> result = CoderUtils.clone(coder, mutant);
+        assertEquals(mutant.getId(), result.getId());
+        assertTrue(result.isMutant());
+        assertEquals(mutant.getLineageId(), result.getLineageId());
+        assertFalse(CoderUtils.clone(coder, individual).isMutant());
+    }
+
+    @Test
+    public void testSmallerThanSerializable() throws Exception {
+        Individual<String> individual = new Individual<>("abc123", "genome");
+        individual.setFitness(1.5);
+
+        byte[] encoded = CoderUtils.encodeToByteArray(IndividualCoder.of(StringUtf8Coder.of()), individual);
+        byte[] serialized = CoderUtils.encodeToByteArray(SerializableCoder.of(Individual.class), individual);
+        assertTrue(encoded.length < serialized.length);
+    }
+}
@@ -0,0 +1,135 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.CrossoverIndividuals;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IndividualListCoderTest {
+
+    private static <GenomeT extends Serializable> void checkIndividuals(List<Individual<GenomeT>> expected, List<Individual<GenomeT>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getFitness(), actual.get(i).getFitness());
+            assertEquals(expected.get(i).getGenome(), actual.get(i).getGenome());
+        }
+    }
+
+    private static List<Individual<PermutationGenome>> makeGeneration(Random random) {
+        List<Individual<PermutationGenome>> individuals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Individual<PermutationGenome> individual = new Individual<>(random, PermutationGenome.identity(200).reverse(i, 100 + i));
+            individual.setFitness(random.nextDouble());
+            individuals.add(individual);
+        }
+        for (int i = 0; i < 10; i++) {
+            Individual<PermutationGenome> parent = individuals.get(random.nextInt(5));
+            Individual<PermutationGenome> mutant = parent.mutant(random);
+            individuals.add(mutant.withGenome(parent.getGenome().swap(random.nextInt(200), random.nextInt(200))));
+        }
+        individuals.add(new Individual<>("unnamed.mutant", null));
+        return individuals;
+    }
+
+    @Test
+    // It should encode the lists like a ListCoder without a DeltaGenomeCoder
+    public void testListCoder() throws Exception {
+        Random random = new Random(42);
+        List<Individual<Integer>> individuals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            individuals.add(new Individual<>(random, random.nextInt()));
+        }
+        assertArrayEquals(CoderUtils.encodeToByteArray(ListCoder.of(IndividualCoder.of(VarIntCoder.of())), individuals),
+                CoderUtils.encodeToByteArray(IndividualListCoder.of(VarIntCoder.of()), individuals));
+    }
+
+    @Test
+    // It should encode the mutants as deltas from their parents
+    public void testDelta() throws Exception {
+        List<Individual<PermutationGenome>> individuals = makeGeneration(new Random(42));
+        List<Individual<PermutationGenome>> result = CoderUtils.clone(IndividualListCoder.of(DeltaGenomeCoder.permutation()), individuals);
+        checkIndividuals(individuals, result);
+
+        int full = CoderUtils.encodeToByteArray(IndividualListCoder.of(PermutationGenomeCoder.of()), individuals).length;
+        int delta = CoderUtils.encodeToByteArray(IndividualListCoder.of(DeltaGenomeCoder.permutation()), individuals).length;
+        assertTrue(delta * 2 < full);
+    }
+
+    @Test
+    // It should bound the chains of deltas, so the last genome of a long chain decodes
+    public void testDeltaChain() throws Exception {
+        Random random = new Random(11);
+        List<Individual<PermutationGenome>> individuals = new ArrayList<>();
+        individuals.add(new Individual<>(random, PermutationGenome.identity(200)));
+        for (int i = 1; i < 10000; i++) {
+            Individual<PermutationGenome> previous = individuals.get(i - 1);
+            individuals.add(previous.mutant(random).withGenome(previous.getGenome().swap(random.nextInt(200), random.nextInt(200))));
+        }
+        List<Individual<PermutationGenome>> result = CoderUtils.clone(IndividualListCoder.of(DeltaGenomeCoder.permutation()), individuals);
+        assertEquals(individuals.get(9999).getGenome(), result.get(9999).getGenome());
+        checkIndividuals(individuals, result);
+
+        int full = CoderUtils.encodeToByteArray(IndividualListCoder.of(PermutationGenomeCoder.of()), individuals).length;
+        int delta = CoderUtils.encodeToByteArray(IndividualListCoder.of(DeltaGenomeCoder.permutation()), individuals).length;
+        assertTrue(delta * 2 < full);
+    }
+
+    @Test
+    // It should be used by the coders of the individuals
+    public void testIndividualsCoder() throws Exception {
+        Individuals<PermutationGenome> individuals = new Individuals<>(7, makeGeneration(new Random(7)));
+        Individuals<PermutationGenome> result = CoderUtils.clone(IndividualsCoder.of(DeltaGenomeCoder.permutation()), individuals);
+        assertEquals(7, result.getSeed());
+        checkIndividuals(individuals.getIndividuals(), result.getIndividuals());
+        assertEquals(DeltaGenomeCoder.permutation(), GenomeCoders.of(IndividualsCoder.of(DeltaGenomeCoder.permutation())));
+    }
+
+    @Test
+    // It should encode a mutant as a delta from a sibling when its parent is not in the list
+    public void testSiblings() throws Exception {
+        Random random = new Random(3);
+        Individual<PermutationGenome> parent = new Individual<>(random, PermutationGenome.identity(200).reverse(0, 150));
+        List<Individual<PermutationGenome>> individuals = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            individuals.add(parent.mutant(random).withGenome(parent.getGenome().swap(random.nextInt(200), random.nextInt(200))));
+        }
+        List<Individual<PermutationGenome>> result = CoderUtils.clone(IndividualListCoder.of(DeltaGenomeCoder.permutation()), individuals);
+        checkIndividuals(individuals, result);
+        assertEquals(parent.getNumericId(), result.get(3).getLineageId());
+
+        int full = CoderUtils.encodeToByteArray(IndividualListCoder.of(PermutationGenomeCoder.of()), individuals).length;
+        int delta = CoderUtils.encodeToByteArray(IndividualListCoder.of(DeltaGenomeCoder.permutation()), individuals).length;
+        assertTrue(delta * 2 < full);
+    }
+
+    @Test
+    // It should encode the second parent of a crossover as a delta from the first one
+    public void testCrossoverParents() throws Exception {
+        Random random = new Random(5);
+        Individual<PermutationGenome> p1 = new Individual<>(random, PermutationGenome.identity(200).reverse(10, 160));
+        Individual<PermutationGenome> p2 = new Individual<>(random, p1.getGenome().swap(3, 7));
+        CrossoverIndividuals<PermutationGenome> parents = new CrossoverIndividuals<>(11, p1, p2);
+        CrossoverIndividuals<PermutationGenome> result = CoderUtils.clone(CrossoverIndividualsCoder.of(DeltaGenomeCoder.permutation()), parents);
+        assertEquals(11, result.getSeed());
+        checkIndividuals(Arrays.asList(p1, p2), Arrays.asList(result.getP1(), result.getP2()));
+
+        int full = CoderUtils.encodeToByteArray(CrossoverIndividualsCoder.of(PermutationGenomeCoder.of()), parents).length;
+        int delta = CoderUtils.encodeToByteArray(CrossoverIndividualsCoder.of(DeltaGenomeCoder.permutation()), parents).length;
+        assertTrue(delta * 3 < full * 2);
+    }
+}
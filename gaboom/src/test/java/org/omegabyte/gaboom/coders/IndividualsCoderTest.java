@@ -0,0 +1,36 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndividualsCoderTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Random random = new Random(42);
+        Individuals<Integer> individuals = new Individuals<>(random.nextLong());
+        for (int i = 0; i < 5; i++) {
+            Individual<Integer> individual = new Individual<>(random, random.nextInt());
+            individual.setFitness(random.nextDouble());
+            individuals.getIndividuals().add(individual);
+        }
+
+        Individuals<Integer> result = CoderUtils.clone(IndividualsCoder.of(VarIntCoder.of()), individuals);
+        assertEquals(individuals.getSeed(), result.getSeed());
+        assertEquals(individuals.getIndividuals().size(), result.getIndividuals().size());
+        for (int i = 0; i < 5; i++) {
+            Individual<Integer> expected = individuals.getIndividuals().get(i);
+            Individual<Integer> actual = result.getIndividuals().get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getGenome(), actual.getGenome());
+            assertEquals(expected.getFitness(), actual.getFitness());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import static org.junit.Assert.assertEquals;
+
+public class PermutationGenomeCoderTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        PermutationGenome genome = PermutationGenome.of(3, 0, 4, 1, 2);
+        assertEquals(genome, CoderUtils.clone(PermutationGenomeCoder.of(), genome));
+        assertEquals(6, CoderUtils.encodeToByteArray(PermutationGenomeCoder.of(), genome).length);
+    }
+}
@@ -0,0 +1,30 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.Population;
+
+import static org.junit.Assert.assertEquals;
+
+public class PopulationCoderTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Population<String> population = new Population<>("pop");
+        Individuals<String> individuals = new Individuals<>(7);
+        individuals.getIndividuals().add(new Individual<>("abc123", "genome"));
+        population = population.next(individuals);
+
+        Population<String> result = CoderUtils.clone(PopulationCoder.of(StringUtf8Coder.of()), population);
+        assertEquals(population.getId(), result.getId());
+        assertEquals(population.getCreated(), result.getCreated());
+        assertEquals(population.getGenerations(), result.getGenerations());
+        assertEquals(population.getSeed(), result.getSeed());
+        assertEquals(population.isNew(), result.isNew());
+        assertEquals(1, result.getIndividuals().size());
+        assertEquals("genome", result.getIndividuals().get(0).getGenome());
+    }
+}
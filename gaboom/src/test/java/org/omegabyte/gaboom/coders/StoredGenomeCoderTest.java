@@ -0,0 +1,124 @@
+package org.omegabyte.gaboom.coders;
+
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.util.SerializableUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.genome.GenomeStore;
+import org.omegabyte.gaboom.genome.StoredGenome;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StoredGenomeCoderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static StoredGenome makeGenome(GenomeStore store, Random random, int size) throws Exception {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return store.put(bytes);
+    }
+
+    @Test
+    // It should ship the bytes of the genomes
+    public void testRoundTrip() throws Exception {
+        GenomeStore store = GenomeStore.direct("testRoundTrip");
+        StoredGenome genome = makeGenome(store, new Random(42), 100000);
+        byte[] encoded = CoderUtils.encodeToByteArray(StoredGenomeCoder.of(), genome);
+        StoredGenome result = CoderUtils.decodeFromByteArray(StoredGenomeCoder.of(), encoded);
+        assertEquals(genome, result);
+        assertFalse(genome.getHandle() == result.getHandle());
+        assertEquals("testRoundTrip", result.getStoreName());
+        assertTrue(encoded.length > 100000);
+    }
+
+    @Test
+    // It should ship the handles of the genomes within the worker
+    public void testHandles() throws Exception {
+        Coder<StoredGenome> coder = StoredGenomeCoder.of().withHandles();
+        GenomeStore store = GenomeStore.direct("testHandles");
+        StoredGenome genome = makeGenome(store, new Random(42), 100000);
+        byte[] encoded = CoderUtils.encodeToByteArray(coder, genome);
+        StoredGenome result = CoderUtils.decodeFromByteArray(coder, encoded);
+        assertEquals(genome.getHandle(), result.getHandle());
+        assertArrayEquals(genome.toByteArray(), result.toByteArray());
+        assertTrue(encoded.length < 32);
+        assertSame(coder, SerializableUtils.clone(coder));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    // It should refuse the handles of another worker
+    public void testHandlesOfAnotherWorker() throws Exception {
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        StringUtf8Coder.of().encode("testHandlesOfAnotherWorker", outStream);
+        new DataOutputStream(outStream).writeLong(GenomeStore.WORKER_ID + 1);
+        outStream.write(0);
+        CoderUtils.decodeFromByteArray(StoredGenomeCoder.of().withHandles(), outStream.toByteArray());
+    }
+
+    @Test
+    // It should keep the individuals small on the wire with handles
+    public void testIndividuals() throws Exception {
+        Random random = new Random(42);
+        GenomeStore store = GenomeStore.direct("testIndividuals");
+        Individuals<StoredGenome> individuals = new Individuals<>(random.nextLong());
+        for (int i = 0; i < 5; i++) {
+            individuals.getIndividuals().add(new Individual<>(random, makeGenome(store, random, 10000)));
+        }
+
+        Individuals<StoredGenome> result = CoderUtils.clone(IndividualsCoder.of(StoredGenomeCoder.of()), individuals);
+        assertEquals(individuals.getIndividuals().get(3).getGenome(), result.getIndividuals().get(3).getGenome());
+        assertTrue(CoderUtils.encodeToByteArray(IndividualsCoder.of(StoredGenomeCoder.of().withHandles()), individuals).length < 200);
+    }
+
+    @Test
+    // It should decode the genomes into the store the worker has
+    public void testWorkerStore() throws Exception {
+        GenomeStore store = GenomeStore.mapped("testWorkerStore", folder.getRoot());
+        StoredGenome genome = makeGenome(store, new Random(42), 1000);
+        StoredGenome result = CoderUtils.clone(StoredGenomeCoder.of(), genome);
+        assertEquals(genome, result);
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    // It should decode the genomes into a store of mapped files of the directory
+    public void testWithDirectory() throws Exception {
+        StoredGenomeCoder coder = StoredGenomeCoder.of().withDirectory(folder.getRoot());
+        assertEquals(coder, SerializableUtils.clone(coder));
+        assertEquals(folder.getRoot(), coder.withHandles().getDirectory());
+        assertEquals(coder.withHandles(), StoredGenomeCoder.of().withHandles().withDirectory(folder.getRoot()));
+        assertFalse(coder.equals(StoredGenomeCoder.of()));
+
+        byte[] bytes = new byte[1000];
+        new Random(42).nextBytes(bytes);
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        StringUtf8Coder.of().encode("testWithDirectory", outStream);
+        VarIntCoder.of().encode(bytes.length, outStream);
+        outStream.write(bytes);
+        StoredGenome result = CoderUtils.decodeFromByteArray(coder, outStream.toByteArray());
+        assertArrayEquals(bytes, result.toByteArray());
+        assertTrue(GenomeStore.lookup("testWithDirectory").isMapped());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    // It should not decode into a store of direct buffers with a directory
+    public void testWithDirectoryOfDirectStore() throws Exception {
+        StoredGenome genome = makeGenome(GenomeStore.direct("testWithDirectoryOfDirectStore"), new Random(42), 1000);
+        CoderUtils.clone(StoredGenomeCoder.of().withDirectory(folder.getRoot()), genome);
+    }
+}
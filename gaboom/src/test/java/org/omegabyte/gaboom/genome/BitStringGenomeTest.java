@@ -0,0 +1,54 @@
+package org.omegabyte.gaboom.genome;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BitStringGenomeTest {
+
+    @Test
+    public void testOf() {
+        BitStringGenome genome = BitStringGenome.of(true, false, true);
+        assertEquals(3, genome.size());
+        assertTrue(genome.get(0));
+        assertFalse(genome.get(1));
+        assertEquals(2, genome.cardinality());
+        assertEquals("101", genome.toString());
+    }
+
+    @Test
+    public void testWrapClearsTail() {
+        BitStringGenome genome = BitStringGenome.wrap(new long[]{-1L, -1L}, 70);
+        assertEquals(70, genome.cardinality());
+        assertEquals(BitStringGenome.wrap(new long[]{-1L, 63L}, 70), genome);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrapInvalidLength() {
+        BitStringGenome.wrap(new long[1], 65);
+    }
+
+    @Test
+    public void testOnePoint() {
+        BitStringGenome ones = BitStringGenome.wrap(new long[]{-1L, -1L}, 100);
+        BitStringGenome zeros = BitStringGenome.wrap(new long[2], 100);
+        for (int point : new int[]{1, 63, 64, 65, 99}) {
+            BitStringGenome result = ones.onePoint(zeros, point);
+            assertEquals(point, result.cardinality());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i < point, result.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testUniform() {
+        BitStringGenome ones = BitStringGenome.wrap(new long[]{-1L, -1L}, 100);
+        BitStringGenome zeros = BitStringGenome.wrap(new long[2], 100);
+        BitStringGenome result = ones.uniform(zeros, new Random(0));
+        assertTrue(result.cardinality() > 0);
+        assertTrue(result.cardinality() < 100);
+    }
+}
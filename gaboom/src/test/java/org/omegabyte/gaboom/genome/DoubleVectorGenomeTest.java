@@ -0,0 +1,39 @@
+package org.omegabyte.gaboom.genome;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleVectorGenomeTest {
+
+    @Test
+    public void testOf() {
+        double[] values = {1, 2, 3};
+        DoubleVectorGenome genome = DoubleVectorGenome.of(values);
+        values[0] = 5;
+        assertEquals(3, genome.size());
+        assertEquals(1, genome.get(0), 0);
+        assertEquals(DoubleVectorGenome.of(1, 2, 3), genome);
+        assertEquals(DoubleVectorGenome.of(1, 2, 3).hashCode(), genome.hashCode());
+    }
+
+    @Test
+    public void testOnePoint() {
+        DoubleVectorGenome p1 = DoubleVectorGenome.of(1, 2, 3, 4);
+        DoubleVectorGenome p2 = DoubleVectorGenome.of(5, 6, 7, 8);
+        assertEquals(DoubleVectorGenome.of(1, 2, 7, 8), p1.onePoint(p2, 2));
+        assertEquals(DoubleVectorGenome.of(1, 2, 3, 4), p1);
+    }
+
+    @Test
+    public void testUniform() {
+        DoubleVectorGenome p1 = DoubleVectorGenome.of(1, 2, 3, 4);
+        DoubleVectorGenome p2 = DoubleVectorGenome.of(5, 6, 7, 8);
+        DoubleVectorGenome result = p1.uniform(p2, new Random(0));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(result.get(i) == p1.get(i) || result.get(i) == p2.get(i));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.omegabyte.gaboom.genome;
+
+import org.apache.beam.sdk.util.SerializableUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GenomeStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] makeBytes(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return bytes;
+    }
+
+    @Test
+    // It should keep the genomes in direct buffers
+    public void testDirect() throws Exception {
+        GenomeStore store = GenomeStore.direct("testDirect");
+        assertSame(store, GenomeStore.direct("testDirect"));
+        assertFalse(store.isMapped());
+
+        byte[] bytes = makeBytes(1000);
+        StoredGenome genome = store.put(bytes);
+        assertEquals(1000, genome.size());
+        assertTrue(genome.asByteBuffer().isDirect());
+        assertTrue(genome.asByteBuffer().isReadOnly());
+        assertArrayEquals(bytes, genome.toByteArray());
+        assertEquals(1, store.size());
+        assertEquals(1000, store.getBytes());
+
+        // the genomes of equal bytes are equal
+        StoredGenome copy = store.read(new ByteArrayInputStream(bytes), 1000);
+        assertEquals(genome, copy);
+        assertEquals(genome.hashCode(), copy.hashCode());
+        assertFalse(genome.getHandle() == copy.getHandle());
+        assertEquals(genome, store.resolve(genome.getHandle()));
+    }
+
+    @Test
+    // It should keep the genomes in files mapped from the directory
+    public void testMapped() throws Exception {
+        GenomeStore store = GenomeStore.mapped("testMapped", folder.getRoot());
+        assertTrue(store.isMapped());
+
+        byte[] bytes = makeBytes(1 << 17);
+        StoredGenome genome = store.put(ByteBuffer.wrap(bytes));
+        assertArrayEquals(bytes, genome.toByteArray());
+        // the files are deleted once they are mapped
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    // It should not return a store of another kind than the one asked for
+    public void testMappedOfDirectStore() throws Exception {
+        GenomeStore.direct("testMappedOfDirectStore");
+        GenomeStore.mapped("testMappedOfDirectStore", folder.getRoot());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    // It should not return a store of files mapped from another directory
+    public void testMappedOfAnotherDirectory() throws Exception {
+        GenomeStore.mapped("testMappedOfAnotherDirectory", folder.getRoot());
+        GenomeStore.mapped("testMappedOfAnotherDirectory", folder.newFolder());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    // It should not return a store of mapped files as a store of direct buffers
+    public void testDirectOfMappedStore() throws Exception {
+        GenomeStore.mapped("testDirectOfMappedStore", folder.getRoot());
+        GenomeStore.direct("testDirectOfMappedStore");
+    }
+
+    @Test
+    // It should count the retentions of the genomes
+    public void testRetain() throws Exception {
+        GenomeStore store = GenomeStore.direct("testRetain");
+        StoredGenome genome = store.put(makeBytes(10));
+        store.retain(genome);
+        store.retain(genome);
+        assertEquals(2, store.getReferences(genome));
+        store.release(genome);
+        store.release(genome);
+        store.release(genome);
+        assertEquals(0, store.getReferences(genome));
+    }
+
+    @Test
+    // It should resolve the deserialized handles in the worker
+    public void testSerializable() throws Exception {
+        StoredGenome genome = GenomeStore.direct("testSerializable").put(makeBytes(10));
+        StoredGenome clone = SerializableUtils.clone(genome);
+        assertTrue(clone.isAvailable());
+        assertArrayEquals(genome.toByteArray(), clone.toByteArray());
+    }
+
+    @Test
+    // It should tell apart the genomes that differ in one byte by their hash
+    public void testContentHash() throws Exception {
+        GenomeStore store = GenomeStore.direct("testContentHash");
+        for (int size : new int[]{0, 7, 8, 1001}) {
+            byte[] bytes = makeBytes(size);
+            StoredGenome genome = store.put(bytes);
+            assertEquals(genome.getContentHash(), store.put(bytes).getContentHash());
+            assertEquals(genome.getContentHash(), store.resolve(genome.getHandle()).getContentHash());
+            for (int i = 0; i < size; i++) {
+                byte[] other = bytes.clone();
+                other[i]++;
+                StoredGenome otherGenome = store.put(other);
+                assertFalse(genome.getContentHash() == otherGenome.getContentHash());
+                assertFalse(genome.equals(otherGenome));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    // It should fail on truncated genomes
+    public void testTruncated() throws Exception {
+        GenomeStore.direct("testTruncated").read(new ByteArrayInputStream(makeBytes(10)), 11);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    // It should fail on unknown handles
+    public void testUnknownHandle() {
+        GenomeStore.direct("testUnknownHandle").resolve(42);
+    }
+}
@@ -0,0 +1,35 @@
+package org.omegabyte.gaboom.genome;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PermutationGenomeTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotAPermutation() {
+        PermutationGenome.of(0, 1, 1);
+    }
+
+    @Test
+    public void testSwapAndReverse() {
+        PermutationGenome genome = PermutationGenome.identity(5);
+        assertEquals(PermutationGenome.of(3, 1, 2, 0, 4), genome.swap(0, 3));
+        assertEquals(PermutationGenome.of(0, 3, 2, 1, 4), genome.reverse(1, 3));
+        assertEquals(PermutationGenome.identity(5), genome);
+    }
+
+    @Test
+    public void testOrderCrossover() {
+        PermutationGenome p1 = PermutationGenome.of(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        PermutationGenome p2 = PermutationGenome.of(8, 2, 6, 7, 1, 5, 4, 0, 3);
+        assertEquals(PermutationGenome.of(2, 7, 1, 3, 4, 5, 6, 0, 8), p1.orderCrossover(p2, 3, 6));
+    }
+
+    @Test
+    public void testPartiallyMappedCrossover() {
+        PermutationGenome p1 = PermutationGenome.of(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        PermutationGenome p2 = PermutationGenome.of(3, 4, 1, 0, 7, 6, 5, 8, 2);
+        assertEquals(PermutationGenome.of(0, 7, 1, 3, 4, 5, 6, 8, 2), p1.partiallyMappedCrossover(p2, 3, 6));
+    }
+}
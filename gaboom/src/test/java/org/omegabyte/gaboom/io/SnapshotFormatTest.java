@@ -0,0 +1,139 @@
+package org.omegabyte.gaboom.io;
+
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SnapshotFormatTest {
+
+    private static Population<String> makePopulation() {
+        Individual<String> i1 = new Individual<>("abcdef", "genome");
+        i1.setFitness(1.5);
+        Individual<String> i2 = new Individual<>("ghijkl", "other");
+        Individual<String> i3 = new Individual<>("mnopqr", null);
+        i3.setFitness(-2.0);
+        List<Individual<String>> individuals = new ArrayList<>();
+        individuals.add(i1);
+        individuals.add(i2);
+        individuals.add(i3);
+        return new Population<>("pop", 123456789L, 42, -987654321L, individuals);
+    }
+
+    private static void assertSameIndividual(Individual<String> expected, Individual<String> actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getGenome(), actual.getGenome());
+        assertEquals(expected.getFitness(), actual.getFitness());
+    }
+
+    @SafeVarargs
+    private static byte[] writePopulations(Population<String>... populations) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        SnapshotFormat.writeHeader(out, SnapshotFormat.POPULATION);
+        for (Population<String> population : populations) {
+            SnapshotFormat.writePopulation(out, population, StringUtf8Coder.of());
+        }
+        SnapshotFormat.writeEnd(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testPopulationRoundTrip() throws Exception {
+        Population<String> population = makePopulation();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(writePopulations(population, population)));
+
+        SnapshotFormat.readHeader(in, SnapshotFormat.POPULATION);
+        for (int n = 0; n < 2; n++) {
+            assertTrue(SnapshotFormat.hasNext(in));
+            Population<String> result = SnapshotFormat.readPopulation(in, StringUtf8Coder.of());
+            assertEquals("pop", result.getId());
+            assertEquals(123456789L, result.getCreated());
+            assertEquals(42, result.getGenerations());
+            assertEquals(-987654321L, result.getSeed());
+            assertEquals(3, result.getIndividuals().size());
+            for (int i = 0; i < 3; i++) {
+                assertSameIndividual(population.getIndividuals().get(i), result.getIndividuals().get(i));
+            }
+        }
+        assertNull(result(in));
+    }
+
+    private static Population<String> result(DataInputStream in) throws IOException {
+        return SnapshotFormat.hasNext(in) ? SnapshotFormat.readPopulation(in, StringUtf8Coder.of()) : null;
+    }
+
+    @Test
+    public void testNewPopulation() throws Exception {
+        Population<String> population = new Population<>("new", 0, -1, 0, new ArrayList<>());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(writePopulations(population)));
+        SnapshotFormat.readHeader(in, SnapshotFormat.POPULATION);
+        Population<String> result = result(in);
+        assertEquals(-1, result.getGenerations());
+        assertTrue(result.isNew());
+        assertEquals(0, result.getIndividuals().size());
+    }
+
+    @Test
+    public void testHallOfFameRoundTrip() throws Exception {
+        List<Individual<String>> hallOfFame = makePopulation().getIndividuals();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        SnapshotFormat.writeHeader(out, SnapshotFormat.HALL_OF_FAME);
+        SnapshotFormat.writeHallOfFame(out, hallOfFame, StringUtf8Coder.of());
+        SnapshotFormat.writeEnd(out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        SnapshotFormat.readHeader(in, SnapshotFormat.HALL_OF_FAME);
+        assertTrue(SnapshotFormat.hasNext(in));
+        List<Individual<String>> result = SnapshotFormat.readHallOfFame(in, StringUtf8Coder.of());
+        assertEquals(3, result.size());
+        for (int i = 0; i < 3; i++) {
+            assertSameIndividual(hallOfFame.get(i), result.get(i));
+        }
+        assertFalse(SnapshotFormat.hasNext(in));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBadMagic() throws Exception {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 1, 1}));
+        SnapshotFormat.readHeader(in, SnapshotFormat.POPULATION);
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongKind() throws Exception {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(writePopulations(makePopulation())));
+        SnapshotFormat.readHeader(in, SnapshotFormat.HALL_OF_FAME);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnsupportedVersion() throws Exception {
+        byte[] bytes = writePopulations(makePopulation());
+        bytes[4] = 99;
+        SnapshotFormat.readHeader(new DataInputStream(new ByteArrayInputStream(bytes)), SnapshotFormat.POPULATION);
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncated() throws Exception {
+        byte[] bytes = writePopulations(makePopulation());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+        SnapshotFormat.readHeader(in, SnapshotFormat.POPULATION);
+        while (result(in) != null) {}
+    }
+}
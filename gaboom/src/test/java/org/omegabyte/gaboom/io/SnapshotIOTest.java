@@ -0,0 +1,184 @@
+package org.omegabyte.gaboom.io;
+
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Populate;
+import org.omegabyte.gaboom.transforms.ga.Evolve;
+import org.omegabyte.gaboom.transforms.ga.Initialize;
+import org.omegabyte.gaboom.transforms.model.ModelGenerational;
+import org.omegabyte.gaboom.transforms.model.ModelTest;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SnapshotIOTest {
+    private static final int seed = 0;
+    private static final int popSize = 5;
+    private static final int numPops = 2;
+    private static final int numBest = 3;
+
+    private static final Evaluate.EvaluateTransform<String> evaluateTransform = Evaluate.as(new ModelTest.FitnessTransform());
+    private static final TupleTag<Population<String>> populationTT = new TupleTag<>();
+    private static final TupleTag<List<Individual<String>>> hallOfFameTT = new TupleTag<>();
+
+    public SnapshotIOTest() {
+        ModelTest.SECRET_WORD = "redacted";
+    }
+
+    @Rule
+    public transient TestPipeline writePipeline = TestPipeline.create();
+
+    @Rule
+    public transient TestPipeline readPipeline = TestPipeline.create();
+
+    @Rule
+    public transient TemporaryFolder folder = new TemporaryFolder();
+
+    private String writeSnapshot() {
+        String prefix = new File(folder.getRoot(), "run").getAbsolutePath();
+        writePipeline
+                .apply(new Initialize<>(Populate.as(new ModelTest.PopulateFn()).withPopSize(popSize), evaluateTransform, populationTT, hallOfFameTT, seed, numPops, numBest))
+                .apply(SnapshotIO.write(prefix, populationTT, hallOfFameTT).withNumShards(3));
+        writePipeline.run().waitUntilFinish();
+        return prefix;
+    }
+
+    private static void checkInitialPopulations(Iterable<Population<String>> populations) {
+        Map<String, Population<String>> populationMap = new HashMap<>();
+        populations.forEach(p -> populationMap.put(p.getId(), p));
+        assertEquals(numPops, populationMap.size());
+
+        Population<String> population = populationMap.get("JHg");
+        assertEquals(0, population.getGenerations());
+        assertEquals(8967846198397165489L, population.getSeed());
+        assertEquals(popSize, population.getIndividuals().size());
+        assertEquals("8oPhLZJYGXe", population.getIndividuals().get(0).getId());
+        assertEquals("qjoshtmc", population.getIndividuals().get(0).getGenome());
+        assertEquals(49.0, population.getIndividuals().get(0).getFitness(), 0);
+
+        population = populationMap.get("yxs");
+        assertEquals(0, population.getGenerations());
+        assertEquals(4852331243713039087L, population.getSeed());
+        assertEquals("2tQXM2X7end", population.getIndividuals().get(4).getId());
+        assertEquals(111.0, population.getIndividuals().get(4).getFitness(), 0);
+    }
+
+    private static void checkInitialHallOfFame(Iterable<List<Individual<String>>> lists) {
+        Iterator<List<Individual<String>>> iter = lists.iterator();
+        List<Individual<String>> hallOfFame = iter.next();
+        assertEquals(Arrays.asList("8oPhLZJYGXe", "9i1pLA6NU8X", "0XRKBN5psXV"), Arrays.asList(hallOfFame.get(0).getId(), hallOfFame.get(1).getId(), hallOfFame.get(2).getId()));
+        assertFalse(iter.hasNext());
+    }
+
+    @Test
+    public void testWriteAndRead() {
+        String prefix = writeSnapshot();
+        assertEquals(1, folder.getRoot().list((dir, name) -> name.startsWith("run-halloffame-")).length);
+        // the 2 populations leave at least one of the 3 shards empty
+        assertEquals(3, folder.getRoot().list((dir, name) -> name.startsWith("run-population-")).length);
+        assertEquals(0, folder.getRoot().list((dir, name) -> name.endsWith(".tmp")).length);
+
+        PCollectionTuple output = readPipeline.apply(SnapshotIO.read(prefix, StringUtf8Coder.of(), populationTT, hallOfFameTT));
+        PAssert.that(output.get(populationTT)).satisfies((SerializableFunction<Iterable<Population<String>>, Void>) populations -> {
+            checkInitialPopulations(populations);
+            return null;
+        });
+        PAssert.that(output.get(hallOfFameTT)).satisfies((SerializableFunction<Iterable<List<Individual<String>>>, Void>) lists -> {
+            checkInitialHallOfFame(lists);
+            return null;
+        });
+        readPipeline.run();
+    }
+
+    @Test
+    public void testResumeMemoryMapped() {
+        String prefix = writeSnapshot();
+
+        Evolve<String> evolve = new Evolve<>(new ModelGenerational<>(new SelectTournamentFn<>(3), Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.7), Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5)), evaluateTransform, populationTT, hallOfFameTT, numBest);
+        PCollectionTuple output = readPipeline
+                .apply(SnapshotIO.read(prefix, StringUtf8Coder.of(), populationTT, hallOfFameTT).withMemoryMapping())
+                .apply(evolve);
+        PAssert.that(output.get(populationTT)).satisfies((SerializableFunction<Iterable<Population<String>>, Void>) populations -> {
+            Map<String, Population<String>> populationMap = new HashMap<>();
+            populations.forEach(p -> populationMap.put(p.getId(), p));
+            assertEquals(numPops, populationMap.size());
+            assertEquals(1, populationMap.get("JHg").getGenerations());
+            assertEquals(695667211764610765L, populationMap.get("JHg").getSeed());
+            assertEquals(1, populationMap.get("yxs").getGenerations());
+            assertEquals(-5189290440592514750L, populationMap.get("yxs").getSeed());
+            return null;
+        });
+        PAssert.that(output.get(hallOfFameTT)).satisfies((SerializableFunction<Iterable<List<Individual<String>>>, Void>) lists -> {
+            Iterator<List<Individual<String>>> iter = lists.iterator();
+            assertEquals(numBest, iter.next().size());
+            assertFalse(iter.hasNext());
+            return null;
+        });
+        readPipeline.run();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteExisting() {
+        String prefix = writeSnapshot();
+
+        // It should refuse to write over an existing snapshot
+        readPipeline.enableAbandonedNodeEnforcement(false);
+        readPipeline
+                .apply(new Initialize<>(Populate.as(new ModelTest.PopulateFn()).withPopSize(popSize), evaluateTransform, populationTT, hallOfFameTT, seed, numPops, numBest))
+                .apply(SnapshotIO.write(prefix, populationTT, hallOfFameTT));
+    }
+
+    private void checkReadFails(String prefix, String message) {
+        readPipeline.apply(SnapshotIO.read(prefix, StringUtf8Coder.of(), populationTT, hallOfFameTT));
+        try {
+            readPipeline.run();
+            fail("The snapshot should not be read");
+        } catch (Pipeline.PipelineExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void testReadMissingShard() {
+        String prefix = writeSnapshot();
+        assertTrue(new File(prefix + "-population-00001-of-00003.snapshot").delete());
+
+        // It should not read a snapshot with a missing shard
+        checkReadFails(prefix, "has 2 of its 3 shards");
+    }
+
+    @Test
+    public void testReadMixedShards() throws IOException {
+        String prefix = writeSnapshot();
+        Files.copy(new File(prefix + "-population-00000-of-00003.snapshot").toPath(), new File(prefix + "-population-00003-of-00004.snapshot").toPath());
+
+        // It should not read the shards of different snapshots together
+        checkReadFails(prefix, "mixes shards");
+    }
+}
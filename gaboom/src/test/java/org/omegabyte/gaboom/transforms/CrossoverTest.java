@@ -83,18 +83,18 @@ public class CrossoverTest {
             output.forEach(kv-> resultMap.put(kv.getKey(), kv.getValue()));
 
             assertEquals(-4962768465676381896L, resultMap.get("test1").getSeed());
-            assertEquals("157KhL", resultMap.get("test1").getIndividuals().get(0).getId());
+            assertEquals("6izlTnIWoZA", resultMap.get("test1").getIndividuals().get(0).getId());
             assertEquals(individuals1.getIndividuals().get(0).getGenome(), resultMap.get("test1").getIndividuals().get(0).getGenome());
             assertNull(resultMap.get("test1").getIndividuals().get(0).getFitness());
-            assertEquals("r8Ry8R", resultMap.get("test1").getIndividuals().get(1).getId());
+            assertEquals("4TgYu9fCaKz", resultMap.get("test1").getIndividuals().get(1).getId());
             assertEquals(individuals1.getIndividuals().get(1).getGenome(), resultMap.get("test1").getIndividuals().get(1).getGenome());
             assertNull(resultMap.get("test1").getIndividuals().get(1).getFitness());
 
             assertEquals(-4964420948893066024L, resultMap.get("test2").getSeed());
-            assertEquals("4iE89X", resultMap.get("test2").getIndividuals().get(0).getId());
+            assertEquals("1josOxHkUI1", resultMap.get("test2").getIndividuals().get(0).getId());
             assertEquals(individuals2.getIndividuals().get(1).getGenome(), resultMap.get("test2").getIndividuals().get(0).getGenome());
             assertNull(resultMap.get("test1").getIndividuals().get(0).getFitness());
-            assertEquals("xrGe8I", resultMap.get("test2").getIndividuals().get(1).getId());
+            assertEquals("8PQwAirR4q1", resultMap.get("test2").getIndividuals().get(1).getId());
             assertEquals(individuals2.getIndividuals().get(1).getGenome(), resultMap.get("test2").getIndividuals().get(1).getGenome());
             assertNull(resultMap.get("test1").getIndividuals().get(1).getFitness());
 
@@ -15,11 +15,13 @@ import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class EvaluateTest {
@@ -99,4 +101,54 @@ public class EvaluateTest {
         });
         pipeline.run();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEvaluateWithHotKeyFanout() {
+        Individuals<Integer> individuals = makeIndividuals(50);
+        Evaluate.EvaluateTransform<Integer> transform = Evaluate.as(new RandomFitnessTransform()).withHotKeyFanout(4);
+        assertEquals(4, transform.getHotKeyFanout());
+        PCollection<KV<String, Individuals<Integer>>> output = pipeline
+                .apply(Create.of(KV.of("test", individuals)))
+                .apply(transform);
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<Integer>>>, Void>) kvs -> {
+            KV<String, Individuals<Integer>> result = kvs.iterator().next();
+            assertEquals("test", result.getKey());
+            assertEquals(individuals.getIndividuals().size(), result.getValue().getIndividuals().size());
+
+            Double previousValue = result.getValue().getIndividuals().get(0).getFitness();
+            for (Individual<Integer> i : result.getValue().getIndividuals()) {
+                assertTrue(previousValue <= i.getFitness());
+                previousValue = i.getFitness();
+            }
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test
+    // It should keep the parents of the mutants rebuilt by the fitness transform
+    public void testEvaluateKeepsLineage() {
+        Individual<Integer> parent = new Individual<>(random, 1);
+        parent.setFitness(0.5);
+        Individual<Integer> mutant = parent.mutant(random).withGenome(2);
+        Individuals<Integer> individuals = new Individuals<>(random.nextLong(), Arrays.asList(parent, mutant));
+        PCollection<KV<String, Individuals<Integer>>> output = pipeline
+                .apply(Create.of(KV.of("test", individuals)))
+                .apply(Evaluate.as(new RandomFitnessTransform()));
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<Integer>>>, Void>) kvs -> {
+            Individuals<Integer> result = kvs.iterator().next().getValue();
+            assertEquals(2, result.getIndividuals().size());
+            result.getIndividuals().forEach(i -> {
+                assertTrue(i.getFitness() != null);
+                if (i.getNumericId() == mutant.getNumericId()) {
+                    assertTrue(i.isMutant());
+                    assertEquals(parent.getNumericId(), i.getLineageId());
+                } else {
+                    assertFalse(i.isMutant());
+                }
+            });
+            return null;
+        });
+        pipeline.run();
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class MutateTest {
 
@@ -63,13 +64,15 @@ public class MutateTest {
             assertEquals("test", result.getKey());
             assertEquals(-4962768465676381896L, result.getValue().getSeed());
 
-            assertEquals("a.d71", result.getValue().getIndividuals().get(0).getId());
+            assertEquals("35A8EBZ2bEX", result.getValue().getIndividuals().get(0).getId());
+            assertTrue(result.getValue().getIndividuals().get(0).isMutant());
+            assertEquals(individualsList.get(0).getNumericId(), result.getValue().getIndividuals().get(0).getLineageId());
             assertEquals(individualsList.get(0).getGenome() + 1, (int) result.getValue().getIndividuals().get(0).getGenome());
             assertNull(result.getValue().getIndividuals().get(0).getFitness());
 
-            assertEquals("b.KhL", result.getValue().getIndividuals().get(1).getId());
-            assertEquals(individualsList.get(1).getGenome() + 1, (int) result.getValue().getIndividuals().get(1).getGenome());
-            assertNull(result.getValue().getIndividuals().get(1).getFitness());
+            assertEquals(individualsList.get(1).getId(), result.getValue().getIndividuals().get(1).getId());
+            assertEquals(individualsList.get(1).getGenome(), result.getValue().getIndividuals().get(1).getGenome());
+            assertEquals(individualsList.get(1).getFitness(), result.getValue().getIndividuals().get(1).getFitness());
 
             assertEquals(individualsList.get(2).getId(), result.getValue().getIndividuals().get(2).getId());
             assertEquals(individualsList.get(2).getGenome(), result.getValue().getIndividuals().get(2).getGenome());
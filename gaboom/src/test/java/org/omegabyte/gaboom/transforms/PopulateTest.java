@@ -54,10 +54,10 @@ public class PopulateTest {
                 Assert.assertEquals(random.nextLong(), indis.getSeed());
                 Assert.assertEquals(3, indis.getIndividuals().size());
 
-                indis.getIndividuals().forEach(ind -> {
-                    Assert.assertEquals(random.nextInt(), (int) ind.getGenome());
-                    Assert.assertEquals(IdGenerator.newId(random, 6), ind.getId());
-                });
+                for (int i = 0; i < 3; i++) {
+                    Assert.assertEquals(random.nextInt(), (int) indis.getIndividuals().get(i).getGenome());
+                    Assert.assertEquals(IdGenerator.idOf(0, i), indis.getIndividuals().get(i).getNumericId());
+                }
             });
             return null;
         });
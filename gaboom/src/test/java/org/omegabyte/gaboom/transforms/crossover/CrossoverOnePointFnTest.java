@@ -0,0 +1,25 @@
+package org.omegabyte.gaboom.transforms.crossover;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CrossoverOnePointFnTest {
+
+    @Test
+    public void testCrossover() {
+        BitStringGenome ones = BitStringGenome.wrap(new long[]{-1L, -1L}, 100);
+        BitStringGenome zeros = BitStringGenome.wrap(new long[2], 100);
+        Random random = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            BitStringGenome result = new CrossoverOnePointFn<BitStringGenome>().crossover(null, random, ones, zeros);
+            int point = result.cardinality();
+            assertTrue(point > 0 && point < 100);
+            assertEquals(ones.onePoint(zeros, point), result);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.omegabyte.gaboom.transforms.crossover;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CrossoverOrderedFnTest {
+
+    @Test
+    public void testCrossover() {
+        PermutationGenome p1 = PermutationGenome.of(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        PermutationGenome p2 = PermutationGenome.of(8, 2, 6, 7, 1, 5, 4, 0, 3);
+        Random random = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            PermutationGenome result = new CrossoverOrderedFn().crossover(null, random, p1, p2);
+            // the constructor validates the permutation
+            assertEquals(result, PermutationGenome.of(result.toArray()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.omegabyte.gaboom.transforms.crossover;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class CrossoverUniformFnTest {
+
+    @Test
+    public void testCrossover() {
+        DoubleVectorGenome p1 = DoubleVectorGenome.wrap(new double[50]);
+        DoubleVectorGenome p2 = DoubleVectorGenome.wrap(ones(50));
+        DoubleVectorGenome result = new CrossoverUniformFn<DoubleVectorGenome>().crossover(null, new Random(0), p1, p2);
+
+        double sum = 0;
+        for (int i = 0; i < 50; i++) {
+            assertTrue(result.get(i) == 0 || result.get(i) == 1);
+            sum += result.get(i);
+        }
+        assertTrue(sum > 0 && sum < 50);
+    }
+
+    private static double[] ones(int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 1;
+        }
+        return values;
+    }
+}
@@ -17,9 +17,9 @@ import static org.junit.Assert.assertEquals;
 public class AssignIndividualTransformTest {
 
     final static Random random = new Random();
-    public static KV<String, Individual<Integer>> makeIndividual() {
+    public static KV<Long, Individual<Integer>> makeIndividual() {
         Individual<Integer> individual = new Individual<>(random, random.nextInt());
-        return KV.of(individual.getId(), individual);
+        return KV.of(individual.getNumericId(), individual);
     }
 
     @Rule
@@ -27,17 +27,17 @@ public class AssignIndividualTransformTest {
 
     @Test
     public void testAssignIndividualTransform() {
-        List<KV<String, Individual<Integer>>> individualList = new ArrayList<>();
+        List<KV<Long, Individual<Integer>>> individualList = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
             individualList.add(makeIndividual());
         }
-        PCollection<KV<String, Individual<Integer>>> individualPCollection = pipeline.apply("Individual", Create.of(individualList));
+        PCollection<KV<Long, Individual<Integer>>> individualPCollection = pipeline.apply("Individual", Create.of(individualList));
 
-        List<KV<String, String>> indices = new ArrayList<>();
+        List<KV<Long, String>> indices = new ArrayList<>();
         individualList.forEach(i -> {
             indices.add(KV.of(i.getKey(), "test"));
         });
-        PCollection<KV<String, String>> indicesPCollection = pipeline.apply("Indices", Create.of(indices));
+        PCollection<KV<Long, String>> indicesPCollection = pipeline.apply("Indices", Create.of(indices));
 
         PCollection<KV<String, Individual<Integer>>> output = individualPCollection.apply(AssignIndividualTransform.of(indicesPCollection));
         PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individual<Integer>>>, Void>) kvs -> {
@@ -49,7 +49,7 @@ public class AssignIndividualTransformTest {
 
             Set<String> expected = new HashSet<>();
             individualList.forEach(i-> {
-                expected.add(i.getKey());
+                expected.add(i.getValue().getId());
             });
             assertEquals(expected, result);
             return null;
@@ -0,0 +1,116 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+import org.omegabyte.gaboom.transforms.Evaluate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchFitnessTransformTest {
+    private static final Queue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+
+    static class GenomeBatchFitnessFn extends Evaluate.BatchFitnessFn<Integer> {
+        @Override
+        public List<Double> evaluate(List<Individual<Integer>> individuals) {
+            batchSizes.add(individuals.size());
+            List<Double> fitnesses = new ArrayList<>();
+            individuals.forEach(ind -> fitnesses.add((double) ind.getGenome()));
+            return fitnesses;
+        }
+    }
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    @Before
+    public void setUpTest() {
+        batchSizes.clear();
+    }
+
+    private static List<Individual<Integer>> makeIndividuals(int size) {
+        List<Individual<Integer>> individuals = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            individuals.add(new Individual<>("id" + i, i));
+        }
+        return individuals;
+    }
+
+    private void runAndCheck(BatchFitnessTransform<Integer> transform, int size) {
+        PCollection<Individual<Integer>> result = pipeline
+                .apply(Create.of(makeIndividuals(size)))
+                .apply(transform);
+        PAssert.that(result).satisfies((SerializableFunction<Iterable<Individual<Integer>>, Void>) output -> {
+            int count = 0;
+            for (Individual<Integer> ind : output) {
+                assertEquals("id" + ind.getGenome(), ind.getId());
+                assertEquals((double) ind.getGenome(), ind.getFitness(), 0);
+                count++;
+            }
+            assertEquals(size, count);
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test
+    // It should evaluate every individual in batches of at most the batch size
+    public void testBundleBatches() {
+        runAndCheck(BatchFitnessTransform.of(new GenomeBatchFitnessFn()).withBatchSize(3), 10);
+        assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        batchSizes.forEach(size -> assertTrue(size <= 3));
+    }
+
+    @Test
+    // It should cap the batches by their encoded size
+    public void testMaxBatchBytes() throws Exception {
+        int bytes = CoderUtils.encodeToByteArray(IndividualCoder.of(VarIntCoder.of()), new Individual<>("id0", 0)).length;
+        runAndCheck(BatchFitnessTransform.of(new GenomeBatchFitnessFn()).withBatchSize(100).withMaxBatchBytes(2 * bytes), 8);
+        assertEquals(8, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        batchSizes.forEach(size -> assertTrue(size <= 2));
+    }
+
+    @Test
+    // It should evaluate every individual in batches filled per key
+    public void testKeyBatches() {
+        runAndCheck(BatchFitnessTransform.of(new GenomeBatchFitnessFn()).withBatchSize(4).perKey(2), 20);
+        assertEquals(20, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        batchSizes.forEach(size -> assertTrue(size <= 4));
+    }
+
+    @Test
+    // It should accept a batch fitness function in the evaluate transform
+    public void testEvaluateTransform() {
+        Individuals<Integer> individuals = new Individuals<>(0, makeIndividuals(5));
+        PCollection<KV<String, Individuals<Integer>>> result = pipeline
+                .apply(Create.of(KV.of("test", individuals)))
+                .apply(Evaluate.as(new GenomeBatchFitnessFn()));
+        PAssert.that(result).satisfies((SerializableFunction<Iterable<KV<String, Individuals<Integer>>>, Void>) output -> {
+            List<Individual<Integer>> sorted = output.iterator().next().getValue().getIndividuals();
+            assertEquals(5, sorted.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, (int) sorted.get(i).getGenome());
+                assertEquals((double) i, sorted.get(i).getFitness(), 0);
+            }
+            return null;
+        });
+        pipeline.run();
+    }
+}
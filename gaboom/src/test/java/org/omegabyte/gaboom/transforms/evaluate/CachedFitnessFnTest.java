@@ -0,0 +1,46 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.transforms.Evaluate;
+
+import static org.junit.Assert.assertEquals;
+
+public class CachedFitnessFnTest {
+
+    static class CountingFitnessFn extends Evaluate.FitnessFn<Integer> {
+        int calls = 0;
+
+        @Override
+        public double fitness(Integer genome) {
+            calls++;
+            return genome;
+        }
+    }
+
+    @Test
+    public void testCachedFitnessFn() {
+        CountingFitnessFn fitnessFn = new CountingFitnessFn();
+        CachedFitnessFn<Integer> cachedFitnessFn = CachedFitnessFn.of(fitnessFn, 10, genome -> genome);
+        cachedFitnessFn.setup();
+
+        assertEquals(1, cachedFitnessFn.fitness(1), 0);
+        assertEquals(2, cachedFitnessFn.fitness(2), 0);
+        assertEquals(1, cachedFitnessFn.fitness(1), 0);
+        assertEquals(2, fitnessFn.calls);
+    }
+
+    @Test
+    // It should drop the cache when it is torn down
+    public void testTeardown() {
+        CountingFitnessFn fitnessFn = new CountingFitnessFn();
+        CachedFitnessFn<Integer> cachedFitnessFn = CachedFitnessFn.of(fitnessFn, 10, genome -> genome);
+        cachedFitnessFn.setup();
+        assertEquals(1, cachedFitnessFn.fitness(1), 0);
+        cachedFitnessFn.teardown();
+
+        cachedFitnessFn.setup();
+        assertEquals(1, cachedFitnessFn.fitness(1), 0);
+        assertEquals(2, fitnessFn.calls);
+        cachedFitnessFn.teardown();
+    }
+}
@@ -0,0 +1,113 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.PipelineResult;
+import org.apache.beam.sdk.metrics.MetricNameFilter;
+import org.apache.beam.sdk.metrics.MetricQueryResults;
+import org.apache.beam.sdk.metrics.MetricResult;
+import org.apache.beam.sdk.metrics.MetricsFilter;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CachedFitnessTransformTest {
+
+    static class GenomeFitnessTransform extends Evaluate.FitnessTransform<Integer> {
+        static class GenomeFitnessFn extends DoFn<Individual<Integer>, Individual<Integer>> {
+            @ProcessElement
+            public void processElement(ProcessContext c) {
+                Individual<Integer> ind = c.element();
+                Individual<Integer> out = new Individual<>(ind.getId(), ind.getGenome());
+                out.setFitness((double) ind.getGenome());
+                c.output(out);
+            }
+        }
+
+        @Override
+        public PCollection<Individual<Integer>> expand(PCollection<Individual<Integer>> input) {
+            return input.apply(ParDo.of(new GenomeFitnessFn()));
+        }
+    }
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    private static List<Individual<Integer>> makeIndividuals() {
+        List<Individual<Integer>> individuals = new ArrayList<>();
+        individuals.add(new Individual<>("a", 1));
+        individuals.add(new Individual<>("b", 2));
+        individuals.add(new Individual<>("c", 1));
+        individuals.add(new Individual<>("d", 3));
+        return individuals;
+    }
+
+    private static PipelineResult run(TestPipeline p, CachedFitnessTransform<Integer> transform) {
+        PCollection<Individual<Integer>> result = p
+                .apply(Create.of(makeIndividuals()))
+                .apply(transform)
+                .apply(ParDo.of(new ClearFitnessFn()))
+                .apply("Again", transform);
+        PAssert.that(result).satisfies((SerializableFunction<Iterable<Individual<Integer>>, Void>) output -> {
+            int count = 0;
+            for (Individual<Integer> ind : output) {
+                assertEquals((double) ind.getGenome(), ind.getFitness(), 0);
+                count++;
+            }
+            assertEquals(4, count);
+            return null;
+        });
+        return p.run();
+    }
+
+    static class ClearFitnessFn extends DoFn<Individual<Integer>, Individual<Integer>> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(new Individual<>(c.element().getId(), c.element().getGenome()));
+        }
+    }
+
+    private static long counter(PipelineResult result, String name) {
+        MetricQueryResults metrics = result.metrics().queryMetrics(MetricsFilter.builder()
+                .addNameFilter(MetricNameFilter.named(GaboomMetrics.NAMESPACE, name))
+                .build());
+        long total = 0;
+        for (MetricResult<Long> counter : metrics.counters()) {
+            total += counter.attempted();
+        }
+        return total;
+    }
+
+    @Test
+    // It should evaluate every individual once and then serve them from the cache
+    public void testCachedFitnessTransform() {
+        CachedFitnessTransform<Integer> transform = CachedFitnessTransform.of(new GenomeFitnessTransform(), 10);
+
+        PipelineResult result = run(pipeline, transform);
+        assertEquals(8, counter(result, GaboomMetrics.FITNESS_CACHE_MISSES) + counter(result, GaboomMetrics.FITNESS_CACHE_HITS));
+        assertTrue(counter(result, GaboomMetrics.FITNESS_CACHE_HITS) >= 4);
+        assertEquals(counter(result, GaboomMetrics.FITNESS_CACHE_MISSES), counter(result, GaboomMetrics.FITNESS_EVALUATIONS));
+    }
+
+    @Test
+    // It should look up the cache through the genome key
+    public void testGenomeKey() {
+        CachedFitnessTransform<Integer> transform = CachedFitnessTransform.of(new GenomeFitnessTransform(), 10, genome -> "genome" + genome);
+
+        PipelineResult result = run(pipeline, transform);
+        assertTrue(counter(result, GaboomMetrics.FITNESS_CACHE_HITS) >= 4);
+    }
+}
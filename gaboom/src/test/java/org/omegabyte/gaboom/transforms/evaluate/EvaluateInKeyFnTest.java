@@ -0,0 +1,128 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.apache.beam.sdk.PipelineResult;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.metrics.MetricNameFilter;
+import org.apache.beam.sdk.metrics.MetricQueryResults;
+import org.apache.beam.sdk.metrics.MetricResult;
+import org.apache.beam.sdk.metrics.MetricsFilter;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFnTester;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.IndividualsCoder;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.utils.GaboomMetrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EvaluateInKeyFnTest {
+    private static final Coder<KV<String, Individuals<Integer>>> coder = KvCoder.of(StringUtf8Coder.of(), IndividualsCoder.of(VarIntCoder.of()));
+
+    static class ModuloFitnessFn extends Evaluate.FitnessFn<Integer> {
+        @Override
+        public double fitness(Integer genome) {
+            return Math.floorMod(genome, 5);
+        }
+    }
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    private static KV<String, Individuals<Integer>> makeIndividuals() {
+        Random random = new Random(0);
+        Individuals<Integer> individuals = new Individuals<>(random.nextLong());
+        for (int i = 0; i < 20; i++) {
+            Individual<Integer> ind = new Individual<>(random, random.nextInt());
+            if (random.nextBoolean()) {
+                ind.setFitness((double) random.nextInt(5));
+            }
+            individuals.getIndividuals().add(ind);
+        }
+        return KV.of("test", individuals);
+    }
+
+    @Test
+    public void testEvaluateInKeyFn() throws Exception {
+        DoFnTester<KV<String, Individuals<Integer>>, KV<String, Individuals<Integer>>> fnTester = DoFnTester.of(new EvaluateInKeyFn<>(new ModuloFitnessFn()));
+        List<KV<String, Individuals<Integer>>> result = fnTester.processBundle(makeIndividuals());
+        assertEquals(1, result.size());
+
+        List<Individual<Integer>> individuals = result.get(0).getValue().getIndividuals();
+        assertEquals(20, individuals.size());
+        for (int i = 1; i < individuals.size(); i++) {
+            assertTrue(SortIndividualsFn.compare(individuals.get(i - 1), individuals.get(i)) < 0);
+        }
+    }
+
+    @Test
+    // It should produce the same encoded output as the fan out evaluation
+    public void testSameAsFanOut() throws Exception {
+        DoFnTester<KV<String, Individuals<Integer>>, KV<String, Individuals<Integer>>> fnTester = DoFnTester.of(new EvaluateInKeyFn<>(new ModuloFitnessFn()));
+        byte[] expected = CoderUtils.encodeToByteArray(coder, fnTester.processBundle(makeIndividuals()).get(0));
+
+        PCollection<KV<String, Individuals<Integer>>> fanOut = pipeline
+                .apply("FanOutInput", Create.of(Arrays.asList(makeIndividuals())).withCoder(coder))
+                .apply("FanOut", Evaluate.as(new ModuloFitnessFn()).withFanOut());
+        PCollection<KV<String, Individuals<Integer>>> inKey = pipeline
+                .apply("InKeyInput", Create.of(Arrays.asList(makeIndividuals())).withCoder(coder))
+                .apply("InKey", Evaluate.as(new ModuloFitnessFn()));
+
+        SerializableFunction<Iterable<KV<String, Individuals<Integer>>>, Void> check = output -> {
+            try {
+                assertArrayEquals(expected, CoderUtils.encodeToByteArray(coder, output.iterator().next()));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        };
+        PAssert.that(fanOut).satisfies(check);
+        PAssert.that(inKey).satisfies(check);
+        pipeline.run();
+    }
+
+    private static long counter(PipelineResult result, String name) {
+        MetricQueryResults metrics = result.metrics().queryMetrics(MetricsFilter.builder()
+                .addNameFilter(MetricNameFilter.named(GaboomMetrics.NAMESPACE, name))
+                .build());
+        long total = 0;
+        for (MetricResult<Long> counter : metrics.counters()) {
+            total += counter.attempted();
+        }
+        return total;
+    }
+
+    @Test
+    // It should count only the cache misses as evaluations of a cached fitness
+    public void testCachedEvaluations() {
+        Random random = new Random(0);
+        Individuals<Integer> individuals = new Individuals<>(random.nextLong());
+        for (int i = 0; i < 20; i++) {
+            individuals.getIndividuals().add(new Individual<>(random, i % 4));
+        }
+        pipeline.apply(Create.of(Arrays.asList(KV.of("test", individuals))).withCoder(coder))
+                .apply(Evaluate.as(new ModuloFitnessFn()).withFitnessCache(10));
+        PipelineResult result = pipeline.run();
+
+        assertEquals(20, counter(result, GaboomMetrics.FITNESS_CACHE_HITS) + counter(result, GaboomMetrics.FITNESS_CACHE_MISSES));
+        assertEquals(4, counter(result, GaboomMetrics.FITNESS_CACHE_MISSES));
+        assertEquals(4, counter(result, GaboomMetrics.FITNESS_EVALUATIONS));
+    }
+}
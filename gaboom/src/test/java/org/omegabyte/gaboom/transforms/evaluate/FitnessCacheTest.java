@@ -0,0 +1,49 @@
+package org.omegabyte.gaboom.transforms.evaluate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FitnessCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        FitnessCache cache = new FitnessCache(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(1, cache.get("a"), 0);
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"), 0);
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"), 0);
+    }
+
+    @Test
+    public void testSharedById() {
+        assertSame(FitnessCache.acquire("FitnessCacheTest", 2), FitnessCache.acquire("FitnessCacheTest", 2));
+        FitnessCache.release("FitnessCacheTest");
+        FitnessCache.release("FitnessCacheTest");
+    }
+
+    @Test
+    // It should drop a cache once all its users released it
+    public void testRelease() {
+        FitnessCache cache = FitnessCache.acquire("testRelease", 2);
+        cache.put("a", 1);
+        assertSame(cache, FitnessCache.acquire("testRelease", 2));
+        FitnessCache.release("testRelease");
+        assertSame(cache, FitnessCache.acquire("testRelease", 2));
+        FitnessCache.release("testRelease");
+        FitnessCache.release("testRelease");
+
+        FitnessCache fresh = FitnessCache.acquire("testRelease", 2);
+        assertNotSame(cache, fresh);
+        assertNull(fresh.get("a"));
+        FitnessCache.release("testRelease");
+    }
+}
@@ -20,10 +20,10 @@ public class IndexIndividualFnTest {
 
     @Test
     public void testIndexIndividualFn() throws Exception {
-        DoFnTester<Individual<Integer>, KV<String, Individual<Integer>>> fnTester = DoFnTester.of(new IndexIndividualFn<>());
-        List<KV<String, Individual<Integer>>> result = fnTester.processBundle(makeIndividual());
+        DoFnTester<Individual<Integer>, KV<Long, Individual<Integer>>> fnTester = DoFnTester.of(new IndexIndividualFn<>());
+        List<KV<Long, Individual<Integer>>> result = fnTester.processBundle(makeIndividual());
         result.forEach(r -> {
-            assertEquals(r.getValue().getId(), r.getKey());
+            assertEquals(r.getValue().getNumericId(), (long) r.getKey());
         });
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package org.omegabyte.gaboom.transforms.evaluate;
 
+import org.apache.beam.sdk.coders.CoderRegistry;
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.VarIntCoder;
 import org.junit.Before;
 import org.junit.Test;
 import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.coders.IndividualCoder;
 
 import java.util.*;
 
@@ -25,9 +29,15 @@ public class SortIndividualsFnTest {
         random.setSeed(seed);
     }
 
+    @Test
+    public void testGetAccumulatorCoder() throws Exception {
+        IndividualCoder<Integer> coder = IndividualCoder.of(VarIntCoder.of());
+        assertEquals(ListCoder.of(coder), new SortIndividualsFn<Integer>().getAccumulatorCoder(CoderRegistry.createDefault(), coder));
+    }
+
     @Test
     public void testCreateAccumulator() {
-        assertEquals(Collections.emptyList(), new SortIndividualsFn().createAccumulator());
+        assertEquals(Collections.emptyList(), new SortIndividualsFn<Integer>().createAccumulator());
     }
 
     @Test
@@ -38,11 +48,14 @@ public class SortIndividualsFnTest {
 
         for (int i = 0; i < 10; i++) {
             result = combineFn.addInput(result, makeIndividual());
-            Double previous = result.get(0).getFitness();
-            for(Individual<Integer> ind: result.subList(1, result.size())) {
-                assertTrue(previous <= ind.getFitness());
-                previous = ind.getFitness();
-            }
+        }
+        assertEquals(10, result.size());
+
+        result = combineFn.extractOutput(result);
+        Double previous = result.get(0).getFitness();
+        for(Individual<Integer> ind: result.subList(1, result.size())) {
+            assertTrue(previous <= ind.getFitness());
+            previous = ind.getFitness();
         }
     }
 
@@ -60,12 +73,12 @@ public class SortIndividualsFnTest {
         actual = new ArrayList<>();
         actual = combineFn.addInput(actual, a);
         actual = combineFn.addInput(actual, b);
-        assertEquals(Arrays.asList(a, b), actual);
+        assertEquals(Arrays.asList(a, b), combineFn.extractOutput(actual));
 
         actual = new ArrayList<>();
         actual = combineFn.addInput(actual, b);
         actual = combineFn.addInput(actual, a);
-        assertEquals(Arrays.asList(a, b), actual);
+        assertEquals(Arrays.asList(a, b), combineFn.extractOutput(actual));
     }
 
     @Test
@@ -114,6 +127,26 @@ public class SortIndividualsFnTest {
         assertEquals(Arrays.asList(a, b), actual);
     }
 
+    @Test
+    public void testMergeManyAccumulators() {
+        SortIndividualsFn<Integer> combineFn = new SortIndividualsFn<>();
+
+        List<List<Individual<Integer>>> accumulators = new ArrayList<>();
+        List<Individual<Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            List<Individual<Integer>> accumulator = combineFn.createAccumulator();
+            for (int j = 0; j < i * 3; j++) {
+                Individual<Integer> individual = makeIndividual();
+                accumulator = combineFn.addInput(accumulator, individual);
+                expected.add(individual);
+            }
+            accumulators.add(accumulator);
+        }
+        expected.sort(SortIndividualsFn::compare);
+
+        assertEquals(expected, combineFn.extractOutput(combineFn.mergeAccumulators(accumulators)));
+    }
+
     @Test
     public void testExtractOutput() {
         SortIndividualsFn<Integer> combineFn = new SortIndividualsFn<>();
@@ -1,21 +1,30 @@
 package org.omegabyte.gaboom.transforms.ga;
 
+import org.apache.beam.sdk.coders.CoderException;
 import org.apache.beam.sdk.testing.PAssert;
 import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.util.CoderUtils;
 import org.apache.beam.sdk.values.PCollectionTuple;
 import org.apache.beam.sdk.values.TupleTag;
 import org.junit.Rule;
 import org.junit.Test;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.BitStringGenomeCoder;
+import org.omegabyte.gaboom.coders.DeltaGenomeCoder;
+import org.omegabyte.gaboom.coders.PopulationCoder;
+import org.omegabyte.gaboom.genome.BitStringGenome;
 import org.omegabyte.gaboom.transforms.Crossover;
 import org.omegabyte.gaboom.transforms.Evaluate;
 import org.omegabyte.gaboom.transforms.Mutate;
 import org.omegabyte.gaboom.transforms.Populate;
+import org.omegabyte.gaboom.transforms.crossover.CrossoverOnePointFn;
 import org.omegabyte.gaboom.transforms.model.ModelGenerational;
 import org.omegabyte.gaboom.transforms.model.ModelTest;
 import org.omegabyte.gaboom.transforms.model.ModelTransform;
+import org.omegabyte.gaboom.transforms.mutate.MutateBitFlipFn;
+import org.omegabyte.gaboom.transforms.populate.PopulateBitStringFn;
 import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
 
 import java.util.HashMap;
@@ -65,25 +74,25 @@ public class GATest {
             assertEquals(popSize, population.getIndividuals().size());
             assertEquals(8967846198397165489L, population.getSeed());
             individual = population.getIndividuals().get(0);
-            assertEquals("CyMxQ6", individual.getId());
-            assertEquals("ofufbkgg", individual.getGenome());
-            assertEquals(41.0, individual.getFitness(), 0);
+            assertEquals("8oPhLZJYGXe", individual.getId());
+            assertEquals("qjoshtmc", individual.getGenome());
+            assertEquals(49.0, individual.getFitness(), 0);
             individual = population.getIndividuals().get(1);
-            assertEquals("XXp3Lt", individual.getId());
-            assertEquals("rfkcgkmp", individual.getGenome());
-            assertEquals(43.0, individual.getFitness(), 0);
-            individual = population.getIndividuals().get(2);
-            assertEquals("VzQWbD", individual.getId());
+            assertEquals("0XRKBN5psXV", individual.getId());
             assertEquals("khveivbt", individual.getGenome());
             assertEquals(59.0, individual.getFitness(), 0);
+            individual = population.getIndividuals().get(2);
+            assertEquals("AWlLXvXzgup", individual.getId());
+            assertEquals("nzcsnpcy", individual.getGenome());
+            assertEquals(82.0, individual.getFitness(), 0);
             individual = population.getIndividuals().get(3);
-            assertEquals("LxkoZu", individual.getId());
-            assertEquals("wzlwguja", individual.getGenome());
-            assertEquals(69.0, individual.getFitness(), 0);
+            assertEquals("6Y1r69wfZZL", individual.getId());
+            assertEquals("gkmpvbdl", individual.getGenome());
+            assertEquals(87.0, individual.getFitness(), 0);
             individual = population.getIndividuals().get(4);
-            assertEquals("Aig2kO", individual.getId());
-            assertEquals("cyqjosht", individual.getGenome());
-            assertEquals(89.0, individual.getFitness(), 0);
+            assertEquals("45JwZyJfrOs", individual.getId());
+            assertEquals("awoirfkc", individual.getGenome());
+            assertEquals(90.0, individual.getFitness(), 0);
 
             assertTrue(populationMap.containsKey("yxs"));
             population = populationMap.get("yxs");
@@ -91,25 +100,25 @@ public class GATest {
             assertEquals(popSize, population.getIndividuals().size());
             assertEquals(4852331243713039087L, population.getSeed());
             individual = population.getIndividuals().get(0);
-            assertEquals("swHwwb", individual.getId());
+            assertEquals("9i1pLA6NU8X", individual.getId());
             assertEquals("iehrxved", individual.getGenome());
             assertEquals(53.0, individual.getFitness(), 0);
             individual = population.getIndividuals().get(1);
-            assertEquals("NFKda9", individual.getId());
-            assertEquals("nouijxkx", individual.getGenome());
-            assertEquals(76.0, individual.getFitness(), 0);
+            assertEquals("88FyRtWUVQN", individual.getId());
+            assertEquals("jxkxjhan", individual.getGenome());
+            assertEquals(90.0, individual.getFitness(), 0);
             individual = population.getIndividuals().get(2);
-            assertEquals("Qw14yk", individual.getId());
-            assertEquals("buoulzwd", individual.getGenome());
-            assertEquals(96.0, individual.getFitness(), 0);
+            assertEquals("9HVjhDBoB6C", individual.getId());
+            assertEquals("biymnoui", individual.getGenome());
+            assertEquals(90.0, individual.getFitness(), 0);
             individual = population.getIndividuals().get(3);
-            assertEquals("l1EoDO", individual.getId());
-            assertEquals("kzjjymqw", individual.getGenome());
-            assertEquals(103.0, individual.getFitness(), 0);
+            assertEquals("7RKV5oMUvKv", individual.getId());
+            assertEquals("esxumxbu", individual.getGenome());
+            assertEquals(101.0, individual.getFitness(), 0);
             individual = population.getIndividuals().get(4);
-            assertEquals("N9EvEl", individual.getId());
-            assertEquals("aynovsvo", individual.getGenome());
-            assertEquals(109.0, individual.getFitness(), 0);
+            assertEquals("2tQXM2X7end", individual.getId());
+            assertEquals("oulzwdsm", individual.getGenome());
+            assertEquals(111.0, individual.getFitness(), 0);
 
             return null;
         });
@@ -120,20 +129,20 @@ public class GATest {
 
             Individual<String> individual;
             individual = hallOfFame.get(0);
-            assertEquals("CyMxQ6", individual.getId());
-            assertEquals("ofufbkgg", individual.getGenome());
-            assertEquals(41.0, individual.getFitness(), 0);
+            assertEquals("8oPhLZJYGXe", individual.getId());
+            assertEquals("qjoshtmc", individual.getGenome());
+            assertEquals(49.0, individual.getFitness(), 0);
 
             individual = hallOfFame.get(1);
-            assertEquals("XXp3Lt", individual.getId());
-            assertEquals("rfkcgkmp", individual.getGenome());
-            assertEquals(43.0, individual.getFitness(), 0);
-
-            individual = hallOfFame.get(2);
-            assertEquals("swHwwb", individual.getId());
+            assertEquals("9i1pLA6NU8X", individual.getId());
             assertEquals("iehrxved", individual.getGenome());
             assertEquals(53.0, individual.getFitness(), 0);
 
+            individual = hallOfFame.get(2);
+            assertEquals("0XRKBN5psXV", individual.getId());
+            assertEquals("khveivbt", individual.getGenome());
+            assertEquals(59.0, individual.getFitness(), 0);
+
             assertFalse(iter.hasNext());
             return null;
         });
@@ -155,13 +164,13 @@ public class GATest {
             population = populationMap.get("JHg");
             assertEquals(1, population.getGenerations());
             assertEquals(popSize, population.getIndividuals().size());
-            assertEquals(2278088788093335886L, population.getSeed());
+            assertEquals(695667211764610765L, population.getSeed());
 
             assertTrue(populationMap.containsKey("yxs"));
             population = populationMap.get("yxs");
             assertEquals(1, population.getGenerations());
             assertEquals(popSize, population.getIndividuals().size());
-            assertEquals(1835189412671696170L, population.getSeed());
+            assertEquals(-5189290440592514750L, population.getSeed());
             return null;
         });
         PAssert.that(output.get(hallOfFameTT)).satisfies((SerializableFunction<Iterable<List<Individual<String>>>, Void>) lists -> {
@@ -174,4 +183,40 @@ public class GATest {
         pipeline.run();
     }
 
-}
\ No newline at end of file
+
+    static class CountZerosFn extends Evaluate.FitnessFn<BitStringGenome> {
+        @Override
+        public double fitness(BitStringGenome genome) {
+            return genome.size() - genome.cardinality();
+        }
+    }
+
+    @Test
+    public void testEvolveDeltaBytes() {
+        // It should shuffle several times fewer bytes per generation with delta genomes once the population converges
+        pipeline.getCoderRegistry().registerCoderForClass(BitStringGenome.class, DeltaGenomeCoder.bitString());
+        TupleTag<Population<BitStringGenome>> bitsTT = new TupleTag<>();
+        TupleTag<List<Individual<BitStringGenome>>> bestTT = new TupleTag<>();
+        Evaluate.EvaluateTransform<BitStringGenome> evaluate = Evaluate.as(new CountZerosFn());
+        ModelTransform<BitStringGenome> model = new ModelGenerational<>(new SelectTournamentFn<>(3),
+                Crossover.as(new CrossoverOnePointFn<BitStringGenome>()).withCrossRate(0.7),
+                Mutate.as(new MutateBitFlipFn(1.0 / 4096)).withMutRate(0.5));
+
+        PCollectionTuple output = pipeline.apply(new Initialize<>(Populate.as(new PopulateBitStringFn(4096)).withPopSize(40), evaluate, bitsTT, bestTT, seed, 1, numBest));
+        for (int i = 0; i < 10; i++) {
+            output = output.apply("Evolve" + i, new Evolve<>(model, evaluate, bitsTT, bestTT, numBest));
+        }
+        PAssert.that(output.get(bitsTT)).satisfies((SerializableFunction<Iterable<Population<BitStringGenome>>, Void>) populations -> {
+            Population<BitStringGenome> population = populations.iterator().next();
+            try {
+                int full = CoderUtils.encodeToByteArray(PopulationCoder.of(BitStringGenomeCoder.of()), population).length;
+                int delta = CoderUtils.encodeToByteArray(PopulationCoder.of(DeltaGenomeCoder.bitString()), population).length;
+                assertTrue(full + " bytes against " + delta, full >= 5 * delta);
+            } catch (CoderException e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+        pipeline.run();
+    }
+}
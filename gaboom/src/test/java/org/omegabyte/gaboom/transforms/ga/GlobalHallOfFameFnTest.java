@@ -0,0 +1,71 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GlobalHallOfFameFnTest {
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    private static Individual<Integer> makeIndividual(long id, double fitness) {
+        return new Individual<>(id, 0).withFitness(fitness);
+    }
+
+    @Test
+    // It should keep the numBest distinct individuals of all the halls of fame
+    public void testGlobalHallOfFame() {
+        Individual<Integer> a = makeIndividual(1, 1.0);
+        Individual<Integer> b = makeIndividual(2, 2.0);
+        Individual<Integer> c = makeIndividual(3, 3.0);
+        Individual<Integer> d = makeIndividual(4, 0.5);
+        ListCoder<Individual<Integer>> hallOfFameCoder = ListCoder.of(IndividualCoder.of(VarIntCoder.of()));
+        PCollection<List<Individual<Integer>>> output = pipeline
+                .apply(Create.of(
+                        KV.of("", Arrays.asList(a, b, c)),
+                        KV.of("", Arrays.asList(a, b)),
+                        KV.of("", Arrays.asList(d, a)),
+                        KV.of("", Arrays.asList(d, a, b)))
+                        .withCoder(KvCoder.of(StringUtf8Coder.of(), hallOfFameCoder)))
+                .apply(ParDo.of(new GlobalHallOfFameFn<>(3, hallOfFameCoder)))
+                .setCoder(hallOfFameCoder);
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<List<Individual<Integer>>>, Void>) lists -> {
+            List<List<Long>> outputs = new ArrayList<>();
+            for (List<Individual<Integer>> hallOfFame : lists) {
+                List<Long> ids = new ArrayList<>();
+                hallOfFame.forEach(i -> ids.add(i.getNumericId()));
+                assertTrue(hallOfFame.size() <= 3);
+                assertEquals(hallOfFame.size(), new HashSet<>(ids).size());
+                outputs.add(ids);
+            }
+            // the same hall of fame is not emitted twice
+            Set<List<Long>> distinct = new HashSet<>(outputs);
+            assertEquals(outputs.size(), distinct.size());
+            assertTrue(distinct.contains(Arrays.asList(4L, 1L, 2L)));
+            return null;
+        });
+        pipeline.run();
+    }
+}
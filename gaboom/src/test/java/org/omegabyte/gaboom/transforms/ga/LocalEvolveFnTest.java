@@ -0,0 +1,93 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.transforms.DoFnTester;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+import org.omegabyte.gaboom.transforms.model.ModelTest;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LocalEvolveFnTest {
+    private static final TupleTag<List<Individual<String>>> hallOfFameTT = new TupleTag<>();
+
+    public LocalEvolveFnTest() {
+        ModelTest.SECRET_WORD = "redacted";
+    }
+
+    private static LocalEvolveFn<String> makeFn(int numGenerations) {
+        ModelTest.CrossoverFn crossoverFn = new ModelTest.CrossoverFn();
+        crossoverFn.setCrossRate(0.7);
+        ModelTest.MutateFn mutateFn = new ModelTest.MutateFn(3);
+        mutateFn.setMutRate(0.5);
+        return new LocalEvolveFn<>(new SelectTournamentFn<>(2), crossoverFn, mutateFn, new ModelTest.WordFitnessFn(), hallOfFameTT, 3, numGenerations);
+    }
+
+    private static Population<String> makePopulation() {
+        Random random = new Random(0);
+        ModelTest.WordFitnessFn fitnessFn = new ModelTest.WordFitnessFn();
+        List<Individual<String>> individuals = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            StringBuilder genome = new StringBuilder();
+            for (int j = 0; j < ModelTest.SECRET_WORD.length(); j++) {
+                genome.append((char) (random.nextInt(26) + 'a'));
+            }
+            Individual<String> individual = new Individual<>(random, genome.toString());
+            individual.setFitness(fitnessFn.fitness(individual.getGenome()));
+            individuals.add(individual);
+        }
+        individuals.sort(SortIndividualsFn::compare);
+        return new Population<>("pop", 0, 0, random.nextLong(), individuals);
+    }
+
+    @Test
+    public void testLocalEvolveFn() throws Exception {
+        DoFnTester<Population<String>, Population<String>> fnTester = DoFnTester.of(makeFn(5));
+        List<Population<String>> result = fnTester.processBundle(makePopulation());
+        assertEquals(1, result.size());
+
+        Population<String> population = result.get(0);
+        assertEquals("pop", population.getId());
+        assertEquals(5, population.getGenerations());
+        assertEquals(10, population.getIndividuals().size());
+        for (int i = 1; i < population.getIndividuals().size(); i++) {
+            assertTrue(SortIndividualsFn.compare(population.getIndividuals().get(i-1), population.getIndividuals().get(i)) <= 0);
+        }
+
+        List<List<Individual<String>>> hallOfFames = fnTester.peekOutputElements(hallOfFameTT);
+        assertEquals(1, hallOfFames.size());
+        List<Individual<String>> hallOfFame = hallOfFames.get(0);
+        assertEquals(3, hallOfFame.size());
+        assertTrue(hallOfFame.get(0).getFitness() <= population.getIndividuals().get(0).getFitness());
+        for (int i = 1; i < hallOfFame.size(); i++) {
+            assertTrue(SortIndividualsFn.compare(hallOfFame.get(i-1), hallOfFame.get(i)) <= 0);
+        }
+    }
+
+    @Test
+    public void testLocalEvolveFnDeterministic() throws Exception {
+        Population<String> p1 = DoFnTester.of(makeFn(4)).processBundle(makePopulation()).get(0);
+        Population<String> p2 = DoFnTester.of(makeFn(4)).processBundle(makePopulation()).get(0);
+
+        assertEquals(p1.getSeed(), p2.getSeed());
+        assertEquals(p1.getIndividuals().size(), p2.getIndividuals().size());
+        for (int i = 0; i < p1.getIndividuals().size(); i++) {
+            assertEquals(p1.getIndividuals().get(i).getId(), p2.getIndividuals().get(i).getId());
+            assertEquals(p1.getIndividuals().get(i).getGenome(), p2.getIndividuals().get(i).getGenome());
+            assertEquals(p1.getIndividuals().get(i).getFitness(), p2.getIndividuals().get(i).getFitness());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidGenerations() {
+        makeFn(0);
+    }
+}
@@ -0,0 +1,118 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.Flatten;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Populate;
+import org.omegabyte.gaboom.transforms.model.ModelGenerational;
+import org.omegabyte.gaboom.transforms.model.ModelTest;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LocalEvolveTest {
+    private static final int seed = 0;
+    private static final int popSize = 6;
+    private static final int numPops = 2;
+    private static final int numBest = 3;
+    private static final int numGenerations = 3;
+
+    private static final SelectTournamentFn<String> selectFn = new SelectTournamentFn<>(2);
+    private static final Crossover.CrossoverTransform<String> crossoverTransform = Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.7);
+    private static final Mutate.MutateTransform<String> mutateTransform = Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5);
+    private static final ModelTest.WordFitnessFn fitnessFn = new ModelTest.WordFitnessFn();
+
+    private static final TupleTag<Population<String>> populationTT = new TupleTag<>();
+    private static final TupleTag<List<Individual<String>>> hallOfFameTT = new TupleTag<>();
+
+    public LocalEvolveTest() {
+        ModelTest.SECRET_WORD = "redacted";
+    }
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    static class KeyPopulationFn extends DoFn<Population<String>, KV<String, Population<String>>> {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(KV.of(c.element().getId(), c.element()));
+        }
+    }
+
+    private static void assertSameIndividuals(List<Individual<String>> expected, List<Individual<String>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getGenome(), actual.get(i).getGenome());
+            assertEquals(expected.get(i).getFitness(), actual.get(i).getFitness());
+        }
+    }
+
+    @Test
+    public void testSameAsEvolve() {
+        Evaluate.EvaluateTransform<String> evaluateTransform = Evaluate.as(fitnessFn);
+        PCollectionTuple initial = pipeline.apply(new Initialize<>(Populate.as(new ModelTest.PopulateFn()).withPopSize(popSize), evaluateTransform, populationTT, hallOfFameTT, seed, numPops, numBest));
+
+        PCollectionTuple evolved = initial;
+        for (int i = 0; i < numGenerations; i++) {
+            evolved = evolved.apply("Evolve" + i, new Evolve<>(new ModelGenerational<>(selectFn, crossoverTransform, mutateTransform), evaluateTransform, populationTT, hallOfFameTT, numBest));
+        }
+        PCollectionTuple local = initial.apply(new LocalEvolve<>(selectFn, crossoverTransform, mutateTransform, fitnessFn, populationTT, hallOfFameTT, numBest, numGenerations));
+
+        PCollection<Population<String>> evolvedPopulation = evolved.get(populationTT);
+        PCollection<KV<String, Iterable<Population<String>>>> populations = PCollectionList.of(evolvedPopulation).and(local.get(populationTT))
+                .apply("FlattenPopulations", Flatten.pCollections())
+                .apply(ParDo.of(new KeyPopulationFn()))
+                .setCoder(KvCoder.of(StringUtf8Coder.of(), evolvedPopulation.getCoder()))
+                .apply(GroupByKey.create());
+        PAssert.that(populations).satisfies((SerializableFunction<Iterable<KV<String, Iterable<Population<String>>>>, Void>) kvs -> {
+            int count = 0;
+            for (KV<String, Iterable<Population<String>>> kv : kvs) {
+                List<Population<String>> pair = new ArrayList<>();
+                kv.getValue().forEach(pair::add);
+                assertEquals(2, pair.size());
+                assertEquals(numGenerations, pair.get(0).getGenerations());
+                assertEquals(pair.get(0).getGenerations(), pair.get(1).getGenerations());
+                assertEquals(pair.get(0).getSeed(), pair.get(1).getSeed());
+                assertEquals(pair.get(0).getCreated(), pair.get(1).getCreated());
+                assertSameIndividuals(pair.get(0).getIndividuals(), pair.get(1).getIndividuals());
+                count++;
+            }
+            assertEquals(numPops, count);
+            return null;
+        });
+
+        PCollection<List<Individual<String>>> hallOfFames = PCollectionList.of(evolved.get(hallOfFameTT)).and(local.get(hallOfFameTT))
+                .apply("FlattenHallOfFames", Flatten.pCollections());
+        PAssert.that(hallOfFames).satisfies((SerializableFunction<Iterable<List<Individual<String>>>, Void>) lists -> {
+            List<List<Individual<String>>> pair = new ArrayList<>();
+            lists.forEach(pair::add);
+            assertEquals(2, pair.size());
+            assertEquals(numBest, pair.get(0).size());
+            assertSameIndividuals(pair.get(0), pair.get(1));
+            return null;
+        });
+        pipeline.run();
+    }
+}
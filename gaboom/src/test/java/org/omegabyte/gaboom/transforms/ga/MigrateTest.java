@@ -0,0 +1,131 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.ListCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.IndividualCoder;
+import org.omegabyte.gaboom.coders.PopulationCoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MigrateTest {
+    private static final TupleTag<Population<String>> populationTT = new TupleTag<>();
+    private static final TupleTag<List<Individual<String>>> hallOfFameTT = new TupleTag<>();
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    private static Individual<String> makeIndividual(String id, double fitness) {
+        Individual<String> individual = new Individual<>(id, id);
+        individual.setFitness(fitness);
+        return individual;
+    }
+
+    private static Population<String> makePopulation(String id, int generations, double offset) {
+        List<Individual<String>> individuals = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            individuals.add(makeIndividual(id + i, offset + i));
+        }
+        return new Population<>(id, 0, generations, 0, individuals);
+    }
+
+    @Test
+    // It should send migrants to the neighbours of the topology
+    public void testGetDestinations() {
+        Random rng = new Random(0);
+        assertEquals(Collections.singletonList(0), Migrate.getDestinations(Migrate.Topology.RING, 3, 4, rng));
+        assertEquals(Collections.emptyList(), Migrate.getDestinations(Migrate.Topology.RING, 0, 1, rng));
+        assertEquals(Arrays.asList(0, 2, 3), Migrate.getDestinations(Migrate.Topology.FULLY_CONNECTED, 1, 4, rng));
+
+        // 3 rows of 2
+        assertEquals(new HashSet<>(Arrays.asList(1, 3, 4)), new HashSet<>(Migrate.getDestinations(Migrate.Topology.TORUS, 5, 6, rng)));
+        // 3 rows of 3
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 6)), new HashSet<>(Migrate.getDestinations(Migrate.Topology.TORUS, 0, 9, rng)));
+
+        for (int i = 0; i < 10; i++) {
+            List<Integer> destinations = Migrate.getDestinations(Migrate.Topology.RANDOM, 2, 5, rng);
+            assertEquals(1, destinations.size());
+            assertTrue(destinations.get(0) != 2 && destinations.get(0) >= 0 && destinations.get(0) < 5);
+        }
+    }
+
+    @Test
+    // It should send the best or distinct random individuals
+    public void testGetMigrants() {
+        List<Individual<String>> individuals = Arrays.asList(makeIndividual("c", 3), makeIndividual("a", 1), makeIndividual("b", 2));
+        List<Individual<String>> best = Migrate.getMigrants(individuals, 2, false, new Random(0));
+        assertEquals(Arrays.asList(individuals.get(1), individuals.get(2)), best);
+
+        List<Individual<String>> sample = Migrate.getMigrants(individuals, 2, true, new Random(0));
+        assertEquals(2, sample.size());
+        assertEquals(2, new HashSet<>(sample).size());
+        assertTrue(sample.get(0).getFitness() <= sample.get(1).getFitness());
+
+        assertEquals(3, Migrate.getMigrants(individuals, 5, true, new Random(0)).size());
+    }
+
+    @Test
+    // It should replace the worst individuals by the immigrants
+    public void testMerge() {
+        Population<String> population = makePopulation("p", 2, 0);
+        Individual<String> immigrant = makeIndividual("q0", 0.5);
+        Population<String> result = Migrate.ImmigrateFn.merge(population, Collections.singletonList(new Individuals<>(0, Collections.singletonList(immigrant))));
+        assertEquals("p", result.getId());
+        assertEquals(2, result.getGenerations());
+        assertEquals(Arrays.asList("p0", "q0", "p1"), Arrays.asList(result.getIndividuals().get(0).getId(), result.getIndividuals().get(1).getId(), result.getIndividuals().get(2).getId()));
+        assertEquals(0.5, result.getIndividuals().get(1).getFitness(), 0);
+
+        // an individual already in the population is not merged again
+        Individuals<String> again = new Individuals<>(0, Collections.singletonList(population.getIndividuals().get(0)));
+        assertSame(population, Migrate.ImmigrateFn.merge(population, Collections.singletonList(again)));
+    }
+
+    @Test
+    // It should move the best individual of each population to the next one on the ring
+    public void testMigrate() {
+        List<Population<String>> populations = Arrays.asList(makePopulation("a", 0, 0), makePopulation("b", 0, 10), makePopulation("c", 0, 20), makePopulation("d", 1, 30));
+        PCollection<Population<String>> populationPCollection = pipeline.apply("Populations", Create.of(populations).withCoder(PopulationCoder.of(StringUtf8Coder.of())));
+        PCollection<List<Individual<String>>> hallOfFame = pipeline.apply("HallOfFame", Create.empty(ListCoder.of(IndividualCoder.of(StringUtf8Coder.of()))));
+
+        PCollectionTuple output = PCollectionTuple.of(populationTT, populationPCollection).and(hallOfFameTT, hallOfFame)
+                .apply(new Migrate<>(populationTT, hallOfFameTT).withBestMigrants(1).withInterval(2));
+        PAssert.that(output.get(populationTT)).satisfies((SerializableFunction<Iterable<Population<String>>, Void>) result -> {
+            Map<String, List<String>> ids = new HashMap<>();
+            result.forEach(p -> {
+                assertEquals(3, p.getIndividuals().size());
+                List<String> list = new ArrayList<>();
+                p.getIndividuals().forEach(i -> list.add(i.getId()));
+                ids.put(p.getId(), list);
+            });
+            // d is at generation 1 so it sends nothing to a
+            assertEquals(Arrays.asList("a0", "a1", "a2"), ids.get("a"));
+            assertEquals(Arrays.asList("a0", "b0", "b1"), ids.get("b"));
+            assertEquals(Arrays.asList("b0", "c0", "c1"), ids.get("c"));
+            assertEquals(Arrays.asList("c0", "d0", "d1"), ids.get("d"));
+            return null;
+        });
+        pipeline.run();
+    }
+}
@@ -0,0 +1,40 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.transforms.halloffame.HallOfFameFn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingEvolveFnTest {
+
+    private static Individual<Integer> makeIndividual(long id, double fitness) {
+        return new Individual<>(id, 0).withFitness(fitness);
+    }
+
+    @Test
+    // It should not add again the individuals already in the hall of fame
+    public void testAddNew() {
+        Individual<Integer> a = makeIndividual(1, 1.0);
+        Individual<Integer> b = makeIndividual(2, 2.0);
+        Individual<Integer> c = makeIndividual(3, 3.0);
+        HallOfFameFn<Integer> hallOfFameFn = new HallOfFameFn<>(3);
+
+        List<Individual<Integer>> generation = new ArrayList<>();
+        generation.add(a);
+        generation.add(b);
+        List<Individual<Integer>> hallOfFame = StreamingEvolveFn.addNew(hallOfFameFn, null, generation);
+        assertEquals(2, hallOfFame.size());
+
+        // a and b carry over to the next generation
+        generation.add(c);
+        hallOfFame = StreamingEvolveFn.addNew(hallOfFameFn, hallOfFame, generation);
+        assertEquals(3, hallOfFame.size());
+        assertEquals(1, hallOfFame.get(0).getNumericId());
+        assertEquals(2, hallOfFame.get(1).getNumericId());
+        assertEquals(3, hallOfFame.get(2).getNumericId());
+    }
+}
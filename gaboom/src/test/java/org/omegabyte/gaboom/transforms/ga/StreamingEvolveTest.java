@@ -0,0 +1,122 @@
+package org.omegabyte.gaboom.transforms.ga;
+
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.testing.TestStream;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.joda.time.Duration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.coders.PopulationCoder;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+import org.omegabyte.gaboom.transforms.model.ModelTest;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingEvolveTest {
+    private static final int popSize = 6;
+    private static final int numBest = 3;
+    private static final int maxGenerations = 4;
+    private static final Duration interval = Duration.standardSeconds(10);
+
+    private static final TupleTag<Population<String>> populationTT = new TupleTag<>();
+    private static final TupleTag<List<Individual<String>>> hallOfFameTT = new TupleTag<>();
+
+    public StreamingEvolveTest() {
+        ModelTest.SECRET_WORD = "redacted";
+    }
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    private static Population<String> makePopulation(String id, long seed) {
+        Random random = new Random(seed);
+        ModelTest.WordFitnessFn fitnessFn = new ModelTest.WordFitnessFn();
+        List<Individual<String>> individuals = new ArrayList<>();
+        for (int i = 0; i < popSize; i++) {
+            StringBuilder genome = new StringBuilder();
+            for (int j = 0; j < ModelTest.SECRET_WORD.length(); j++) {
+                genome.append((char) (random.nextInt(26) + 'a'));
+            }
+            Individual<String> individual = new Individual<>(random, genome.toString());
+            individual.setFitness(fitnessFn.fitness(individual.getGenome()));
+            individuals.add(individual);
+        }
+        individuals.sort(SortIndividualsFn::compare);
+        return new Population<>(id, 0, 0, random.nextLong(), individuals);
+    }
+
+    @Test
+    public void testStreamingEvolve() {
+        TestStream.Builder<Population<String>> builder = TestStream.create(PopulationCoder.of(StringUtf8Coder.of()))
+                .addElements(makePopulation("pop1", 1));
+        builder = builder.advanceProcessingTime(interval.plus(1));
+        builder = builder.addElements(makePopulation("pop2", 2));
+        for (int i = 0; i < maxGenerations + 2; i++) {
+            builder = builder.advanceProcessingTime(interval.plus(1));
+        }
+
+        PCollectionTuple output = pipeline.apply(builder.advanceWatermarkToInfinity())
+                .apply(new StreamingEvolve<>(new SelectTournamentFn<>(2), Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.7),
+                        Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5), new ModelTest.WordFitnessFn(), populationTT, hallOfFameTT, numBest)
+                        .withInterval(interval)
+                        .withMaxGenerations(maxGenerations));
+
+        PAssert.that(output.get(populationTT)).satisfies((SerializableFunction<Iterable<Population<String>>, Void>) populations -> {
+            Map<String, List<Integer>> generations = new HashMap<>();
+            populations.forEach(p -> {
+                assertEquals(popSize, p.getIndividuals().size());
+                generations.computeIfAbsent(p.getId(), k -> new ArrayList<>()).add(p.getGenerations());
+            });
+            assertEquals(2, generations.size());
+            generations.values().forEach(g -> {
+                g.sort(Integer::compare);
+                assertEquals(maxGenerations, g.size());
+                for (int i = 0; i < maxGenerations; i++) {
+                    assertEquals(i + 1, (int) g.get(i));
+                }
+            });
+            return null;
+        });
+        PAssert.that(output.get(hallOfFameTT)).satisfies((SerializableFunction<Iterable<List<Individual<String>>>, Void>) lists -> {
+            int count = 0;
+            for (List<Individual<String>> hallOfFame : lists) {
+                assertEquals(numBest, hallOfFame.size());
+                for (int i = 1; i < hallOfFame.size(); i++) {
+                    assertTrue(SortIndividualsFn.compare(hallOfFame.get(i-1), hallOfFame.get(i)) <= 0);
+                }
+                count++;
+            }
+            assertTrue(count > 1);
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    // It should reject crossover and mutate transforms with side inputs
+    public void testSideInputs() {
+        pipeline.enableAbandonedNodeEnforcement(false);
+        PCollectionView<Integer> view = pipeline.apply(Create.of(1)).apply(View.asSingleton());
+        new StreamingEvolve<>(new SelectTournamentFn<>(2), Crossover.as(new ModelTest.CrossoverFn()),
+                Mutate.as(new ModelTest.MutateFn(3)).withSideInputs(view), new ModelTest.WordFitnessFn(), populationTT, hallOfFameTT, numBest);
+    }
+}
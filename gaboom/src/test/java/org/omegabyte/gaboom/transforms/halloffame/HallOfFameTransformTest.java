@@ -11,6 +11,7 @@ import org.omegabyte.gaboom.Individual;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -48,4 +49,22 @@ public class HallOfFameTransformTest {
         pipeline.run();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testHallOfFameTransformWithFanout() {
+        List<List<Individual<Integer>>> lists = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lists.add(Arrays.asList(makeIndividual(i / 10.0), makeIndividual(1 + i / 10.0)));
+        }
+        PCollection<List<Individual<Integer>>> hallOfFame = pipeline.apply("HallOfFame", Create.of(Collections.singletonList(Collections.singletonList(makeIndividual(0.05)))));
+        PCollection<List<Individual<Integer>>> output = pipeline.apply(Create.of(lists))
+                .apply(new HallOfFameTransform<>(hallOfFame, 3).withFanout(4));
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<List<Individual<Integer>>>, Void>) results -> {
+            List<Individual<Integer>> result = results.iterator().next();
+            List<Double> actual = new ArrayList<>();
+            result.forEach(i -> actual.add(i.getFitness()));
+            assertEquals(Arrays.asList(0.0, 0.05, 0.1), actual);
+            return null;
+        });
+        pipeline.run();
+    }
+}
@@ -0,0 +1,71 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.transforms.DoFnTester;
+import org.apache.beam.sdk.values.KV;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.SelectIndividuals;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GenerateOffspringsInKeyFnTest {
+    public GenerateOffspringsInKeyFnTest() {
+        ModelTest.SECRET_WORD = "sobriety";
+    }
+
+    private static GenerateOffspringsInKeyFn<String> makeFn(int tournamentSize) {
+        ModelTest.CrossoverFn crossoverFn = new ModelTest.CrossoverFn();
+        crossoverFn.setCrossRate(0.5);
+        ModelTest.MutateFn mutateFn = new ModelTest.MutateFn(2);
+        mutateFn.setMutRate(0.5);
+        return new GenerateOffspringsInKeyFn<>(new SelectTournamentFn<>(tournamentSize), crossoverFn, mutateFn);
+    }
+
+    private static SelectIndividuals<String> makeSelectIndividuals(int n) {
+        Random random = new Random(0);
+        List<Individual<String>> individuals = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Individual<String> individual = new Individual<>(random, "abcdefgh");
+            individual.setFitness((double) i);
+            individuals.add(individual);
+        }
+        return new SelectIndividuals<>(random.nextLong(), individuals, n);
+    }
+
+    @Test
+    // It should generate n offsprings sorted by id
+    public void testGenerateOffspringsInKeyFn() throws Exception {
+        DoFnTester<KV<String, SelectIndividuals<String>>, KV<String, Individuals<String>>> fnTester = DoFnTester.of(makeFn(3));
+        List<KV<String, Individuals<String>>> result = fnTester.processBundle(KV.of("test", makeSelectIndividuals(5)));
+        assertEquals(1, result.size());
+        assertEquals("test", result.get(0).getKey());
+
+        List<Individual<String>> offsprings = result.get(0).getValue().getIndividuals();
+        assertEquals(5, offsprings.size());
+        for (int i = 1; i < offsprings.size(); i++) {
+            assertTrue(Individual.compareIds(offsprings.get(i-1), offsprings.get(i)) <= 0);
+        }
+
+        // the same seed gives the same offsprings
+        List<KV<String, Individuals<String>>> again = DoFnTester.of(makeFn(3)).processBundle(KV.of("test", makeSelectIndividuals(5)));
+        assertEquals(result.get(0).getValue().getSeed(), again.get(0).getValue().getSeed());
+        for (int i = 0; i < offsprings.size(); i++) {
+            assertEquals(offsprings.get(i).getId(), again.get(0).getValue().getIndividuals().get(i).getId());
+            assertEquals(offsprings.get(i).getGenome(), again.get(0).getValue().getIndividuals().get(i).getGenome());
+        }
+    }
+
+    @Test
+    // It should output nothing when the selection cannot make pairs
+    public void testGenerateOffspringsInKeyFnBadSelection() throws Exception {
+        DoFnTester<KV<String, SelectIndividuals<String>>, KV<String, Individuals<String>>> fnTester = DoFnTester.of(makeFn(10));
+        assertEquals(0, fnTester.processBundle(KV.of("test", makeSelectIndividuals(5))).size());
+    }
+}
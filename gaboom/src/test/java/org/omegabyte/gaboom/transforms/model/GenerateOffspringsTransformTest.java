@@ -5,7 +5,6 @@ import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.Create;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.ParDo;
-import org.apache.beam.sdk.transforms.SerializableFunction;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.junit.Before;
@@ -67,36 +66,58 @@ public class GenerateOffspringsTransformTest {
         pipeline.run();
     }
 
+    private static Void checkOffsprings(Iterable<KV<String, Individuals<String>>> kvs) {
+        KV<String, Individuals<String>> result = kvs.iterator().next();
+        assertEquals("test", result.getKey());
+        assertEquals(3, result.getValue().getIndividuals().size());
+
+        Individual<String> ind;
+
+        ind = result.getValue().getIndividuals().get(0);
+        assertEquals("2cuhZovbqSr", ind.getId());
+        assertEquals("nykrfvzx", ind.getGenome());
+        assertNull(ind.getFitness());
+
+        ind = result.getValue().getIndividuals().get(1);
+        assertEquals("2hOfjOaWB4z", ind.getId());
+        assertEquals("nsomyarh", ind.getGenome());
+        assertEquals((Double) 66.0, ind.getFitness());
+
+        ind = result.getValue().getIndividuals().get(2);
+        assertEquals("9gWWVGYM11o", ind.getId());
+        assertEquals("aokufozx", ind.getGenome());
+        assertNull(ind.getFitness());
+        return null;
+    }
+
     @Test
     public void testGenerateOffspringsTransform() {
         PCollection<KV<String, Individuals<String>>> output = input.apply(GenerateOffspringsTransform.of(
                 new SelectTournamentFn<>(3),
                 Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.5),
                 Mutate.as(new ModelTest.MutateFn(2)).withMutRate(0.5)));
-        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
-            KV<String, Individuals<String>> result = kvs.iterator().next();
-            assertEquals("test", result.getKey());
-            assertEquals(3, result.getValue().getIndividuals().size());
-
-            Individual<String> ind;
-
-            ind = result.getValue().getIndividuals().get(0);
-            assertEquals("0ml7V3", ind.getId());
-            assertEquals("xvvjhpwv", ind.getGenome());
-            assertNull(ind.getFitness());
-
-            ind = result.getValue().getIndividuals().get(1);
-            assertEquals("IzyfWT", ind.getId());
-            assertEquals("onjvxzxz", ind.getGenome());
-            assertEquals((Double) 58.0, ind.getFitness());
-
-            ind = result.getValue().getIndividuals().get(2);
-            assertEquals("hLr8Ry", ind.getId());
-            assertEquals("xvnjhpdq", ind.getGenome());
-            assertEquals((Double) 68.0, ind.getFitness());
-            return null;
-        });
+        PAssert.that(output).satisfies(GenerateOffspringsTransformTest::checkOffsprings);
+        pipeline.run();
+    }
+
+    @Test
+    // It should generate the same offsprings when the pairs are fanned out
+    public void testGenerateOffspringsTransformFanOut() {
+        PCollection<KV<String, Individuals<String>>> output = input.apply(GenerateOffspringsTransform.of(
+                new SelectTournamentFn<>(3),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.5),
+                Mutate.as(new ModelTest.MutateFn(2)).withMutRate(0.5)).withFanOut());
+        PAssert.that(output).satisfies(GenerateOffspringsTransformTest::checkOffsprings);
         pipeline.run();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGenerateOffspringsTransformBadSelectionFanOut() {
+        PCollection<KV<String, Individuals<String>>> output = input.apply(GenerateOffspringsTransform.of(
+                new SelectTournamentFn<>(10),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.5),
+                Mutate.as(new ModelTest.MutateFn(2)).withMutRate(0.5)).withFanOut());
+        PAssert.that(output).empty();
+        pipeline.run();
+    }
+}
@@ -66,28 +66,28 @@ public class ModelDownToSizeTest {
             Individual<String> ind;
 
             ind = result.getValue().getIndividuals().get(0);
-            assertEquals("y7H0e1", ind.getId());
-            assertEquals("powfnsomy", ind.getGenome());
-            assertEquals((Double) 51.0, ind.getFitness());
+            assertEquals("0iRuf1hEB4U", ind.getId());
+            assertEquals("bvnjhmdqi", ind.getGenome());
+            assertEquals((Double) 54.0, ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(1);
-            assertEquals("MdXk0m", ind.getId());
-            assertEquals("powfxsoms", ind.getGenome());
-            assertEquals((Double) 65.0, ind.getFitness());
+            assertEquals("4k1666RMEjS", ind.getId());
+            assertEquals("xvcrastvy", ind.getGenome());
+            assertEquals((Double) 69.0, ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(2);
-            assertEquals("l7V350.ePe", ind.getId());
-            assertEquals("pokjxsomc", ind.getGenome());
-            assertEquals((Double) 65.0, ind.getFitness());
+            assertEquals("77gWKZF0k6w", ind.getId());
+            assertEquals("xvcrmstvk", ind.getGenome());
+            assertEquals((Double) 71.0, ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(3);
-            assertEquals("7vOGJI", ind.getId());
-            assertEquals("zxkgxtsps", ind.getGenome());
-            assertEquals((Double) 73.0, ind.getFitness());
+            assertEquals("5AGpk0k5CKZ", ind.getId());
+            assertEquals("thwvmstvp", ind.getGenome());
+            assertEquals((Double) 72.0, ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(4);
-            assertEquals("KNrHVY", ind.getId());
-            assertEquals("egqflaqlo", ind.getGenome());
+            assertEquals("0I0e1XJMhgl", ind.getId());
+            assertEquals("bcwvmgnyk", ind.getGenome());
             assertEquals((Double) 73.0, ind.getFitness());
             return null;
         });
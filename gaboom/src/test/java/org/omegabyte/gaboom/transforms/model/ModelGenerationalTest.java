@@ -62,28 +62,28 @@ public class ModelGenerationalTest {
             Individual<String> ind;
 
             ind = result.getValue().getIndividuals().get(0);
-            assertEquals("Ir0L33", ind.getId());
-            assertEquals("xxngxpsqs", ind.getGenome());
+            assertEquals("0L2j3hcHFGB", ind.getId());
+            assertEquals("svsragtly", ind.getGenome());
             assertNull(ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(1);
-            assertEquals("KNrHVY.ASk", ind.getId());
-            assertEquals("edtflaqlo", ind.getGenome());
+            assertEquals("33oAdess8an", ind.getId());
+            assertEquals("xpcjdsyvy", ind.getGenome());
             assertNull(ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(2);
-            assertEquals("Lr8Ry8.Y0w", ind.getId());
-            assertEquals("uvnjvpkqd", ind.getGenome());
+            assertEquals("5y0v2n9hPpN", ind.getId());
+            assertEquals("pxfvxkjyk", ind.getGenome());
             assertNull(ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(3);
-            assertEquals("gPSvWE.rbj", ind.getId());
-            assertEquals("uvyychqlo", ind.getGenome());
+            assertEquals("6vFWhlIsgvs", ind.getId());
+            assertEquals("bdtvmgnyk", ind.getGenome());
             assertNull(ind.getFitness());
 
             ind = result.getValue().getIndividuals().get(4);
-            assertEquals("o40mN0", ind.getId());
-            assertEquals("zvkjhtdps", ind.getGenome());
+            assertEquals("8a0ClJNy6S3", ind.getId());
+            assertEquals("spsuguylu", ind.getGenome());
             assertNull(ind.getFitness());
             return null;
         });
@@ -61,27 +61,27 @@ public class ModelMutateStrictTest {
             Individual<String> ind;
 
             ind = result.getValue().getIndividuals().get(0);
-            assertEquals("1r5rgf.yc4", ind.getId());
-            assertEquals("farhfopmfoj", ind.getGenome());
-            assertEquals(87.0, ind.getFitness(), 0);
+            assertEquals("1ASPwDG33CH", ind.getId());
+            assertEquals("uegqflaqloc", ind.getGenome());
+            assertEquals(89.0, ind.getFitness(), 0);
 
             ind = result.getValue().getIndividuals().get(1);
-            assertEquals("QsE9ng", ind.getId());
-            assertEquals("xtspsjdgylu", ind.getGenome());
-            assertEquals(110.0, ind.getFitness(), 0);
+            assertEquals("4k1666RMEjS", ind.getId());
+            assertEquals("crastvybcwv", ind.getGenome());
+            assertEquals(105.0, ind.getFitness(), 0);
 
             ind = result.getValue().getIndividuals().get(2);
-            assertEquals("5hpLmu", ind.getId());
-            assertEquals("ybcwvmgnykr", ind.getGenome());
-            assertEquals(112.0, ind.getFitness(), 0);
+            assertEquals("AfV6VptRLi2", ind.getId());
+            assertEquals("gxtspsjdgyl", ind.getGenome());
+            assertEquals(110.0, ind.getFitness(), 0);
 
             ind = result.getValue().getIndividuals().get(3);
-            assertEquals("O9PiSi", ind.getId());
-            assertEquals("qlocfljbepo", ind.getGenome());
-            assertEquals(88.0, ind.getFitness(), 0);
+            assertEquals("AhpdoJ5o7Kx", ind.getId());
+            assertEquals("mgnskfxvzxk", ind.getGenome());
+            assertEquals(104.0, ind.getFitness(), 0);
 
             ind = result.getValue().getIndividuals().get(4);
-            assertEquals("8Ry8RZ", ind.getId());
+            assertEquals("9hpp4KqDOyN", ind.getId());
             assertEquals("xvnjhpdqdxv", ind.getGenome());
             assertEquals(138.0, ind.getFitness(), 0);
             return null;
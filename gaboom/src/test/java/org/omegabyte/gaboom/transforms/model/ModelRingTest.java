@@ -4,10 +4,11 @@ import org.apache.beam.sdk.testing.PAssert;
 import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.Create;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.DoFnTester;
 import org.apache.beam.sdk.transforms.ParDo;
-import org.apache.beam.sdk.transforms.SerializableFunction;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.TupleTag;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -20,6 +21,7 @@ import org.omegabyte.gaboom.transforms.Mutate;
 import org.omegabyte.gaboom.transforms.Populate;
 
 import java.io.Serializable;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -46,48 +48,119 @@ public class ModelRingTest {
                 .apply(Evaluate.as(new ModelTest.FitnessTransform()));
     }
 
+    private static Void checkRing(Iterable<KV<String, Individuals<String>>> kvs) {
+        KV<String, Individuals<String>> result = kvs.iterator().next();
+        assertEquals("test", result.getKey());
+        assertEquals(5, result.getValue().getIndividuals().size());
+
+        Individual<String> ind;
+
+        ind = result.getValue().getIndividuals().get(0);
+        assertEquals("1ASPwDG33CH", ind.getId());
+        assertEquals("kgxtspsj", ind.getGenome());
+        assertEquals(16.0, ind.getFitness(), 0);
+
+        ind = result.getValue().getIndividuals().get(1);
+        assertEquals("2l4JAllsLhn", ind.getId());
+        assertEquals("kvnjspdq", ind.getGenome());
+        assertEquals(61.0, ind.getFitness(), 0);
+
+        ind = result.getValue().getIndividuals().get(2);
+        assertEquals("4LdzAUVjVfl", ind.getId());
+        assertEquals("xvbpwvlg", ind.getGenome());
+        assertEquals(70.0, ind.getFitness(), 0);
+
+        ind = result.getValue().getIndividuals().get(3);
+        assertEquals("7F7SQ6wwhnA", ind.getId());
+        assertEquals("vyvcrvmt", ind.getGenome());
+        assertEquals(75.0, ind.getFitness(), 0);
+
+        ind = result.getValue().getIndividuals().get(4);
+        assertEquals("5jEGjAGYCzJ", ind.getId());
+        assertEquals("nykrxasx", ind.getGenome());
+        assertEquals(80.0, ind.getFitness(), 0);
+        return null;
+    }
+
+    private static void runRing(TestPipeline pipeline, PCollection<KV<String, Individuals<String>>> input, ModelRing<String> modelRing) {
+        PCollection<KV<String, Individuals<String>>> output = input.apply(modelRing)
+                .apply("Evaluate", Evaluate.as(new ModelTest.FitnessTransform()));
+        PAssert.that(output).satisfies(ModelRingTest::checkRing);
+        pipeline.run();
+    }
+
     @Test
     public void testModelRing() {
-        PCollection<KV<String, Individuals<String>>> output = input.apply(new ModelRing<>(
+        runRing(pipeline, input, new ModelRing<>(
                 Crossover.as(new ModelTest.CrossoverFn()),
                 Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5),
-                new ModelTest.FitnessTransform()
-        )).apply("Evaluate", Evaluate.as(new ModelTest.FitnessTransform()));
-
-        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
-            KV<String, Individuals<String>> result = kvs.iterator().next();
-            assertEquals("test", result.getKey());
-            assertEquals(5, result.getValue().getIndividuals().size());
-
-            Individual<String> ind;
-
-            ind = result.getValue().getIndividuals().get(0);
-            assertEquals("PiSiKy", ind.getId());
-            assertEquals("ljbepowf", ind.getGenome());
-            assertEquals(57.0, ind.getFitness(), 0);
-
-            ind = result.getValue().getIndividuals().get(1);
-            assertEquals("aohYfB", ind.getId());
-            assertEquals("ltvypcwv", ind.getGenome());
-            assertEquals(67.0, ind.getFitness(), 0);
-
-            ind = result.getValue().getIndividuals().get(2);
-            assertEquals("3Ozvcy.D8E", ind.getId());
-            assertEquals("vgnyhpdu", ind.getGenome());
-            assertEquals(69.0, ind.getFitness(), 0);
-
-            ind = result.getValue().getIndividuals().get(3);
-            assertEquals("gGfOKN", ind.getId());
-            assertEquals("yluegqfl", ind.getGenome());
-            assertEquals(69.0, ind.getFitness(), 0);
-
-            ind = result.getValue().getIndividuals().get(4);
-            assertEquals("GSnGWs", ind.getId());
-            assertEquals("xvzjkpdt", ind.getGenome());
-            assertEquals(75.0, ind.getFitness(), 0);
-            return null;
-        });
-        pipeline.run();
+                new ModelTest.FitnessTransform()));
+    }
+
+    @Test
+    // It should keep the same individuals when the ring is reduced inside the population key
+    public void testModelRingInKey() {
+        runRing(pipeline, input, new ModelRing<>(
+                Crossover.as(new ModelTest.CrossoverFn()),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5),
+                new ModelTest.WordFitnessFn()));
+    }
+
+    @Test
+    // It should keep the same individuals when the populations fall back to the fan out
+    public void testModelRingFallback() {
+        runRing(pipeline, input, new ModelRing<>(
+                Crossover.as(new ModelTest.CrossoverFn()),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5),
+                new ModelTest.WordFitnessFn()).withMaxSerialMicros(-1));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testModelRingFanOut() {
+        runRing(pipeline, input, new ModelRing<>(
+                Crossover.as(new ModelTest.CrossoverFn()),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5),
+                new ModelTest.WordFitnessFn()).withFanOut());
+    }
+
+    static class SlowWordFitnessFn extends ModelTest.WordFitnessFn {
+        @Override
+        public double fitness(String genome) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return super.fitness(genome);
+        }
+    }
+
+    @Test
+    // It should fall back to the fan out from the first population of a worker when its evaluation is slow
+    public void testFallbackWithoutEstimate() throws Exception {
+        pipeline.enableAbandonedNodeEnforcement(false);
+        TupleTag<KV<String, Individuals<String>>> fallbackTT = new TupleTag<>();
+        ModelTest.CrossoverFn crossoverFn = new ModelTest.CrossoverFn();
+        crossoverFn.setCrossRate(1);
+        DoFnTester<KV<String, Individuals<String>>, KV<String, Individuals<String>>> fnTester = DoFnTester.of(new ModelRing.RingInKeyFn<>(
+                crossoverFn, new ModelTest.MutateFn(3), new SlowWordFitnessFn(), 20000, fallbackTT));
+        Individuals<String> parents = new Individuals<>(seed);
+        Random random = new Random(seed);
+        for (int i = 0; i < 5; i++) {
+            parents.getIndividuals().add(new Individual<>(random, "abcdefg" + i).withFitness((double) i));
+        }
+
+        fnTester.processElement(KV.of("test", parents));
+        assertEquals(0, fnTester.peekOutputElements().size());
+        assertEquals(1, fnTester.peekOutputElements(fallbackTT).size());
+        assertEquals(5, fnTester.peekOutputElements(fallbackTT).get(0).getValue().getIndividuals().size());
+    }
+
+    @Test
+    // It should estimate the serial evaluation from the measured latency
+    public void testEstimateMicros() {
+        pipeline.enableAbandonedNodeEnforcement(false);
+        assertEquals(0, ModelRing.estimateMicros(0, 0, 10));
+        assertEquals(20, ModelRing.estimateMicros(4000, 2, 10));
+    }
+}
@@ -0,0 +1,155 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.BaseItem;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Populate;
+import org.omegabyte.gaboom.transforms.ga.Evolve;
+import org.omegabyte.gaboom.transforms.ga.Initialize;
+import org.omegabyte.gaboom.transforms.shard.ShardPopulationTransform;
+import org.omegabyte.gaboom.transforms.shard.ShardSelection;
+import org.omegabyte.gaboom.transforms.shard.Shards;
+import org.omegabyte.gaboom.transforms.shard.UnshardPopulationTransform;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ModelShardedTest {
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    public ModelShardedTest() {
+        ModelTest.SECRET_WORD = "chagrined";
+    }
+
+    @Test
+    // It should allocate the pairs in proportion to the masses of the shards
+    public void testAllocate() {
+        assertArrayEquals(new int[]{1, 2, 0, 1}, ModelSharded.allocate(new double[]{1, 2, 0, 1}, 4, 0.5));
+        assertArrayEquals(new int[]{0, 3, 0}, ModelSharded.allocate(new double[]{0, 1, 0}, 3, 0.99));
+        assertArrayEquals(new int[]{0, 0}, ModelSharded.allocate(new double[]{0, 0}, 3, 0.5));
+        assertArrayEquals(new int[]{0, 0}, ModelSharded.allocate(new double[]{1, 1}, 0, 0.5));
+    }
+
+    private void testModelSharded(ShardSelection selection, int popSize) {
+        PCollection<KV<String, Individuals<String>>> output = pipeline.apply(Create.of(new BaseItem(0)))
+                .apply(Populate.as(new ModelTest.PopulateFn()).withPopSize(popSize))
+                .apply(ParDo.of(new ModelGenerationalTest.ToKVIndividuals()))
+                .apply(ShardPopulationTransform.of(3))
+                .apply(Evaluate.as(new ModelTest.FitnessTransform()))
+                .apply(new ModelSharded<>(3,
+                        selection,
+                        Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.5),
+                        Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5)))
+                .apply(UnshardPopulationTransform.of());
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
+            List<KV<String, Individuals<String>>> list = new ArrayList<>();
+            kvs.forEach(list::add);
+            assertEquals(1, list.size());
+            assertEquals("test", list.get(0).getKey());
+            assertEquals(popSize, list.get(0).getValue().getIndividuals().size());
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test
+    // It should make a generation of the size of the population across its shards
+    public void testTournament() {
+        testModelSharded(ShardSelection.tournament(2), 30);
+    }
+
+    @Test
+    // It should make an odd generation across its shards
+    public void testRoulette() {
+        testModelSharded(ShardSelection.roulette(), 31);
+    }
+
+    @Test
+    // It should reshard the offsprings of sharded populations by their id
+    public void testSharded() {
+        ModelSharded<String> model = new ModelSharded<>(3,
+                ShardSelection.tournament(2),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.5),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5));
+        PCollection<KV<String, Individuals<String>>> output = pipeline.apply(Create.of(new BaseItem(0)))
+                .apply(Populate.as(new ModelTest.PopulateFn()).withPopSize(30))
+                .apply(ParDo.of(new ModelGenerationalTest.ToKVIndividuals()))
+                .apply(ShardPopulationTransform.of(3))
+                .apply(Evaluate.as(new ModelTest.FitnessTransform()))
+                .apply(model)
+                .apply("Evaluate offsprings", Evaluate.as(new ModelTest.FitnessTransform()))
+                .apply("Next generation", model);
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
+            Set<String> keys = new HashSet<>();
+            int size = 0;
+            for (KV<String, Individuals<String>> kv : kvs) {
+                assertEquals("test", Shards.populationOf(kv.getKey()));
+                keys.add(kv.getKey());
+                for (Individual<String> individual : kv.getValue().getIndividuals()) {
+                    assertEquals(Shards.shardOf(kv.getKey()), Shards.shardOf(individual.getNumericId(), 3));
+                    size++;
+                }
+            }
+            assertEquals(3, keys.size());
+            assertEquals(30, size);
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test
+    // It should evolve the populations shard by shard
+    public void testEvolve() {
+        TupleTag<Population<String>> populationTT = new TupleTag<>();
+        TupleTag<List<Individual<String>>> hallOfFameTT = new TupleTag<>();
+        Evaluate.EvaluateTransform<String> evaluateTransform = Evaluate.as(new ModelTest.FitnessTransform());
+        ModelSharded<String> model = new ModelSharded<>(3,
+                ShardSelection.roulette(),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.5),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5));
+        PCollectionTuple output = pipeline.apply(new Initialize<>(Populate.as(new ModelTest.PopulateFn()).withPopSize(20), evaluateTransform, populationTT, hallOfFameTT, 0, 2, 3).withNumShards(3))
+                .apply("Evolve1", new Evolve<>(model, evaluateTransform, populationTT, hallOfFameTT, 3))
+                .apply("Evolve2", new Evolve<>(model, evaluateTransform, populationTT, hallOfFameTT, 3));
+        PAssert.that(output.get(populationTT)).satisfies((SerializableFunction<Iterable<Population<String>>, Void>) populations -> {
+            Map<String, Integer> sizes = new HashMap<>();
+            int count = 0;
+            for (Population<String> population : populations) {
+                assertEquals(2, population.getGenerations());
+                for (Individual<String> individual : population.getIndividuals()) {
+                    assertEquals(Shards.shardOf(population.getId()), Shards.shardOf(individual.getNumericId(), 3));
+                }
+                sizes.merge(Shards.populationOf(population.getId()), population.getIndividuals().size(), Integer::sum);
+                count++;
+            }
+            assertEquals(6, count);
+            assertEquals(2, sizes.size());
+            sizes.values().forEach(size -> assertEquals(20, (int) size));
+            return null;
+        });
+        pipeline.run();
+    }
+}
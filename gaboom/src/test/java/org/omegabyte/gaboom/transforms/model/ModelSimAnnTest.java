@@ -1,5 +1,7 @@
 package org.omegabyte.gaboom.transforms.model;
 
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.runners.TransformHierarchy;
 import org.apache.beam.sdk.testing.PAssert;
 import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.Create;
@@ -21,6 +23,7 @@ import org.omegabyte.gaboom.transforms.Populate;
 import java.io.Serializable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class ModelSimAnnTest {
     private static final int seed = 0;
@@ -59,13 +62,68 @@ public class ModelSimAnnTest {
             Individual<String> ind;
 
             ind = result.getValue().getIndividuals().get(0);
-            assertEquals("wTpvkr", ind.getId());
-            assertEquals("jgwlove", ind.getGenome());
-            assertEquals(57.0, ind.getFitness(), 0);
+            assertEquals("2ADgB08SodF", ind.getId());
+            assertEquals("tvgseqa", ind.getGenome());
+            assertEquals(36.0, ind.getFitness(), 0);
             return null;
         });
         pipeline.run();
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testModelSimAnnFitnessFn() {
+        PCollection<KV<String, Individuals<String>>> output = input.apply(new ModelSimAnn<>(
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.8),
+                new ModelTest.WordFitnessFn(),
+                100.0, 1.0, 0.75));
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
+            KV<String, Individuals<String>> result = kvs.iterator().next();
+            assertEquals("test", result.getKey());
+            assertEquals(1, result.getValue().getIndividuals().size());
+
+            Individual<String> ind;
+
+            ind = result.getValue().getIndividuals().get(0);
+            assertEquals("2ADgB08SodF", ind.getId());
+            assertEquals("tvgseqa", ind.getGenome());
+            assertEquals(36.0, ind.getFitness(), 0);
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test
+    public void testModelSimAnnBoundedGraph() {
+        PCollection<KV<String, Individuals<String>>> output = pipeline.apply("CreateLarger", Create.of(new BaseItem(seed)))
+                .apply("PopulateLarger", Populate.as(new ModelTest.PopulateFn()).withPopSize(5))
+                .apply("ToKVLarger", ParDo.of(new ToKVIndividuals()))
+                .apply("EvaluateFn", Evaluate.as(new ModelTest.WordFitnessFn()))
+                .apply(new ModelSimAnn<>(
+                        Mutate.as(new ModelTest.MutateFn(3)),
+                        new ModelTest.WordFitnessFn(),
+                        100.0, 0.1, 0.99));
+
+        int[] nodes = new int[1];
+        pipeline.traverseTopologically(new Pipeline.PipelineVisitor.Defaults() {
+            @Override
+            public void visitPrimitiveTransform(TransformHierarchy.Node node) {
+                nodes[0]++;
+            }
+        });
+        assertTrue(nodes[0] < 50);
+
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
+            KV<String, Individuals<String>> result = kvs.iterator().next();
+            assertEquals("test", result.getKey());
+            assertEquals(5, result.getValue().getIndividuals().size());
+            result.getValue().getIndividuals().forEach(ind -> {
+                assertEquals(Individual.ID_LENGTH, ind.getId().length());
+                assertEquals(new ModelTest.WordFitnessFn().fitness(ind.getGenome()), ind.getFitness(), 0);
+            });
+            return null;
+        });
+        pipeline.run();
+    }
+
+}
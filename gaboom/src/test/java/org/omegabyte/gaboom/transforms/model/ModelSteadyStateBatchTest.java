@@ -0,0 +1,152 @@
+package org.omegabyte.gaboom.transforms.model;
+
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.BaseItem;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Populate;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+import org.omegabyte.gaboom.utils.IdGenerator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ModelSteadyStateBatchTest {
+    private static final int seed = 0;
+    private PCollection<KV<String, Individuals<String>>> input;
+
+    static class ToKVIndividuals extends DoFn<Individuals<String>, KV<String, Individuals<String>>> implements Serializable {
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(KV.of("test", c.element()));
+        }
+    }
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    @Before
+    public void setUpTest() {
+        ModelTest.SECRET_WORD = "hogwash";
+        input = pipeline.apply(Create.of(new BaseItem(seed)))
+                .apply(Populate.as(new ModelTest.PopulateFn()).withPopSize(5))
+                .apply(ParDo.of(new ToKVIndividuals()))
+                .apply(Evaluate.as(new ModelTest.FitnessTransform()));
+    }
+
+    private static Individual<String> makeIndividual(String id, double fitness) {
+        Individual<String> individual = new Individual<>(id, id);
+        individual.setFitness(fitness);
+        return individual;
+    }
+
+    private static void checkPopulation(KV<String, Individuals<String>> result, String bestId, double bestFitness) {
+        List<Individual<String>> individuals = result.getValue().getIndividuals();
+        assertEquals("test", result.getKey());
+        assertEquals(5, individuals.size());
+        for (int i = 0; i < individuals.size(); i++) {
+            assertNotNull(individuals.get(i).getFitness());
+            assertTrue(IdGenerator.isCompact(individuals.get(i).getNumericId()));
+            if (i > 0) {
+                assertTrue(SortIndividualsFn.compare(individuals.get(i-1), individuals.get(i)) <= 0);
+            }
+        }
+        assertEquals(bestId, individuals.get(0).getId());
+        assertEquals(bestFitness, individuals.get(0).getFitness(), 0);
+    }
+
+    @Test
+    // It should replace the individuals at the indices and keep the population sorted
+    public void testReplace() {
+        pipeline.enableAbandonedNodeEnforcement(false);
+        List<Individual<String>> population = new ArrayList<>(Arrays.asList(makeIndividual("a", 1), makeIndividual("b", 2), makeIndividual("c", 3), makeIndividual("d", 4)));
+        ModelSteadyStateBatch.replace(population, Arrays.asList(3, 0), Arrays.asList(makeIndividual("e", 0), makeIndividual("f", 2.5)));
+        assertEquals(Arrays.asList("e", "b", "f", "c"), Arrays.asList(population.get(0).getId(), population.get(1).getId(), population.get(2).getId(), population.get(3).getId()));
+
+        // only the last replacement of an index selected twice is kept
+        ModelSteadyStateBatch.replace(population, Arrays.asList(1, 1), Arrays.asList(makeIndividual("g", 0), makeIndividual("h", 5)));
+        assertEquals(Arrays.asList("e", "f", "c", "h"), Arrays.asList(population.get(0).getId(), population.get(1).getId(), population.get(2).getId(), population.get(3).getId()));
+    }
+
+    @Test
+    // It should keep the best of the parents and offsprings at each step
+    public void testModelSteadyStateBatch() {
+        PCollection<KV<String, Individuals<String>>> output = input.apply(new ModelSteadyStateBatch<>(
+                new SelectTournamentFn<>(2),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.8),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.8),
+                new ModelTest.WordBatchFitnessFn()).withSteps(20));
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
+            checkPopulation(kvs.iterator().next(), "0yjzHxVMOaQ", 21.0);
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test
+    // It should evaluate and sort the offsprings with the loose replacement
+    public void testModelSteadyStateBatchLoose() {
+        PCollection<KV<String, Individuals<String>>> output = input.apply(new ModelSteadyStateBatch<>(
+                new SelectTournamentFn<>(2),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.8),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.8),
+                new ModelTest.WordBatchFitnessFn()).withSteps(20).withLoose());
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
+            checkPopulation(kvs.iterator().next(), "3NddTf2C2K1", 32.0);
+            return null;
+        });
+        pipeline.run();
+    }
+
+    static class CountingBatchFitnessFn extends ModelTest.WordBatchFitnessFn {
+        static final Queue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public List<Double> evaluate(List<Individual<String>> individuals) {
+            batchSizes.add(individuals.size());
+            return super.evaluate(individuals);
+        }
+    }
+
+    @Test
+    // It should evaluate the offsprings of several steps in one batch
+    public void testBatchSteps() {
+        CountingBatchFitnessFn.batchSizes.clear();
+        PCollection<KV<String, Individuals<String>>> output = input.apply(new ModelSteadyStateBatch<>(
+                new SelectTournamentFn<>(2),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(1),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.8),
+                new CountingBatchFitnessFn()).withSteps(20).withBatchSteps(5));
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<String>>>, Void>) kvs -> {
+            KV<String, Individuals<String>> result = kvs.iterator().next();
+            checkPopulation(result, result.getValue().getIndividuals().get(0).getId(), result.getValue().getIndividuals().get(0).getFitness());
+            return null;
+        });
+        pipeline.run();
+
+        assertEquals(4, CountingBatchFitnessFn.batchSizes.size());
+        CountingBatchFitnessFn.batchSizes.forEach(size -> assertEquals(10, (int) size));
+    }
+}
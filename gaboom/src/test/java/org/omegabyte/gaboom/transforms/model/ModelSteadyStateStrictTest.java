@@ -62,29 +62,29 @@ public class ModelSteadyStateStrictTest {
             Individual<String> ind;
 
             ind = result.getValue().getIndividuals().get(0);
-            assertEquals("sE9ngG", ind.getId());
-            assertEquals("jdgylue", ind.getGenome());
-            assertEquals(31.0, ind.getFitness(), 0);
+            assertEquals("4k1666RMEjS", ind.getId());
+            assertEquals("qdxvcra", ind.getGenome());
+            assertEquals(48.0, ind.getFitness(), 0);
 
             ind = result.getValue().getIndividuals().get(1);
-            assertEquals("YZMO9P", ind.getId());
-            assertEquals("locfljb", ind.getGenome());
-            assertEquals(51.0, ind.getFitness(), 0);
-
-            ind = result.getValue().getIndividuals().get(2);
-            assertEquals("KhLr8R", ind.getId());
+            assertEquals("9hpp4KqDOyN", ind.getId());
             assertEquals("xvnjhpd", ind.getGenome());
             assertEquals(57.0, ind.getFitness(), 0);
 
+            ind = result.getValue().getIndividuals().get(2);
+            assertEquals("0I0e1XJMhgl", ind.getId());
+            assertEquals("stvybcw", ind.getGenome());
+            assertEquals(65.0, ind.getFitness(), 0);
+
             ind = result.getValue().getIndividuals().get(3);
-            assertEquals("etKcTf", ind.getId());
-            assertEquals("jdgylxk", ind.getGenome());
-            assertEquals(34.0, ind.getFitness(), 0);
+            assertEquals("AgQATdnvdk1", ind.getId());
+            assertEquals("rdivyqa", ind.getGenome());
+            assertEquals(57.0, ind.getFitness(), 0);
 
             ind = result.getValue().getIndividuals().get(4);
-            assertEquals("6hYkdm", ind.getId());
-            assertEquals("astvybc", ind.getGenome());
-            assertEquals(71.0, ind.getFitness(), 0);
+            assertEquals("1ASPwDG33CH", ind.getId());
+            assertEquals("xvzxkgx", ind.getGenome());
+            assertEquals(81.0, ind.getFitness(), 0);
             return null;
         });
         pipeline.run();
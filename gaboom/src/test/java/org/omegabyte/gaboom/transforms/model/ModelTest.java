@@ -69,6 +69,27 @@ public class ModelTest {
         }
     }
 
+    public static class WordFitnessFn extends Evaluate.FitnessFn<String> {
+        @Override
+        public double fitness(String genome) {
+            double score = 0;
+            for (int i = 0; i < SECRET_WORD.length(); i++) {
+                score += Math.abs(genome.charAt(i) - SECRET_WORD.charAt(i));
+            }
+            return score;
+        }
+    }
+
+    public static class WordBatchFitnessFn extends Evaluate.BatchFitnessFn<String> {
+        @Override
+        public List<Double> evaluate(List<Individual<String>> individuals) {
+            WordFitnessFn fitnessFn = new WordFitnessFn();
+            List<Double> fitnesses = new ArrayList<>();
+            individuals.forEach(i -> fitnesses.add(fitnessFn.fitness(i.getGenome())));
+            return fitnesses;
+        }
+    }
+
     public static class FitnessTransform extends Evaluate.FitnessTransform<String> implements Serializable {
         static class FitnessFn extends DoFn<Individual<String>, Individual<String>> {
             @ProcessElement
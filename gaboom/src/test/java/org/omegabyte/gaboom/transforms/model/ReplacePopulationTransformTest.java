@@ -3,15 +3,21 @@ package org.omegabyte.gaboom.transforms.model;
 import org.apache.beam.sdk.testing.PAssert;
 import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFnTester;
 import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.transforms.join.CoGbkResult;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.TupleTag;
 import org.junit.Rule;
 import org.junit.Test;
 import org.omegabyte.gaboom.Individual;
 import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.transforms.evaluate.SortIndividualsFn;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -93,4 +99,32 @@ public class ReplacePopulationTransformTest {
         PAssert.that(output).empty();
         pipeline.run();
     }
-}
\ No newline at end of file
+
+    @Test
+    // It should let the replaced population be modified without changing the original one
+    public void testModifyReplacedPopulation() throws Exception {
+        Individuals<Integer> originalPopulation = new Individuals<>(0);
+        for (int i = 0; i < 16; i++) {
+            originalPopulation.getIndividuals().add(makeIndividual().withFitness((double) i));
+        }
+        List<Individual<Integer>> original = new ArrayList<>(originalPopulation.getIndividuals());
+        Individuals<Integer> selectedPopulation = new Individuals<>(20, Collections.singletonList(makeIndividual().withFitness(-1.0)));
+
+        TupleTag<Individuals<Integer>> populationTT = new TupleTag<>();
+        TupleTag<Individuals<Integer>> selectedTT = new TupleTag<>();
+        TupleTag<List<Integer>> indicesTT = new TupleTag<>();
+        DoFnTester<KV<String, CoGbkResult>, KV<String, Individuals<Integer>>> fnTester = DoFnTester.of(new ReplacePopulationTransform.ReplacePopulationFn<>(populationTT, selectedTT, indicesTT));
+        CoGbkResult result = CoGbkResult.of(populationTT, Collections.singletonList(originalPopulation))
+                .and(selectedTT, Collections.singletonList(selectedPopulation))
+                .and(indicesTT, Collections.singletonList(Arrays.asList(5)));
+        List<Individual<Integer>> replaced = fnTester.processBundle(KV.of("test", result)).get(0).getValue().getIndividuals();
+
+        replaced.set(0, makeIndividual().withFitness(100.0));
+        replaced.sort(SortIndividualsFn::compare);
+        replaced.add(makeIndividual());
+        replaced.remove(1);
+        assertEquals(16, replaced.size());
+        assertEquals(selectedPopulation.getIndividuals().get(0), replaced.get(0));
+        assertEquals(original, originalPopulation.getIndividuals());
+    }
+}
@@ -15,6 +15,7 @@ public class SetMutantNameFnTest {
     private final Random random = new Random();
 
     @Test
+    // It should pass the individuals through
     public void testSetMutantNameNoChange() throws Exception {
         Individual<Integer> individual = new Individual<>(random, 1234);
         individual.setFitness(1.0);
@@ -25,7 +26,7 @@ public class SetMutantNameFnTest {
         List<KV<String, Individuals<Integer>>> result = fnTester.processBundle(KV.of("test", individuals));
         assertEquals(1, result.size());
         assertEquals("test", result.get(0).getKey());
-        assertEquals(-4962768465676381896L, result.get(0).getValue().getSeed());
+        assertEquals(0, result.get(0).getValue().getSeed());
         assertEquals(1, result.get(0).getValue().getIndividuals().size());
 
         Individual<Integer> actual = result.get(0).getValue().getIndividuals().get(0);
@@ -35,8 +36,9 @@ public class SetMutantNameFnTest {
     }
 
     @Test
-    public void testSetMutantNameWithChange() throws Exception {
-        Individual<Integer> individual = new Individual<>("abc123.dfg", 1234);
+    // It should keep the id and the lineage of a mutant
+    public void testSetMutantNameMutant() throws Exception {
+        Individual<Integer> individual = new Individual<>(random, 1234).mutant(random);
         individual.setFitness(1.0);
         Individuals<Integer> individuals = new Individuals<>(0);
         individuals.getIndividuals().add(individual);
@@ -45,14 +47,14 @@ public class SetMutantNameFnTest {
         List<KV<String, Individuals<Integer>>> result = fnTester.processBundle(KV.of("test", individuals));
         assertEquals(1, result.size());
         assertEquals("test", result.get(0).getKey());
-        assertEquals(-4962768465676381896L, result.get(0).getValue().getSeed());
+        assertEquals(0, result.get(0).getValue().getSeed());
         assertEquals(1, result.get(0).getValue().getIndividuals().size());
 
         Individual<Integer> actual = result.get(0).getValue().getIndividuals().get(0);
-        assertEquals("Pbd715", actual.getId());
+        assertEquals(individual.getId(), actual.getId());
+        assertEquals(individual.getLineageId(), actual.getLineageId());
         assertEquals(individual.getGenome(), actual.getGenome());
         assertEquals(individual.getFitness(), actual.getFitness());
-
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.omegabyte.gaboom.transforms.mutate;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MutateBitFlipFnTest {
+
+    @Test
+    public void testMutate() {
+        BitStringGenome genome = BitStringGenome.wrap(new long[16], 1000);
+        Random random = new Random(0);
+        int flipped = 0;
+        for (int i = 0; i < 100; i++) {
+            flipped += new MutateBitFlipFn(0.01).mutate(null, random, genome).cardinality();
+        }
+        assertTrue(flipped > 800 && flipped < 1200);
+        assertEquals(0, genome.cardinality());
+    }
+
+    @Test
+    public void testBounds() {
+        BitStringGenome genome = BitStringGenome.wrap(new long[2], 100);
+        assertEquals(genome, new MutateBitFlipFn(0).mutate(null, new Random(0), genome));
+        assertEquals(100, new MutateBitFlipFn(1).mutate(null, new Random(0), genome).cardinality());
+    }
+}
@@ -0,0 +1,30 @@
+package org.omegabyte.gaboom.transforms.mutate;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class MutateGaussianFnTest {
+
+    @Test
+    public void testMutate() {
+        DoubleVectorGenome genome = DoubleVectorGenome.of(1, 2, 3);
+        DoubleVectorGenome result = new MutateGaussianFn(0.1).mutate(null, new Random(0), genome);
+        assertEquals(3, result.size());
+        for (int i = 0; i < 3; i++) {
+            assertNotEquals(genome.get(i), result.get(i), 0);
+            assertEquals(genome.get(i), result.get(i), 1);
+        }
+        assertEquals(DoubleVectorGenome.of(1, 2, 3), genome);
+    }
+
+    @Test
+    public void testGeneRate() {
+        DoubleVectorGenome genome = DoubleVectorGenome.of(1, 2, 3);
+        assertEquals(genome, new MutateGaussianFn(0.1, 0).mutate(null, new Random(0), genome));
+    }
+}
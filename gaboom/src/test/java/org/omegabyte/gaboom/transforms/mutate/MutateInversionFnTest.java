@@ -0,0 +1,32 @@
+package org.omegabyte.gaboom.transforms.mutate;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class MutateInversionFnTest {
+
+    @Test
+    public void testMutate() {
+        PermutationGenome genome = PermutationGenome.identity(10);
+        Random random = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            PermutationGenome result = new MutateInversionFn().mutate(null, random, genome);
+            assertNotEquals(genome, result);
+
+            int from = 0;
+            while (result.get(from) == from) {
+                from++;
+            }
+            int to = 9;
+            while (result.get(to) == to) {
+                to--;
+            }
+            assertEquals(genome.reverse(from, to), result);
+        }
+    }
+}
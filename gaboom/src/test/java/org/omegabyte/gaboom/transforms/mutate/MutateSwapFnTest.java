@@ -0,0 +1,27 @@
+package org.omegabyte.gaboom.transforms.mutate;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MutateSwapFnTest {
+
+    @Test
+    public void testMutate() {
+        PermutationGenome genome = PermutationGenome.identity(10);
+        Random random = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            PermutationGenome result = new MutateSwapFn().mutate(null, random, genome);
+            int changed = 0;
+            for (int i = 0; i < 10; i++) {
+                if (result.get(i) != i) {
+                    changed++;
+                }
+            }
+            assertEquals(2, changed);
+        }
+    }
+}
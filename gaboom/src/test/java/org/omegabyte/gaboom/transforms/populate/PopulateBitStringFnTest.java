@@ -0,0 +1,19 @@
+package org.omegabyte.gaboom.transforms.populate;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.BitStringGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PopulateBitStringFnTest {
+
+    @Test
+    public void testMakeGenome() {
+        BitStringGenome genome = new PopulateBitStringFn(100).makeGenome(null, new Random(0));
+        assertEquals(100, genome.size());
+        assertTrue(genome.cardinality() > 0 && genome.cardinality() < 100);
+    }
+}
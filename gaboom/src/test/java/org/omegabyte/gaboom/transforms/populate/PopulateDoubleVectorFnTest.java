@@ -0,0 +1,21 @@
+package org.omegabyte.gaboom.transforms.populate;
+
+import org.junit.Test;
+import org.omegabyte.gaboom.genome.DoubleVectorGenome;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PopulateDoubleVectorFnTest {
+
+    @Test
+    public void testMakeGenome() {
+        DoubleVectorGenome genome = new PopulateDoubleVectorFn(20, -1, 1).makeGenome(null, new Random(0));
+        assertEquals(20, genome.size());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(genome.get(i) >= -1 && genome.get(i) < 1);
+        }
+    }
+}
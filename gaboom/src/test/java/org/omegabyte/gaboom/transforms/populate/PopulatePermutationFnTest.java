@@ -0,0 +1,43 @@
+package org.omegabyte.gaboom.transforms.populate;
+
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.BaseItem;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.coders.IndividualsCoder;
+import org.omegabyte.gaboom.coders.PermutationGenomeCoder;
+import org.omegabyte.gaboom.genome.PermutationGenome;
+import org.omegabyte.gaboom.transforms.Populate;
+
+public class PopulatePermutationFnTest {
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    @Test
+    // It should build a population of permutations encoded with the permutation coder
+    public void testPopulateTransform() {
+        PCollection<Individuals<PermutationGenome>> population = pipeline
+                .apply(Create.of(new BaseItem(0)))
+                .apply(Populate.as(new PopulatePermutationFn(8)).withPopSize(5));
+        Assert.assertEquals(IndividualsCoder.of(PermutationGenomeCoder.of()), population.getCoder());
+
+        PAssert.that(population).satisfies((SerializableFunction<Iterable<Individuals<PermutationGenome>>, Void>) individuals -> {
+            individuals.forEach(indis -> {
+                Assert.assertEquals(5, indis.getIndividuals().size());
+                indis.getIndividuals().forEach(ind -> {
+                    // the constructor validates the permutation
+                    Assert.assertEquals(ind.getGenome(), PermutationGenome.of(ind.getGenome().toArray()));
+                });
+            });
+            return null;
+        });
+        pipeline.run();
+    }
+}
@@ -0,0 +1,40 @@
+package org.omegabyte.gaboom.transforms.select;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RemainingIndicesTest {
+
+    @Test
+    // It should remove the indices by rank like a list of the remaining indices
+    public void testRemove() {
+        Random rng = new Random(0);
+        for (int size : new int[]{1, 2, 7, 8, 100}) {
+            RemainingIndices remaining = new RemainingIndices(size);
+            List<Integer> options = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                options.add(i);
+            }
+            while (!options.isEmpty()) {
+                assertEquals(options.size(), remaining.size());
+                int rank = rng.nextInt(options.size());
+                assertEquals((int) options.get(options.size() - 1), remaining.get(options.size() - 1));
+                assertEquals((int) options.remove(rank), remaining.remove(rank));
+            }
+            assertEquals(0, remaining.size());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    // It should not find a rank past the remaining indices
+    public void testGetOutOfBounds() {
+        RemainingIndices remaining = new RemainingIndices(3);
+        remaining.remove(0);
+        remaining.get(2);
+    }
+}
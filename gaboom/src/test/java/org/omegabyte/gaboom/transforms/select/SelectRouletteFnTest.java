@@ -71,4 +71,15 @@ public class SelectRouletteFnTest {
         KV<String, SelectIndividuals<Integer>> testInput = KV.of("test", new SelectIndividuals<Integer>(new Individuals<>(20), 10));
         assert fnTester.processBundle(testInput).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    //@DisplayName("It should find the slot of the wheel of a value")
+    public void testSpin() {
+        double[] wheel = SelectRouletteFn.getWheel(individualsList);
+        assertEquals(1.0, wheel[wheel.length - 1], 1e-12);
+        assertEquals(0, SelectRouletteFn.spin(wheel, 0));
+        assertEquals(1, SelectRouletteFn.spin(wheel, wheel[0]));
+        assertEquals(2, SelectRouletteFn.spin(wheel, (wheel[1] + wheel[2]) / 2));
+        assertEquals(3, SelectRouletteFn.spin(wheel, 1.0));
+    }
+}
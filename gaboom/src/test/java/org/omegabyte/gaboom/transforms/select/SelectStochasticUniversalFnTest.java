@@ -0,0 +1,71 @@
+package org.omegabyte.gaboom.transforms.select;
+
+import org.apache.beam.sdk.transforms.DoFnTester;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Before;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.SelectIndividuals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SelectStochasticUniversalFnTest {
+    private List<Individual<Integer>> individualsList;
+
+    @Before
+    public void initEach() {
+        individualsList = new ArrayList<>();
+
+        Individual<Integer> individual;
+        individual = new Individual<>("a", 1);
+        individual.setFitness(0.0);
+        individualsList.add(individual);
+        individual = new Individual<>("b", 2);
+        individual.setFitness(1.0);
+        individualsList.add(individual);
+        individual = new Individual<>("c", 3);
+        individual.setFitness(2.0);
+        individualsList.add(individual);
+    }
+
+    @Test
+    //@DisplayName("It should select n Individuals in proportion to their slot of the wheel")
+    public void testProcessElement() throws Exception {
+        TupleTag<KV<String, List<Integer>>> selectedIndexesTT = new TupleTag<>();
+        SelectStochasticUniversalFn<Integer> selectFn = new SelectStochasticUniversalFn<>();
+        selectFn.setSelectIndicesTupleTag(selectedIndexesTT);
+        DoFnTester<KV<String, SelectIndividuals<Integer>>, KV<String, Individuals<Integer>>> fnTester = DoFnTester.of(selectFn);
+
+        // the wheel is 3/6, 2/6, 1/6 so 6 pointers select each individual exactly 3, 2 and 1 times
+        KV<String, SelectIndividuals<Integer>> testInput = KV.of("test", new SelectIndividuals<>(new Individuals<>(20, individualsList), 6));
+        List<KV<String, Individuals<Integer>>> result = fnTester.processBundle(testInput);
+        assertEquals(1, result.size());
+        assertEquals("test", result.get(0).getKey());
+        List<Individual<Integer>> individuals = result.get(0).getValue().getIndividuals();
+        assertEquals(6, individuals.size());
+
+        List<KV<String, List<Integer>>> resultIndices = fnTester.takeOutputElements(selectedIndexesTT);
+        assertEquals(1, resultIndices.size());
+        List<Integer> indices = resultIndices.get(0).getValue();
+        assertEquals(3, Collections.frequency(indices, 0));
+        assertEquals(2, Collections.frequency(indices, 1));
+        assertEquals(1, Collections.frequency(indices, 2));
+        for (int i = 0; i < indices.size(); i++) {
+            assertEquals(individualsList.get(indices.get(i)), individuals.get(i));
+        }
+    }
+
+    @Test
+    //@DisplayName("It should not return anything if there are no individuals to choose from")
+    public void testNoIndividuals() throws Exception {
+        DoFnTester<KV<String, SelectIndividuals<Integer>>, KV<String, Individuals<Integer>>> fnTester = DoFnTester.of(new SelectStochasticUniversalFn<>());
+        KV<String, SelectIndividuals<Integer>> testInput = KV.of("test", new SelectIndividuals<Integer>(new Individuals<>(20), 10));
+        assert fnTester.processBundle(testInput).isEmpty();
+    }
+}
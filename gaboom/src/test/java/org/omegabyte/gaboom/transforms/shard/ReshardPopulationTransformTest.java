@@ -0,0 +1,58 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReshardPopulationTransformTest {
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    @Test
+    // It should move the individuals to the shard of their id, and emit the emptied shards
+    public void testReshardPopulation() {
+        Individuals<Integer> individuals = ShardPopulationTransformTest.makeIndividuals(40);
+        PCollection<KV<String, Individuals<Integer>>> output = pipeline
+                .apply(Create.<KV<String, Individuals<Integer>>>of(
+                        KV.of(Shards.key("p", 0), new Individuals<>(1, new ArrayList<>(individuals.getIndividuals().subList(0, 30)))),
+                        KV.of(Shards.key("p", 1), new Individuals<>(2, new ArrayList<>(individuals.getIndividuals().subList(30, 40)))),
+                        KV.of(Shards.key("p", 2), new Individuals<>(3, new ArrayList<>()))))
+                .apply(ReshardPopulationTransform.<Integer>of(3));
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<Integer>>>, Void>) kvs -> {
+            Set<String> keys = new HashSet<>();
+            int size = 0;
+            for (KV<String, Individuals<Integer>> kv : kvs) {
+                assertEquals("p", Shards.populationOf(kv.getKey()));
+                keys.add(kv.getKey());
+                for (Individual<Integer> individual : kv.getValue().getIndividuals()) {
+                    assertEquals(Shards.shardOf(kv.getKey()), Shards.shardOf(individual.getNumericId(), 3));
+                    size++;
+                }
+            }
+            assertEquals(3, keys.size());
+            assertEquals(40, size);
+            return null;
+        });
+        pipeline.run();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    // It should not reshard into no shard
+    public void testNoShards() {
+        ReshardPopulationTransform.of(0);
+    }
+}
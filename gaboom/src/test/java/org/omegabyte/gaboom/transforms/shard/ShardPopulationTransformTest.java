@@ -0,0 +1,62 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShardPopulationTransformTest {
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    static Individuals<Integer> makeIndividuals(int n) {
+        Random rng = new Random(0);
+        List<Individual<Integer>> individuals = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            individuals.add(new Individual<>(rng, i));
+        }
+        return new Individuals<>(7, individuals);
+    }
+
+    @Test
+    // It should split every population into its shards
+    public void testShardPopulation() {
+        Individuals<Integer> individuals = makeIndividuals(40);
+        PCollection<KV<String, Individuals<Integer>>> output = pipeline
+                .apply(Create.of(KV.of("p", individuals)))
+                .apply(ShardPopulationTransform.of(4));
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<Integer>>>, Void>) kvs -> {
+            Set<String> keys = new HashSet<>();
+            Set<Long> seeds = new HashSet<>();
+            int size = 0;
+            for (KV<String, Individuals<Integer>> kv : kvs) {
+                keys.add(kv.getKey());
+                seeds.add(kv.getValue().getSeed());
+                for (Individual<Integer> individual : kv.getValue().getIndividuals()) {
+                    assertEquals(Shards.shardOf(kv.getKey()), Shards.shardOf(individual.getNumericId(), 4));
+                    size++;
+                }
+            }
+            assertEquals(4, keys.size());
+            assertEquals(4, seeds.size());
+            assertEquals(40, size);
+            return null;
+        });
+        pipeline.run();
+    }
+}
@@ -0,0 +1,68 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individuals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShardRankingTest {
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    @Test
+    // It should interpolate the rank of a fitness between the boundaries
+    public void testRank() {
+        List<Double> boundaries = Arrays.asList(0.0, 1.0, 3.0);
+        assertEquals(0, ShardRanking.rank(boundaries, -1), 0);
+        assertEquals(0.25, ShardRanking.rank(boundaries, 0.5), 1e-12);
+        assertEquals(0.5, ShardRanking.rank(boundaries, 1), 1e-12);
+        assertEquals(0.75, ShardRanking.rank(boundaries, 2), 1e-12);
+        assertEquals(1, ShardRanking.rank(boundaries, 5), 0);
+        assertEquals(0, ShardRanking.rank(Arrays.asList(2.0, 2.0), 2), 0);
+    }
+
+    static class BoundariesFn extends DoFn<String, List<Double>> {
+        private final PCollectionView<Map<String, List<Double>>> view;
+
+        BoundariesFn(PCollectionView<Map<String, List<Double>>> view) {
+            this.view = view;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(c.sideInput(view).get(c.element()));
+        }
+    }
+
+    @Test
+    // It should find the quantiles of the fitness of each population over its shards
+    public void testShardRanking() {
+        Individuals<Integer> individuals = ShardPopulationTransformTest.makeIndividuals(41);
+        for (int i = 0; i < 41; i++) {
+            individuals.getIndividuals().get(i).setFitness((double) i);
+        }
+        PCollectionView<Map<String, List<Double>>> view = pipeline
+                .apply("Population", Create.of(KV.of("p", individuals)))
+                .apply(ShardPopulationTransform.of(3))
+                .apply(new ShardRanking<>(5));
+        PCollection<List<Double>> output = pipeline.apply("Key", Create.of("p"))
+                .apply(ParDo.of(new BoundariesFn(view)).withSideInputs(view));
+        PAssert.thatSingleton(output).isEqualTo(Arrays.asList(0.0, 10.0, 20.0, 30.0, 40.0));
+        pipeline.run();
+    }
+}
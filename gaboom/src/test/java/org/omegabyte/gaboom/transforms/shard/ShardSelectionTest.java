@@ -0,0 +1,26 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShardSelectionTest {
+
+    @Test
+    // It should weight the individuals by the chance they win a tournament
+    public void testTournament() {
+        ShardSelection selection = ShardSelection.tournament(3);
+        assertEquals(3, selection.weight(5, 0, 10), 1e-12);
+        assertEquals(0.75, selection.weight(5, 0.5, 10), 1e-12);
+        assertEquals(0, selection.weight(10, 1, 10), 1e-12);
+        assertEquals(1, ShardSelection.tournament(1).weight(10, 1, 10), 1e-12);
+    }
+
+    @Test
+    // It should weight the individuals like the roulette wheel
+    public void testRoulette() {
+        ShardSelection selection = ShardSelection.roulette();
+        assertEquals(6, selection.weight(5, 0.5, 10), 1e-12);
+        assertEquals(1, selection.weight(10, 1, 10), 1e-12);
+    }
+}
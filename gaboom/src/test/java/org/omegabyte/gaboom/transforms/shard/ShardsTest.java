@@ -0,0 +1,41 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShardsTest {
+
+    @Test
+    // It should name the shards of a population
+    public void testKey() {
+        String key = Shards.key("pop#1", 12);
+        assertEquals("pop#1#12", key);
+        assertEquals("pop#1", Shards.populationOf(key));
+        assertEquals(12, Shards.shardOf(key));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    // It should not find the population of a key that is not a shard
+    public void testNotShardKey() {
+        Shards.populationOf("pop");
+    }
+
+    @Test
+    // It should spread the ids over the shards
+    public void testShardOf() {
+        Random rng = new Random(0);
+        int[] counts = new int[4];
+        for (int i = 0; i < 4000; i++) {
+            int shard = Shards.shardOf(rng.nextLong(), 4);
+            assertTrue(shard >= 0 && shard < 4);
+            counts[shard]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1200);
+        }
+    }
+}
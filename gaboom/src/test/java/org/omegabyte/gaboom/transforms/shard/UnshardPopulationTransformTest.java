@@ -0,0 +1,51 @@
+package org.omegabyte.gaboom.transforms.shard;
+
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Individuals;
+import org.omegabyte.gaboom.utils.SplitMixRandom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class UnshardPopulationTransformTest {
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    @Test
+    // It should merge the shards back into their population
+    public void testUnshardPopulation() {
+        Individuals<Integer> individuals = ShardPopulationTransformTest.makeIndividuals(40);
+        for (int i = 0; i < 40; i++) {
+            individuals.getIndividuals().get(i).setFitness((double) (i * 7 % 40));
+        }
+        PCollection<KV<String, Individuals<Integer>>> output = pipeline
+                .apply(Create.of(KV.of("p", individuals)))
+                .apply(ShardPopulationTransform.of(4))
+                .apply(UnshardPopulationTransform.of());
+        PAssert.that(output).satisfies((SerializableFunction<Iterable<KV<String, Individuals<Integer>>>, Void>) kvs -> {
+            List<KV<String, Individuals<Integer>>> list = new ArrayList<>();
+            kvs.forEach(list::add);
+            assertEquals(1, list.size());
+            assertEquals("p", list.get(0).getKey());
+            assertEquals(SplitMixRandom.split(7, 0), list.get(0).getValue().getSeed());
+            List<Individual<Integer>> result = list.get(0).getValue().getIndividuals();
+            assertEquals(40, result.size());
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i, result.get(i).getFitness(), 0);
+            }
+            return null;
+        });
+        pipeline.run();
+    }
+}
@@ -0,0 +1,117 @@
+package org.omegabyte.gaboom.utils;
+
+import org.apache.beam.sdk.PipelineResult;
+import org.apache.beam.sdk.metrics.DistributionResult;
+import org.apache.beam.sdk.metrics.MetricNameFilter;
+import org.apache.beam.sdk.metrics.MetricQueryResults;
+import org.apache.beam.sdk.metrics.MetricResult;
+import org.apache.beam.sdk.metrics.MetricsFilter;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Rule;
+import org.junit.Test;
+import org.omegabyte.gaboom.Individual;
+import org.omegabyte.gaboom.Population;
+import org.omegabyte.gaboom.transforms.Crossover;
+import org.omegabyte.gaboom.transforms.Evaluate;
+import org.omegabyte.gaboom.transforms.Mutate;
+import org.omegabyte.gaboom.transforms.Populate;
+import org.omegabyte.gaboom.transforms.ga.Evolve;
+import org.omegabyte.gaboom.transforms.ga.Initialize;
+import org.omegabyte.gaboom.transforms.model.ModelGenerational;
+import org.omegabyte.gaboom.transforms.model.ModelTest;
+import org.omegabyte.gaboom.transforms.select.SelectTournamentFn;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GaboomMetricsTest {
+    private static final int seed = 0;
+    private static final int popSize = 6;
+    private static final int numPops = 2;
+    private static final int numBest = 3;
+
+    private static final TupleTag<Population<String>> populationTT = new TupleTag<>();
+    private static final TupleTag<List<Individual<String>>> hallOfFameTT = new TupleTag<>();
+
+    public GaboomMetricsTest() {
+        ModelTest.SECRET_WORD = "redacted";
+    }
+
+    @Rule
+    public transient TestPipeline pipeline = TestPipeline.create();
+
+    private static MetricQueryResults query(PipelineResult result, String name) {
+        return result.metrics().queryMetrics(MetricsFilter.builder()
+                .addNameFilter(MetricNameFilter.named(GaboomMetrics.NAMESPACE, name))
+                .build());
+    }
+
+    private static long counter(PipelineResult result, String name) {
+        long total = 0;
+        for (MetricResult<Long> counter : query(result, name).counters()) {
+            total += counter.attempted();
+        }
+        return total;
+    }
+
+    private static long distributionCount(PipelineResult result, String name) {
+        long total = 0;
+        for (MetricResult<DistributionResult> distribution : query(result, name).distributions()) {
+            total += distribution.attempted().count();
+        }
+        return total;
+    }
+
+    @Test
+    // It should report the evaluations, selections, offsprings and populations of a generation
+    public void testEvolveMetrics() {
+        Evaluate.EvaluateTransform<String> evaluateTransform = Evaluate.as(new ModelTest.WordFitnessFn()).withFanOut();
+        PCollectionTuple initial = pipeline.apply(new Initialize<>(Populate.as(new ModelTest.PopulateFn()).withPopSize(popSize), evaluateTransform, populationTT, hallOfFameTT, seed, numPops, numBest));
+        initial.apply(new Evolve<>(new ModelGenerational<>(
+                new SelectTournamentFn<>(2),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.7),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5)),
+                evaluateTransform, populationTT, hallOfFameTT, numBest));
+        PipelineResult result = pipeline.run();
+        result.waitUntilFinish();
+
+        long evaluations = counter(result, GaboomMetrics.FITNESS_EVALUATIONS);
+        assertTrue(evaluations >= numPops * popSize);
+        assertEquals(numPops * popSize * 2, evaluations + counter(result, GaboomMetrics.ALREADY_EVALUATED));
+        assertEquals(evaluations, distributionCount(result, GaboomMetrics.FITNESS_LATENCY_MICROS));
+
+        assertEquals(numPops * popSize, counter(result, GaboomMetrics.SELECTED));
+        assertEquals(numPops * popSize, counter(result, GaboomMetrics.OFFSPRINGS));
+        assertEquals(0, counter(result, GaboomMetrics.SELECTION_ERRORS));
+        assertEquals(0, counter(result, GaboomMetrics.CROSSOVER_ERRORS));
+        assertEquals(0, counter(result, GaboomMetrics.OFFSPRING_ERRORS));
+
+        assertEquals(numPops * 2, counter(result, GaboomMetrics.POPULATIONS));
+        assertEquals(numPops * 2, distributionCount(result, GaboomMetrics.BEST_FITNESS));
+        assertEquals(numPops * 2, distributionCount(result, GaboomMetrics.MEAN_FITNESS));
+        assertEquals(numPops * 2, distributionCount(result, GaboomMetrics.GENERATION));
+    }
+
+    @Test
+    // It should count the evaluations of a fitness transform, without its latency
+    public void testFitnessTransformMetrics() {
+        Evaluate.EvaluateTransform<String> evaluateTransform = Evaluate.as(new ModelTest.FitnessTransform());
+        PCollectionTuple initial = pipeline.apply(new Initialize<>(Populate.as(new ModelTest.PopulateFn()).withPopSize(popSize), evaluateTransform, populationTT, hallOfFameTT, seed, numPops, numBest));
+        initial.apply(new Evolve<>(new ModelGenerational<>(
+                new SelectTournamentFn<>(2),
+                Crossover.as(new ModelTest.CrossoverFn()).withCrossRate(0.7),
+                Mutate.as(new ModelTest.MutateFn(3)).withMutRate(0.5)),
+                evaluateTransform, populationTT, hallOfFameTT, numBest));
+        PipelineResult result = pipeline.run();
+        result.waitUntilFinish();
+
+        long evaluations = counter(result, GaboomMetrics.FITNESS_EVALUATIONS);
+        assertTrue(evaluations >= numPops * popSize);
+        assertEquals(numPops * popSize * 2, evaluations + counter(result, GaboomMetrics.ALREADY_EVALUATED));
+        assertEquals(0, distributionCount(result, GaboomMetrics.FITNESS_LATENCY_MICROS));
+    }
+}
@@ -2,9 +2,13 @@ package org.omegabyte.gaboom.utils;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 public class IdGeneratorTest {
 
@@ -16,4 +20,88 @@ public class IdGeneratorTest {
         assertEquals("22Pbd7", IdGenerator.newId(r, 6));
     }
 
-}
\ No newline at end of file
+    @Test
+    // It should draw a compact id that renders and parses back
+    public void testNextId() {
+        long id = IdGenerator.nextId(new Random(0));
+        assertTrue(IdGenerator.isCompact(id));
+        String string = IdGenerator.toString(id);
+        assertEquals(IdGenerator.ID_LENGTH, string.length());
+        assertEquals(id, IdGenerator.parse(string));
+    }
+
+    @Test
+    // It should hash the same seed and keys to the same id
+    public void testIdOf() {
+        long id = IdGenerator.idOf(42, 1, 2);
+        assertTrue(IdGenerator.isCompact(id));
+        assertEquals(id, IdGenerator.idOf(42, 1, 2));
+        assertNotEquals(id, IdGenerator.idOf(42, 2, 1));
+        assertNotEquals(id, IdGenerator.idOf(43, 1, 2));
+        assertNotEquals(id, IdGenerator.idOf(42, 1));
+    }
+
+    @Test
+    // It should not generate duplicate ids
+    public void testUnique() {
+        int populations = 1000;
+        int size = 1000;
+        long[] ids = new long[populations * size];
+        Random r = new Random(0);
+        int n = 0;
+        for (int p = 0; p < populations; p++) {
+            long seed = r.nextLong();
+            long salt = r.nextLong();
+            for (int i = 0; i < size; i++) {
+                switch (i % 3) {
+                    case 0:
+                        ids[n++] = IdGenerator.idOf(seed, i);
+                        break;
+                    case 1:
+                        // a mutant of the previous individual
+                        ids[n++] = IdGenerator.idOf(r.nextLong(), ids[n - 2]);
+                        break;
+                    default:
+                        // an offspring of the two previous individuals
+                        ids[n++] = IdGenerator.idOf(salt, ids[n - 3], ids[n - 2], i & 1);
+                }
+            }
+        }
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(IdGenerator.isCompact(ids[i]));
+            assertNotEquals(ids[i - 1], ids[i]);
+        }
+    }
+
+    @Test
+    // It should order the ids like their strings
+    public void testOrder() {
+        String[] ids = {"00000000000", "0000000000Z", "0000000000a", "0Zzzzzzzzzz", "1000000000a", "9zzzzzzzzzz", "A0000000000"};
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i - 1].compareTo(ids[i]) < 0);
+            assertTrue(IdGenerator.parse(ids[i - 1]) < IdGenerator.parse(ids[i]));
+            assertEquals(ids[i], IdGenerator.toString(IdGenerator.parse(ids[i])));
+        }
+    }
+
+    @Test
+    // It should hash the ids that are not compact
+    public void testParseNotCompact() {
+        for (String id : new String[]{"testIndividual", "p1", "22Pbd7", "0000000000-", "zzzzzzzzzzz", "22Pbd7.a-c"}) {
+            long parsed = IdGenerator.parse(id);
+            assertFalse(IdGenerator.isCompact(parsed));
+            assertEquals(parsed, IdGenerator.parse(id));
+        }
+        assertNotEquals(IdGenerator.parse("p1"), IdGenerator.parse("p2"));
+    }
+
+    @Test
+    // It should parse the string of a hashed id back to the id
+    public void testParseHashed() {
+        for (String id : new String[]{"testIndividual", "p1", "22Pbd7.a-c"}) {
+            long parsed = IdGenerator.parse(id);
+            assertEquals(parsed, IdGenerator.parse(IdGenerator.toString(parsed)));
+        }
+    }
+}
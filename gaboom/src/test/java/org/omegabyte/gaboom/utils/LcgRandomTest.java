@@ -0,0 +1,38 @@
+package org.omegabyte.gaboom.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LcgRandomTest {
+
+    @Test
+    // It should draw the same values as java.util.Random
+    public void testSameAsRandom() {
+        for (long seed : new long[]{0, 1, -7, 4804307197456638271L}) {
+            Random expected = new Random(seed);
+            Random actual = new LcgRandom(seed);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(expected.nextLong(), actual.nextLong());
+                assertEquals(expected.nextInt(), actual.nextInt());
+                assertEquals(expected.nextInt(i + 1), actual.nextInt(i + 1));
+                assertEquals(expected.nextDouble(), actual.nextDouble(), 0);
+                assertEquals(expected.nextGaussian(), actual.nextGaussian(), 0);
+                assertEquals(expected.nextBoolean(), actual.nextBoolean());
+            }
+        }
+    }
+
+    @Test
+    // It should restart the sequence when reseeded
+    public void testSetSeed() {
+        Random random = new LcgRandom(3);
+        long first = random.nextLong();
+        random.nextGaussian();
+        random.setSeed(3);
+        assertEquals(first, random.nextLong());
+        assertEquals(new Random(3).nextInt(10), new LcgRandom(3).nextInt(10));
+    }
+}
@@ -0,0 +1,148 @@
+package org.omegabyte.gaboom.utils;
+
+import org.apache.beam.sdk.state.StateSpec;
+import org.apache.beam.sdk.state.StateSpecs;
+import org.apache.beam.sdk.state.ValueState;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.DoFnTester;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.TupleTag;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LocalFnTest {
+    static final TupleTag<Integer> lengthTT = new TupleTag<>();
+
+    static class RepeatFn extends DoFn<String, String> {
+        static boolean setup = false;
+        static boolean teardown = false;
+
+        @Setup
+        public void setup() {
+            setup = true;
+        }
+
+        @Teardown
+        public void teardown() {
+            teardown = true;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(c.element());
+            c.output(c.element() + c.element());
+            c.output(lengthTT, c.element().length());
+        }
+    }
+
+    @Test
+    public void testLocalFn() {
+        LocalFn<String, String> localFn = new LocalFn<>(new RepeatFn());
+        localFn.setup();
+        assertTrue(RepeatFn.setup);
+
+        List<String> result = localFn.process("ab", null, null);
+        assertEquals(Arrays.asList("ab", "abab"), result);
+        result = localFn.process("c", null, null);
+        assertEquals(Arrays.asList("c", "cc"), result);
+
+        localFn.teardown();
+        assertTrue(RepeatFn.teardown);
+    }
+
+    @Test
+    // It should collect the outputs of the additional tag
+    public void testLocalFnAdditionalOutputs() {
+        LocalFn<String, String> localFn = new LocalFn<>(new RepeatFn());
+        localFn.setup();
+
+        List<Integer> lengths = new ArrayList<>();
+        assertEquals(Arrays.asList("ab", "abab"), localFn.process("ab", null, null, lengthTT, lengths));
+        assertEquals(Collections.singletonList(2), lengths);
+        localFn.teardown();
+    }
+
+    static class BundleFn extends DoFn<String, String> {
+        static int started = 0;
+        static int finished = 0;
+
+        @StartBundle
+        public void startBundle() {
+            started++;
+        }
+
+        @FinishBundle
+        public void finishBundle() {
+            finished++;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            c.output(c.element() + started);
+        }
+    }
+
+    static class HostFn extends DoFn<String, String> {
+        private final LocalFn<String, String> fn = new LocalFn<>(new BundleFn());
+
+        @Setup
+        public void setup() {
+            fn.setup();
+        }
+
+        @Teardown
+        public void teardown() {
+            fn.teardown();
+        }
+
+        @StartBundle
+        public void startBundle(StartBundleContext c) {
+            fn.startBundle(c);
+        }
+
+        @FinishBundle
+        public void finishBundle(FinishBundleContext c) {
+            fn.finishBundle(c);
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c, BoundedWindow window) {
+            fn.process(c.element(), c, window).forEach(c::output);
+        }
+    }
+
+    static class StateFn extends DoFn<KV<String, String>, String> {
+        @StateId("count")
+        private final StateSpec<ValueState<Integer>> countSpec = StateSpecs.value();
+
+        @ProcessElement
+        public void processElement(ProcessContext c, @StateId("count") ValueState<Integer> count) {
+            c.output(c.element().getValue());
+        }
+    }
+
+    @Test
+    // It should forward the bundles of the host to the wrapped fn
+    public void testBundles() throws Exception {
+        BundleFn.started = 0;
+        BundleFn.finished = 0;
+        DoFnTester<String, String> fnTester = DoFnTester.of(new HostFn());
+        assertEquals(Arrays.asList("a1", "b1"), fnTester.processBundle("a", "b"));
+        assertEquals(1, BundleFn.started);
+        assertEquals(1, BundleFn.finished);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    // It should reject the fns with state
+    public void testRejectState() {
+        new LocalFn<>(new StateFn());
+    }
+}
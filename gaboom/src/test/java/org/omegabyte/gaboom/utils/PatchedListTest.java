@@ -0,0 +1,94 @@
+package org.omegabyte.gaboom.utils;
+
+import org.apache.beam.sdk.util.SerializableUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatchedListTest {
+    private static List<Integer> range(int n) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    // It should replace the patched elements and share the others
+    public void testPatchedList() {
+        List<Integer> base = range(20);
+        List<Integer> patched = PatchedList.of(base, Collections.singletonMap(3, 30));
+        assertTrue(patched instanceof PatchedList);
+        assertEquals(20, patched.size());
+        assertEquals(30, (int) patched.get(3));
+        assertEquals(4, (int) patched.get(4));
+        assertEquals(3, (int) base.get(3));
+
+        List<Integer> expected = range(20);
+        expected.set(3, 30);
+        assertEquals(expected, patched);
+        assertEquals(expected, SerializableUtils.clone((PatchedList<Integer>) patched));
+    }
+
+    @Test
+    // It should patch the base list instead of nesting the views
+    public void testPatchedListOfPatchedList() {
+        List<Integer> base = range(20);
+        List<Integer> first = PatchedList.of(base, Collections.singletonMap(3, 30));
+        List<Integer> second = PatchedList.of(first, Collections.singletonMap(5, 50));
+        assertEquals(30, (int) second.get(3));
+        assertEquals(50, (int) second.get(5));
+        assertEquals(5, (int) first.get(5));
+
+        // 3 patches out of 20 is above 1/MAX_PATCH_RATIO
+        List<Integer> third = PatchedList.of(second, Collections.singletonMap(7, 70));
+        assertFalse(third instanceof PatchedList);
+        assertEquals(Arrays.asList(30, 50, 70), Arrays.asList(third.get(3), third.get(5), third.get(7)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    // It should refuse to patch outside of the list
+    public void testPatchedListOutOfBounds() {
+        Map<Integer, Integer> patches = new HashMap<>();
+        patches.put(20, 0);
+        PatchedList.of(range(20), patches);
+    }
+
+    @Test
+    // It should be modified without changing the lists it shares
+    public void testPatchedListCopyOnWrite() {
+        List<Integer> base = range(20);
+        List<Integer> patched = PatchedList.of(base, Collections.singletonMap(3, 30));
+        List<Integer> other = PatchedList.of(patched, Collections.singletonMap(5, 50));
+
+        assertEquals(30, (int) patched.set(3, 31));
+        assertEquals(31, (int) patched.get(3));
+        patched.add(20);
+        patched.remove(0);
+        patched.sort(Collections.reverseOrder());
+        assertEquals(20, patched.size());
+        assertEquals(31, (int) patched.get(0));
+        assertEquals(20, (int) patched.get(1));
+
+        assertEquals(range(20), base);
+        assertEquals(30, (int) other.get(3));
+        assertEquals(50, (int) other.get(5));
+        assertEquals(20, other.size());
+
+        // the list of its own is copied again once it is shared
+        List<Integer> shared = PatchedList.of(patched, Collections.singletonMap(0, 0));
+        patched.add(21);
+        assertEquals(20, shared.size());
+        assertEquals(0, (int) shared.get(0));
+    }
+}
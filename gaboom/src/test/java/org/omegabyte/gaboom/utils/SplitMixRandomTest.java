@@ -0,0 +1,71 @@
+package org.omegabyte.gaboom.utils;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SplitMixRandomTest {
+
+    @Test
+    // It should be deterministic for a seed
+    public void testDeterministic() {
+        Random r1 = new SplitMixRandom(42);
+        Random r2 = new SplitMixRandom(42);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(r1.nextLong(), r2.nextLong());
+            assertEquals(r1.nextInt(i + 1), r2.nextInt(i + 1));
+            assertEquals(r1.nextDouble(), r2.nextDouble(), 0);
+            assertEquals(r1.nextGaussian(), r2.nextGaussian(), 0);
+        }
+        r1.setSeed(7);
+        r2 = new SplitMixRandom(7);
+        assertEquals(r2.nextLong(), r1.nextLong());
+    }
+
+    @Test
+    // It should stay within the requested bounds
+    public void testBounds() {
+        Random random = new SplitMixRandom(0);
+        int[] counts = new int[5];
+        for (int i = 0; i < 10000; i++) {
+            double d = random.nextDouble();
+            assertTrue(d >= 0 && d < 1);
+            float f = random.nextFloat();
+            assertTrue(f >= 0 && f < 1);
+            counts[random.nextInt(5)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 1800 && count < 2200);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBound() {
+        new SplitMixRandom(0).nextInt(0);
+    }
+
+    @Test
+    // It should derive distinct streams depending only on the seed and the keys
+    public void testSplit() {
+        Set<Long> seeds = new HashSet<>();
+        for (long generation = 0; generation < 10; generation++) {
+            for (long population = 0; population < 10; population++) {
+                for (long index = 0; index < 10; index++) {
+                    seeds.add(SplitMixRandom.split(0, generation, population, index));
+                }
+            }
+        }
+        assertEquals(1000, seeds.size());
+
+        assertEquals(SplitMixRandom.split(5, 1, 2), SplitMixRandom.split(5, 1, 2));
+        assertNotEquals(SplitMixRandom.split(5, 1, 2), SplitMixRandom.split(5, 2, 1));
+        assertNotEquals(SplitMixRandom.split(5), SplitMixRandom.split(5, 0));
+        assertEquals(SplitMixRandom.of(5, 1, 2).nextLong(), new SplitMixRandom(SplitMixRandom.split(5, 1, 2)).nextLong());
+    }
+}